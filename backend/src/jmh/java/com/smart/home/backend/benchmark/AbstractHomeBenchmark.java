@@ -0,0 +1,45 @@
+package com.smart.home.backend.benchmark;
+
+import com.smart.home.backend.service.session.HomeSession;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Base state of the benchmarks, holding a synthetic home of the benchmarked size.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class AbstractHomeBenchmark {
+	
+	@Param({"10", "1000", "10000", "100000"})
+	protected int rooms;
+	
+	protected ScheduledExecutorService executor;
+	protected HomeSession home;
+	
+	@Setup(Level.Trial)
+	public void createHome() throws IOException {
+		this.executor = Executors.newSingleThreadScheduledExecutor();
+		this.home = SyntheticHome.create(this.rooms, this.executor);
+	}
+	
+	@TearDown(Level.Trial)
+	public void closeHome() {
+		this.home.close();
+		this.executor.shutdownNow();
+	}
+	
+}
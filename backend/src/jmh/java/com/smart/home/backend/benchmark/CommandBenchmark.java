@@ -0,0 +1,73 @@
+package com.smart.home.backend.benchmark;
+
+import com.smart.home.backend.constant.LightState;
+import com.smart.home.backend.input.RoomLightInput;
+import com.smart.home.backend.input.RoomPersonInput;
+import com.smart.home.backend.model.houselayout.Light;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
+import com.smart.home.backend.model.simulationparameters.module.command.shc.LightManagementCommand;
+import com.smart.home.backend.model.simulationparameters.module.command.shs.AddPersonCommand;
+import com.smart.home.backend.service.ConsoleEvent;
+import com.smart.home.backend.service.OutputConsole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost of executing commands against the last room of the layout, the worst case of the room lookups.
+ * The logged lines are captured so that the console file rewrite does not hide the command itself.
+ */
+public class CommandBenchmark extends AbstractHomeBenchmark {
+	
+	private final AddPersonCommand addPersonCommand = new AddPersonCommand();
+	private final LightManagementCommand lightManagementCommand = new LightManagementCommand();
+	private final List<ConsoleEvent> console = new ArrayList<>();
+	
+	private Room room;
+	private RoomPersonInput personInput;
+	private RoomLightInput lightInput;
+	
+	@Setup(Level.Trial)
+	public void createInputs() {
+		LocationPosition location = new LocationPosition(
+				(this.rooms - 1) / SyntheticHome.ROOMS_PER_ROW,
+				(this.rooms - 1) % SyntheticHome.ROOMS_PER_ROW
+		);
+		this.room = this.home.getHouseLayoutModel().findRoom(location);
+		
+		this.personInput = new RoomPersonInput();
+		this.personInput.setName("Visitor");
+		this.personInput.setLocation(location);
+		
+		this.lightInput = new RoomLightInput();
+		this.lightInput.setAutoMode(false);
+		this.lightInput.setLocation(location);
+	}
+	
+	@Benchmark
+	public Integer addPerson() {
+		this.console.clear();
+		Integer[] personId = new Integer[1];
+		OutputConsole.capture(this.console, () -> {
+			ResponseEntity<Integer> response = this.addPersonCommand.execute(this.home.getHouseLayoutModel(), this.personInput);
+			personId[0] = response.getBody();
+		});
+		this.home.getHouseLayoutModel().removePerson(this.room, personId[0]);
+		return personId[0];
+	}
+	
+	@Benchmark
+	public Light toggleLight() {
+		this.console.clear();
+		Light[] light = new Light[1];
+		this.lightInput.setState(this.room.getLight().getState() == LightState.ON ? LightState.OFF : LightState.ON);
+		OutputConsole.capture(this.console, () -> light[0] = this.lightManagementCommand.execute(this.home.getHouseLayoutModel(), this.lightInput).getBody());
+		return light[0];
+	}
+	
+}
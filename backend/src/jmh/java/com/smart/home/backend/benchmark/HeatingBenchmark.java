@@ -0,0 +1,35 @@
+package com.smart.home.backend.benchmark;
+
+import com.smart.home.backend.constant.RoomHeatingMode;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.heating.RoomTemperatureAdjustment;
+import com.smart.home.backend.service.ConsoleSuppression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cost of adjusting the temperatures of every room of the home, zone by zone, outside of the event delivery.
+ */
+public class HeatingBenchmark extends AbstractHomeBenchmark {
+	
+	private RoomTemperatureAdjustment adjustment;
+	
+	@Setup(Level.Trial)
+	public void createAdjustment() {
+		this.adjustment = new RoomTemperatureAdjustment(
+				LocalDateTime.of(2020, 1, 15, 8, 0), RoomHeatingMode.ZONE, 18.0, 15.0, true, false, 1,
+				new ConsoleSuppression(ConsoleSuppression.DEFAULT_WINDOW_SECONDS)
+		);
+	}
+	
+	@Benchmark
+	public void adjustRoomTemperatures() {
+		for (HeatingZone zone : this.home.getHeatingModel().getZones()) {
+			zone.adjustRoomTemperatures(this.adjustment);
+		}
+	}
+	
+}
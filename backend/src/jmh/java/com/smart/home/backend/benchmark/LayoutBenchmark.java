@@ -0,0 +1,59 @@
+package com.smart.home.backend.benchmark;
+
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Random;
+
+/**
+ * Cost of the house layout lookups the commands go through.
+ */
+public class LayoutBenchmark extends AbstractHomeBenchmark {
+	
+	private static final int NB_LOOKUPS = 1024;
+	
+	private final LocationPosition[] positions = new LocationPosition[NB_LOOKUPS];
+	private final String[] names = new String[NB_LOOKUPS];
+	private int next;
+	
+	@Setup(Level.Trial)
+	public void createLookups() {
+		Random random = new Random(this.rooms);
+		
+		for (int i = 0; i < NB_LOOKUPS; i++) {
+			int room = random.nextInt(this.rooms / SyntheticHome.PERSON_RATIO + 1) * SyntheticHome.PERSON_RATIO % this.rooms;
+			int rowId = room / SyntheticHome.ROOMS_PER_ROW;
+			int roomId = room % SyntheticHome.ROOMS_PER_ROW;
+			this.positions[i] = new LocationPosition(rowId, roomId);
+			this.names[i] = SyntheticHome.personName(rowId, roomId);
+		}
+	}
+	
+	@Benchmark
+	public Room findRoom() {
+		return this.home.getHouseLayoutModel().findRoom(this.positions[this.nextIndex()]);
+	}
+	
+	@Benchmark
+	public boolean isInHousePresent() {
+		return this.home.getHouseLayoutModel().isInHouse(this.names[this.nextIndex()]);
+	}
+	
+	@Benchmark
+	public boolean isInHouseAbsent() {
+		return this.home.getHouseLayoutModel().isInHouse("Nobody");
+	}
+	
+	/**
+	 * Cycles through the precomputed lookups.
+	 * @return Index of the next lookup
+	 */
+	private int nextIndex() {
+		this.next = (this.next + 1) & (NB_LOOKUPS - 1);
+		return this.next;
+	}
+	
+}
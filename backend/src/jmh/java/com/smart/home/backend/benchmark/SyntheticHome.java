@@ -0,0 +1,173 @@
+package com.smart.home.backend.benchmark;
+
+import com.smart.home.backend.constant.Direction;
+import com.smart.home.backend.constant.WindowState;
+import com.smart.home.backend.input.ParametersInput;
+import com.smart.home.backend.input.PersonInput;
+import com.smart.home.backend.model.heating.HeatingModel;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.heating.SeasonDates;
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.model.houselayout.directional.Window;
+import com.smart.home.backend.model.simulationparameters.UserProfiles;
+import com.smart.home.backend.model.simulationparameters.module.Modules;
+import com.smart.home.backend.service.session.HomeSession;
+import com.smart.home.backend.service.userprofile.UserProfileService;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Generator of synthetic homes used by the benchmarks. The layouts are deterministic for a given
+ * number of rooms: rows of ROOMS_PER_ROW rooms, zero to three windows per room, one heating zone
+ * per ROOMS_PER_ZONE rooms and a person in one room out of PERSON_RATIO.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SyntheticHome {
+
+	public static final int ROOMS_PER_ROW = 50;
+	public static final int ROOMS_PER_ZONE = 250;
+	public static final int PERSON_RATIO = 4;
+
+	private static final long SEED = 343L;
+
+	/**
+	 * Creates a home with a stopped clock, its heating on and temperatures that do not trigger freezing warnings.
+	 * @param nbRooms number of rooms
+	 * @param executor executor the home's clock is scheduled on
+	 * @return Created home
+	 * @throws IOException Thrown when the user profiles could not be loaded
+	 */
+	public static HomeSession create(int nbRooms, ScheduledExecutorService executor) throws IOException {
+		HomeSession home = new HomeSession(
+				"benchmark-" + nbRooms,
+				0,
+				executor,
+				new UserProfiles(new UserProfileService()),
+				new Modules()
+		);
+		Random random = new Random(SEED);
+
+		home.getHouseLayoutModel().setRows(createRows(nbRooms, random));
+		createZones(home.getHeatingModel());
+		addPersons(home.getHouseLayoutModel());
+
+		home.getSystemParameters().modifyParameters(
+				new ParametersInput(15.0, 20.0, LocalDateTime.of(2020, 1, 15, 8, 0), 1, new SeasonDates(), 1)
+		);
+		home.getSystemParameters().stopTimer();
+		home.getHeatingModel().setOn(true);
+
+		return home;
+	}
+
+	/**
+	 * Name of the person added to a room.
+	 * @param rowId row's id
+	 * @param roomId room's id
+	 * @return Person's name
+	 */
+	public static String personName(int rowId, int roomId) {
+		return "Person " + rowId + "-" + roomId;
+	}
+
+	/**
+	 * Creates the rows of rooms.
+	 * @param nbRooms number of rooms
+	 * @param random random generator for the windows
+	 * @return Created rows
+	 */
+	private static List<RoomRow> createRows(int nbRooms, Random random) {
+		List<RoomRow> rows = new ArrayList<>();
+		int nbRows = (nbRooms + ROOMS_PER_ROW - 1) / ROOMS_PER_ROW;
+
+		for (int rowId = 0; rowId < nbRows; rowId++) {
+			List<Room> rooms = new ArrayList<>();
+			int nbRowRooms = Math.min(ROOMS_PER_ROW, nbRooms - rowId * ROOMS_PER_ROW);
+
+			for (int roomId = 0; roomId < nbRowRooms; roomId++) {
+				rooms.add(
+						Room.builder()
+								.id(roomId)
+								.name("Room " + rowId + "-" + roomId)
+								.temperature(20.0)
+								.windows(createWindows(random))
+								.build()
+				);
+			}
+
+			RoomRow row = RoomRow.builder().id(rowId).rooms(rooms).build();
+			row.getRoomId().setLastId(rooms.size());
+			rows.add(row);
+		}
+
+		return rows;
+	}
+
+	/**
+	 * Creates zero to three closed windows.
+	 * @param random random generator
+	 * @return Created windows
+	 */
+	private static List<Window> createWindows(Random random) {
+		List<Window> windows = new ArrayList<>();
+		int nbWindows = random.nextInt(4);
+
+		for (int i = 0; i < nbWindows; i++) {
+			windows.add(
+					Window.builder()
+							.id(i)
+							.direction(Direction.values()[i])
+							.state(WindowState.CLOSED)
+							.build()
+			);
+		}
+
+		return windows;
+	}
+
+	/**
+	 * Moves the rooms of the default zone into zones of ROOMS_PER_ZONE rooms.
+	 * @param heatingModel heating model
+	 */
+	private static void createZones(HeatingModel heatingModel) {
+		HeatingZone defaultZone = heatingModel.findZone(0);
+		List<Room> rooms = new ArrayList<>(defaultZone.getRooms());
+
+		for (int start = ROOMS_PER_ZONE; start < rooms.size(); start += ROOMS_PER_ZONE) {
+			HeatingZone zone = HeatingZone.builder()
+					.id(heatingModel.getZoneId().newId())
+					.name("Zone " + start / ROOMS_PER_ZONE)
+					.rooms(new ArrayList<>(rooms.subList(start, Math.min(rooms.size(), start + ROOMS_PER_ZONE))))
+					.build();
+			heatingModel.getZones().add(zone);
+		}
+
+		defaultZone.setRooms(new ArrayList<>(rooms.subList(0, Math.min(rooms.size(), ROOMS_PER_ZONE))));
+	}
+
+	/**
+	 * Adds a person to one room out of PERSON_RATIO.
+	 * @param houseLayoutModel house layout model
+	 */
+	private static void addPersons(HouseLayoutModel houseLayoutModel) {
+		for (RoomRow row : houseLayoutModel.getRows()) {
+			for (Room room : row.getRooms()) {
+				if (room.getId() % PERSON_RATIO == 0) {
+					PersonInput personInput = new PersonInput();
+					personInput.setName(personName(row.getId(), room.getId()));
+					houseLayoutModel.addPerson(room, personInput);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.smart.home.backend.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * End to end cost of a simulation tick: date increment, heating of every room, security and timer wheel,
+ * with the rooms' thermal state in the rooms or in a thermal store.
+ */
+public class TickBenchmark extends AbstractHomeBenchmark {
+	
+	@Param({"false", "true"})
+	private boolean thermalStore;
+	
+	@Setup(Level.Trial)
+	public void startClock() {
+		this.home.getHeatingModel().setThermalStoreEnabled(this.thermalStore);
+		this.home.getSystemParameters().setIncrementing(true);
+	}
+	
+	@Benchmark
+	public void run() {
+		this.home.getDateIncrementTask().run();
+	}
+	
+}
@@ -7,6 +7,10 @@ import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
 import com.smart.home.backend.model.simulationparameters.DateIncrementTask;
 import com.smart.home.backend.model.simulationparameters.SimulationParametersModel;
 import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import com.smart.home.backend.model.simulationparameters.timer.SimulationTimerWheel;
+import com.smart.home.backend.service.ConsoleClock;
+import com.smart.home.backend.service.OutputConsole;
+import com.smart.home.backend.service.stream.SimulationStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 
@@ -25,6 +29,8 @@ public class ListenerConfig {
 	private final SecurityModel securityModel;
 	private final HeatingModel heatingModel;
 	private final DateIncrementTask dateIncrementTask;
+	private final SimulationTimerWheel timerWheel;
+	private final SimulationStream simulationStream;
 	
 	@Autowired
 	public ListenerConfig(
@@ -34,7 +40,9 @@ public class ListenerConfig {
 			SimulationContextModel simulationContextModel,
 			SecurityModel securityModel,
 			HeatingModel heatingModel,
-			DateIncrementTask dateIncrementTask
+			DateIncrementTask dateIncrementTask,
+			SimulationTimerWheel timerWheel,
+			SimulationStream simulationStream
 	) {
 		this.houseLayoutModel = houseLayoutModel;
 		this.simulationParametersModel = simulationParametersModel;
@@ -43,23 +51,67 @@ public class ListenerConfig {
 		this.heatingModel = heatingModel;
 		this.dateIncrementTask = dateIncrementTask;
 		this.systemParameters = systemParameters;
+		this.timerWheel = timerWheel;
+		this.simulationStream = simulationStream;
 	}
 	
 	@PostConstruct
 	public void addListeners() {
-		this.houseLayoutModel.addListener(securityModel);
-		this.houseLayoutModel.addListener(heatingModel);
+		wire(
+				this.houseLayoutModel,
+				this.systemParameters,
+				this.simulationContextModel,
+				this.securityModel,
+				this.heatingModel,
+				this.dateIncrementTask,
+				this.timerWheel,
+				this.simulationStream
+		);
 		
-		this.systemParameters.addListener(securityModel);
-		this.systemParameters.addListener(heatingModel);
+		OutputConsole.setSimulatedTime(this.systemParameters.getDate());
+		ConsoleClock consoleClock = new ConsoleClock();
+		this.systemParameters.addListener(consoleClock);
+		this.dateIncrementTask.addListener(consoleClock);
+	}
+	
+	/**
+	 * Wires the listeners of a home's model graph.
+	 * @param houseLayoutModel house layout model
+	 * @param systemParameters system parameters
+	 * @param simulationContextModel simulation context model
+	 * @param securityModel security model
+	 * @param heatingModel heating model
+	 * @param dateIncrementTask date increment task
+	 * @param timerWheel simulation timer wheel
+	 * @param simulationStream stream of the simulation's changes
+	 */
+	public static void wire(
+			HouseLayoutModel houseLayoutModel,
+			SystemParameters systemParameters,
+			SimulationContextModel simulationContextModel,
+			SecurityModel securityModel,
+			HeatingModel heatingModel,
+			DateIncrementTask dateIncrementTask,
+			SimulationTimerWheel timerWheel,
+			SimulationStream simulationStream
+	) {
+		houseLayoutModel.addListener(securityModel);
+		houseLayoutModel.addListener(heatingModel);
+		houseLayoutModel.addListener(simulationStream);
+		
+		systemParameters.addListener(securityModel);
+		systemParameters.addListener(heatingModel);
 		
-		this.simulationContextModel.addListener(securityModel);
+		simulationContextModel.addListener(securityModel);
 		
-		this.securityModel.addListener(houseLayoutModel);
-		this.securityModel.addListener(heatingModel);
+		securityModel.addListener(houseLayoutModel);
+		securityModel.addListener(heatingModel);
+		securityModel.addListener(simulationStream);
 		
-		this.dateIncrementTask.addListener(securityModel);
-		this.dateIncrementTask.addListener(heatingModel);
+		dateIncrementTask.addListener(securityModel);
+		dateIncrementTask.addListener(heatingModel);
+		dateIncrementTask.addListener(timerWheel);
+		dateIncrementTask.addListener(simulationStream);
 	}
 	
 }
@@ -0,0 +1,55 @@
+package com.smart.home.backend.config;
+
+import com.smart.home.backend.service.util.ModelVersions;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Configuration for the versioning of the model reads.
+ */
+@Configuration
+public class ModelVersionConfig {
+
+	@Bean
+	public WebMvcConfigurer modelVersionConfigurer() {
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(writeInterceptor());
+			}
+		};
+	}
+
+	/**
+	 * Interceptor recording every mutating request once it completed, so that no read tagged before
+	 * the mutation was applied can be confirmed after it.
+	 * @return Write interceptor
+	 */
+	public static HandlerInterceptor writeInterceptor() {
+		return new HandlerInterceptor() {
+			@Override
+			public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+				if (isMutating(request.getMethod())) {
+					ModelVersions.recordWrite();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Whether a request method may mutate the models.
+	 * @param method request method
+	 * @return Whether the method is not a read
+	 */
+	private static boolean isMutating(String method) {
+		return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.smart.home.backend.config;
+
+import com.smart.home.backend.service.OutputConsole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+
+/**
+ * Configuration for the log segment of the output console.
+ */
+@Configuration
+public class OutputConsoleConfig {
+	
+	private final String file;
+	private final long flushIntervalMillis;
+	private final int capacity;
+	
+	public OutputConsoleConfig(
+			@Value("${smarthome.console.file:" + OutputConsole.DEFAULT_FILE + "}") String file,
+			@Value("${smarthome.console.flush-interval-ms:" + OutputConsole.DEFAULT_FLUSH_INTERVAL_MILLIS + "}") long flushIntervalMillis,
+			@Value("${smarthome.console.capacity:" + OutputConsole.DEFAULT_CAPACITY + "}") int capacity
+	) {
+		this.file = file;
+		this.flushIntervalMillis = flushIntervalMillis;
+		this.capacity = capacity;
+	}
+	
+	@PostConstruct
+	public void configure() throws InterruptedException {
+		OutputConsole.configure(Paths.get(this.file), this.flushIntervalMillis, this.capacity);
+	}
+	
+	/**
+	 * Writes the pending console lines before shutting down.
+	 * @throws InterruptedException Thrown when interrupted while waiting
+	 */
+	@PreDestroy
+	public void flush() throws InterruptedException {
+		OutputConsole.flush(this.flushIntervalMillis + 1000);
+	}
+	
+}
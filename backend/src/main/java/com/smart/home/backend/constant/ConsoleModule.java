@@ -0,0 +1,27 @@
+package com.smart.home.backend.constant;
+
+import java.util.Arrays;
+
+/**
+ * Module enum for the output console events.
+ */
+public enum ConsoleModule {
+	
+	SHC,
+	SHP,
+	SHH,
+	SHS;
+	
+	/**
+	 * Retrieves the module of a name.
+	 * @param name module name
+	 * @return Retrieved module. Null if no module has this name
+	 */
+	public static ConsoleModule get(String name) {
+		return Arrays.stream(ConsoleModule.values())
+				.filter(module -> module.name().equals(name))
+				.findFirst()
+				.orElse(null);
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.smart.home.backend.constant;
+
+/**
+ * Severity enum for the output console events.
+ */
+public enum ConsoleSeverity {
+	
+	INFO,
+	WARN
+
+}
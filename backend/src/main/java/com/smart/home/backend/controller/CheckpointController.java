@@ -0,0 +1,66 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.service.checkpoint.CheckpointSummary;
+import com.smart.home.backend.service.checkpoint.SimulationCheckpointService;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Checkpoint Controller
+ */
+@Getter
+@RestController
+public class CheckpointController {
+	
+	private final SimulationCheckpointService checkpointService;
+	
+	@Autowired
+	public CheckpointController(SimulationCheckpointService checkpointService) {
+		this.checkpointService = checkpointService;
+	}
+	
+	/**
+	 * Saving a checkpoint of the simulation.
+	 * @param name checkpoint name
+	 * @return Summary of the checkpoint. Bad request if the name is invalid or the checkpoint could not be written
+	 */
+	@PostMapping("/checkpoint")
+	public ResponseEntity<CheckpointSummary> checkpoint(@RequestParam(defaultValue = "checkpoint") String name) {
+		if (!SimulationCheckpointService.isNameValid(name)) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		try {
+			return new ResponseEntity<>(this.getCheckpointService().checkpoint(name).join(), HttpStatus.OK);
+		} catch (CompletionException e) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+	/**
+	 * Restoring a checkpoint of the simulation.
+	 * @param name checkpoint name
+	 * @return Summary of the restore. Bad request if the name is invalid or the checkpoint could not be read
+	 */
+	@PostMapping("/checkpoint/restore")
+	public ResponseEntity<CheckpointSummary> restore(@RequestParam(defaultValue = "checkpoint") String name) {
+		if (!SimulationCheckpointService.isNameValid(name)) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		try {
+			return new ResponseEntity<>(this.getCheckpointService().restore(name), HttpStatus.OK);
+		} catch (IOException e) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+	}
+	
+}
@@ -0,0 +1,38 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.service.metrics.DeliveryStats;
+import com.smart.home.backend.service.metrics.EventDeliveryMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Event Metrics Controller
+ */
+@RestController
+public class EventMetricsController {
+	
+	/**
+	 * Retrieving the delivery timings of the model events, slowest listeners first.
+	 * @return The delivery statistics
+	 */
+	@GetMapping("metrics/events")
+	public ResponseEntity<List<DeliveryStats>> getEventMetrics() {
+		return new ResponseEntity<>(EventDeliveryMetrics.getStats(), HttpStatus.OK);
+	}
+	
+	/**
+	 * Resetting the delivery timings of the model events.
+	 * @return The cleared delivery statistics
+	 */
+	@DeleteMapping("metrics/events")
+	public ResponseEntity<List<DeliveryStats>> resetEventMetrics() {
+		EventDeliveryMetrics.reset();
+		return new ResponseEntity<>(EventDeliveryMetrics.getStats(), HttpStatus.OK);
+	}
+	
+}
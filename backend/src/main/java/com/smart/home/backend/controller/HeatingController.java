@@ -1,5 +1,7 @@
 package com.smart.home.backend.controller;
 
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.constant.HeatingZonePeriod;
 import com.smart.home.backend.constant.RoomHeatingMode;
 import com.smart.home.backend.input.*;
@@ -10,6 +12,7 @@ import com.smart.home.backend.model.houselayout.Room;
 import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
 import com.smart.home.backend.model.simulationparameters.module.command.shh.*;
 import com.smart.home.backend.service.OutputConsole;
+import com.smart.home.backend.service.util.ModelVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -41,12 +44,12 @@ public class HeatingController {
     }
     
     /**
-     * Retrieving the heating model
-     * @return heating model
+     * Retrieving the heating model, tagged with its state version and the one of the layout holding its rooms
+     * @return heating model. Not modified if the client holds the current tag
      */
     @GetMapping("/heating")
     public ResponseEntity<HeatingModel> getModel() {
-        return new ResponseEntity<>(this.getHeatingModel(), HttpStatus.OK);
+        return ModelVersions.tagged(this.getHeatingModel(), this.getHeatingModel(), this.getHeatingModel().getHouseLayoutModel());
     }
     
     /**
@@ -79,12 +82,12 @@ public class HeatingController {
     }
     
     /**
-     * Retrieving all heating zones
-     * @return found zone
+     * Retrieving all heating zones, tagged like the heating model
+     * @return found zone. Not modified if the client holds the current tag
      */
     @GetMapping("/heating/zones")
     public ResponseEntity<List<HeatingZone>> getHeatingZones() {
-        return new ResponseEntity<>(this.getHeatingModel().getZones(), HttpStatus.OK);
+        return ModelVersions.tagged(this.getHeatingModel().getZones(), this.getHeatingModel(), this.getHeatingModel().getHouseLayoutModel());
     }
     
     /**
@@ -186,7 +189,7 @@ public class HeatingController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         
-        OutputConsole.log("SHH | Removed override for " + foundRoom.getName() + "'s temperature");
+        OutputConsole.log(ConsoleModule.SHH, ConsoleSeverity.INFO, foundRoom, "Removed override for {}'s temperature", foundRoom.getName());
         
         foundRoom.setHeatingMode(this.getHeatingModel().getHeatingMode());
         
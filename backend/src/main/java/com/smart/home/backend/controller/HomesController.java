@@ -0,0 +1,497 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.constant.HeatingZonePeriod;
+import com.smart.home.backend.constant.SimulationState;
+import com.smart.home.backend.input.*;
+import com.smart.home.backend.model.heating.HeatingModel;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.houselayout.PersonPlacement;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.directional.Door;
+import com.smart.home.backend.model.houselayout.directional.Window;
+import com.smart.home.backend.model.security.AwayModeState;
+import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
+import com.smart.home.backend.model.simulationparameters.location.PersonLocationPosition;
+import com.smart.home.backend.model.simulationparameters.location.RoomItemLocationPosition;
+import com.smart.home.backend.service.engine.SimulationRunSummary;
+import com.smart.home.backend.service.session.HomeSession;
+import com.smart.home.backend.service.session.HomeSessionRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Homes Controller. Addresses the simulated homes by id, delegating to the controllers of each home session.
+ * The delta variants of the layout changes, the streamed layout import and the checkpoints are only served
+ * for the default home, as are the user profiles and modules shared by every home.
+ */
+@Getter
+@RestController
+public class HomesController {
+	
+	private final HomeSessionRegistry homeSessionRegistry;
+	
+	@Autowired
+	public HomesController(HomeSessionRegistry homeSessionRegistry) {
+		this.homeSessionRegistry = homeSessionRegistry;
+	}
+	
+	/**
+	 * Creating a home.
+	 * @return Created home
+	 */
+	@PostMapping("/homes")
+	public ResponseEntity<HomeSession> createHome() {
+		return new ResponseEntity<>(this.getHomeSessionRegistry().create(), HttpStatus.OK);
+	}
+	
+	/**
+	 * Retrieving all homes.
+	 * @return Existing homes
+	 */
+	@GetMapping("/homes")
+	public ResponseEntity<Collection<HomeSession>> getHomes() {
+		return new ResponseEntity<>(this.getHomeSessionRegistry().findAll(), HttpStatus.OK);
+	}
+	
+	/**
+	 * Deleting a home and stopping its clock.
+	 * @param homeId home id
+	 * @return Deleted home. Bad request if not found
+	 */
+	@DeleteMapping("/homes/{homeId}")
+	public ResponseEntity<HomeSession> deleteHome(@PathVariable String homeId) {
+		HomeSession session = this.getHomeSessionRegistry().remove(homeId);
+		
+		if (session == null) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		return new ResponseEntity<>(session, HttpStatus.OK);
+	}
+	
+	/**
+	 * Fetching a home's simulation context.
+	 * @param homeId home id
+	 * @return Home's simulation context
+	 */
+	@GetMapping("/homes/{homeId}/context")
+	public ResponseEntity<SimulationContextModel> getContext(@PathVariable String homeId) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().getContext());
+	}
+	
+	/**
+	 * Toggling a home's simulation state.
+	 * @param homeId home id
+	 * @return New simulation state
+	 */
+	@PutMapping("/homes/{homeId}/context/state")
+	public ResponseEntity<SimulationState> toggleState(@PathVariable String homeId) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().toggleState());
+	}
+	
+	/**
+	 * Running a home's simulation headlessly until a date is reached.
+	 * @param homeId home id
+	 * @param until date at which to stop
+	 * @param step simulated seconds per tick. Uses the configured time step when omitted
+	 * @return Summary of the run
+	 */
+	@PostMapping("/homes/{homeId}/context/run")
+	public ResponseEntity<SimulationRunSummary> runUntil(
+			@PathVariable String homeId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+			@RequestParam(required = false) Integer step
+	) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().runUntil(until, step));
+	}
+	
+	/**
+	 * Modifying a home's system parameters.
+	 * @param homeId home id
+	 * @param parametersInput parameters input
+	 * @return Updated system parameters
+	 */
+	@PutMapping("/homes/{homeId}/context/parameters/sysparams")
+	public ResponseEntity<SystemParameters> modifyParams(@PathVariable String homeId, @RequestBody ParametersInput parametersInput) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().modifyParams(parametersInput));
+	}
+	
+	/**
+	 * Loading a home's layout.
+	 * @param homeId home id
+	 * @param houseLayoutInput input to construct the house layout
+	 * @return Created house layout
+	 */
+	@PostMapping("/homes/{homeId}/layout")
+	public ResponseEntity<HouseLayoutModel> loadLayout(@PathVariable String homeId, @RequestBody HouseLayoutInput houseLayoutInput) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().loadLayout(houseLayoutInput));
+	}
+	
+	/**
+	 * Fetching a home's layout.
+	 * @param homeId home id
+	 * @return Home's house layout
+	 */
+	@GetMapping("/homes/{homeId}/layout")
+	public ResponseEntity<HouseLayoutModel> getLayout(@PathVariable String homeId) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().getLayout());
+	}
+	
+	/**
+	 * Adding a room to a row of a home's layout.
+	 * @param homeId home id
+	 * @param rowId row id
+	 * @param roomInput room input
+	 * @return Updated house layout
+	 */
+	@PostMapping("/homes/{homeId}/layout/rows/{rowId}/rooms")
+	public ResponseEntity<HouseLayoutModel> addRoom(@PathVariable String homeId, @PathVariable int rowId, @RequestBody RoomInput roomInput) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().addRoom(rowId, roomInput));
+	}
+	
+	/**
+	 * Removing a room from a home's layout.
+	 * @param homeId home id
+	 * @param rowId row id
+	 * @param roomId room id
+	 * @return Updated house layout
+	 */
+	@DeleteMapping("/homes/{homeId}/layout/rows/{rowId}/rooms/{roomId}")
+	public ResponseEntity<HouseLayoutModel> removeRoom(@PathVariable String homeId, @PathVariable int rowId, @PathVariable int roomId) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().removeRoom(rowId, roomId));
+	}
+	
+	/**
+	 * Adding a door to a room of a home.
+	 * @param homeId home id
+	 * @param locationPosition room's location
+	 * @param doorInput door input
+	 * @return Updated house layout
+	 */
+	@PostMapping("/homes/{homeId}/layout/rows/{rowId}/rooms/{roomId}/doors")
+	public ResponseEntity<HouseLayoutModel> addDoor(
+			@PathVariable String homeId,
+			LocationPosition locationPosition,
+			@RequestBody DoorInput doorInput
+	) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().addDoor(locationPosition, doorInput));
+	}
+	
+	/**
+	 * Removing a door from a room of a home.
+	 * @param homeId home id
+	 * @param location door's location
+	 * @return Updated house layout
+	 */
+	@DeleteMapping("/homes/{homeId}/layout/rows/{rowId}/rooms/{roomId}/doors/{itemId}")
+	public ResponseEntity<HouseLayoutModel> removeDoor(@PathVariable String homeId, RoomItemLocationPosition location) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().removeDoor(location));
+	}
+	
+	/**
+	 * Changing the state of a door of a home.
+	 * @param homeId home id
+	 * @param location door's location
+	 * @param doorInput door input containing the new state
+	 * @return Updated door
+	 */
+	@PutMapping("/homes/{homeId}/layout/rows/{rowId}/rooms/{roomId}/doors/{itemId}")
+	public ResponseEntity<Door> changeDoorState(
+			@PathVariable String homeId,
+			RoomItemLocationPosition location,
+			@RequestBody DoorInput doorInput
+	) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().changeDoorState(location, doorInput));
+	}
+	
+	/**
+	 * Adding a window to a room of a home.
+	 * @param homeId home id
+	 * @param locationPosition room's location
+	 * @param windowInput window input
+	 * @return Updated house layout
+	 */
+	@PostMapping("/homes/{homeId}/layout/rows/{rowId}/rooms/{roomId}/windows")
+	public ResponseEntity<HouseLayoutModel> addWindow(
+			@PathVariable String homeId,
+			LocationPosition locationPosition,
+			@RequestBody WindowInput windowInput
+	) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().addWindow(locationPosition, windowInput));
+	}
+	
+	/**
+	 * Removing a window from a room of a home.
+	 * @param homeId home id
+	 * @param location window's location
+	 * @return Updated house layout
+	 */
+	@DeleteMapping("/homes/{homeId}/layout/rows/{rowId}/rooms/{roomId}/windows/{itemId}")
+	public ResponseEntity<HouseLayoutModel> removeWindow(@PathVariable String homeId, RoomItemLocationPosition location) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().removeWindow(location));
+	}
+	
+	/**
+	 * Changing the state of a window of a home.
+	 * @param homeId home id
+	 * @param location window's location
+	 * @param windowInput window input containing the new state
+	 * @return Updated window
+	 */
+	@PutMapping("/homes/{homeId}/layout/rows/{rowId}/rooms/{roomId}/windows/{itemId}")
+	public ResponseEntity<Window> changeWindowState(
+			@PathVariable String homeId,
+			RoomItemLocationPosition location,
+			@RequestBody WindowInput windowInput
+	) {
+		return this.delegate(homeId, session -> session.getHouseLayoutController().changeWindowState(location, windowInput));
+	}
+	
+	/**
+	 * Adding a person to a room of a home.
+	 * @param homeId home id
+	 * @param locationPosition room's location
+	 * @param personInput person input
+	 * @return Person's id
+	 */
+	@PostMapping("/homes/{homeId}/context/layout/rows/{rowId}/rooms/{roomId}/persons")
+	public ResponseEntity<Integer> addPersonToRoom(
+			@PathVariable String homeId,
+			LocationPosition locationPosition,
+			@RequestBody RoomPersonInput personInput
+	) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().addPersonToRoom(locationPosition, personInput));
+	}
+	
+	/**
+	 * Adding a person outside a home.
+	 * @param homeId home id
+	 * @param personInput person input
+	 * @return Person's id
+	 */
+	@PostMapping("/homes/{homeId}/context/layout/outside/persons")
+	public ResponseEntity<Integer> addPersonOutside(@PathVariable String homeId, @RequestBody OutsidePersonInput personInput) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().addPersonOutside(personInput));
+	}
+	
+	/**
+	 * Removing a person from outside a home.
+	 * @param homeId home id
+	 * @param location person's location
+	 * @return Home's simulation context
+	 */
+	@DeleteMapping("/homes/{homeId}/context/layout/outside/{name}/persons/{personId}")
+	public ResponseEntity<SimulationContextModel> removePersonOutside(@PathVariable String homeId, PersonLocationPosition location) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().removePersonOutside(location));
+	}
+	
+	/**
+	 * Removing a person from a room of a home.
+	 * @param homeId home id
+	 * @param location person's location
+	 * @return Home's simulation context
+	 */
+	@DeleteMapping("/homes/{homeId}/context/layout/rows/{rowId}/rooms/{roomId}/persons/{itemId}")
+	public ResponseEntity<SimulationContextModel> removePersonFromRoom(@PathVariable String homeId, RoomItemLocationPosition location) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().removePersonFromRoom(location));
+	}
+	
+	/**
+	 * Retrieving where every person of a home is.
+	 * @param homeId home id
+	 * @return Placements of the home's persons
+	 */
+	@GetMapping("/homes/{homeId}/context/layout/persons")
+	public ResponseEntity<List<PersonPlacement>> getPersons(@PathVariable String homeId) {
+		return this.delegate(homeId, session -> session.getSimulationContextController().getPersons());
+	}
+	
+	/**
+	 * Fetching a home's heating model.
+	 * @param homeId home id
+	 * @return Home's heating model
+	 */
+	@GetMapping("/homes/{homeId}/heating")
+	public ResponseEntity<HeatingModel> getHeating(@PathVariable String homeId) {
+		return this.delegate(homeId, session -> session.getHeatingController().getModel());
+	}
+	
+	/**
+	 * Turning a home's heating on or off.
+	 * @param homeId home id
+	 * @param heatingOnInput heating status input
+	 * @return New heating status
+	 */
+	@PutMapping("/homes/{homeId}/heating/on")
+	public ResponseEntity<Boolean> setHeatingOn(@PathVariable String homeId, @RequestBody HeatingOnInput heatingOnInput) {
+		return this.delegate(homeId, session -> session.getHeatingController().setSystemOn(heatingOnInput));
+	}
+	
+	/**
+	 * Adding a heating zone to a home.
+	 * @param homeId home id
+	 * @param heatingZoneInput heating zone input
+	 * @return Created heating zone
+	 */
+	@PostMapping("/homes/{homeId}/heating/zones")
+	public ResponseEntity<HeatingZone> addHeatingZone(@PathVariable String homeId, @RequestBody HeatingZoneInput heatingZoneInput) {
+		return this.delegate(homeId, session -> session.getHeatingController().addHeatingZone(heatingZoneInput));
+	}
+	
+	/**
+	 * Retrieving a home's heating zones.
+	 * @param homeId home id
+	 * @return Home's heating zones
+	 */
+	@GetMapping("/homes/{homeId}/heating/zones")
+	public ResponseEntity<List<HeatingZone>> getHeatingZones(@PathVariable String homeId) {
+		return this.delegate(homeId, session -> session.getHeatingController().getHeatingZones());
+	}
+	
+	/**
+	 * Removing a heating zone from a home.
+	 * @param homeId home id
+	 * @param zoneId zone id
+	 * @return Removed zone's id
+	 */
+	@DeleteMapping("/homes/{homeId}/heating/zones/{zoneId}")
+	public ResponseEntity<Integer> removeHeatingZone(@PathVariable String homeId, @PathVariable Integer zoneId) {
+		return this.delegate(homeId, session -> session.getHeatingController().removeHeatingZone(zoneId));
+	}
+	
+	/**
+	 * Adding a room of a home to a heating zone.
+	 * @param homeId home id
+	 * @param zoneId zone id
+	 * @param heatingZoneRoomInput heating zone room input
+	 * @return Added room
+	 */
+	@PostMapping("/homes/{homeId}/heating/zones/{zoneId}/rooms")
+	public ResponseEntity<Room> addRoomToZone(
+			@PathVariable String homeId,
+			@PathVariable Integer zoneId,
+			@RequestBody HeatingZoneRoomInput heatingZoneRoomInput
+	) {
+		return this.delegate(homeId, session -> session.getHeatingController().addRoomToZone(zoneId, heatingZoneRoomInput));
+	}
+	
+	/**
+	 * Removing a room of a home from its heating zone.
+	 * @param homeId home id
+	 * @param heatingZoneRoomInput heating zone room input
+	 * @return Removed room's id
+	 */
+	@DeleteMapping("/homes/{homeId}/heating/zones/rooms")
+	public ResponseEntity<Integer> deleteRoomFromZone(@PathVariable String homeId, @RequestBody HeatingZoneRoomInput heatingZoneRoomInput) {
+		return this.delegate(homeId, session -> session.getHeatingController().deleteRoomFromZone(heatingZoneRoomInput));
+	}
+	
+	/**
+	 * Setting the temperature of a period of a home's heating zone.
+	 * @param homeId home id
+	 * @param zoneId zone id
+	 * @param period zone period
+	 * @param heatingZoneTemperatureInput heating zone temperature input
+	 * @return New temperature of the period
+	 */
+	@PutMapping("/homes/{homeId}/heating/zones/{zoneId}/periods/{period}/temperature")
+	public ResponseEntity<Double> setZoneTemperature(
+			@PathVariable String homeId,
+			@PathVariable Integer zoneId,
+			@PathVariable HeatingZonePeriod period,
+			@RequestBody HeatingZoneTemperatureInput heatingZoneTemperatureInput
+	) {
+		return this.delegate(homeId, session -> session.getHeatingController().setZoneTemperature(zoneId, period, heatingZoneTemperatureInput));
+	}
+	
+	/**
+	 * Reading the temperature of a room of a home.
+	 * @param homeId home id
+	 * @param locationPosition room's location
+	 * @return Room's temperature
+	 */
+	@GetMapping("/homes/{homeId}/heating/rows/{rowId}/rooms/{roomId}/temperature")
+	public ResponseEntity<Double> readRoomTemperature(@PathVariable String homeId, LocationPosition locationPosition) {
+		return this.delegate(homeId, session -> session.getHeatingController().readRoomTemperature(locationPosition));
+	}
+	
+	/**
+	 * Overriding the temperature of a room of a home.
+	 * @param homeId home id
+	 * @param locationPosition room's location
+	 * @param heatingZoneRoomTemperature room temperature input
+	 * @return Overridden temperature
+	 */
+	@PutMapping("/homes/{homeId}/heating/rows/{rowId}/rooms/{roomId}/temperature")
+	public ResponseEntity<Double> overrideRoomTemperature(
+			@PathVariable String homeId,
+			LocationPosition locationPosition,
+			@RequestBody HeatingZoneRoomTemperatureInput heatingZoneRoomTemperature
+	) {
+		return this.delegate(homeId, session -> session.getHeatingController().overrideRoomTemperature(locationPosition, heatingZoneRoomTemperature));
+	}
+	
+	/**
+	 * Retrieving a home's away mode state.
+	 * @param homeId home id
+	 * @return Whether the away mode is on or not
+	 */
+	@GetMapping("/homes/{homeId}/security/awaymode")
+	public ResponseEntity<Boolean> getAwayMode(@PathVariable String homeId) {
+		return this.delegate(homeId, session -> session.getSecurityController().getAwayMode());
+	}
+	
+	/**
+	 * Activating or deactivating a home's away mode.
+	 * @param homeId home id
+	 * @param awayModeInput away mode input containing the new state
+	 * @return New away mode state, with the summary of the lockdown when it is on
+	 */
+	@PutMapping("/homes/{homeId}/security/awaymode")
+	public ResponseEntity<AwayModeState> setAwayMode(@PathVariable String homeId, @RequestBody AwayModeInput awayModeInput) {
+		return this.delegate(homeId, session -> session.getSecurityController().setAwayMode(awayModeInput));
+	}
+	
+	/**
+	 * Subscribing to the stream of a home's changes.
+	 * @param homeId home id
+	 * @param rate maximum number of pushes per second. Uses the stream's maximum rate when omitted
+	 * @return Event stream
+	 */
+	@GetMapping(value = "/homes/{homeId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> subscribe(@PathVariable String homeId, @RequestParam(required = false) Integer rate) {
+		return this.delegate(homeId, session -> session.getSimulationStreamController().subscribe(rate));
+	}
+	
+	/**
+	 * Delegates a request to the session of a home.
+	 * @param homeId home id
+	 * @param handler request handler
+	 * @param <T> response type
+	 * @return Handler response. Bad request if the home is not found
+	 */
+	private <T> ResponseEntity<T> delegate(String homeId, Function<HomeSession, ResponseEntity<T>> handler) {
+		HomeSession session = this.getHomeSessionRegistry().find(homeId);
+		
+		if (session == null) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		return handler.apply(session);
+	}
+	
+}
@@ -9,7 +9,11 @@ import com.smart.home.backend.model.simulationparameters.location.RoomItemLocati
 import com.smart.home.backend.model.simulationparameters.module.command.shc.DoorManagementCommand;
 import com.smart.home.backend.model.simulationparameters.module.command.shc.LightManagementCommand;
 import com.smart.home.backend.model.simulationparameters.module.command.shc.WindowManagementCommand;
+import com.smart.home.backend.service.importer.LayoutImportException;
+import com.smart.home.backend.service.importer.LayoutImportProgress;
+import com.smart.home.backend.service.importer.StreamingLayoutImporter;
 import com.smart.home.backend.service.mapper.RoomsMapper;
+import com.smart.home.backend.service.util.ModelVersions;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -18,8 +22,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * House Layout Controller
@@ -30,6 +39,7 @@ import java.util.List;
 public class HouseLayoutController {
 	
 	private HouseLayoutModel houseLayoutModel;
+	private final AtomicReference<LayoutImportProgress> layoutImport = new AtomicReference<>();
 	
 	@Autowired
 	public HouseLayoutController(HouseLayoutModel houseLayoutModel) {
@@ -64,12 +74,69 @@ public class HouseLayoutController {
 	}
 	
 	/**
-	 * Fetching the actual house layout model.
-	 * @return Existing house layout model
+	 * Creating a house layout model from a layout streamed in the request body, with the same format
+	 * as for the regular loading. The layout is replaced at once, only if the whole input is valid.
+	 * @param request request holding the layout
+	 * @return Progress of the finished import. Bad request if the layout is invalid, conflict if another import is running
+	 * @throws IOException Thrown when the request body could not be read
+	 */
+	@PostMapping("/layout/stream")
+	public ResponseEntity<LayoutImportProgress> streamLayout(HttpServletRequest request) throws IOException {
+		return this.importLayout(request.getInputStream(), request.getContentLengthLong());
+	}
+	
+	/**
+	 * Creating a house layout model from a streamed layout.
+	 * @param input layout to read
+	 * @param totalBytes size of the layout in bytes, -1 when unknown
+	 * @return Progress of the finished import. Bad request if the layout is invalid, conflict if another import is running
+	 */
+	public ResponseEntity<LayoutImportProgress> importLayout(InputStream input, long totalBytes) {
+		LayoutImportProgress previous = this.getLayoutImport().get();
+		LayoutImportProgress progress = new LayoutImportProgress(totalBytes);
+		
+		if ((previous != null && !previous.isDone()) || !this.getLayoutImport().compareAndSet(previous, progress)) {
+			return new ResponseEntity<>(HttpStatus.CONFLICT);
+		}
+		
+		try {
+			List<RoomRow> roomRows = StreamingLayoutImporter.read(input, progress);
+			this.getHouseLayoutModel().setRows(roomRows);
+			progress.finish(null);
+		} catch (IOException | LayoutImportException e) {
+			progress.finish(e.getMessage());
+			return new ResponseEntity<>(progress, HttpStatus.BAD_REQUEST);
+		} finally {
+			if (!progress.isDone()) {
+				progress.finish("The layout could not be imported");
+			}
+		}
+		
+		return new ResponseEntity<>(progress, HttpStatus.OK);
+	}
+	
+	/**
+	 * Fetching the progress of the last streamed layout import.
+	 * @return Import progress. Bad request if no layout was streamed
+	 */
+	@GetMapping("/layout/stream/progress")
+	public ResponseEntity<LayoutImportProgress> getLayoutImportProgress() {
+		LayoutImportProgress progress = this.getLayoutImport().get();
+		
+		if (progress == null) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		return new ResponseEntity<>(progress, HttpStatus.OK);
+	}
+	
+	/**
+	 * Fetching the actual house layout model, tagged with its state version.
+	 * @return Existing house layout model. Not modified if the client holds the current tag
 	 */
 	@GetMapping("/layout")
 	public ResponseEntity<HouseLayoutModel> getLayout() {
-		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+		return ModelVersions.tagged(this.getHouseLayoutModel(), this.getHouseLayoutModel());
 	}
 	
 	/**
@@ -91,6 +158,22 @@ public class HouseLayoutController {
 		return new ResponseEntity<>(this.getHouseLayoutModel().getAllRooms(), HttpStatus.OK);
 	}
 
+	/**
+	 * Retrieving the changes made to the house layout since a version.
+	 * @param since layout version held by the client
+	 * @return Changes since the version. Gone if the version is too old or unknown, the layout has to be reloaded
+	 */
+	@GetMapping(value = "/layout", params = "since")
+	public ResponseEntity<LayoutDelta> getLayoutChanges(@RequestParam long since) {
+		LayoutDelta delta = this.getHouseLayoutModel().findChangesSince(since);
+		
+		if (delta == null) {
+			return new ResponseEntity<>(HttpStatus.GONE);
+		}
+		
+		return new ResponseEntity<>(delta, HttpStatus.OK);
+	}
+
 	/**
 	 * Adding a room to a row.
 	 * @param rowId row number
@@ -99,16 +182,28 @@ public class HouseLayoutController {
 	 */
 	@PostMapping("layout/rows/{rowId}/rooms")
 	public ResponseEntity<HouseLayoutModel> addRoom(@PathVariable(value = "rowId") int rowId, @RequestBody RoomInput roomInput) {
-
+		return this.toLayout(this.addRoomDelta(rowId, roomInput));
+	}
+	
+	/**
+	 * Adding a room to a row, returning the changes instead of the whole layout.
+	 * @param rowId row number
+	 * @param roomInput new room to add
+	 * @return Changes to the house layout. Bad request if the row does not exist
+	 */
+	@PostMapping(value = "layout/rows/{rowId}/rooms", params = "delta=true")
+	public ResponseEntity<LayoutDelta> addRoomDelta(@PathVariable(value = "rowId") int rowId, @RequestBody RoomInput roomInput) {
 		RoomRow targetRow = houseLayoutModel.findRow(rowId);
 		
 		if (targetRow == null) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 		
-		targetRow.addRoom(roomInput);
-
-		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+		long fromVersion = this.getHouseLayoutModel().getLayoutVersion();
+		Room room = targetRow.addRoom(roomInput);
+		room.setRowId(rowId);
+		
+		return this.changedSince(fromVersion, LayoutChange.add(LayoutChange.roomPath(rowId, room.getId()), room));
 	}
 
 	/**
@@ -119,13 +214,25 @@ public class HouseLayoutController {
 	 */
 	@DeleteMapping("layout/rows/{rowId}/rooms/{roomId}")
 	public ResponseEntity<HouseLayoutModel> removeRoom(@PathVariable(value = "rowId") int rowId, @PathVariable(value = "roomId") int roomId) {
+		return this.toLayout(this.removeRoomDelta(rowId, roomId));
+	}
+	
+	/**
+	 * Deleting a room from a row, returning the changes instead of the whole layout.
+	 * @param rowId row number
+	 * @param roomId room number
+	 * @return Changes to the house layout. Bad request if the room or row does not exist
+	 */
+	@DeleteMapping(value = "layout/rows/{rowId}/rooms/{roomId}", params = "delta=true")
+	public ResponseEntity<LayoutDelta> removeRoomDelta(@PathVariable(value = "rowId") int rowId, @PathVariable(value = "roomId") int roomId) {
 		RoomRow targetRow = this.getHouseLayoutModel().findRow(rowId);
+		long fromVersion = this.getHouseLayoutModel().getLayoutVersion();
 
-		if (targetRow == null || !targetRow.getRooms().removeIf(room -> room.getId() == roomId)) {
+		if (targetRow == null || targetRow.getRooms().removeById(roomId) == null) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 
-		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+		return this.changedSince(fromVersion, LayoutChange.remove(LayoutChange.roomPath(rowId, roomId)));
 	}
 
 	/**
@@ -136,15 +243,29 @@ public class HouseLayoutController {
 	 */
 	@PostMapping("/layout/rows/{rowId}/rooms/{roomId}/doors")
 	public ResponseEntity<HouseLayoutModel> addDoor(LocationPosition locationPosition, @RequestBody DoorInput doorInput) {
+		return this.toLayout(this.addDoorDelta(locationPosition, doorInput));
+	}
+	
+	/**
+	 * Adding a door in a room, returning the changes instead of the whole layout.
+	 * @param locationPosition room's location
+	 * @param doorInput new door to be added
+	 * @return Changes to the house layout. Bad request if no available space in room or if the room, row does not exist
+	 */
+	@PostMapping(value = "/layout/rows/{rowId}/rooms/{roomId}/doors", params = "delta=true")
+	public ResponseEntity<LayoutDelta> addDoorDelta(LocationPosition locationPosition, @RequestBody DoorInput doorInput) {
 		Room targetRoom = this.getHouseLayoutModel().findRoom(locationPosition);
 		
 		if (targetRoom == null || !this.getHouseLayoutModel().isDirectionAvailable(targetRoom, doorInput.getDirection())) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 		
-		targetRoom.addDoor(doorInput);
+		long fromVersion = this.getHouseLayoutModel().getLayoutVersion();
+		Door door = targetRoom.addDoor(doorInput);
 
-		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+		return this.changedSince(fromVersion, LayoutChange.add(
+				LayoutChange.doorPath(locationPosition.getRowId(), locationPosition.getRoomId(), door.getId()), door
+		));
 	}
 	
 	/**
@@ -154,13 +275,26 @@ public class HouseLayoutController {
 	 */
 	@DeleteMapping("/layout/rows/{rowId}/rooms/{roomId}/doors/{itemId}")
 	public ResponseEntity<HouseLayoutModel> removeDoor(RoomItemLocationPosition location) {
+		return this.toLayout(this.removeDoorDelta(location));
+	}
+	
+	/**
+	 * Removing a door from a room, returning the changes instead of the whole layout.
+	 * @param location door's location
+	 * @return Changes to the house layout. Bad request if the door, room, row does not exist
+	 */
+	@DeleteMapping(value = "/layout/rows/{rowId}/rooms/{roomId}/doors/{itemId}", params = "delta=true")
+	public ResponseEntity<LayoutDelta> removeDoorDelta(RoomItemLocationPosition location) {
 		Room targetRoom = this.getHouseLayoutModel().findRoom(location);
+		long fromVersion = this.getHouseLayoutModel().getLayoutVersion();
 
-		if (targetRoom == null || !targetRoom.getDoors().removeIf(door -> door.getId().equals(location.getItemId()))) {
+		if (targetRoom == null || targetRoom.getDoors().removeById(location.getItemId()) == null) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 
-		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+		return this.changedSince(fromVersion, LayoutChange.remove(
+				LayoutChange.doorPath(location.getRowId(), location.getRoomId(), location.getItemId())
+		));
 	}
 
 	/**
@@ -182,15 +316,29 @@ public class HouseLayoutController {
 	 */
 	@PostMapping("/layout/rows/{rowId}/rooms/{roomId}/windows")
 	public ResponseEntity<HouseLayoutModel> addWindow(LocationPosition locationPosition, @RequestBody WindowInput windowInput) {
+		return this.toLayout(this.addWindowDelta(locationPosition, windowInput));
+	}
+	
+	/**
+	 * Adding a window to a room, returning the changes instead of the whole layout.
+	 * @param locationPosition room's location
+	 * @param windowInput new window to be added
+	 * @return Changes to the house layout. Bad request if the room or row does not exist
+	 */
+	@PostMapping(value = "/layout/rows/{rowId}/rooms/{roomId}/windows", params = "delta=true")
+	public ResponseEntity<LayoutDelta> addWindowDelta(LocationPosition locationPosition, @RequestBody WindowInput windowInput) {
 		Room targetRoom = this.getHouseLayoutModel().findRoom(locationPosition);
 		
 		if (targetRoom == null) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 		
-		targetRoom.addWindow(windowInput);
+		long fromVersion = this.getHouseLayoutModel().getLayoutVersion();
+		Window window = targetRoom.addWindow(windowInput);
 		
-		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+		return this.changedSince(fromVersion, LayoutChange.add(
+				LayoutChange.windowPath(locationPosition.getRowId(), locationPosition.getRoomId(), window.getId()), window
+		));
 	}
 	
 	/**
@@ -200,13 +348,26 @@ public class HouseLayoutController {
 	 */
 	@DeleteMapping("/layout/rows/{rowId}/rooms/{roomId}/windows/{itemId}")
 	public ResponseEntity<HouseLayoutModel> removeWindow(RoomItemLocationPosition location) {
+		return this.toLayout(this.removeWindowDelta(location));
+	}
+	
+	/**
+	 * Removing a window from a room, returning the changes instead of the whole layout.
+	 * @param location window's location
+	 * @return Changes to the house layout. Bad request if the window, room, or row does not exist
+	 */
+	@DeleteMapping(value = "/layout/rows/{rowId}/rooms/{roomId}/windows/{itemId}", params = "delta=true")
+	public ResponseEntity<LayoutDelta> removeWindowDelta(RoomItemLocationPosition location) {
 		Room targetRoom = houseLayoutModel.findRoom(location);
+		long fromVersion = this.getHouseLayoutModel().getLayoutVersion();
 
-		if (targetRoom == null || !targetRoom.getWindows().removeIf(window -> window.getId().equals(location.getItemId()))) {
+		if (targetRoom == null || targetRoom.getWindows().removeById(location.getItemId()) == null) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 
-		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+		return this.changedSince(fromVersion, LayoutChange.remove(
+				LayoutChange.windowPath(location.getRowId(), location.getRoomId(), location.getItemId())
+		));
 	}
 
 	/**
@@ -242,4 +403,34 @@ public class HouseLayoutController {
 		return new LightManagementCommand().execute(this.getHouseLayoutModel(), lightInput);
 	}
 	
+	/**
+	 * Records a change made to the layout.
+	 * @param fromVersion layout version before the change
+	 * @param change change made to the layout
+	 * @return Changes since the version before the change, including concurrent ones
+	 */
+	private ResponseEntity<LayoutDelta> changedSince(long fromVersion, LayoutChange change) {
+		long version = this.getHouseLayoutModel().recordChange(change);
+		LayoutDelta delta = this.getHouseLayoutModel().findChangesSince(fromVersion);
+		
+		if (delta == null) {
+			delta = new LayoutDelta(version - 1, version, Collections.singletonList(change));
+		}
+		
+		return new ResponseEntity<>(delta, HttpStatus.OK);
+	}
+	
+	/**
+	 * Replaces the changes of a successful mutation by the whole layout.
+	 * @param delta response of the mutation
+	 * @return Whole layout, or the mutation's error status
+	 */
+	private ResponseEntity<HouseLayoutModel> toLayout(ResponseEntity<LayoutDelta> delta) {
+		if (!delta.getStatusCode().is2xxSuccessful()) {
+			return new ResponseEntity<>(delta.getStatusCode());
+		}
+		
+		return new ResponseEntity<>(this.getHouseLayoutModel(), HttpStatus.OK);
+	}
+	
 }
@@ -1,6 +1,12 @@
 package com.smart.home.backend.controller;
 
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.ConsoleLineInput;
+import com.smart.home.backend.service.ConsoleEvent;
+import com.smart.home.backend.service.ConsoleEventFilter;
+import com.smart.home.backend.service.ConsoleEventPage;
+import com.smart.home.backend.service.ConsolePage;
 import com.smart.home.backend.service.OutputConsole;
 import lombok.Getter;
 import lombok.Setter;
@@ -18,8 +24,11 @@ import java.util.List;
 @RestController
 public class OutputConsoleController {
 	
+	static final int DEFAULT_PAGE_SIZE = 100;
+	static final int MAX_PAGE_SIZE = 1000;
+	
 	/**
-	 * Retrieving the console lines.
+	 * Retrieving the latest console lines, held in memory.
 	 * @return The console lines
 	 */
 	@GetMapping("console/lines")
@@ -27,14 +36,66 @@ public class OutputConsoleController {
 		return new ResponseEntity<>(OutputConsole.getLines(), HttpStatus.OK);
 	}
 	
+	/**
+	 * Retrieving the console lines logged after a sequence number.
+	 * @param after sequence number of the last line held by the client, zero to start from the first line
+	 * @param limit maximum number of lines
+	 * @return Page of lines. Bad request if the sequence number is negative or the limit is not between
+	 * one and the maximum page size
+	 */
+	@GetMapping(value = "console/lines", params = "after")
+	public ResponseEntity<ConsolePage> getLinesAfter(
+			@RequestParam long after,
+			@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit
+	) {
+		if (after < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		return new ResponseEntity<>(OutputConsole.findLinesAfter(after, limit), HttpStatus.OK);
+	}
+	
+	/**
+	 * Retrieving the console events matching a filter logged after a sequence number.
+	 * @param after sequence number of the last event held by the client, zero to start from the first event
+	 * @param limit maximum number of events
+	 * @param module module of the events. Any module when omitted
+	 * @param severity severity of the events. Any severity when omitted
+	 * @param rowId row id of the room the events are about. Any room when omitted
+	 * @param roomId id of the room the events are about. Any room when omitted
+	 * @param zoneId id of the heating zone the events are about. Any zone when omitted
+	 * @return Page of events, with the cursor to pass as after for the next page. Bad request if the sequence
+	 * number is negative, the limit is not between one and the maximum page size or only one of the row and
+	 * room ids is given
+	 */
+	@GetMapping("console/events")
+	public ResponseEntity<ConsoleEventPage> getEvents(
+			@RequestParam(defaultValue = "0") long after,
+			@RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+			@RequestParam(required = false) ConsoleModule module,
+			@RequestParam(required = false) ConsoleSeverity severity,
+			@RequestParam(required = false) Integer rowId,
+			@RequestParam(required = false) Integer roomId,
+			@RequestParam(required = false) Integer zoneId
+	) {
+		if (after < 0 || limit < 1 || limit > MAX_PAGE_SIZE || (rowId == null) != (roomId == null)) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		return new ResponseEntity<>(
+				OutputConsole.findEventsAfter(after, limit, new ConsoleEventFilter(module, severity, rowId, roomId, zoneId)),
+				HttpStatus.OK
+		);
+	}
+	
 	/**
 	 * Logging a line to the output console.
-	 * @return The new line
+	 * @return Line added by the request. Empty if the line repeats the previous one
 	 */
 	@PostMapping("console/lines")
-	public ResponseEntity<List<String>> logLine(@RequestBody ConsoleLineInput input) {
-		OutputConsole.log(input.getLine());
-		return new ResponseEntity<>(OutputConsole.getLines(), HttpStatus.OK);
+	public ResponseEntity<ConsolePage> logLine(@RequestBody ConsoleLineInput input) {
+		ConsoleEvent event = OutputConsole.log(input.getLine());
+		return new ResponseEntity<>(OutputConsole.findLine(event), HttpStatus.OK);
 	}
 	
 }
@@ -3,10 +3,13 @@ package com.smart.home.backend.controller;
 import com.smart.home.backend.constant.SimulationState;
 import com.smart.home.backend.constant.WindowState;
 import com.smart.home.backend.input.*;
+import com.smart.home.backend.model.houselayout.LayoutDelta;
 import com.smart.home.backend.model.houselayout.Person;
+import com.smart.home.backend.model.houselayout.PersonPlacement;
 import com.smart.home.backend.model.houselayout.Room;
 import com.smart.home.backend.model.houselayout.directional.Window;
 import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
+import com.smart.home.backend.model.simulationparameters.SimulationParametersModel;
 import com.smart.home.backend.model.simulationparameters.SystemParameters;
 import com.smart.home.backend.model.simulationparameters.User;
 import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
@@ -15,13 +18,20 @@ import com.smart.home.backend.model.simulationparameters.location.RoomItemLocati
 import com.smart.home.backend.model.simulationparameters.module.command.shc.WindowManagementCommand;
 import com.smart.home.backend.model.simulationparameters.module.command.shs.AddPersonCommand;
 import com.smart.home.backend.model.simulationparameters.module.command.shs.RemovePersonCommand;
+import com.smart.home.backend.service.engine.SimulationEngine;
+import com.smart.home.backend.service.engine.SimulationRunSummary;
+import com.smart.home.backend.service.util.ModelVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Simulation Context Controller
  */
@@ -31,19 +41,30 @@ import lombok.Setter;
 public class SimulationContextController {
 	
 	private SimulationContextModel simulationContextModel;
+	private SimulationEngine simulationEngine;
 
 	@Autowired
-	public SimulationContextController(SimulationContextModel simulationContextModel) {
+	public SimulationContextController(SimulationContextModel simulationContextModel, SimulationEngine simulationEngine) {
 		this.simulationContextModel = simulationContextModel;
+		this.simulationEngine = simulationEngine;
 	}
 	
 	/**
-	 * Fetching the actual simulation context model.
-	 * @return Existing simulation context model
+	 * Fetching the actual simulation context model, tagged with the state versions of its models.
+	 * @return Existing simulation context model. Not modified if the client holds the current tag
 	 */
 	@GetMapping("/context")
 	public ResponseEntity<SimulationContextModel> getContext() {
-		return new ResponseEntity<>(this.getSimulationContextModel(), HttpStatus.OK);
+		SimulationContextModel context = this.getSimulationContextModel();
+		SimulationParametersModel parameters = context.getSimulationParametersModel();
+		
+		return ModelVersions.tagged(
+				context,
+				context,
+				context.getHouseLayoutModel(),
+				parameters,
+				parameters.getSysParams()
+		);
 	}
 	
 	/**
@@ -55,6 +76,30 @@ public class SimulationContextController {
 		return new ResponseEntity<>(this.getSimulationContextModel().toggleState(), HttpStatus.OK);
 	}
 	
+	/**
+	 * Running the simulation headlessly, as fast as possible, until a date is reached.
+	 * @param until date at which to stop
+	 * @param step simulated seconds per tick. Uses the configured time step when omitted
+	 * @return Summary of the run. Bad request if the date is not after the current simulated date
+	 */
+	@PostMapping("/context/run")
+	public ResponseEntity<SimulationRunSummary> runUntil(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+			@RequestParam(required = false) Integer step
+	) {
+		if (!SystemParameters.isTimeStepValid(step)) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		SimulationRunSummary summary = this.getSimulationEngine().runUntil(until, step);
+		
+		if (summary == null) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		return new ResponseEntity<>(summary, HttpStatus.OK);
+	}
+	
 	/**
 	 * Modifying user.
 	 * @param userInput User input
@@ -92,7 +137,7 @@ public class SimulationContextController {
 	public ResponseEntity<SystemParameters> modifyParams(@RequestBody ParametersInput parametersInput) {
 		SystemParameters params = this.getSimulationContextModel().getSimulationParametersModel().getSysParams();
 		
-		if (params == null || parametersInput == null) {
+		if (params == null || parametersInput == null || !SystemParameters.isTimeStepValid(parametersInput.getTimeStep())) {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 		
@@ -142,6 +187,17 @@ public class SimulationContextController {
 		return new RemovePersonCommand().execute(this.getSimulationContextModel(), location);
 	}
 	
+	/**
+	 * Removing a person from outside, returning the changes to the layout instead of the whole context.
+	 * @param location person's location
+	 * @return Changes to the house layout. Bad request if the location or person does not exist
+	 */
+	@DeleteMapping(value = "context/layout/outside/{name}/persons/{personId}", params = "delta=true")
+	public ResponseEntity<LayoutDelta> removePersonOutsideDelta(PersonLocationPosition location) {
+		long fromVersion = this.getSimulationContextModel().getHouseLayoutModel().getLayoutVersion();
+		return this.layoutChangesSince(fromVersion, new RemovePersonCommand().execute(this.getSimulationContextModel(), location));
+	}
+	
 	/**
 	 * Removing a person from a room.
 	 * @param location person's location
@@ -153,6 +209,17 @@ public class SimulationContextController {
 		
 	}
 	
+	/**
+	 * Removing a person from a room, returning the changes to the layout instead of the whole context.
+	 * @param location person's location
+	 * @return Changes to the house layout. Bad request if the room, row or person does not exist
+	 */
+	@DeleteMapping(value = "context/layout/rows/{rowId}/rooms/{roomId}/persons/{itemId}", params = "delta=true")
+	public ResponseEntity<LayoutDelta> removePersonFromRoomDelta(RoomItemLocationPosition location) {
+		long fromVersion = this.getSimulationContextModel().getHouseLayoutModel().getLayoutVersion();
+		return this.layoutChangesSince(fromVersion, new RemovePersonCommand().execute(this.getSimulationContextModel(), location));
+	}
+	
 	/**
 	 * Modifying a person.
 	 * @param location person's location
@@ -167,9 +234,10 @@ public class SimulationContextController {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 		
-		Person foundPerson = targetRoom.getPersons()
+		Person foundPerson = this.getSimulationContextModel().getHouseLayoutModel().findPersons(location.getName())
 				.stream()
-				.filter(person -> person.getName().equals(location.getName()))
+				.filter(placement -> placement.getLocation() == targetRoom)
+				.map(PersonPlacement::getPerson)
 				.findFirst()
 				.orElse(null);
 		
@@ -177,10 +245,35 @@ public class SimulationContextController {
 			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 		}
 		
-		foundPerson.setName(personInput.getName());
+		this.getSimulationContextModel().getHouseLayoutModel().renamePerson(foundPerson, personInput.getName());
 		
 		return new ResponseEntity<>(foundPerson, HttpStatus.OK);
 	}
+	
+	/**
+	 * Retrieving where every person is.
+	 * @return Placements of all the persons
+	 */
+	@GetMapping("context/layout/persons")
+	public ResponseEntity<List<PersonPlacement>> getPersons() {
+		return new ResponseEntity<>(this.getSimulationContextModel().getHouseLayoutModel().findAllPersons(), HttpStatus.OK);
+	}
+	
+	/**
+	 * Retrieving where the persons with a name are.
+	 * @param name persons' name
+	 * @return Placements of the persons. Bad request if nobody has this name
+	 */
+	@GetMapping("context/layout/persons/{name}")
+	public ResponseEntity<List<PersonPlacement>> getPersons(@PathVariable String name) {
+		List<PersonPlacement> placements = this.getSimulationContextModel().getHouseLayoutModel().findPersons(name);
+		
+		if (placements.isEmpty()) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+		
+		return new ResponseEntity<>(placements, HttpStatus.OK);
+	}
         
     /**
      * Blocking a window.
@@ -210,4 +303,24 @@ public class SimulationContextController {
 		return new WindowManagementCommand().execute(this.getSimulationContextModel().getHouseLayoutModel(), unblockedWindowInput);
 	}
 	
+	/**
+	 * Replaces the response of a successful layout mutation by the changes made to the layout since a version.
+	 * @param fromVersion layout version before the mutation
+	 * @param response response of the mutation
+	 * @return Changes to the layout, or the mutation's error status
+	 */
+	private ResponseEntity<LayoutDelta> layoutChangesSince(long fromVersion, ResponseEntity<?> response) {
+		if (!response.getStatusCode().is2xxSuccessful()) {
+			return new ResponseEntity<>(response.getStatusCode());
+		}
+		
+		LayoutDelta delta = this.getSimulationContextModel().getHouseLayoutModel().findChangesSince(fromVersion);
+		
+		if (delta == null) {
+			return new ResponseEntity<>(HttpStatus.GONE);
+		}
+		
+		return new ResponseEntity<>(delta, HttpStatus.OK);
+	}
+	
 }
@@ -137,9 +137,11 @@ public class SimulationParametersController {
         Double insideTemp = parameters.getParametersInput().getInsideTemp();
         Double outsideTemp = parameters.getParametersInput().getOutsideTemp();
         LocalDateTime date = parameters.getParametersInput().getDate();
+        Integer timeStep = parameters.getParametersInput().getTimeStep();
         
         return insideTemp != null && outsideTemp != null && profile != null && !profile.equals("") && date != null
-                && insideTemp > -20 && insideTemp <= 30 && outsideTemp > -60 && outsideTemp < 50;
+                && insideTemp > -20 && insideTemp <= 30 && outsideTemp > -60 && outsideTemp < 50
+                && SystemParameters.isTimeStepValid(timeStep);
     }
 
 }
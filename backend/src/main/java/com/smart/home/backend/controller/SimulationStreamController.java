@@ -0,0 +1,43 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.service.stream.SimulationStream;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Simulation Stream Controller
+ */
+@Getter
+@RestController
+public class SimulationStreamController {
+
+	private final SimulationStream simulationStream;
+
+	@Autowired
+	public SimulationStreamController(SimulationStream simulationStream) {
+		this.simulationStream = simulationStream;
+	}
+
+	/**
+	 * Subscribing to the server-sent events of the simulation's changes: timeIncrement, nbPersonsInside,
+	 * awayMode, rooms, lockdown, temperatures and console, each carrying its latest value.
+	 * @param rate maximum number of pushes per second. Uses the stream's maximum rate when omitted
+	 * @return Event stream. Bad request if the rate is not between one and the stream's maximum rate
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> subscribe(@RequestParam(required = false) Integer rate) {
+		if (!this.getSimulationStream().isRateValid(rate)) {
+			return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+		}
+
+		return new ResponseEntity<>(this.getSimulationStream().subscribe(rate), HttpStatus.OK);
+	}
+
+}
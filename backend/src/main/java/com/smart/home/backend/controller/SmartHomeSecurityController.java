@@ -8,6 +8,7 @@ import com.smart.home.backend.model.simulationparameters.module.command.shp.Auth
 import com.smart.home.backend.model.simulationparameters.module.command.shp.AwayModeHoursManagementCommand;
 import com.smart.home.backend.model.simulationparameters.module.command.shp.AwayModeManagementCommand;
 import com.smart.home.backend.model.security.AwayModeHours;
+import com.smart.home.backend.model.security.AwayModeState;
 import com.smart.home.backend.model.security.SecurityModel;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,10 +51,10 @@ public class SmartHomeSecurityController {
     /**
 	 * Activating or deactivating AwayMode
 	 * @param awayModeInput away mode input containing the new state
-	 * @return New away mode state
+	 * @return New away mode state, with the summary of the lockdown when it is on
 	 */
 	@PutMapping("security/awaymode")
-	public ResponseEntity<Boolean> setAwayMode(@RequestBody AwayModeInput awayModeInput) {
+	public ResponseEntity<AwayModeState> setAwayMode(@RequestBody AwayModeInput awayModeInput) {
 		return new AwayModeManagementCommand().execute(this.getSecurityModel(), awayModeInput);
 	}
 	
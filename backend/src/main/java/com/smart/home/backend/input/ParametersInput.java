@@ -33,4 +33,7 @@ public class ParametersInput {
     @JsonProperty("seasonDates")
     private SeasonDates seasonDates;
     
+    @JsonProperty("timeStep")
+    private Integer timeStep;
+    
 }
@@ -1,11 +1,11 @@
 package com.smart.home.backend.model;
 
 
-import java.beans.PropertyChangeListener;
+import com.smart.home.backend.model.event.ModelListener;
 
 /**
  * Abstract model class.
  */
-public abstract class AbstractBaseModel extends AbstractNotifier implements PropertyChangeListener, BaseModel {
+public abstract class AbstractBaseModel extends AbstractNotifier implements ModelListener, BaseModel {
 
 }
@@ -1,31 +1,143 @@
 package com.smart.home.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventPool;
+import com.smart.home.backend.model.event.ModelEventType;
+import com.smart.home.backend.model.event.ModelListener;
+import com.smart.home.backend.service.metrics.DeliveryHistogram;
+import com.smart.home.backend.service.metrics.EventDeliveryMetrics;
 
-import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract notifier class.
  */
 public abstract class AbstractNotifier {
 	
+	private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+	
+	/**
+	 * Subscriptions indexed by the ordinal of the event type they are for.
+	 */
+	@JsonIgnore
+	private volatile Subscription[][] subscriptions;
+	
+	/**
+	 * Version of the model's state, bumped whenever it fires or receives an event, or is marked as changed.
+	 */
 	@JsonIgnore
-	protected final PropertyChangeSupport support;
+	private final AtomicLong stateVersion = new AtomicLong();
 	
 	/**
 	 * Default constructor.
 	 */
 	protected AbstractNotifier() {
-		this.support = new PropertyChangeSupport(this);
+		this.subscriptions = new Subscription[ModelEventType.values().length][];
+		Arrays.fill(this.subscriptions, NO_SUBSCRIPTIONS);
 	}
 	
 	/**
-	 * Adds a listener to the list of listeners for this model.
+	 * Adds a listener to the list of listeners for this model, for each of its subscribed event types.
 	 * @param listener listener to add
 	 */
-	public void addListener(PropertyChangeListener listener) {
-		this.support.addPropertyChangeListener(listener);
+	public synchronized void addListener(ModelListener listener) {
+		Subscription[][] newSubscriptions = this.subscriptions.clone();
+		
+		for (ModelEventType type : listener.subscriptions()) {
+			Subscription[] typeSubscriptions = newSubscriptions[type.ordinal()];
+			Subscription[] newTypeSubscriptions = Arrays.copyOf(typeSubscriptions, typeSubscriptions.length + 1);
+			newTypeSubscriptions[typeSubscriptions.length] = new Subscription(
+					listener,
+					EventDeliveryMetrics.histogram(this, type.name(), listener)
+			);
+			newSubscriptions[type.ordinal()] = newTypeSubscriptions;
+		}
+		
+		this.subscriptions = newSubscriptions;
+	}
+	
+	/**
+	 * Accessor for the version of the model's state. It only ever increases, so that readers can tell
+	 * whether the state changed since they last read it.
+	 * @return State version
+	 */
+	@JsonIgnore
+	public long getStateVersion() {
+		return this.stateVersion.get();
+	}
+	
+	/**
+	 * Marks the model's state as changed outside of an event, bumping its version.
+	 */
+	public void markChanged() {
+		this.stateVersion.incrementAndGet();
+	}
+	
+	/**
+	 * Fires an event to the listeners subscribed to its type. Nothing is fired when both values
+	 * are non-null and equal. The versions of the model and of the listening models are bumped.
+	 * @param type event type
+	 * @param oldValue previous value
+	 * @param newValue new value
+	 */
+	protected void fire(ModelEventType type, Object oldValue, Object newValue) {
+		if (oldValue != null && oldValue.equals(newValue)) {
+			return;
+		}
+		
+		this.markChanged();
+		Subscription[] typeSubscriptions = this.subscriptions[type.ordinal()];
+		
+		if (typeSubscriptions.length == 0) {
+			return;
+		}
+		
+		ModelEvent event = ModelEventPool.acquire(this, type, oldValue, newValue);
+		
+		try {
+			if (EventDeliveryMetrics.isEnabled()) {
+				for (Subscription subscription : typeSubscriptions) {
+					long start = System.nanoTime();
+					subscription.deliver(event);
+					subscription.histogram.record(System.nanoTime() - start);
+				}
+			} else {
+				for (Subscription subscription : typeSubscriptions) {
+					subscription.deliver(event);
+				}
+			}
+		} finally {
+			ModelEventPool.release(event);
+		}
+	}
+	
+	/**
+	 * Listener subscribed to one event type, along with its delivery histogram.
+	 */
+	private static final class Subscription {
+		
+		private final ModelListener listener;
+		private final DeliveryHistogram histogram;
+		
+		private Subscription(ModelListener listener, DeliveryHistogram histogram) {
+			this.listener = listener;
+			this.histogram = histogram;
+		}
+		
+		/**
+		 * Delivers an event to the listener, bumping its version when it is a model.
+		 * @param event event to deliver
+		 */
+		private void deliver(ModelEvent event) {
+			if (this.listener instanceof AbstractNotifier) {
+				((AbstractNotifier) this.listener).markChanged();
+			}
+			
+			this.listener.onEvent(event);
+		}
+		
 	}
 	
 }
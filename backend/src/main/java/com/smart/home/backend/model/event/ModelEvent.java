@@ -0,0 +1,44 @@
+package com.smart.home.backend.model.event;
+
+import lombok.Getter;
+
+/**
+ * Event fired by a model to its listeners. Instances are pooled and reused once the dispatch
+ * is over, so listeners must not keep a reference to the event itself.
+ */
+@Getter
+public class ModelEvent {
+	
+	private Object source;
+	private ModelEventType type;
+	private Object oldValue;
+	private Object newValue;
+	
+	/**
+	 * Package-private constructor, events are obtained through the pool.
+	 */
+	ModelEvent() {
+	}
+	
+	/**
+	 * Fills the event before dispatching it.
+	 * @param source notifier firing the event
+	 * @param type event type
+	 * @param oldValue previous value
+	 * @param newValue new value
+	 */
+	void set(Object source, ModelEventType type, Object oldValue, Object newValue) {
+		this.source = source;
+		this.type = type;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+	
+	/**
+	 * Clears the references held by the event once it is back in the pool.
+	 */
+	void clear() {
+		this.set(null, null, null, null);
+	}
+	
+}
@@ -0,0 +1,64 @@
+package com.smart.home.backend.model.event;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread pool of events. Dispatches can be nested (a listener firing its own event), so each
+ * thread keeps a small stack of events indexed by the current dispatch depth.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ModelEventPool {
+	
+	private static final int INITIAL_DEPTH = 8;
+	
+	private static final ThreadLocal<ModelEventPool> POOLS = ThreadLocal.withInitial(ModelEventPool::new);
+	
+	private ModelEvent[] events = new ModelEvent[0];
+	private int depth;
+	
+	/**
+	 * Acquires an event for the current thread.
+	 * @param source notifier firing the event
+	 * @param type event type
+	 * @param oldValue previous value
+	 * @param newValue new value
+	 * @return Filled event, to be released once dispatched
+	 */
+	public static ModelEvent acquire(Object source, ModelEventType type, Object oldValue, Object newValue) {
+		ModelEventPool pool = POOLS.get();
+		
+		if (pool.depth == pool.events.length) {
+			pool.grow();
+		}
+		
+		ModelEvent event = pool.events[pool.depth++];
+		event.set(source, type, oldValue, newValue);
+		
+		return event;
+	}
+	
+	/**
+	 * Releases the last acquired event of the current thread.
+	 * @param event event to release
+	 */
+	public static void release(ModelEvent event) {
+		event.clear();
+		POOLS.get().depth--;
+	}
+	
+	/**
+	 * Grows the event stack when dispatches are nested deeper than before.
+	 */
+	private void grow() {
+		int oldLength = this.events.length;
+		this.events = Arrays.copyOf(this.events, Math.max(INITIAL_DEPTH, oldLength * 2));
+		
+		for (int i = oldLength; i < this.events.length; i++) {
+			this.events[i] = new ModelEvent();
+		}
+	}
+	
+}
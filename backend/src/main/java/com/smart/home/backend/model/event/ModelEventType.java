@@ -0,0 +1,21 @@
+package com.smart.home.backend.model.event;
+
+/**
+ * Types of events exchanged between the models.
+ */
+public enum ModelEventType {
+	
+	TIME_INCREMENT,
+	DATE,
+	OUTSIDE_TEMP,
+	SEASON_DATES,
+	TIME_SPEED,
+	SIMULATION_STATE,
+	NB_PERSONS_INSIDE,
+	LIGHT_AWAY_MODE,
+	AWAY_MODE,
+	ROOMS,
+	LOCKDOWN,
+	AWAY_MODE_LIGHTS
+	
+}
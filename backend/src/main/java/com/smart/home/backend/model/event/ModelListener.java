@@ -0,0 +1,22 @@
+package com.smart.home.backend.model.event;
+
+import java.util.Set;
+
+/**
+ * Listener of model events. Only receives the event types it subscribes to.
+ */
+public interface ModelListener {
+	
+	/**
+	 * Event types this listener wants to receive.
+	 * @return Subscribed event types
+	 */
+	Set<ModelEventType> subscriptions();
+	
+	/**
+	 * Handles an event fired by an observed model.
+	 * @param event fired event, only valid for the duration of the call
+	 */
+	void onEvent(ModelEvent event);
+	
+}
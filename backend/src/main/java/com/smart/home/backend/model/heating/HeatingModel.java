@@ -1,24 +1,33 @@
 package com.smart.home.backend.model.heating;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.smart.home.backend.constant.HeatingZonePeriod;
 import com.smart.home.backend.constant.RoomHeatingMode;
 import com.smart.home.backend.input.HeatingZoneInput;
 import com.smart.home.backend.model.AbstractBaseModel;
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
 import com.smart.home.backend.model.houselayout.HouseLayoutModel;
 import com.smart.home.backend.model.houselayout.Room;
 import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
+import com.smart.home.backend.service.ConsoleSuppression;
 import com.smart.home.backend.service.util.IdUtil;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.beans.PropertyChangeEvent;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 
@@ -29,6 +38,9 @@ import java.util.stream.Collectors;
 @Component
 public class HeatingModel extends AbstractBaseModel {
     
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+    public static final boolean DEFAULT_THERMAL_STORE = false;
+    
     @Setter
     @Builder.Default
     private List<HeatingZone> zones = new ArrayList<>();
@@ -52,6 +64,22 @@ public class HeatingModel extends AbstractBaseModel {
     @Builder.Default
     private Boolean summer = false;
     
+    @JsonIgnore
+    @Builder.Default
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    @JsonIgnore
+    @Builder.Default
+    private boolean thermalStoreEnabled = DEFAULT_THERMAL_STORE;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private ThermalZones thermalZones;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final RoomTemperatureAdjustment adjustment = new RoomTemperatureAdjustment();
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final ConsoleSuppression consoleSuppression = new ConsoleSuppression(ConsoleSuppression.DEFAULT_WINDOW_SECONDS);
+    
     private final IdUtil zoneId = new IdUtil();
     private final HouseLayoutModel houseLayoutModel;
     
@@ -187,34 +215,169 @@ public class HeatingModel extends AbstractBaseModel {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        switch(evt.getPropertyName()) {
-            case "timeIncrement":
-                for  (HeatingZone zone : zones) {
-                    LocalDateTime currentTime = (LocalDateTime) evt.getNewValue();
-                    RoomTemperatureAdjustment adjustment = new RoomTemperatureAdjustment(
-                            currentTime, this.getHeatingMode(), this.chooseDefaultSeasonTemperature(currentTime), outsideTemp, this.getOn(), this.getSummer()
-                    );
-                    zone.adjustRoomTemperatures(adjustment);
-                }
+    public Set<ModelEventType> subscriptions() {
+        return EnumSet.of(
+                ModelEventType.TIME_INCREMENT,
+                ModelEventType.SEASON_DATES,
+                ModelEventType.AWAY_MODE,
+                ModelEventType.OUTSIDE_TEMP,
+                ModelEventType.ROOMS
+        );
+    }
+
+    @Override
+    public void onEvent(ModelEvent event) {
+        switch(event.getType()) {
+            case TIME_INCREMENT:
+                LocalDateTime currentTime = (LocalDateTime) event.getNewValue();
+                long stepSeconds = this.computeStepSeconds((LocalDateTime) event.getOldValue(), currentTime);
+                this.adjustTemperatures(currentTime, stepSeconds);
                 break;
-            case "seasonDates":
-                this.setSeasonDates((SeasonDates) evt.getNewValue());
+            case SEASON_DATES:
+                this.setSeasonDates((SeasonDates) event.getNewValue());
                 break;
-            case "awayMode":
-                this.setHeatingMode((Boolean) evt.getNewValue() ? RoomHeatingMode.AWAY : RoomHeatingMode.ZONE);
+            case AWAY_MODE:
+                this.setHeatingMode((Boolean) event.getNewValue() ? RoomHeatingMode.AWAY : RoomHeatingMode.ZONE);
                 break;
-            case "outsideTemp":
-                this.setOutsideTemp((Double) evt.getNewValue());
+            case OUTSIDE_TEMP:
+                this.setOutsideTemp((Double) event.getNewValue());
                 break;
-            case "rooms":
-                this.findZone(0).setRooms((List<Room>) evt.getNewValue());
+            case ROOMS:
+                this.findZone(0).setRooms(new ArrayList<>((List<Room>) event.getNewValue()));
                 break;
             default:
                 break;
         }
     }
     
+    /**
+     * Adjusts the temperature of every room for a tick. The season temperature is computed once,
+     * and the rooms are split across the fork/join pool when there are at least parallelThreshold of them
+     * and no room is in several zones, since two chunks would otherwise adjust the same room at once.
+     * With the thermal store enabled, the rooms' thermal state is adjusted in the store's arrays, and a
+     * sequential tick allocates nothing: the adjustment parameters are refilled and zones are walked by index.
+     * The temperatures belong to the layout's rooms, so the layout is marked as changed. The warnings repeated
+     * on every tick are suppressed over a window of simulated time, whose elapsed windows are summarized first.
+     * @param currentTime time after the tick
+     * @param stepSeconds simulated seconds elapsed during the tick
+     */
+    private void adjustTemperatures(LocalDateTime currentTime, long stepSeconds) {
+        this.getHouseLayoutModel().markChanged();
+        this.consoleSuppression.advance(currentTime);
+        double defaultTemperature = this.chooseDefaultSeasonTemperature(currentTime);
+        RoomTemperatureAdjustment adjustment = this.adjustment;
+        adjustment.update(
+                currentTime,
+                this.getHeatingMode(),
+                defaultTemperature,
+                this.getOutsideTemp(),
+                this.getOn(),
+                this.getSummer(),
+                stepSeconds,
+                this.consoleSuppression
+        );
+        List<HeatingZone> zones = this.getZones();
+        RoomRangeAdjustment rooms = this.currentThermalZones(adjustment);
+        
+        if (rooms == null) {
+            int nbRooms = 0;
+            
+            for (int i = 0; i < zones.size(); i++) {
+                nbRooms += zones.get(i).getRooms().size();
+            }
+            
+            ZoneRoomsAdjustment zoneRooms = nbRooms < this.getParallelThreshold()
+                    ? null
+                    : new ZoneRoomsAdjustment(zones, nbRooms, adjustment);
+            
+            if (zoneRooms == null || !zoneRooms.hasDistinctRooms()) {
+                for (int i = 0; i < zones.size(); i++) {
+                    zones.get(i).adjustRoomTemperatures(adjustment);
+                }
+                return;
+            }
+            
+            rooms = zoneRooms;
+        }
+        
+        if (rooms.size() < this.getParallelThreshold()) {
+            rooms.adjust(0, rooms.size());
+        } else {
+            new ParallelTemperatureAdjustment(rooms).run(ForkJoinPool.commonPool());
+        }
+    }
+    
+    /**
+     * Thermal store of the zones' rooms prepared for a tick, rebuilt when the zones or their rooms changed.
+     * @param adjustment adjustment parameters
+     * @return Prepared thermal zones. Null if the store is disabled or a room is in several zones
+     */
+    private ThermalZones currentThermalZones(RoomTemperatureAdjustment adjustment) {
+        if (!this.isThermalStoreEnabled()) {
+            return null;
+        }
+        
+        if (this.thermalZones == null || !this.thermalZones.matches(this.getZones())) {
+            if (this.thermalZones != null) {
+                this.thermalZones.release();
+            }
+            this.thermalZones = new ThermalZones(this.getZones());
+        }
+        
+        if (!this.thermalZones.isUsable()) {
+            return null;
+        }
+        
+        this.thermalZones.prepare(adjustment);
+        return this.thermalZones;
+    }
+    
+    /**
+     * Mutator for the parallel threshold.
+     * @param parallelThreshold minimum number of rooms for a parallel tick
+     */
+    @Value("${smarthome.heating.parallel-threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}")
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+    
+    /**
+     * Mutator for the window over which the warnings repeated on every tick are suppressed.
+     * @param consoleSuppressionSeconds simulated seconds during which a repeated warning is only counted
+     */
+    @Value("${smarthome.heating.console-suppression-seconds:" + ConsoleSuppression.DEFAULT_WINDOW_SECONDS + "}")
+    public void setConsoleSuppressionSeconds(long consoleSuppressionSeconds) {
+        this.consoleSuppression.setWindowSeconds(consoleSuppressionSeconds);
+    }
+    
+    /**
+     * Mutator for the thermal store. Disabling it copies the thermal state back into the rooms.
+     * @param thermalStoreEnabled whether the tick adjusts the rooms in a thermal store
+     */
+    @Value("${smarthome.heating.thermal-store:" + DEFAULT_THERMAL_STORE + "}")
+    public void setThermalStoreEnabled(boolean thermalStoreEnabled) {
+        this.thermalStoreEnabled = thermalStoreEnabled;
+        
+        if (!thermalStoreEnabled && this.thermalZones != null) {
+            this.thermalZones.release();
+            this.thermalZones = null;
+        }
+    }
+    
+    /**
+     * Computes the number of simulated seconds elapsed during a tick.
+     * @param previousTime time before the tick
+     * @param currentTime time after the tick
+     * @return elapsed seconds, at least one
+     */
+    private long computeStepSeconds(LocalDateTime previousTime, LocalDateTime currentTime) {
+        if (previousTime == null) {
+            return 1;
+        }
+        
+        return Math.max(1, ChronoUnit.SECONDS.between(previousTime, currentTime));
+    }
+    
     /**
      * Choose which season temperature to choose using the current date.
      * @param dateTime current date
@@ -3,11 +3,13 @@ package com.smart.home.backend.model.heating;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.constant.HeatingZonePeriod;
 import com.smart.home.backend.constant.RoomHeatingMode;
 import com.smart.home.backend.model.ModelObject;
 import com.smart.home.backend.model.houselayout.Room;
-import com.smart.home.backend.service.OutputConsole;
+import com.smart.home.backend.service.ConsoleSuppression;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -26,8 +28,8 @@ import java.util.Map;
 @SuperBuilder
 public class HeatingZone extends ModelObject {
 	
-	private static final Double INCREMENT_VALUE_HAVC = 0.1;
-	private static final Double INCREMENT_VALUE = 0.05;
+	private static final double INCREMENT_VALUE_HAVC = 0.1;
+	private static final double INCREMENT_VALUE = 0.05;
 	
 	@Builder.Default
 	private String name = "";
@@ -54,44 +56,89 @@ public class HeatingZone extends ModelObject {
 	 * @param adjustment adjustment parameters
 	 */
 	public void adjustRoomTemperatures(RoomTemperatureAdjustment adjustment) {
-		double targetTemperature = this.determineTargetTemperature(adjustment.getDate(), adjustment.getGlobalHeatingMode(), adjustment.getDefaultTemperature());
-		for (Room room: rooms) {
-			if (!room.getHeatingMode().equals(RoomHeatingMode.OVERRIDDEN)) {
-				adjustTemperature(adjustment, targetTemperature, room);
-			}
-			this.pipeBurstWarning(room);
+		double targetTemperature = this.determineTargetTemperature(adjustment);
+		for (int i = 0; i < rooms.size(); i++) {
+			this.adjustRoomTemperature(adjustment, targetTemperature, rooms.get(i));
+		}
+	}
+	
+	/**
+	 * Adjusts a single room's temperature and warns about freezing pipes.
+	 * @param adjustment adjustment parameters
+	 * @param targetTemperature zone's target temperature
+	 * @param room room to adjust
+	 */
+	void adjustRoomTemperature(RoomTemperatureAdjustment adjustment, double targetTemperature, Room room) {
+		if (!room.getHeatingMode().equals(RoomHeatingMode.OVERRIDDEN)) {
+			adjustTemperature(adjustment, targetTemperature, room);
 		}
+		pipeBurstWarning(room.getTemperature(), this, room, adjustment.getConsoleSuppression());
+	}
+	
+	/**
+	 * Determines the zone's target temperature for an adjustment.
+	 * @param adjustment adjustment parameters
+	 * @return Target temperature
+	 */
+	double determineTargetTemperature(RoomTemperatureAdjustment adjustment) {
+		return this.determineTargetTemperature(adjustment.getDate(), adjustment.getGlobalHeatingMode(), adjustment.getDefaultTemperature());
 	}
 	
 	/**
-	 * The temperature adjustment for a single room.
+	 * The temperature adjustment for a single room. A tick covering several simulated seconds
+	 * moves the temperature by as many increments, without overshooting the temperature it tends to.
 	 * @param adjustment adjustment parameters
 	 * @param targetTemperature target temperature
 	 * @param room room to adjust
 	 */
 	private void adjustTemperature(RoomTemperatureAdjustment adjustment, double targetTemperature, Room room) {
 		if (adjustment.isSystemOn()) {
-			room.adjustRoomSummerBreeze(adjustment.getOutsideTemp(), adjustment.isSummer(), targetTemperature);
+			room.adjustRoomSummerBreeze(adjustment.getOutsideTemp(), adjustment.isSummer(), targetTemperature, adjustment.getConsoleSuppression());
 		}
-		double tempDelta = ((room.getHavc() && adjustment.isSystemOn()) ? targetTemperature : adjustment.getOutsideTemp()) - room.getTemperature();
+		room.setTemperature(nextTemperature(adjustment, targetTemperature, room.getTemperature(), room.getHavc()));
+	}
+	
+	/**
+	 * Computes a room's temperature after a tick.
+	 * @param adjustment adjustment parameters
+	 * @param targetTemperature target temperature
+	 * @param temperature room's temperature before the tick
+	 * @param havc whether the room's HAVC is on
+	 * @return Room's temperature after the tick
+	 */
+	static double nextTemperature(RoomTemperatureAdjustment adjustment, double targetTemperature, double temperature, boolean havc) {
+		double tempDelta = ((havc && adjustment.isSystemOn()) ? targetTemperature : adjustment.getOutsideTemp()) - temperature;
 		int multiplier = 0;
-		double increment = ((room.getHavc() && adjustment.isSystemOn()) ? INCREMENT_VALUE_HAVC : INCREMENT_VALUE);
+		double increment = ((havc && adjustment.isSystemOn()) ? INCREMENT_VALUE_HAVC : INCREMENT_VALUE);
 		if (tempDelta <= -increment) {
 			multiplier = -1;
 		} else if (tempDelta >= increment) {
 			multiplier = 1;
 		}
 		
-		room.setTemperature(room.getTemperature() + multiplier * increment);
+		long steps = Math.max(1, Math.min(adjustment.getStepSeconds(), (long) (Math.abs(tempDelta) / increment)));
+		
+		return temperature + multiplier * steps * increment;
 	}
 	
 	/**
 	 * Writes to the console a message if the is a risk of pipe burst
+	 * @param temperature room's temperature
+	 * @param zone zone of the room
 	 * @param room room to check for risk of pipe burst
+	 * @param consoleSuppression suppression of the warnings repeated on every tick
 	 */
-	private void pipeBurstWarning(Room room) {
-		if (room.getTemperature() <= 0){
-			OutputConsole.log("SHH | WARNING !!! Freezing temperatures in the " + room.getName() + " pipes might burst");
+	static void pipeBurstWarning(double temperature, HeatingZone zone, Room room, ConsoleSuppression consoleSuppression) {
+		if (temperature <= 0){
+			consoleSuppression.log(
+					"Pipe burst warning",
+					ConsoleModule.SHH,
+					ConsoleSeverity.WARN,
+					zone,
+					room,
+					"WARNING !!! Freezing temperatures in the {} pipes might burst",
+					room.getName()
+			);
 		}
 	}
 
@@ -0,0 +1,91 @@
+package com.smart.home.backend.model.heating;
+
+import com.smart.home.backend.service.ConsoleEvent;
+import com.smart.home.backend.service.OutputConsole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Temperature adjustment of all zones split across a fork/join pool. Rooms flattened in zone order
+ * are cut into fixed chunks; the console events of each chunk are buffered and logged in chunk order
+ * once every chunk is done, so the output matches a sequential adjustment.
+ */
+class ParallelTemperatureAdjustment {
+	
+	static final int CHUNK_SIZE = 512;
+	
+	private final RoomRangeAdjustment rooms;
+	private final List<List<ConsoleEvent>> chunkEvents;
+	
+	/**
+	 * 1-parameter constructor.
+	 * @param rooms adjustment of the rooms flattened in zone order
+	 */
+	ParallelTemperatureAdjustment(RoomRangeAdjustment rooms) {
+		this.rooms = rooms;
+		
+		int nbChunks = (rooms.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunkEvents = new ArrayList<>(nbChunks);
+		
+		for (int i = 0; i < nbChunks; i++) {
+			this.chunkEvents.add(new ArrayList<>(0));
+		}
+	}
+	
+	/**
+	 * Adjusts every room on the pool, then logs the buffered console events in order.
+	 * @param pool fork/join pool
+	 */
+	void run(ForkJoinPool pool) {
+		pool.invoke(new ChunkTask(0, this.chunkEvents.size()));
+		
+		for (List<ConsoleEvent> events : this.chunkEvents) {
+			for (ConsoleEvent event : events) {
+				OutputConsole.log(event);
+			}
+		}
+	}
+	
+	/**
+	 * Adjusts the rooms of one chunk.
+	 * @param chunk chunk index
+	 */
+	private void adjustChunk(int chunk) {
+		int from = chunk * CHUNK_SIZE;
+		int to = Math.min(this.rooms.size(), from + CHUNK_SIZE);
+		
+		OutputConsole.capture(this.chunkEvents.get(chunk), () -> this.rooms.adjust(from, to));
+	}
+	
+	/**
+	 * Task splitting a range of chunks in halves until a single chunk is left.
+	 */
+	private class ChunkTask extends RecursiveAction {
+		
+		private final int fromChunk;
+		private final int toChunk;
+		
+		private ChunkTask(int fromChunk, int toChunk) {
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+		}
+		
+		@Override
+		protected void compute() {
+			if (this.toChunk - this.fromChunk <= 1) {
+				if (this.toChunk > this.fromChunk) {
+					adjustChunk(this.fromChunk);
+				}
+				return;
+			}
+			
+			int middle = (this.fromChunk + this.toChunk) >>> 1;
+			invokeAll(new ChunkTask(this.fromChunk, middle), new ChunkTask(middle, this.toChunk));
+		}
+		
+	}
+	
+}
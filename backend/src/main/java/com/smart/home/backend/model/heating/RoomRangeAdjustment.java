@@ -0,0 +1,21 @@
+package com.smart.home.backend.model.heating;
+
+/**
+ * Temperature adjustment of rooms flattened in zone order, which can be applied to any range of rooms.
+ */
+interface RoomRangeAdjustment {
+	
+	/**
+	 * Number of rooms to adjust.
+	 * @return Number of rooms
+	 */
+	int size();
+	
+	/**
+	 * Adjusts a range of rooms.
+	 * @param from first room index, inclusive
+	 * @param to last room index, exclusive
+	 */
+	void adjust(int from, int to);
+	
+}
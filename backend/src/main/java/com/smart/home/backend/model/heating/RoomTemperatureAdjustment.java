@@ -1,20 +1,59 @@
 package com.smart.home.backend.model.heating;
 
 import com.smart.home.backend.constant.RoomHeatingMode;
+import com.smart.home.backend.service.ConsoleSuppression;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Parameters of a tick's temperature adjustment. The heating model refills a single instance every tick.
+ */
 @Getter
+@NoArgsConstructor
 @AllArgsConstructor
 public class RoomTemperatureAdjustment {
 	
-	private final LocalDateTime date;
-	private final RoomHeatingMode globalHeatingMode;
-	private final double defaultTemperature;
-	private final double outsideTemp;
-	private final boolean systemOn;
-	private final boolean summer;
+	private LocalDateTime date;
+	private RoomHeatingMode globalHeatingMode;
+	private double defaultTemperature;
+	private double outsideTemp;
+	private boolean systemOn;
+	private boolean summer;
+	private long stepSeconds;
+	private ConsoleSuppression consoleSuppression;
+	
+	/**
+	 * Refills the parameters for a new tick.
+	 * @param date current date
+	 * @param globalHeatingMode the system's current global heating mode
+	 * @param defaultTemperature default temperature for AWAY mode
+	 * @param outsideTemp outside temperature
+	 * @param systemOn whether the heating system is on
+	 * @param summer whether it is summer
+	 * @param stepSeconds simulated seconds elapsed during the tick
+	 * @param consoleSuppression suppression of the warnings repeated on every tick
+	 */
+	void update(
+			LocalDateTime date,
+			RoomHeatingMode globalHeatingMode,
+			double defaultTemperature,
+			double outsideTemp,
+			boolean systemOn,
+			boolean summer,
+			long stepSeconds,
+			ConsoleSuppression consoleSuppression
+	) {
+		this.date = date;
+		this.globalHeatingMode = globalHeatingMode;
+		this.defaultTemperature = defaultTemperature;
+		this.outsideTemp = outsideTemp;
+		this.systemOn = systemOn;
+		this.summer = summer;
+		this.stepSeconds = stepSeconds;
+		this.consoleSuppression = consoleSuppression;
+	}
 	
 }
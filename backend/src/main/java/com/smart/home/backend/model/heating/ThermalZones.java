@@ -0,0 +1,172 @@
+package com.smart.home.backend.model.heating;
+
+import com.smart.home.backend.constant.RoomHeatingMode;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.ThermalStore;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rooms of the heating zones bound to a thermal store, in zone order, with the zone of each room.
+ * The adjustment reads and writes the thermal state in the store's arrays, and only goes through
+ * the rooms for their windows and names. The snapshot of the zones tells when it must be rebuilt.
+ */
+class ThermalZones implements RoomRangeAdjustment {
+
+	private final HeatingZone[] zones;
+	private final Room[] rooms;
+	private final int[] zoneOffsets;
+	private final int[] roomZoneIndexes;
+	private final double[] zoneTargets;
+	@Nullable
+	private final ThermalStore store;
+	private RoomTemperatureAdjustment adjustment;
+
+	/**
+	 * 1-parameter constructor, binding the rooms of the zones to a new thermal store.
+	 * @param zones heating zones
+	 */
+	ThermalZones(List<HeatingZone> zones) {
+		this.zones = zones.toArray(new HeatingZone[0]);
+		this.zoneOffsets = new int[this.zones.length + 1];
+		this.zoneTargets = new double[this.zones.length];
+
+		List<Room> rooms = new ArrayList<>();
+
+		for (int zoneIndex = 0; zoneIndex < this.zones.length; zoneIndex++) {
+			rooms.addAll(this.zones[zoneIndex].getRooms());
+			this.zoneOffsets[zoneIndex + 1] = rooms.size();
+		}
+
+		this.rooms = rooms.toArray(new Room[0]);
+		this.roomZoneIndexes = new int[rooms.size()];
+
+		for (int zoneIndex = 0; zoneIndex < this.zones.length; zoneIndex++) {
+			for (int i = this.zoneOffsets[zoneIndex]; i < this.zoneOffsets[zoneIndex + 1]; i++) {
+				this.roomZoneIndexes[i] = zoneIndex;
+			}
+		}
+
+		this.store = createStore(rooms);
+	}
+
+	/**
+	 * Whether the rooms could be bound to a store. A room in several zones is adjusted once per zone,
+	 * which a single slot per room cannot express.
+	 * @return Whether the store can be used
+	 */
+	boolean isUsable() {
+		return this.store != null;
+	}
+
+	/**
+	 * Whether the zones and their rooms are still the ones the store was built from.
+	 * @param zones current heating zones
+	 * @return Whether the store is up to date
+	 */
+	boolean matches(List<HeatingZone> zones) {
+		if (zones.size() != this.zones.length) {
+			return false;
+		}
+
+		for (int zoneIndex = 0; zoneIndex < this.zones.length; zoneIndex++) {
+			HeatingZone zone = zones.get(zoneIndex);
+			int offset = this.zoneOffsets[zoneIndex];
+
+			if (zone != this.zones[zoneIndex]) {
+				return false;
+			}
+
+			List<Room> rooms = zone.getRooms();
+
+			if (rooms.size() != this.zoneOffsets[zoneIndex + 1] - offset) {
+				return false;
+			}
+
+			for (int i = 0; i < rooms.size(); i++) {
+				if (rooms.get(i) != this.rooms[offset + i]) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Prepares the adjustment of a tick, determining the target temperature of each zone.
+	 * @param adjustment adjustment parameters
+	 */
+	void prepare(RoomTemperatureAdjustment adjustment) {
+		this.adjustment = adjustment;
+
+		for (int zoneIndex = 0; zoneIndex < this.zones.length; zoneIndex++) {
+			this.zoneTargets[zoneIndex] = this.zones[zoneIndex].determineTargetTemperature(adjustment);
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.roomZoneIndexes.length;
+	}
+
+	@Override
+	public void adjust(int from, int to) {
+		ThermalStore thermalStore = this.store;
+		RoomTemperatureAdjustment tick = this.adjustment;
+		boolean systemOn = tick.isSystemOn();
+
+		for (int i = from; i < to; i++) {
+			Room room = this.rooms[i];
+			double temperature = thermalStore.getTemperature(i);
+
+			if (!thermalStore.hasHeatingMode(i, RoomHeatingMode.OVERRIDDEN)) {
+				double targetTemperature = this.zoneTargets[this.roomZoneIndexes[i]];
+				boolean havc = thermalStore.isHavc(i);
+
+				if (systemOn) {
+					boolean summerBreeze = tick.isSummer()
+							&& targetTemperature < temperature
+							&& tick.getOutsideTemp() < temperature
+							&& !thermalStore.hasHeatingMode(i, RoomHeatingMode.AWAY)
+							&& room.canOpenWindowsForBreeze(tick.getConsoleSuppression());
+
+					havc = !summerBreeze && Room.isHavcOn(temperature, havc, targetTemperature);
+					thermalStore.setHavc(i, havc);
+					room.setWindowsForBreeze(summerBreeze);
+				}
+
+				temperature = HeatingZone.nextTemperature(tick, targetTemperature, temperature, havc);
+				thermalStore.setTemperature(i, temperature);
+			}
+
+			HeatingZone.pipeBurstWarning(temperature, this.zones[this.roomZoneIndexes[i]], room, tick.getConsoleSuppression());
+		}
+	}
+
+	/**
+	 * Copies the thermal state back into the rooms and unbinds them from the store.
+	 */
+	void release() {
+		if (this.store != null) {
+			this.store.release();
+		}
+	}
+
+	/**
+	 * Creates the thermal store of the rooms.
+	 * @param rooms rooms in zone order
+	 * @return Created store. Null if a room appears several times
+	 */
+	@Nullable
+	private static ThermalStore createStore(List<Room> rooms) {
+		try {
+			return new ThermalStore(rooms);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+}
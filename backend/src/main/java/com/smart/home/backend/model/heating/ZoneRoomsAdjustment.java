@@ -0,0 +1,77 @@
+package com.smart.home.backend.model.heating;
+
+import com.smart.home.backend.model.houselayout.Room;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Temperature adjustment of the rooms of all zones, flattened in zone order. A room in several zones
+ * appears once per zone, so the rooms can only be split across threads when they are distinct.
+ */
+class ZoneRoomsAdjustment implements RoomRangeAdjustment {
+	
+	private final RoomTemperatureAdjustment adjustment;
+	private final Room[] rooms;
+	private final HeatingZone[] roomZones;
+	private final double[] zoneTargets;
+	private final int[] roomZoneIndexes;
+	private final boolean distinctRooms;
+	
+	/**
+	 * 3-parameter constructor.
+	 * @param zones heating zones
+	 * @param nbRooms total number of rooms in the zones
+	 * @param adjustment adjustment parameters
+	 */
+	ZoneRoomsAdjustment(List<HeatingZone> zones, int nbRooms, RoomTemperatureAdjustment adjustment) {
+		this.adjustment = adjustment;
+		this.rooms = new Room[nbRooms];
+		this.roomZones = new HeatingZone[zones.size()];
+		this.zoneTargets = new double[zones.size()];
+		this.roomZoneIndexes = new int[nbRooms];
+		
+		Set<Room> seenRooms = Collections.newSetFromMap(new IdentityHashMap<>(nbRooms * 2));
+		boolean distinct = true;
+		int roomIndex = 0;
+		
+		for (int zoneIndex = 0; zoneIndex < zones.size(); zoneIndex++) {
+			HeatingZone zone = zones.get(zoneIndex);
+			this.roomZones[zoneIndex] = zone;
+			this.zoneTargets[zoneIndex] = zone.determineTargetTemperature(adjustment);
+			
+			for (Room room : zone.getRooms()) {
+				this.rooms[roomIndex] = room;
+				this.roomZoneIndexes[roomIndex] = zoneIndex;
+				distinct &= seenRooms.add(room);
+				roomIndex++;
+			}
+		}
+		
+		this.distinctRooms = distinct;
+	}
+	
+	/**
+	 * Whether every room is in a single zone, so that no two ranges adjust the same room.
+	 * @return Whether the rooms are distinct
+	 */
+	boolean hasDistinctRooms() {
+		return this.distinctRooms;
+	}
+	
+	@Override
+	public int size() {
+		return this.rooms.length;
+	}
+	
+	@Override
+	public void adjust(int from, int to) {
+		for (int i = from; i < to; i++) {
+			int zoneIndex = this.roomZoneIndexes[i];
+			this.roomZones[zoneIndex].adjustRoomTemperature(this.adjustment, this.zoneTargets[zoneIndex], this.rooms[i]);
+		}
+	}
+	
+}
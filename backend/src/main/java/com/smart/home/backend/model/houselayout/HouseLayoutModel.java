@@ -1,21 +1,26 @@
 package com.smart.home.backend.model.houselayout;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.smart.home.backend.constant.DoorState;
 import com.smart.home.backend.constant.LightState;
 import com.smart.home.backend.constant.WindowState;
 import com.smart.home.backend.input.PersonInput;
 import com.smart.home.backend.input.WindowInput;
 import com.smart.home.backend.model.AbstractBaseModel;
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
 import com.smart.home.backend.model.houselayout.directional.Door;
 import com.smart.home.backend.model.houselayout.directional.Window;
 import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
 import com.smart.home.backend.model.simulationparameters.location.RoomItemLocationPosition;
 import com.smart.home.backend.service.OutputConsole;
+import com.smart.home.backend.service.util.IdIndexedList;
 import lombok.*;
 
-import java.beans.PropertyChangeEvent;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import com.smart.home.backend.constant.Direction;
 import org.springframework.lang.Nullable;
@@ -33,16 +38,25 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	private static final String ENTRANCE = "Entrance";
 	
 	private Integer nbPersonsInside;
-	private List<RoomRow> rows;
+	private IdIndexedList<RoomRow> rows;
 	private OutsideLocation entrance;
 	private OutsideLocation backyard;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private volatile RoomsView roomsView;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private PersonDirectory personDirectory;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private final LayoutChangeLog changeLog = new LayoutChangeLog();
 
 	/**
 	 * Default constructor.
 	 */
 	public HouseLayoutModel() {
 		nbPersonsInside = 0;
-		this.rows = new ArrayList<>();
+		this.rows = new IdIndexedList<>();
 		this.backyard = new OutsideLocation(BACKYARD);
 		this.entrance = new OutsideLocation(ENTRANCE);
 	}
@@ -52,8 +66,38 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	 * @param rows input rows
 	 */
 	public void setRows(List<RoomRow> rows) {
-		this.rows = rows;
-		this.support.firePropertyChange("rooms", null, this.getAllRooms());
+		this.rows = IdIndexedList.of(rows);
+		this.changeLog.recordReload();
+		this.fire(ModelEventType.ROOMS, null, this.getAllRooms());
+	}
+	
+	/**
+	 * Accessor for the layout version, incremented by every change recorded in the layout's change log.
+	 * @return Layout version
+	 */
+	public long getLayoutVersion() {
+		return this.changeLog.getVersion();
+	}
+	
+	/**
+	 * Records a change made to the layout, incrementing its version.
+	 * @param change change made to the layout
+	 * @return New layout version
+	 */
+	public long recordChange(LayoutChange change) {
+		this.markChanged();
+		return this.changeLog.record(change);
+	}
+	
+	/**
+	 * Retrieves the changes made to the layout since a version.
+	 * @param fromVersion version held by the client
+	 * @return Changes since the version. Null if the version is too old or unknown, in which case
+	 * the layout has to be reloaded
+	 */
+	@Nullable
+	public LayoutDelta findChangesSince(long fromVersion) {
+		return this.changeLog.since(fromVersion);
 	}
 	
 	/**
@@ -63,17 +107,7 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	 */
 	@Nullable
 	public RoomRow findRow(int id) {
-		RoomRow foundRow = null;
-		
-		if (this.getRows() != null && !this.getRows().isEmpty()) {
-			foundRow = this.getRows()
-					.stream()
-					.filter(roomRow -> roomRow.getId() == id)
-					.findFirst()
-					.orElse(null);
-		}
-		
-		return foundRow;
+		return this.getRows().find(id);
 	}
 	
 	/**
@@ -94,19 +128,37 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	}
 
 	/**
-	 * gets all the rooms in the house layout
+	 * gets all the rooms in the house layout. The list is read-only and shared by all callers until
+	 * rows or rooms are added or removed.
 	 * @return list of all rooms
 	 */
 	@NonNull
 	public List<Room> getAllRooms(){
-		List<Room> rooms = new ArrayList<>();
-		for (RoomRow row : rows) {
-			for (Room room: row.getRooms()) {
-				room.setRowId(row.getId());
-				rooms.add(room);
-			}
+		return this.currentRoomsView().getRooms();
+	}
+	
+	/**
+	 * Accessor for the version of the room list, incremented each time it is rebuilt.
+	 * @return Room list version
+	 */
+	@JsonIgnore
+	public long getRoomsVersion() {
+		return this.currentRoomsView().getVersion();
+	}
+	
+	/**
+	 * Retrieves the room view, rebuilding it if the layout structure changed since it was built.
+	 * @return Current room view
+	 */
+	private RoomsView currentRoomsView() {
+		RoomsView view = this.roomsView;
+		
+		if (view == null || !view.matches(this.getRows())) {
+			view = new RoomsView(this.getRows(), view == null ? 0 : view.getVersion() + 1);
+			this.roomsView = view;
 		}
-		return rooms;
+		
+		return view;
 	}
 	/**
 	 * Finds a door with the corresponding row, room and door ids.
@@ -179,7 +231,7 @@ public class HouseLayoutModel extends AbstractBaseModel {
 			oldValue = location.getLight();
 		}
 		
-		this.support.firePropertyChange("lightAwayMode", oldValue, newValue);
+		this.fire(ModelEventType.LIGHT_AWAY_MODE, oldValue, newValue);
 	}
 	
 	/**
@@ -215,25 +267,57 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	 * @return Wether the person is in the house or not
 	 */
 	public boolean isInHouse(String personName) {
-		boolean present = false;
-		
-		for (RoomRow roomRow: this.getRows()) {
-			for (Room room: roomRow.getRooms()) {
-				if (room.getPersons().stream().anyMatch(p -> p.getName().equals(personName))) {
-					return true;
-				}
-			}
-		}
+		return this.currentPersonDirectory().contains(personName);
+	}
+	
+	/**
+	 * Finds where the persons with a name are.
+	 * @param personName persons' name
+	 * @return Placements of the persons, empty if nobody has this name
+	 */
+	@NonNull
+	public List<PersonPlacement> findPersons(String personName) {
+		return this.currentPersonDirectory().find(personName);
+	}
+	
+	/**
+	 * Lists where every person of the layout is.
+	 * @return Placements of all the persons
+	 */
+	@NonNull
+	public List<PersonPlacement> findAllPersons() {
+		return this.currentPersonDirectory().findAll();
+	}
+	
+	/**
+	 * Renames a person of the layout.
+	 * @param person person to rename
+	 * @param newName person's new name
+	 */
+	public void renamePerson(Person person, String newName) {
+		PersonDirectory directory = this.currentPersonDirectory();
+		person.setName(newName);
+		PersonPlacement placement = directory.rename(person);
 		
-		if (this.getBackyard().getPersons().stream().anyMatch(p -> p.getName().equals(personName))) {
-			present = true;
+		if (placement != null) {
+			this.recordChange(LayoutChange.replace(LayoutChange.personPath(placement.getLocation(), person.getId()) + "/name", newName));
 		}
+	}
+	
+	/**
+	 * Retrieves the person directory, rebuilding it if rooms were added or removed or if the
+	 * outside locations were replaced since it was built. Persons are expected to be added and
+	 * removed through the layout in between.
+	 * @return Current person directory
+	 */
+	private PersonDirectory currentPersonDirectory() {
+		long currentRoomsVersion = this.getRoomsVersion();
 		
-		if (this.getEntrance().getPersons().stream().anyMatch(p -> p.getName().equals(personName))) {
-			present = true;
+		if (this.personDirectory == null || !this.personDirectory.isBuiltFor(currentRoomsVersion, this.getBackyard(), this.getEntrance())) {
+			this.personDirectory = new PersonDirectory(this.getAllRooms(), currentRoomsVersion, this.getBackyard(), this.getEntrance());
 		}
 		
-		return present;
+		return this.personDirectory;
 	}
 	
 	/**
@@ -251,7 +335,13 @@ public class HouseLayoutModel extends AbstractBaseModel {
 			location.getLight().setState(LightState.ON);
 		}
 		
-		return location.addPerson(personInput);
+		PersonDirectory directory = this.currentPersonDirectory();
+		Integer personId = location.addPerson(personInput);
+		Person person = location.findPerson(personId);
+		directory.add(location, person);
+		this.recordChange(LayoutChange.add(LayoutChange.personPath(location, personId), person));
+		
+		return personId;
 	}
 	
 	/**
@@ -262,15 +352,13 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	 */
 	public String removePerson(Location location, int personId) {
 		String personName = null;
-		Person person = location.getPersons().stream().filter(p -> p.getId().equals(personId)).findFirst().orElse(null);
+		PersonDirectory directory = this.currentPersonDirectory();
+		Person person = location.getPersons().removeById(personId);
 		
 		if (person != null) {
 			personName = person.getName();
-		}
-		
-		boolean removed = location.getPersons().removeIf(p -> p.getId().equals(personId));
-		
-		if (removed) {
+			directory.remove(person);
+			this.recordChange(LayoutChange.remove(LayoutChange.personPath(location, personId)));
 			if (location.getLight().getAutoMode().equals(true) && location.getPersons().isEmpty()) {
 				location.getLight().setState(LightState.OFF);
 			}
@@ -315,7 +403,7 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	 */
 	public void updateNbPersons(int oldValue, int newValue){
 		this.setNbPersonsInside(newValue);
-		this.support.firePropertyChange("nbPersonsInside", oldValue, newValue);
+		this.fire(ModelEventType.NB_PERSONS_INSIDE, oldValue, newValue);
 	}
 	
 	/**
@@ -334,32 +422,61 @@ public class HouseLayoutModel extends AbstractBaseModel {
 	}
 	
 	/**
-	 * Activating a room's away mode state.
+	 * Locks the house down for away mode in one pass: closes every window that is not obstructed and
+	 * locks every door, then logs a single console line summarizing the transitions.
+	 * @return Lockdown summary
+	 */
+	public LockdownSummary lockDown() {
+		LockdownSummary summary = new LockdownSummary();
+		
+		for (RoomRow roomRow: this.getRows()) {
+			List<Room> rooms = roomRow.getRooms();
+			
+			for (int i = 0; i < rooms.size(); i++) {
+				this.lockDownRoom(roomRow, rooms.get(i), summary);
+			}
+		}
+		
+		OutputConsole.log(summary.toConsoleLine());
+		return summary;
+	}
+	
+	/**
+	 * Closes a room's windows and locks its doors.
+	 * @param roomRow row of the room
 	 * @param room targeted room
+	 * @param summary summary receiving the transitions
 	 */
-	private void activateRoomAwayMode(Room room) {
+	private void lockDownRoom(RoomRow roomRow, Room room, LockdownSummary summary) {
+		summary.addRoom();
+		
 		for (Window window: room.getWindows()) {
-			if (window.getState().equals(WindowState.BLOCKED)) {
-				OutputConsole.log("SHC | " + room.getName() + "'s " + window.getDirection() + " window could not be closed, because it is obstructed");
-			} else {
+			if (window.getState() == WindowState.BLOCKED) {
+				summary.addObstructedWindow(new LockdownSummary.ObstructedWindow(
+						roomRow.getId(), room.getId(), window.getId(), room.getName(), window.getDirection()
+				));
+			} else if (window.getState() != WindowState.CLOSED) {
 				window.setState(WindowState.CLOSED);
+				summary.addClosedWindow();
 			}
 		}
 		for (Door door: room.getDoors()) {
-			door.setState(DoorState.LOCKED);
+			if (door.getState() != DoorState.LOCKED) {
+				door.setState(DoorState.LOCKED);
+				summary.addLockedDoor();
+			}
 		}
 	}
 	
 	@Override
-	public void propertyChange(PropertyChangeEvent evt) {
-		if (evt.getPropertyName().equals("awayMode")) {
-			if ((boolean) evt.getNewValue()) {
-				for (RoomRow roomRow: this.getRows()) {
-					for (Room room: roomRow.getRooms()) {
-						this.activateRoomAwayMode(room);
-					}
-				}
-			}
+	public Set<ModelEventType> subscriptions() {
+		return EnumSet.of(ModelEventType.AWAY_MODE, ModelEventType.AWAY_MODE_LIGHTS);
+	}
+	
+	@Override
+	public void onEvent(ModelEvent event) {
+		if (event.getType() == ModelEventType.AWAY_MODE && (boolean) event.getNewValue()) {
+			this.fire(ModelEventType.LOCKDOWN, null, this.lockDown());
 		}
 	}
 }
@@ -0,0 +1,106 @@
+package com.smart.home.backend.model.houselayout;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Change made to a layout, in the style of a JSON Patch operation. Paths follow the layout's JSON,
+ * except that the segments after rows, rooms, doors, windows and persons are ids rather than indexes,
+ * e.g. /rows/0/rooms/3/doors/2.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LayoutChange {
+	
+	public static final String ADD = "add";
+	public static final String REMOVE = "remove";
+	public static final String REPLACE = "replace";
+	
+	private final String op;
+	private final String path;
+	@Nullable
+	private final Object value;
+	
+	/**
+	 * Creates the addition of a value.
+	 * @param path path of the added value
+	 * @param value added value
+	 * @return Change
+	 */
+	public static LayoutChange add(String path, Object value) {
+		return new LayoutChange(ADD, path, value);
+	}
+	
+	/**
+	 * Creates the removal of a value.
+	 * @param path path of the removed value
+	 * @return Change
+	 */
+	public static LayoutChange remove(String path) {
+		return new LayoutChange(REMOVE, path, null);
+	}
+	
+	/**
+	 * Creates the replacement of a value.
+	 * @param path path of the replaced value
+	 * @param value new value
+	 * @return Change
+	 */
+	public static LayoutChange replace(String path, Object value) {
+		return new LayoutChange(REPLACE, path, value);
+	}
+	
+	/**
+	 * Path of a room.
+	 * @param rowId row's id
+	 * @param roomId room's id
+	 * @return Path
+	 */
+	public static String roomPath(int rowId, int roomId) {
+		return "/rows/" + rowId + "/rooms/" + roomId;
+	}
+	
+	/**
+	 * Path of a door.
+	 * @param rowId row's id
+	 * @param roomId room's id
+	 * @param doorId door's id
+	 * @return Path
+	 */
+	public static String doorPath(int rowId, int roomId, int doorId) {
+		return roomPath(rowId, roomId) + "/doors/" + doorId;
+	}
+	
+	/**
+	 * Path of a window.
+	 * @param rowId row's id
+	 * @param roomId room's id
+	 * @param windowId window's id
+	 * @return Path
+	 */
+	public static String windowPath(int rowId, int roomId, int windowId) {
+		return roomPath(rowId, roomId) + "/windows/" + windowId;
+	}
+	
+	/**
+	 * Path of a person, in a room or outside.
+	 * @param location person's location
+	 * @param personId person's id
+	 * @return Path
+	 */
+	public static String personPath(Location location, int personId) {
+		String locationPath;
+		
+		if (location instanceof Room) {
+			Room room = (Room) location;
+			locationPath = roomPath(room.getRowId() == null ? -1 : room.getRowId(), room.getId());
+		} else {
+			locationPath = "/" + ((OutsideLocation) location).getName().toLowerCase();
+		}
+		
+		return locationPath + "/persons/" + personId;
+	}
+	
+}
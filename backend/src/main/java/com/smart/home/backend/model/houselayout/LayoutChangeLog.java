@@ -0,0 +1,74 @@
+package com.smart.home.backend.model.houselayout;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Versioned log of the latest changes made to a layout. Every change increments the version; changes
+ * that cannot be described, such as loading a whole layout, clear the log so that older versions
+ * can only be resynchronized by reloading the layout.
+ */
+class LayoutChangeLog {
+	
+	static final int CAPACITY = 1024;
+	
+	@Getter
+	private long version;
+	private long oldestVersion;
+	private final Deque<LayoutChange> changes = new ArrayDeque<>();
+	
+	/**
+	 * Records a change.
+	 * @param change change made to the layout
+	 * @return New version
+	 */
+	synchronized long record(LayoutChange change) {
+		if (this.changes.size() == CAPACITY) {
+			this.changes.removeFirst();
+			this.oldestVersion++;
+		}
+		
+		this.changes.addLast(change);
+		return ++this.version;
+	}
+	
+	/**
+	 * Records a change replacing the whole layout.
+	 * @return New version
+	 */
+	synchronized long recordReload() {
+		this.changes.clear();
+		this.oldestVersion = ++this.version;
+		return this.version;
+	}
+	
+	/**
+	 * Changes made since a version.
+	 * @param fromVersion version held by the client
+	 * @return Changes since the version. Null if the version is too old or unknown
+	 */
+	@Nullable
+	synchronized LayoutDelta since(long fromVersion) {
+		if (fromVersion < this.oldestVersion || fromVersion > this.version) {
+			return null;
+		}
+		
+		List<LayoutChange> newChanges = new ArrayList<>((int) (this.version - fromVersion));
+		Iterator<LayoutChange> iterator = this.changes.descendingIterator();
+		
+		for (long v = this.version; v > fromVersion; v--) {
+			newChanges.add(iterator.next());
+		}
+		
+		Collections.reverse(newChanges);
+		return new LayoutDelta(fromVersion, this.version, newChanges);
+	}
+	
+}
@@ -0,0 +1,20 @@
+package com.smart.home.backend.model.houselayout;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Changes made to a layout between two versions. A client holding the layout at fromVersion applies
+ * the changes in order to reach version; a client holding any other version has to reload the layout.
+ */
+@Getter
+@AllArgsConstructor
+public class LayoutDelta {
+	
+	private final long fromVersion;
+	private final long version;
+	private final List<LayoutChange> changes;
+	
+}
@@ -2,6 +2,7 @@ package com.smart.home.backend.model.houselayout;
 
 import com.smart.home.backend.input.PersonInput;
 import com.smart.home.backend.model.ModelObject;
+import com.smart.home.backend.service.util.IdIndexedList;
 import com.smart.home.backend.service.util.IdUtil;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,7 +11,6 @@ import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 import org.springframework.lang.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,12 +26,31 @@ public class Location extends ModelObject {
 	@Setter
 	@Builder.Default
 	private Light light = new Light();
-	@Setter
 	@Builder.Default
-	private List<Person> persons = new ArrayList<>();
+	private List<Person> persons = new IdIndexedList<>();
 	
 	private final IdUtil personId = new IdUtil();
 	
+	/**
+	 * Accessor for persons, indexing them by id the first time.
+	 * @return Persons in the location
+	 */
+	public IdIndexedList<Person> getPersons() {
+		if (!(this.persons instanceof IdIndexedList)) {
+			this.persons = IdIndexedList.of(this.persons);
+		}
+		
+		return (IdIndexedList<Person>) this.persons;
+	}
+	
+	/**
+	 * Mutator for persons.
+	 * @param persons persons in the location
+	 */
+	public void setPersons(List<Person> persons) {
+		this.persons = IdIndexedList.of(persons);
+	}
+	
 	/**
 	 * Finds a person with the corresponding id.
 	 * @param id Searched person's id
@@ -39,11 +58,7 @@ public class Location extends ModelObject {
 	 */
 	@Nullable
 	public Person findPerson(int id) {
-		return this.getPersons()
-				.stream()
-				.filter(person -> person.getId() == id)
-				.findFirst()
-				.orElse(null);
+		return this.getPersons().find(id);
 	}
 	
 	/**
@@ -0,0 +1,90 @@
+package com.smart.home.backend.model.houselayout;
+
+import com.smart.home.backend.constant.Direction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of an away mode lockdown: how many windows were closed and doors locked across the layout,
+ * and which windows could not be closed because they are obstructed.
+ */
+@Getter
+public class LockdownSummary {
+
+	private int rooms;
+	private int windowsClosed;
+	private int doorsLocked;
+	private final List<ObstructedWindow> obstructedWindows = new ArrayList<>();
+
+	/**
+	 * Counts a room visited by the lockdown.
+	 */
+	void addRoom() {
+		this.rooms++;
+	}
+
+	/**
+	 * Counts a window closed by the lockdown.
+	 */
+	void addClosedWindow() {
+		this.windowsClosed++;
+	}
+
+	/**
+	 * Counts a door locked by the lockdown.
+	 */
+	void addLockedDoor() {
+		this.doorsLocked++;
+	}
+
+	/**
+	 * Records a window left open because it is obstructed.
+	 * @param obstructedWindow obstructed window
+	 */
+	void addObstructedWindow(ObstructedWindow obstructedWindow) {
+		this.obstructedWindows.add(obstructedWindow);
+	}
+
+	/**
+	 * Console line reporting the lockdown, naming every obstructed window.
+	 * @return Console line
+	 */
+	public String toConsoleLine() {
+		StringBuilder line = new StringBuilder("SHC | Away mode lockdown of ")
+				.append(this.rooms).append(" rooms: ")
+				.append(this.windowsClosed).append(" windows closed, ")
+				.append(this.doorsLocked).append(" doors locked, ")
+				.append(this.obstructedWindows.size()).append(" windows could not be closed because they are obstructed");
+
+		for (int i = 0; i < this.obstructedWindows.size(); i++) {
+			ObstructedWindow obstructedWindow = this.obstructedWindows.get(i);
+			line.append(i == 0 ? " (" : ", ")
+					.append(obstructedWindow.getRoomName()).append("'s ").append(obstructedWindow.getDirection());
+		}
+
+		if (!this.obstructedWindows.isEmpty()) {
+			line.append(")");
+		}
+
+		return line.toString();
+	}
+
+	/**
+	 * Window left open by a lockdown.
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class ObstructedWindow {
+
+		private final Integer rowId;
+		private final Integer roomId;
+		private final Integer windowId;
+		private final String roomName;
+		private final Direction direction;
+
+	}
+
+}
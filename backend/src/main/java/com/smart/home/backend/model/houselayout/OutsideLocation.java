@@ -3,9 +3,8 @@ package com.smart.home.backend.model.houselayout;
 import com.smart.home.backend.input.PersonInput;
 import lombok.Getter;
 import lombok.Setter;
-import org.springframework.lang.Nullable;
 
-import java.util.ArrayList;
+import com.smart.home.backend.service.util.IdIndexedList;
 
 /**
  * Class for outside the house.
@@ -19,21 +18,7 @@ public class OutsideLocation extends Location {
 	 * @param name location's name
 	 */
 	public OutsideLocation(String name) {
-		super(name, new Light(), new ArrayList<>());
-	}
-	
-	/**
-	 * Finds a person with the corresponding id.
-	 * @param id Searched person's id
-	 * @return Found person
-	 */
-	@Nullable
-	public Person findPerson(int id) {
-		return this.getPersons()
-				.stream()
-				.filter(person -> person.getId() == id)
-				.findFirst()
-				.orElse(null);
+		super(name, new Light(), new IdIndexedList<>());
 	}
 	
 	/**
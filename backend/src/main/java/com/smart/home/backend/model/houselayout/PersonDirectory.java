@@ -0,0 +1,154 @@
+package com.smart.home.backend.model.houselayout;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Directory of the persons of a layout by name, kept in sync by the layout's person additions,
+ * removals and renames. It is built for a version of the room list and the outside locations,
+ * and has to be rebuilt when they change.
+ */
+class PersonDirectory {
+	
+	private final Map<String, List<PersonPlacement>> placementsByName = new LinkedHashMap<>();
+	private final Map<Person, PersonPlacement> placementsByPerson = new IdentityHashMap<>();
+	
+	private final long roomsVersion;
+	private final OutsideLocation backyard;
+	private final OutsideLocation entrance;
+	
+	/**
+	 * Builds the directory of a layout.
+	 * @param rooms all the rooms of the layout
+	 * @param roomsVersion version of the room list
+	 * @param backyard layout's backyard
+	 * @param entrance layout's entrance
+	 */
+	PersonDirectory(List<Room> rooms, long roomsVersion, OutsideLocation backyard, OutsideLocation entrance) {
+		this.roomsVersion = roomsVersion;
+		this.backyard = backyard;
+		this.entrance = entrance;
+		
+		for (Room room : rooms) {
+			this.addAll(room);
+		}
+		
+		this.addAll(backyard);
+		this.addAll(entrance);
+	}
+	
+	/**
+	 * Checks that the directory was built for the current rooms and outside locations.
+	 * @param currentRoomsVersion current version of the room list
+	 * @param currentBackyard current backyard
+	 * @param currentEntrance current entrance
+	 * @return Whether the directory is still valid
+	 */
+	boolean isBuiltFor(long currentRoomsVersion, OutsideLocation currentBackyard, OutsideLocation currentEntrance) {
+		return this.roomsVersion == currentRoomsVersion && this.backyard == currentBackyard && this.entrance == currentEntrance;
+	}
+	
+	/**
+	 * Adds a person placed in a location.
+	 * @param location person's location
+	 * @param person added person
+	 */
+	void add(Location location, Person person) {
+		this.index(PersonPlacement.of(location, person));
+	}
+	
+	/**
+	 * Removes a person.
+	 * @param person removed person
+	 */
+	void remove(Person person) {
+		PersonPlacement placement = this.placementsByPerson.remove(person);
+		
+		if (placement != null) {
+			List<PersonPlacement> placements = this.placementsByName.get(placement.getName());
+			placements.remove(placement);
+			
+			if (placements.isEmpty()) {
+				this.placementsByName.remove(placement.getName());
+			}
+		}
+	}
+	
+	/**
+	 * Updates the directory for a person who was renamed.
+	 * @param person renamed person, already holding its new name
+	 * @return Person's new placement. Null if the person is not in the directory
+	 */
+	@Nullable
+	PersonPlacement rename(Person person) {
+		PersonPlacement placement = this.placementsByPerson.get(person);
+		
+		if (placement == null) {
+			return null;
+		}
+		
+		PersonPlacement renamed = placement.rename(person.getName());
+		this.remove(person);
+		this.index(renamed);
+		return renamed;
+	}
+	
+	/**
+	 * Finds the placements of the persons with a name.
+	 * @param name persons' name
+	 * @return Found placements, empty if nobody has this name
+	 */
+	List<PersonPlacement> find(String name) {
+		List<PersonPlacement> placements = this.placementsByName.get(name);
+		return placements == null ? Collections.emptyList() : Collections.unmodifiableList(placements);
+	}
+	
+	/**
+	 * Checks if someone with a name is in the layout.
+	 * @param name person's name
+	 * @return Whether someone has this name
+	 */
+	boolean contains(String name) {
+		return this.placementsByName.containsKey(name);
+	}
+	
+	/**
+	 * Lists the placements of every person.
+	 * @return All placements
+	 */
+	List<PersonPlacement> findAll() {
+		List<PersonPlacement> placements = new ArrayList<>(this.placementsByPerson.size());
+		
+		for (List<PersonPlacement> namePlacements : this.placementsByName.values()) {
+			placements.addAll(namePlacements);
+		}
+		
+		return placements;
+	}
+	
+	/**
+	 * Adds every person of a location.
+	 * @param location location to add the persons of
+	 */
+	private void addAll(Location location) {
+		for (Person person : location.getPersons()) {
+			this.add(location, person);
+		}
+	}
+	
+	/**
+	 * Indexes a placement by name and person.
+	 * @param placement placement to index
+	 */
+	private void index(PersonPlacement placement) {
+		this.placementsByName.computeIfAbsent(placement.getName(), name -> new ArrayList<>(1)).add(placement);
+		this.placementsByPerson.put(placement.getPerson(), placement);
+	}
+	
+}
@@ -0,0 +1,57 @@
+package com.smart.home.backend.model.houselayout;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Where a person is: the location's name, and its row and room ids when the person is inside.
+ */
+@Getter
+@AllArgsConstructor
+public class PersonPlacement {
+	
+	private final Integer personId;
+	private final String name;
+	private final String locationName;
+	@Nullable
+	private final Integer rowId;
+	@Nullable
+	private final Integer roomId;
+	
+	@JsonIgnore
+	private final Person person;
+	@JsonIgnore
+	private final Location location;
+	
+	/**
+	 * Creates the placement of a person in a location.
+	 * @param location person's location
+	 * @param person placed person
+	 * @return Created placement
+	 */
+	static PersonPlacement of(Location location, Person person) {
+		boolean inside = location instanceof Room;
+		
+		return new PersonPlacement(
+				person.getId(),
+				person.getName(),
+				location.getName(),
+				inside ? ((Room) location).getRowId() : null,
+				inside ? location.getId() : null,
+				person,
+				location
+		);
+	}
+	
+	/**
+	 * Copy of the placement for a renamed person.
+	 * @param newName person's new name
+	 * @return Renamed placement
+	 */
+	PersonPlacement rename(String newName) {
+		return new PersonPlacement(this.personId, newName, this.locationName, this.rowId, this.roomId, this.person, this.location);
+	}
+	
+}
@@ -1,5 +1,7 @@
 package com.smart.home.backend.model.houselayout;
 
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.constant.RoomHeatingMode;
 import com.smart.home.backend.constant.WindowState;
 import com.smart.home.backend.input.DoorInput;
@@ -7,13 +9,15 @@ import com.smart.home.backend.input.WindowInput;
 import com.smart.home.backend.model.houselayout.directional.Door;
 import com.smart.home.backend.model.houselayout.directional.Window;
 
+import com.smart.home.backend.service.ConsoleSuppression;
 import com.smart.home.backend.service.OutputConsole;
+import com.smart.home.backend.service.util.IdIndexedList;
 import com.smart.home.backend.service.util.IdUtil;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
 import java.util.List;
 import lombok.experimental.SuperBuilder;
 import org.springframework.lang.Nullable;
@@ -27,19 +31,14 @@ public class Room extends Location {
 	
 	@Setter
 	private String name;
-	@Setter
 	@Builder.Default
-	private List<Window> windows = new ArrayList<>();
-	@Setter
+	private List<Window> windows = new IdIndexedList<>();
 	@Builder.Default
-	private List<Door> doors = new ArrayList<>();
-	@Setter
+	private List<Door> doors = new IdIndexedList<>();
 	@Builder.Default
 	private Double temperature = 0.0;
-	@Setter
 	@Builder.Default
 	private RoomHeatingMode heatingMode = RoomHeatingMode.ZONE;
-	@Setter
 	@Builder.Default
 	private Boolean havc = true;
 	@Setter
@@ -49,6 +48,135 @@ public class Room extends Location {
 	private final IdUtil doorId = new IdUtil();
 	private final IdUtil windowId = new IdUtil();
 	
+	@Getter(AccessLevel.PACKAGE)
+	@Nullable
+	private ThermalStore thermalStore;
+	@Getter(AccessLevel.NONE)
+	private int thermalIndex;
+	
+	/**
+	 * Accessor for the temperature, read from the thermal store when the room is bound to one.
+	 * @return Temperature of the room
+	 */
+	public Double getTemperature() {
+		return this.thermalStore == null ? this.temperature : this.thermalStore.getTemperature(this.thermalIndex);
+	}
+	
+	/**
+	 * Mutator for the temperature.
+	 * @param temperature new temperature
+	 */
+	public void setTemperature(Double temperature) {
+		if (this.thermalStore == null) {
+			this.temperature = temperature;
+		} else {
+			this.thermalStore.setTemperature(this.thermalIndex, temperature);
+		}
+	}
+	
+	/**
+	 * Accessor for the heating mode, read from the thermal store when the room is bound to one.
+	 * @return Heating mode of the room
+	 */
+	public RoomHeatingMode getHeatingMode() {
+		return this.thermalStore == null ? this.heatingMode : this.thermalStore.getHeatingMode(this.thermalIndex);
+	}
+	
+	/**
+	 * Mutator for the heating mode.
+	 * @param heatingMode new heating mode
+	 */
+	public void setHeatingMode(RoomHeatingMode heatingMode) {
+		if (this.thermalStore == null) {
+			this.heatingMode = heatingMode;
+		} else {
+			this.thermalStore.setHeatingMode(this.thermalIndex, heatingMode);
+		}
+	}
+	
+	/**
+	 * Accessor for the HAVC state, read from the thermal store when the room is bound to one.
+	 * @return Whether the HAVC is on
+	 */
+	public Boolean getHavc() {
+		return this.thermalStore == null ? this.havc : Boolean.valueOf(this.thermalStore.isHavc(this.thermalIndex));
+	}
+	
+	/**
+	 * Mutator for the HAVC state.
+	 * @param havc whether the HAVC is on
+	 */
+	public void setHavc(Boolean havc) {
+		if (this.thermalStore == null) {
+			this.havc = havc;
+		} else {
+			this.thermalStore.setHavc(this.thermalIndex, havc);
+		}
+	}
+	
+	/**
+	 * Binds the thermal state of the room to a slot of a thermal store.
+	 * @param thermalStore thermal store
+	 * @param thermalIndex index of the room in the store
+	 */
+	void bindThermalStore(ThermalStore thermalStore, int thermalIndex) {
+		this.thermalStore = thermalStore;
+		this.thermalIndex = thermalIndex;
+	}
+	
+	/**
+	 * Unbinds the room from its thermal store, keeping the state it had there.
+	 * @param temperature temperature in the store
+	 * @param havc HAVC state in the store
+	 * @param heatingMode heating mode in the store
+	 */
+	void unbindThermalStore(double temperature, boolean havc, RoomHeatingMode heatingMode) {
+		this.thermalStore = null;
+		this.temperature = temperature;
+		this.havc = havc;
+		this.heatingMode = heatingMode;
+	}
+	
+	/**
+	 * Accessor for windows, indexing them by id the first time.
+	 * @return Windows of the room
+	 */
+	public IdIndexedList<Window> getWindows() {
+		if (!(this.windows instanceof IdIndexedList)) {
+			this.windows = IdIndexedList.of(this.windows);
+		}
+		
+		return (IdIndexedList<Window>) this.windows;
+	}
+	
+	/**
+	 * Mutator for windows.
+	 * @param windows windows of the room
+	 */
+	public void setWindows(List<Window> windows) {
+		this.windows = IdIndexedList.of(windows);
+	}
+	
+	/**
+	 * Accessor for doors, indexing them by id the first time.
+	 * @return Doors of the room
+	 */
+	public IdIndexedList<Door> getDoors() {
+		if (!(this.doors instanceof IdIndexedList)) {
+			this.doors = IdIndexedList.of(this.doors);
+		}
+		
+		return (IdIndexedList<Door>) this.doors;
+	}
+	
+	/**
+	 * Mutator for doors.
+	 * @param doors doors of the room
+	 */
+	public void setDoors(List<Door> doors) {
+		this.doors = IdIndexedList.of(doors);
+	}
+	
 	/**
 	 * Finds a door with the corresponding id.
 	 * @param id Searched door's id
@@ -56,11 +184,7 @@ public class Room extends Location {
 	 */
 	@Nullable
 	public Door findDoor(int id) {
-		return this.getDoors()
-				.stream()
-				.filter(door -> door.getId() == id)
-				.findFirst()
-				.orElse(null);
+		return this.getDoors().find(id);
 	}
 	
 	/**
@@ -70,39 +194,39 @@ public class Room extends Location {
 	 */
 	@Nullable
 	public Window findWindow(int id) {
-		return this.getWindows()
-				.stream()
-				.filter(window -> window.getId() == id)
-				.findFirst()
-				.orElse(null);
+		return this.getWindows().find(id);
 	}
 
 	/**
 	 * Adds a door to the door list
 	 * @param doorInput door input
+	 * @return Added door
 	 */
-	public void addDoor(DoorInput doorInput) {
-		this.getDoors().add(
-				Door.builder()
-						.direction(doorInput.getDirection())
-						.state(doorInput.getState())
-						.id(this.getDoorId().newId())
-						.build()
-		);
+	public Door addDoor(DoorInput doorInput) {
+		Door door = Door.builder()
+				.direction(doorInput.getDirection())
+				.state(doorInput.getState())
+				.id(this.getDoorId().newId())
+				.build();
+		
+		this.getDoors().add(door);
+		return door;
 	}
 	
 	/**
 	 * Adds a window to the window list
 	 * @param windowInput window input
+	 * @return Added window
 	 */
-	public void addWindow(WindowInput windowInput) {
-		this.getWindows().add(
-				Window.builder()
-						.direction(windowInput.getDirection())
-						.state(windowInput.getState())
-						.id(this.getWindowId().newId())
-						.build()
-		);
+	public Window addWindow(WindowInput windowInput) {
+		Window window = Window.builder()
+				.direction(windowInput.getDirection())
+				.state(windowInput.getState())
+				.id(this.getWindowId().newId())
+				.build();
+		
+		this.getWindows().add(window);
+		return window;
 	}
 	
 	/**
@@ -110,21 +234,33 @@ public class Room extends Location {
 	 * @param outsideTemp outside temperature
 	 * @param isSummer true if its summer time false if its not summer time
 	 * @param targetTemperature target temperature
+	 * @param consoleSuppression suppression of the warnings repeated on every tick
 	 */
-	public void adjustRoomSummerBreeze(Double outsideTemp, boolean isSummer, double targetTemperature) {
-		boolean summerBreeze = isSummerBreeze(outsideTemp, targetTemperature, isSummer);
+	public void adjustRoomSummerBreeze(double outsideTemp, boolean isSummer, double targetTemperature, ConsoleSuppression consoleSuppression) {
+		boolean summerBreeze = isSummerBreeze(outsideTemp, targetTemperature, isSummer, consoleSuppression);
 		
 		if (summerBreeze) {
 			this.setHavc(false);
 		} else {
-			this.setHavc(isHavcOn(targetTemperature));
+			this.setHavc(isHavcOn(this.getTemperature(), this.getHavc(), targetTemperature));
 		}
 		
-		for (Window window : this.getWindows()) {
+		this.setWindowsForBreeze(summerBreeze);
+	}
+	
+	/**
+	 * Opens the windows for a summer breeze, or closes them, leaving blocked windows alone.
+	 * @param summerBreeze whether to open the windows
+	 */
+	public void setWindowsForBreeze(boolean summerBreeze) {
+		IdIndexedList<Window> roomWindows = this.getWindows();
+		
+		for (int i = 0; i < roomWindows.size(); i++) {
+			Window window = roomWindows.get(i);
 			WindowState newState = summerBreeze ? WindowState.OPEN : WindowState.CLOSED;
 			if (!newState.equals(window.getState()) && !window.getState().equals(WindowState.BLOCKED) ) {
 				window.setState(newState);
-				OutputConsole.log("SHH | Changed window state to " + window.getState());
+				OutputConsole.log(ConsoleModule.SHH, ConsoleSeverity.INFO, this, "Changed window state to {}", window.getState());
 			}
 			
 		}
@@ -136,31 +272,55 @@ public class Room extends Location {
 	 * @param outsideTemp outside temperature
 	 * @param targetTemperature target temperature
 	 * @param isSummer true if its summer time false if its not summer time
+	 * @param consoleSuppression suppression of the warnings repeated on every tick
 	 * @return whether to open windows or not
 	 */
-	private boolean isSummerBreeze(Double outsideTemp, Double targetTemperature, boolean isSummer){
+	private boolean isSummerBreeze(double outsideTemp, double targetTemperature, boolean isSummer, ConsoleSuppression consoleSuppression){
 		if (isSummer && (targetTemperature < this.getTemperature()) && (outsideTemp < this.getTemperature()) && this.getHeatingMode() != RoomHeatingMode.AWAY) {
-			for (Window window : this.getWindows()) {
-				if (window.getState() == WindowState.BLOCKED) {
-					OutputConsole.log("SHH | Window " + window.getDirection() + " in " + this.getName() + " is blocked. Cancelled window opening command.");
-					return false;
-				}
-			}
-			return true;
+			return this.canOpenWindowsForBreeze(consoleSuppression);
 		}
 		return false;
 	}
 	
+	/**
+	 * Checks that no window is blocked before opening them for a summer breeze.
+	 * @param consoleSuppression suppression of the warnings repeated on every tick
+	 * @return whether the windows can be opened
+	 */
+	public boolean canOpenWindowsForBreeze(ConsoleSuppression consoleSuppression) {
+		IdIndexedList<Window> roomWindows = this.getWindows();
+		
+		for (int i = 0; i < roomWindows.size(); i++) {
+			Window window = roomWindows.get(i);
+			if (window.getState() == WindowState.BLOCKED) {
+				consoleSuppression.log(
+						"Blocked window warning",
+						ConsoleModule.SHH,
+						ConsoleSeverity.WARN,
+						null,
+						this,
+						"Window {} in {} is blocked. Cancelled window opening command.",
+						window.getDirection(),
+						this.getName()
+				);
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	
 	/**
 	 * Method to determine if the HAVC should be on or off
+	 * @param temperature room temperature
+	 * @param havc whether the HAVC is currently on
 	 * @param targetTemperature target temperature
-\	 * @return true if HAVC should on and false if it should be off
+	 * @return true if HAVC should on and false if it should be off
 	 */
-	private boolean isHavcOn(double targetTemperature) {
-		boolean targetReached = Math.abs(this.getTemperature() - targetTemperature) <= 0.1;
-		boolean targetReacquired = Math.abs(this.getTemperature() - targetTemperature) >= 0.25;
-		return (this.getHavc() && !targetReached) || (!this.getHavc() && targetReacquired);
+	public static boolean isHavcOn(double temperature, boolean havc, double targetTemperature) {
+		boolean targetReached = Math.abs(temperature - targetTemperature) <= 0.1;
+		boolean targetReacquired = Math.abs(temperature - targetTemperature) >= 0.25;
+		return (havc && !targetReached) || (!havc && targetReacquired);
 	}
 	
 }
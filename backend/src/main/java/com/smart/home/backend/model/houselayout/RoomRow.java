@@ -3,6 +3,7 @@ package com.smart.home.backend.model.houselayout;
 import com.smart.home.backend.input.RoomInput;
 import com.smart.home.backend.service.mapper.DoorsMapper;
 import com.smart.home.backend.service.mapper.WindowsMapper;
+import com.smart.home.backend.service.util.IdIndexedList;
 import com.smart.home.backend.service.util.IdUtil;
 import lombok.Getter;
 import lombok.NonNull;
@@ -25,6 +26,26 @@ public class RoomRow extends ModelObject {
 	
 	private final IdUtil roomId = new IdUtil();
 	
+	/**
+	 * Accessor for rooms, indexing them by id the first time.
+	 * @return Rooms of the row
+	 */
+	public IdIndexedList<Room> getRooms() {
+		if (!(this.rooms instanceof IdIndexedList)) {
+			this.rooms = IdIndexedList.of(this.rooms);
+		}
+		
+		return (IdIndexedList<Room>) this.rooms;
+	}
+	
+	/**
+	 * Mutator for rooms.
+	 * @param rooms rooms of the row
+	 */
+	public void setRooms(@NonNull List<Room> rooms) {
+		this.rooms = IdIndexedList.of(rooms);
+	}
+	
 	/**
 	 * Finds a room with the corresponding id.
 	 * @param roomId Searched room's id
@@ -32,22 +53,24 @@ public class RoomRow extends ModelObject {
 	 */
 	@Nullable
 	public Room findRoom(int roomId) {
-		return this.getRooms()
-				.stream()
-				.filter(roomRow -> roomRow.getId() == roomId)
-				.findFirst()
-				.orElse(null);
+		return this.getRooms().find(roomId);
 	}
 	
-	public void addRoom(RoomInput roomInput) {
-		this.getRooms().add(
-				Room.builder()
-						.name(roomInput.getName())
-						.doors(DoorsMapper.map(roomInput.getDoorsOn()))
-						.windows(WindowsMapper.map(roomInput.getWindowsOn()))
-						.id(this.getRoomId().newId())
-						.build()
-		);
+	/**
+	 * Adds a room to the row.
+	 * @param roomInput room input
+	 * @return Added room
+	 */
+	public Room addRoom(RoomInput roomInput) {
+		Room room = Room.builder()
+				.name(roomInput.getName())
+				.doors(DoorsMapper.map(roomInput.getDoorsOn()))
+				.windows(WindowsMapper.map(roomInput.getWindowsOn()))
+				.id(this.getRoomId().newId())
+				.build();
+		
+		this.getRooms().add(room);
+		return room;
 	}
 	
 }
@@ -0,0 +1,76 @@
+package com.smart.home.backend.model.houselayout;
+
+import com.smart.home.backend.service.util.IdIndexedList;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only snapshot of all the rooms of a layout, with what is needed to tell whether rows or rooms
+ * were added or removed since it was taken.
+ */
+class RoomsView {
+	
+	@Getter
+	private final long version;
+	@Getter
+	private final List<Room> rooms;
+	
+	private final IdIndexedList<RoomRow> rows;
+	private final int rowsVersion;
+	private final IdIndexedList<Room>[] roomLists;
+	private final int[] roomListVersions;
+	
+	/**
+	 * 2-parameter constructor.
+	 * @param rows rows of the layout
+	 * @param version version of the view
+	 */
+	RoomsView(IdIndexedList<RoomRow> rows, long version) {
+		int nbRows = rows.size();
+		List<Room> allRooms = new ArrayList<>();
+		
+		this.version = version;
+		this.rows = rows;
+		this.rowsVersion = rows.getVersion();
+		this.roomLists = new IdIndexedList[nbRows];
+		this.roomListVersions = new int[nbRows];
+		
+		for (int i = 0; i < nbRows; i++) {
+			RoomRow row = rows.get(i);
+			IdIndexedList<Room> roomList = row.getRooms();
+			
+			this.roomLists[i] = roomList;
+			this.roomListVersions[i] = roomList.getVersion();
+			
+			for (Room room : roomList) {
+				room.setRowId(row.getId());
+				allRooms.add(room);
+			}
+		}
+		
+		this.rooms = Collections.unmodifiableList(allRooms);
+	}
+	
+	/**
+	 * Checks that no row or room was added, removed or replaced since the view was built.
+	 * @param currentRows current rows of the layout
+	 * @return Whether the view still matches the layout
+	 */
+	boolean matches(IdIndexedList<RoomRow> currentRows) {
+		if (currentRows != this.rows || currentRows.getVersion() != this.rowsVersion || currentRows.size() != this.roomLists.length) {
+			return false;
+		}
+		
+		for (int i = 0; i < this.roomLists.length; i++) {
+			if (currentRows.get(i).getRooms() != this.roomLists[i] || this.roomLists[i].getVersion() != this.roomListVersions[i]) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+}
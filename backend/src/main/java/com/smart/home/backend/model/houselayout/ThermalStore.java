@@ -0,0 +1,164 @@
+package com.smart.home.backend.model.houselayout;
+
+import com.smart.home.backend.constant.RoomHeatingMode;
+
+import java.util.List;
+
+/**
+ * Columnar store of the thermal state of rooms, indexed by a dense room index: temperatures in a
+ * primitive array, HAVC and heating mode packed in a byte per room. Bound rooms read and write their
+ * temperature, HAVC and heating mode through the store, so the heating tick can loop over the arrays
+ * without boxing. Releasing the store copies the state back into the rooms.
+ */
+public class ThermalStore {
+
+	private static final int HAVC_BIT = 1;
+	private static final int MODE_SHIFT = 1;
+	private static final int MODE_MASK = 0b11 << MODE_SHIFT;
+	private static final RoomHeatingMode[] HEATING_MODES = RoomHeatingMode.values();
+
+	private final Room[] rooms;
+	private final double[] temperatures;
+	private final byte[] flags;
+
+	/**
+	 * 1-parameter constructor, binding the rooms to the store in list order.
+	 * @param rooms rooms to bind, each at most once
+	 * @throws IllegalArgumentException Thrown when a room appears several times. No room is left bound
+	 */
+	public ThermalStore(List<Room> rooms) {
+		int nbRooms = rooms.size();
+		this.rooms = new Room[nbRooms];
+		this.temperatures = new double[nbRooms];
+		this.flags = new byte[nbRooms];
+
+		for (int i = 0; i < nbRooms; i++) {
+			Room room = rooms.get(i);
+
+			if (room.getThermalStore() == this) {
+				this.release();
+				throw new IllegalArgumentException("Room " + room.getName() + " appears several times");
+			}
+
+			this.rooms[i] = room;
+			this.temperatures[i] = room.getTemperature();
+			this.flags[i] = pack(room.getHavc(), room.getHeatingMode());
+			room.bindThermalStore(this, i);
+		}
+	}
+
+	/**
+	 * Number of rooms in the store.
+	 * @return Number of rooms
+	 */
+	public int size() {
+		return this.rooms.length;
+	}
+
+	/**
+	 * Accessor for a room.
+	 * @param index room index
+	 * @return Room
+	 */
+	public Room getRoom(int index) {
+		return this.rooms[index];
+	}
+
+	/**
+	 * Accessor for a room's temperature.
+	 * @param index room index
+	 * @return Temperature
+	 */
+	public double getTemperature(int index) {
+		return this.temperatures[index];
+	}
+
+	/**
+	 * Mutator for a room's temperature.
+	 * @param index room index
+	 * @param temperature new temperature
+	 */
+	public void setTemperature(int index, double temperature) {
+		this.temperatures[index] = temperature;
+	}
+
+	/**
+	 * Accessor for a room's HAVC state.
+	 * @param index room index
+	 * @return Whether the HAVC is on
+	 */
+	public boolean isHavc(int index) {
+		return (this.flags[index] & HAVC_BIT) != 0;
+	}
+
+	/**
+	 * Mutator for a room's HAVC state.
+	 * @param index room index
+	 * @param havc whether the HAVC is on
+	 */
+	public void setHavc(int index, boolean havc) {
+		this.flags[index] = (byte) (havc ? this.flags[index] | HAVC_BIT : this.flags[index] & ~HAVC_BIT);
+	}
+
+	/**
+	 * Accessor for a room's heating mode.
+	 * @param index room index
+	 * @return Heating mode. Null if the room has none
+	 */
+	public RoomHeatingMode getHeatingMode(int index) {
+		int mode = (this.flags[index] & MODE_MASK) >>> MODE_SHIFT;
+		return mode == 0 ? null : HEATING_MODES[mode - 1];
+	}
+
+	/**
+	 * Mutator for a room's heating mode.
+	 * @param index room index
+	 * @param heatingMode new heating mode
+	 */
+	public void setHeatingMode(int index, RoomHeatingMode heatingMode) {
+		this.flags[index] = (byte) ((this.flags[index] & ~MODE_MASK) | packMode(heatingMode));
+	}
+
+	/**
+	 * Whether a room's heating mode is the given one, without decoding it.
+	 * @param index room index
+	 * @param heatingMode heating mode
+	 * @return Whether the room is in the heating mode
+	 */
+	public boolean hasHeatingMode(int index, RoomHeatingMode heatingMode) {
+		return (this.flags[index] & MODE_MASK) == packMode(heatingMode);
+	}
+
+	/**
+	 * Copies the state back into the rooms still bound to the store and unbinds them.
+	 */
+	public void release() {
+		for (int i = 0; i < this.rooms.length; i++) {
+			Room room = this.rooms[i];
+
+			if (room != null && room.getThermalStore() == this) {
+				room.unbindThermalStore(this.getTemperature(i), this.isHavc(i), this.getHeatingMode(i));
+			}
+		}
+	}
+
+	/**
+	 * Packs a room's HAVC state and heating mode in a byte.
+	 * @param havc whether the HAVC is on
+	 * @param heatingMode heating mode
+	 * @return Packed flags
+	 */
+	private static byte pack(Boolean havc, RoomHeatingMode heatingMode) {
+		return (byte) ((Boolean.TRUE.equals(havc) ? HAVC_BIT : 0) | packMode(heatingMode));
+	}
+
+	/**
+	 * Packs a heating mode in the mode bits, zero standing for no mode.
+	 * @param heatingMode heating mode
+	 * @return Mode bits
+	 */
+	private static int packMode(RoomHeatingMode heatingMode) {
+		return heatingMode == null ? 0 : (heatingMode.ordinal() + 1) << MODE_SHIFT;
+	}
+
+}
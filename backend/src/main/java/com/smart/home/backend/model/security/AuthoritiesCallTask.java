@@ -1,40 +1,32 @@
 package com.smart.home.backend.model.security;
 
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.service.OutputConsole;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 /**
- * Timed task to alert authorities.
+ * Timed task to alert authorities, scheduled on the simulation timer wheel.
  */
-public class AuthoritiesCallTask extends TimerTask {
+public class AuthoritiesCallTask implements Runnable {
 	
 	private final SecurityModel securityModel;
-	private final Timer timer;
 	
 	/**
 	 * 1-parameter constructor.
 	 * @param securityModel security model
 	 */
-	public AuthoritiesCallTask(SecurityModel securityModel, Timer timer) {
+	public AuthoritiesCallTask(SecurityModel securityModel) {
 		this.securityModel = securityModel;
-		this.timer = timer;
 	}
 	
 	@Override
 	public void run() {
-		if (!securityModel.isUpdatingTime()) {
-			return;
-		}
-		
 		if (securityModel.getNbPersonsInside() > 0 && securityModel.getAwayMode().equals(true)) {
-			OutputConsole.log("SHP | Alerting authorities");
+			OutputConsole.log(ConsoleModule.SHP, ConsoleSeverity.WARN, null, "Alerting authorities");
 		} else {
-			OutputConsole.log("SHP | The house is now empty. Alert dismissed");
+			OutputConsole.log(ConsoleModule.SHP, ConsoleSeverity.INFO, null, "The house is now empty. Alert dismissed");
 		}
 		
 		securityModel.setAlertDetected(false);
-		timer.cancel();
 	}
 }
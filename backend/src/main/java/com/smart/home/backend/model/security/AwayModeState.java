@@ -0,0 +1,19 @@
+package com.smart.home.backend.model.security;
+
+import com.smart.home.backend.model.houselayout.LockdownSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Away mode state returned when it is changed, with the summary of the lockdown it triggered.
+ */
+@Getter
+@AllArgsConstructor
+public class AwayModeState {
+	
+	private final Boolean awayMode;
+	@Nullable
+	private final LockdownSummary lockdown;
+	
+}
@@ -1,22 +1,30 @@
 package com.smart.home.backend.model.security;
 
-import java.beans.PropertyChangeEvent;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Timer;
+import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.constant.LightState;
 import com.smart.home.backend.model.AbstractBaseModel;
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
 import com.smart.home.backend.model.houselayout.Light;
+import com.smart.home.backend.model.houselayout.LockdownSummary;
+import com.smart.home.backend.model.simulationparameters.timer.SimulationTimerWheel;
 import com.smart.home.backend.service.OutputConsole;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 /**
@@ -35,14 +43,34 @@ public class SecurityModel extends AbstractBaseModel {
     private AwayModeHours awayModeHours;
     private LocalTime currentTime;
     private List<Light> awayModeLights;
-    private int timeSpeed;
-    private boolean updatingTime;
+    private int alertCount;
+    @JsonIgnore
+    private LocalDateTime currentDate;
+    @JsonIgnore
+    private LocalDateTime nextLightSwitch;
+    @JsonIgnore
+    private SimulationTimerWheel timerWheel;
+    @JsonIgnore
+    private boolean ownTimerWheel;
+    @JsonIgnore
+    @Nullable
+    private LockdownSummary lastLockdown;
     
     /**
-     * Default constructor.
+     * Default constructor, using a timer wheel advanced by this model's own time increments.
      */
-    @Autowired
     public SecurityModel() {
+        this(new SimulationTimerWheel());
+        this.ownTimerWheel = true;
+    }
+    
+    /**
+     * 1-parameter constructor.
+     * @param timerWheel shared simulation timer wheel
+     */
+    @Autowired
+    public SecurityModel(SimulationTimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
         awayModeHours = new AwayModeHours(LocalTime.parse("06:00:00"), LocalTime.parse("18:00:00"));
         this.awayMode = false;
         this.alertDetected = false;
@@ -50,8 +78,6 @@ public class SecurityModel extends AbstractBaseModel {
         this.alertAuthoritiesTime = Duration.ofSeconds(10);
         this.currentTime = LocalTime.parse("12:00:00");
         this.awayModeLights = new ArrayList<>();
-        this.timeSpeed = 1;
-        this.updatingTime = false;
     }
     
     @Override
@@ -59,38 +85,65 @@ public class SecurityModel extends AbstractBaseModel {
         // Complying with parent class
     }
     
+    @Override
+    public Set<ModelEventType> subscriptions() {
+        return EnumSet.of(
+                ModelEventType.TIME_INCREMENT,
+                ModelEventType.DATE,
+                ModelEventType.NB_PERSONS_INSIDE,
+                ModelEventType.LIGHT_AWAY_MODE,
+                ModelEventType.LOCKDOWN
+        );
+    }
+    
     /**
-     * Handling property changes from observed objects.
-     * @param evt property change event
+     * Handling events from observed objects.
+     * @param event model event
      */
+    @Override
     @SneakyThrows
-    public void propertyChange(PropertyChangeEvent evt) {
-        switch(evt.getPropertyName()) {
-            case "date":
-                this.setCurrentTime(LocalTime.from(((LocalDateTime) evt.getNewValue()).toLocalTime()));
-                this.setAwayMode(this.getAwayMode());
-                break;
-            case "timeSpeed":
-                this.setTimeSpeed((int) evt.getNewValue());
+    public void onEvent(ModelEvent event) {
+        switch(event.getType()) {
+            case TIME_INCREMENT:
+                if (this.ownTimerWheel) {
+                    this.getTimerWheel().onEvent(event);
+                }
+                
+                this.updateDate((LocalDateTime) event.getNewValue());
+                
+                if (this.getAwayMode() && (this.nextLightSwitch == null || !this.currentDate.isBefore(this.nextLightSwitch))) {
+                    this.refreshAwayModeLights();
+                }
                 break;
-            case "simulationState":
-                this.setUpdatingTime((boolean) evt.getNewValue());
+            case DATE:
+                this.updateDate((LocalDateTime) event.getNewValue());
+                
+                if (this.getAwayMode()) {
+                    this.refreshAwayModeLights();
+                }
                 break;
-            case "nbPersonsInside":
-                this.setNbPersonsInside((Integer) evt.getNewValue());
+            case NB_PERSONS_INSIDE:
+                this.setNbPersonsInside((Integer) event.getNewValue());
     
                 if (this.awayMode.equals(true)) {
                     this.sendNotification();
                 }
                 break;
-            case "lightAwayMode":
-                Light newValue = (Light) evt.getNewValue();
-                Light oldValue = (Light) evt.getOldValue();
+            case LOCKDOWN:
+                this.setLastLockdown((LockdownSummary) event.getNewValue());
+                break;
+            case LIGHT_AWAY_MODE:
+                Light newValue = (Light) event.getNewValue();
+                Light oldValue = (Light) event.getOldValue();
                 
                 if (newValue == null) {
                     this.getAwayModeLights().remove(oldValue);
                 } else {
                     this.getAwayModeLights().add(newValue);
+                    
+                    if (this.getAwayMode()) {
+                        newValue.setState(this.isLightOnTime() ? LightState.ON : LightState.OFF);
+                    }
                 }
                 break;
             default:
@@ -107,20 +160,89 @@ public class SecurityModel extends AbstractBaseModel {
             return false;
         }
         
+        boolean changed = this.getAwayMode() != awayMode;
         this.awayMode = awayMode;
         
         if (this.getAwayMode().equals(true)) {
-            LightState lightState = this.isLightOnTime() ? LightState.ON : LightState.OFF;
-    
-            for (Light light: this.getAwayModeLights()) {
-                light.setState(lightState);
-            }
+            this.refreshAwayModeLights();
+        } else {
+            this.nextLightSwitch = null;
+            this.lastLockdown = null;
+        }
+        
+        if (changed) {
+            this.fire(ModelEventType.AWAY_MODE, null, this.getAwayMode());
         }
-         this.support.firePropertyChange("awayMode", null, this.getAwayMode());
     
         return true;
     }
     
+    /**
+     * Restores the away mode state from a checkpoint, without notifying the listeners. The light
+     * switch is recomputed on the next tick.
+     * @param awayMode restored away mode value
+     */
+    public void restoreAwayMode(boolean awayMode) {
+        this.awayMode = awayMode;
+        this.nextLightSwitch = null;
+    }
+    
+    /**
+     * Applies the away mode hours to the away mode lights and schedules the next light switch. Called
+     * when away mode is activated, when the hours change and when the simulated clock crosses a boundary.
+     * The layout owning the lights is notified that they were switched.
+     */
+    public void refreshAwayModeLights() {
+        if (!this.getAwayMode()) {
+            return;
+        }
+        
+        LightState lightState = this.isLightOnTime() ? LightState.ON : LightState.OFF;
+        
+        for (Light light: this.getAwayModeLights()) {
+            light.setState(lightState);
+        }
+        
+        this.nextLightSwitch = this.computeNextLightSwitch();
+        this.fire(ModelEventType.AWAY_MODE_LIGHTS, null, lightState);
+    }
+    
+    /**
+     * Updates the simulated clock.
+     * @param date new simulated date
+     */
+    private void updateDate(LocalDateTime date) {
+        this.currentDate = date;
+        this.setCurrentTime(date.toLocalTime());
+    }
+    
+    /**
+     * Computes the next time the simulated clock crosses one of the away mode hours.
+     * @return Next light switch date, null if the simulated date is unknown
+     */
+    @Nullable
+    private LocalDateTime computeNextLightSwitch() {
+        if (this.currentDate == null) {
+            return null;
+        }
+        
+        LocalDateTime nextFrom = this.nextOccurrence(this.getAwayModeHours().getFrom());
+        LocalDateTime nextTo = this.nextOccurrence(this.getAwayModeHours().getTo());
+        
+        return nextFrom.isBefore(nextTo) ? nextFrom : nextTo;
+    }
+    
+    /**
+     * Computes the next occurrence of a time of day strictly after the simulated date.
+     * @param time time of day
+     * @return Next occurrence
+     */
+    private LocalDateTime nextOccurrence(LocalTime time) {
+        LocalDateTime occurrence = this.currentDate.toLocalDate().atTime(time);
+        
+        return occurrence.isAfter(this.currentDate) ? occurrence : occurrence.plusDays(1);
+    }
+    
     /**
      * Checking that the current time is in the lights on hours.
      * @return Whether lights should be on or not.
@@ -135,13 +257,15 @@ public class SecurityModel extends AbstractBaseModel {
     public void sendNotification() {
         if (this.getAlertDetected().equals(false)) {
             this.setAlertDetected(true);
+            this.alertCount++;
             OutputConsole.log(
-                    "SHP | A person was detected inside the house. Alerting authorities in "
-                            + this.getAlertAuthoritiesTime().getSeconds() + " seconds"
+                    ConsoleModule.SHP,
+                    ConsoleSeverity.WARN,
+                    null,
+                    "A person was detected inside the house. Alerting authorities in {} seconds",
+                    this.getAlertAuthoritiesTime().getSeconds()
             );
-            Timer timer = new Timer();
-            long delay = this.getAlertAuthoritiesTime().getSeconds() * 1000 / this.getTimeSpeed();
-            timer.schedule(new AuthoritiesCallTask(this, timer), delay, delay);
+            this.getTimerWheel().schedule(this.getAlertAuthoritiesTime().getSeconds(), new AuthoritiesCallTask(this));
         }
     }
 
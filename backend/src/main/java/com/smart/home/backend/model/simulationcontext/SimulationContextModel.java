@@ -3,6 +3,8 @@ package com.smart.home.backend.model.simulationcontext;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.smart.home.backend.constant.SimulationState;
 import com.smart.home.backend.model.AbstractBaseModel;
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
 import com.smart.home.backend.model.houselayout.HouseLayoutModel;
 import com.smart.home.backend.model.houselayout.Person;
 import com.smart.home.backend.model.houselayout.Room;
@@ -15,7 +17,8 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.stereotype.Component;
 
-import java.beans.PropertyChangeEvent;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -77,11 +80,23 @@ public class SimulationContextModel extends AbstractBaseModel {
 			stateBool = true;
 		}
 		
-		this.support.firePropertyChange("simulationState", null, stateBool);
+		this.fire(ModelEventType.SIMULATION_STATE, null, stateBool);
 		
 		return this.getState();
 	}
 	
+	/**
+	 * Restoring the simulation state from a checkpoint, notifying the listeners like a toggle.
+	 * @param state restored state
+	 */
+	public void restoreState(SimulationState state) {
+		boolean stateBool = state == SimulationState.ON;
+		
+		this.getSimulationParametersModel().getSysParams().setIncrementing(stateBool);
+		this.setState(state);
+		this.fire(ModelEventType.SIMULATION_STATE, null, stateBool);
+	}
+	
 	@Override
 	public void reset() {
 	 	this.setState(SimulationState.OFF);
@@ -90,7 +105,12 @@ public class SimulationContextModel extends AbstractBaseModel {
 	}
 	
 	@Override
-	public void propertyChange(PropertyChangeEvent evt) {
+	public Set<ModelEventType> subscriptions() {
+		return EnumSet.noneOf(ModelEventType.class);
+	}
+	
+	@Override
+	public void onEvent(ModelEvent event) {
 		// Potentially TBD
 	}
 }
@@ -1,10 +1,13 @@
 package com.smart.home.backend.model.simulationparameters;
 
 import com.smart.home.backend.model.AbstractNotifier;
+import com.smart.home.backend.model.event.ModelEventType;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 /**
  * Timed task to increment the date.
  */
@@ -18,10 +21,18 @@ public class DateIncrementTask extends AbstractNotifier implements Runnable {
 	@Override
 	public void run() {
 		if (this.systemParameters.isIncrementing()) {
-			this.systemParameters.setDate(this.systemParameters.getDate().plusSeconds(1));
-			this.support.firePropertyChange("timeIncrement", null, this.systemParameters.getDate());
-			this.support.firePropertyChange("date", null, this.systemParameters.getDate());
+			this.tick(this.systemParameters.getTimeStep());
 		}
 	}
 	
+	/**
+	 * Advances the simulated date and notifies the listeners, whether the simulation is running or not.
+	 * @param stepSeconds number of simulated seconds to advance
+	 */
+	public synchronized void tick(long stepSeconds) {
+		LocalDateTime previousDate = this.systemParameters.getDate();
+		this.systemParameters.setDate(previousDate.plusSeconds(stepSeconds));
+		this.fire(ModelEventType.TIME_INCREMENT, previousDate, this.systemParameters.getDate());
+	}
+	
 }
@@ -3,6 +3,8 @@ package com.smart.home.backend.model.simulationparameters;
 import com.smart.home.backend.input.EditParametersInput;
 import com.smart.home.backend.input.ParametersInput;
 import com.smart.home.backend.model.AbstractBaseModel;
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
 import com.smart.home.backend.model.heating.SeasonDates;
 import com.smart.home.backend.model.simulationparameters.location.PersonLocationPosition;
 import com.smart.home.backend.model.simulationparameters.module.Modules;
@@ -12,8 +14,9 @@ import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.beans.PropertyChangeEvent;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Model for the SimulationParameters
@@ -56,7 +59,7 @@ public class SimulationParametersModel extends AbstractBaseModel {
     @Override
     public void reset() {
         this.setUser(new User(this.getUserProfiles().get(0), "", new PersonLocationPosition()));
-        this.setSysParams(new ParametersInput(0.0, 0.0, LocalDateTime.now(), 1, new SeasonDates()));
+        this.setSysParams(new ParametersInput(0.0, 0.0, LocalDateTime.now(), 1, new SeasonDates(), SystemParameters.MIN_TIME_STEP));
     }
     
     /**
@@ -68,7 +71,12 @@ public class SimulationParametersModel extends AbstractBaseModel {
     }
     
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
+    public Set<ModelEventType> subscriptions() {
+        return EnumSet.noneOf(ModelEventType.class);
+    }
+    
+    @Override
+    public void onEvent(ModelEvent event) {
         // Complying with parent class
     }
 }
@@ -3,9 +3,11 @@ package com.smart.home.backend.model.simulationparameters;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.smart.home.backend.input.ParametersInput;
 import com.smart.home.backend.model.AbstractNotifier;
+import com.smart.home.backend.model.event.ModelEventType;
 import com.smart.home.backend.model.heating.SeasonDates;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -22,11 +24,18 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class SystemParameters extends AbstractNotifier {
     
+    public static final int MIN_TIME_STEP = 1;
+    public static final int MAX_TIME_STEP = 900;
+    
     private Double outsideTemp;
     private Double insideTemp;
     private Integer timeSpeed;
+    private Integer timeStep;
     private LocalDateTime date;
     private SeasonDates seasonDates;
+    /**
+     * Wall-clock period between two ticks, in microseconds.
+     */
     private long delay;
     private boolean incrementing;
     
@@ -38,14 +47,25 @@ public class SystemParameters extends AbstractNotifier {
     private final DateIncrementTask dateIncrementTask;
     
     /**
-     * 1-parameter constructor.
+     * 1-parameter constructor, ticking on a dedicated thread.
      * @param dateIncrementTask date increment task
      */
+    @Autowired
     public SystemParameters(DateIncrementTask dateIncrementTask) {
-        this.executorService = Executors.newSingleThreadScheduledExecutor();
+        this(dateIncrementTask, Executors.newSingleThreadScheduledExecutor());
+    }
+    
+    /**
+     * 2-parameter constructor, ticking on an executor possibly shared with other homes.
+     * @param dateIncrementTask date increment task
+     * @param executorService executor running the ticks
+     */
+    public SystemParameters(DateIncrementTask dateIncrementTask, ScheduledExecutorService executorService) {
+        this.executorService = executorService;
         this.dateIncrementTask = dateIncrementTask;
         this.dateIncrementTask.setSystemParameters(this);
         this.incrementing = false;
+        this.timeStep = MIN_TIME_STEP;
     }
     
     /**
@@ -59,26 +79,30 @@ public class SystemParameters extends AbstractNotifier {
         }
     
         if (parametersInput.getOutsideTemp() != null) {
-            this.support.firePropertyChange("outsideTemp", this.getOutsideTemp(), parametersInput.getOutsideTemp());
+            this.fire(ModelEventType.OUTSIDE_TEMP, this.getOutsideTemp(), parametersInput.getOutsideTemp());
             this.setOutsideTemp(parametersInput.getOutsideTemp());
         }
     
         if (parametersInput.getDate() != null) {
-            this.support.firePropertyChange("date", this.getDate(), parametersInput.getDate());
+            this.fire(ModelEventType.DATE, this.getDate(), parametersInput.getDate());
             this.setDate(parametersInput.getDate());
         }
     
         if (parametersInput.getSeasonDates() != null) {
-            this.support.firePropertyChange("seasonDates", this.getSeasonDates(), parametersInput.getSeasonDates());
+            this.fire(ModelEventType.SEASON_DATES, this.getSeasonDates(), parametersInput.getSeasonDates());
             this.setSeasonDates(parametersInput.getSeasonDates());
         }
     
         if (parametersInput.getTimeSpeed() != null) {
-            this.support.firePropertyChange("timeSpeed", this.getTimeSpeed(), parametersInput.getTimeSpeed());
+            this.fire(ModelEventType.TIME_SPEED, this.getTimeSpeed(), parametersInput.getTimeSpeed());
             this.setTimeSpeed(parametersInput.getTimeSpeed());
         }
+    
+        if (parametersInput.getTimeStep() != null) {
+            this.setTimeStep(parametersInput.getTimeStep());
+        }
 
-        this.setDelay(1000L / this.getTimeSpeed());
+        this.updateDelay();
         this.resetTimer();
     }
     
@@ -88,17 +112,56 @@ public class SystemParameters extends AbstractNotifier {
      */
     public void setTimeSpeed(Integer timeSpeed) {
         this.timeSpeed = timeSpeed;
-        this.setDelay(1000L / timeSpeed);
+        this.updateDelay();
+    }
+    
+    /**
+     * Accessor for timeStep
+     * @param timeStep new number of simulated seconds per tick
+     */
+    public void setTimeStep(Integer timeStep) {
+        this.timeStep = timeStep;
+        this.updateDelay();
+    }
+    
+    /**
+     * Checks that a time step is within the supported bounds.
+     * @param timeStep number of simulated seconds per tick
+     * @return Whether the time step is valid or not
+     */
+    public static boolean isTimeStepValid(Integer timeStep) {
+        return timeStep == null || (timeStep >= MIN_TIME_STEP && timeStep <= MAX_TIME_STEP);
+    }
+    
+    /**
+     * Computes the tick period so that each tick advances the simulation by timeStep seconds
+     * while keeping the overall pace at timeSpeed simulated seconds per real second.
+     */
+    private void updateDelay() {
+        if (this.getTimeSpeed() == null || this.getTimeSpeed() <= 0 || this.getTimeStep() == null) {
+            return;
+        }
+        
+        this.setDelay(Math.max(1L, 1_000_000L * this.getTimeStep() / this.getTimeSpeed()));
+    }
+    
+    /**
+     * Stops the timer by cancelling the scheduled task.
+     */
+    public void stopTimer() {
+        if (!this.getExecutorService().isShutdown() && this.getScheduledFuture() != null) {
+            this.getScheduledFuture().cancel(false);
+        }
     }
     
     /**
      * Resets the timer by cancelling the scheduled task and starting a new one.
      */
-    private void resetTimer() {
+    public void resetTimer() {
         if (!this.getExecutorService().isShutdown() && this.getScheduledFuture() != null) {
             this.getScheduledFuture().cancel(true);
         }
-        this.setScheduledFuture(this.getExecutorService().scheduleAtFixedRate(this.dateIncrementTask, this.delay, this.delay,TimeUnit.MILLISECONDS));
+        this.setScheduledFuture(this.getExecutorService().scheduleAtFixedRate(this.dateIncrementTask, this.delay, this.delay, TimeUnit.MICROSECONDS));
     }
     
 }
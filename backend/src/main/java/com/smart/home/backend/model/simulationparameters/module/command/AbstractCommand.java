@@ -1,8 +1,14 @@
 package com.smart.home.backend.model.simulationparameters.module.command;
 
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.houselayout.Location;
+import com.smart.home.backend.model.houselayout.Room;
 import com.smart.home.backend.service.OutputConsole;
 import lombok.Getter;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 
 @Getter
 public abstract class AbstractCommand<X, Y, Z> implements Command<X, Y, Z> {
@@ -22,10 +28,37 @@ public abstract class AbstractCommand<X, Y, Z> implements Command<X, Y, Z> {
 		this.locationDependent = locationDependent;
 	}
 	
+	/**
+	 * Logs an informative action of the command to the console.
+	 * @param line message of the action
+	 */
 	protected void logAction(String line) {
 		OutputConsole.log(this.getModuleName() + " | " + line);
 	}
 	
+	/**
+	 * Logs an action of the command to the console.
+	 * @param severity severity of the action
+	 * @param location location the action is about. Null if about no location
+	 * @param template message template, whose {} placeholders are replaced by the arguments
+	 * @param arguments message arguments
+	 */
+	protected void logAction(ConsoleSeverity severity, @Nullable Location location, String template, Object... arguments) {
+		OutputConsole.log(ConsoleModule.get(this.getModuleName()), severity, location, template, arguments);
+	}
+	
+	/**
+	 * Logs an action of the command about a heating zone to the console.
+	 * @param severity severity of the action
+	 * @param zone heating zone the action is about
+	 * @param room room of the zone the action is about. Null if about the whole zone
+	 * @param template message template, whose {} placeholders are replaced by the arguments
+	 * @param arguments message arguments
+	 */
+	protected void logAction(ConsoleSeverity severity, HeatingZone zone, @Nullable Room room, String template, Object... arguments) {
+		OutputConsole.log(ConsoleModule.get(this.getModuleName()), severity, zone, room, template, arguments);
+	}
+	
 	@Override
 	public ResponseEntity<Z> execute(X model, Y input) {
 		return null;
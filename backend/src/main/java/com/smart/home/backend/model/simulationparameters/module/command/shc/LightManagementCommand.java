@@ -1,5 +1,7 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shc;
 
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.constant.LightState;
 import com.smart.home.backend.input.LightInput;
 import com.smart.home.backend.input.OutsideLightInput;
@@ -45,7 +47,7 @@ public class LightManagementCommand extends SHCAbstractCommand<HouseLayoutModel,
     
         if (lightInput.getState() != null && !lightInput.getState().equals(modifiedLight.getState())) {
             modifiedLight.setState(lightInput.getState());
-            this.logAction("Turned " + location.getName() + "'s light " + lightInput.getState().toString());
+            this.logAction(ConsoleSeverity.INFO, location, "Turned {}'s light {}", location.getName(), lightInput.getState());
         }
         
         return new ResponseEntity<>(modifiedLight, HttpStatus.OK);
@@ -64,13 +66,15 @@ public class LightManagementCommand extends SHCAbstractCommand<HouseLayoutModel,
         if (lightInput.getAutoMode() != null && !lightInput.getAutoMode().equals(modifiedLight.getAutoMode())) {
             String autoModeString = lightInput.getAutoMode().equals(true) ? "ON" : "OFF";
             modifiedLight.setAutoMode(lightInput.getAutoMode());
-            this.logAction("Turned " + location.getName() + "'s light's auto mode " + autoModeString);
+            this.logAction(ConsoleSeverity.INFO, location, "Turned {}'s light's auto mode {}", location.getName(), autoModeString);
         }
     
         if (lightInput.getAwayMode() != null && !lightInput.getAwayMode().equals(modifiedLight.getAwayMode())) {
             String awayModeString = lightInput.getAwayMode().equals(true) ? "ON" : "OFF";
             houseLayoutModel.setAwayMode(location, lightInput.getAwayMode());
-            OutputConsole.log("SHP | Turned " + location.getName() + "'s light's away mode " + awayModeString);
+            OutputConsole.log(
+                    ConsoleModule.SHP, ConsoleSeverity.INFO, location, "Turned {}'s light's away mode {}", location.getName(), awayModeString
+            );
         }
         
         return modifiedLight;
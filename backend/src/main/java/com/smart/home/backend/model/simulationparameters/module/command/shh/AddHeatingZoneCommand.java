@@ -1,5 +1,6 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shh;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.HeatingZoneInput;
 import com.smart.home.backend.model.heating.HeatingModel;
 import com.smart.home.backend.model.heating.HeatingZone;
@@ -22,7 +23,7 @@ public class AddHeatingZoneCommand extends SHHAbstractCommand<HeatingModel, Heat
         if (heatingZone != null) {
             this.logAction("Added new heating zone: " + heatingZone.getName());
         } else {
-            this.logAction("Zone " + heatingZoneInput.getName() + " already exists and was not added");
+            this.logAction(ConsoleSeverity.WARN, null, "Zone {} already exists and was not added", heatingZoneInput.getName());
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         return new ResponseEntity<>(heatingZone, HttpStatus.OK);
@@ -1,5 +1,6 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shh;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.HeatingZoneRoomInput;
 import com.smart.home.backend.model.heating.HeatingModel;
 import com.smart.home.backend.model.heating.HeatingZone;
@@ -27,13 +28,13 @@ public class AddRoomToZoneCommand extends SHHAbstractCommand<HeatingModel, Heati
         if (foundRoom != null) {
             try {
                 heatingModel.addRoomToZone(zone, foundRoom);
-                this.logAction("Added " + foundRoom.getName() + " to zone " + zone.getName());
+                this.logAction(ConsoleSeverity.INFO, zone, foundRoom, "Added {} to zone {}", foundRoom.getName(), zone.getName());
             } catch (RoomAlreadyInZoneException e) {
-                this.logAction(e.getMessage());
+                this.logAction(ConsoleSeverity.WARN, zone, foundRoom, e.getMessage());
                 return new ResponseEntity<>(HttpStatus.CONFLICT);
             }
         } else {
-            this.logAction("Room not found and could not be added");
+            this.logAction(ConsoleSeverity.WARN, null, "Room not found and could not be added");
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
         return new ResponseEntity<>(foundRoom, HttpStatus.OK);
@@ -1,5 +1,6 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shh;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.HeatingZoneRoomTemperatureInput;
 import com.smart.home.backend.model.heating.HeatingModel;
 import com.smart.home.backend.model.houselayout.Room;
@@ -19,7 +20,13 @@ public class OverrideRoomTemperatureCommand extends SHHAbstractCommand<HeatingMo
     @Override
     public ResponseEntity<Double> execute(HeatingModel heatingModel, HeatingZoneRoomTemperatureInput heatingZoneRoomTemperature ) {
         Room foundRoom = heatingModel.overrideRoomTemperature(heatingZoneRoomTemperature.getLocationPosition(), heatingZoneRoomTemperature.getOverrideTemperature());
-        this.logAction("Overrode " + foundRoom.getName() + "'s temperature to " + heatingZoneRoomTemperature.getOverrideTemperature());
+        this.logAction(
+                ConsoleSeverity.INFO,
+                foundRoom,
+                "Overrode {}'s temperature to {}",
+                foundRoom.getName(),
+                heatingZoneRoomTemperature.getOverrideTemperature()
+        );
         return new ResponseEntity<>(heatingZoneRoomTemperature.getOverrideTemperature(), HttpStatus.OK);
     }
     
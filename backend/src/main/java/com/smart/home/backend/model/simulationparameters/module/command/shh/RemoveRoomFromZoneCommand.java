@@ -1,5 +1,6 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shh;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.HeatingZoneRoomInput;
 import com.smart.home.backend.model.heating.HeatingModel;
 import com.smart.home.backend.model.heating.HeatingZone;
@@ -22,7 +23,7 @@ public class RemoveRoomFromZoneCommand extends SHHAbstractCommand<HeatingModel,
     public ResponseEntity<Integer> execute(HeatingModel heatingModel, HeatingZoneRoomInput heatingZoneRoomInput) {
         HeatingZone zone = heatingModel.findZone(heatingZoneRoomInput.getZoneId());
         Room removedRoom = heatingModel.removeRoomFromZone(heatingZoneRoomInput.getZoneId(), new LocationPosition(heatingZoneRoomInput.getRowId(), heatingZoneRoomInput.getRoomId()) );
-        this.logAction("Removed " + removedRoom.getName() + " from zone " + zone.getName());
+        this.logAction(ConsoleSeverity.INFO, zone, removedRoom, "Removed {} from zone {}", removedRoom.getName(), zone.getName());
         return new ResponseEntity<>(heatingZoneRoomInput.getRoomId(), HttpStatus.OK);
     }
     
@@ -1,5 +1,6 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shh;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.HeatingZoneTemperatureInput;
 import com.smart.home.backend.model.heating.HeatingModel;
 import com.smart.home.backend.model.heating.HeatingZone;
@@ -22,7 +23,7 @@ public class SetZoneTemperatureCommand extends SHHAbstractCommand<HeatingModel,
         if (heatingZone != null) {
             this.logAction("Set temperature to " + heatingTemperatureInput.getTargetTemperature() + " for zone " + heatingZone.getName() + " during period: " + heatingTemperatureInput.getHeatingZonePeriod());
         } else {
-            this.logAction("Heating zone was not found");
+            this.logAction(ConsoleSeverity.WARN, null, "Heating zone was not found");
         }
         return new ResponseEntity<>(heatingTemperatureInput.getTargetTemperature(), HttpStatus.OK);
     }
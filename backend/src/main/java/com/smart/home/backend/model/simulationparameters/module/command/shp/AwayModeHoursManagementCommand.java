@@ -29,6 +29,8 @@ public class AwayModeHoursManagementCommand extends SHPAbstractCommand<SecurityM
             this.logAction("Away mode light stop hour changed to " + awayModeHours.getTo());
         }
         
+        securityModel.refreshAwayModeLights();
+        
         return new ResponseEntity<>(securityModel.getAwayModeHours(), HttpStatus.OK);
     }
     
@@ -1,6 +1,8 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shp;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.AwayModeInput;
+import com.smart.home.backend.model.security.AwayModeState;
 import com.smart.home.backend.model.security.SecurityModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,7 +10,7 @@ import org.springframework.http.ResponseEntity;
 /**
  * Away mode management command.
  */
-public class AwayModeManagementCommand extends SHPAbstractCommand<SecurityModel, AwayModeInput, Boolean>{
+public class AwayModeManagementCommand extends SHPAbstractCommand<SecurityModel, AwayModeInput, AwayModeState>{
     
     /**
      * Default constructor.
@@ -18,24 +20,27 @@ public class AwayModeManagementCommand extends SHPAbstractCommand<SecurityModel,
     }
 
     @Override
-    public ResponseEntity<Boolean> execute(SecurityModel securityModel, AwayModeInput awayModeInput){
+    public ResponseEntity<AwayModeState> execute(SecurityModel securityModel, AwayModeInput awayModeInput){
         String stateString = awayModeInput.getState().equals(true) ? "ON" : "OFF";
         
         if (!securityModel.setAwayMode(awayModeInput.getState())) {
-            String errorString = "Away mode could not be turned " + stateString;
+            String errorTemplate = "Away mode could not be turned {}";
             
             if (awayModeInput.getState().equals(true)) {
-                errorString += ": there are people inside the house";
+                errorTemplate += ": there are people inside the house";
             }
     
-            this.logAction(errorString);
+            this.logAction(ConsoleSeverity.WARN, null, errorTemplate, stateString);
     
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     
         this.logAction("Away mode turned " + stateString);
     
-        return new ResponseEntity<>(securityModel.getAwayMode(), HttpStatus.OK);
+        return new ResponseEntity<>(
+                new AwayModeState(securityModel.getAwayMode(), securityModel.getLastLockdown()),
+                HttpStatus.OK
+        );
     }
     
 }
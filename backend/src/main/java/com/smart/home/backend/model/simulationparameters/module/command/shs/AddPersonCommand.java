@@ -1,9 +1,11 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shs;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
 import com.smart.home.backend.input.OutsidePersonInput;
 import com.smart.home.backend.input.PersonInput;
 import com.smart.home.backend.input.RoomPersonInput;
 import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.houselayout.Location;
 import com.smart.home.backend.model.houselayout.OutsideLocation;
 import com.smart.home.backend.model.houselayout.Room;
 import org.springframework.http.HttpStatus;
@@ -28,7 +30,7 @@ public class AddPersonCommand extends SHSAbstractCommand<HouseLayoutModel, Perso
         }
     
         if (houseLayoutModel.isInHouse(personInput.getName())) {
-            this.logAction(personInput.getName() + " is already in the simulation and could not be added");
+            this.logAction(ConsoleSeverity.WARN, null, "{} is already in the simulation and could not be added", personInput.getName());
             return new ResponseEntity<>(HttpStatus.CONFLICT);
         }
         
@@ -52,7 +54,7 @@ public class AddPersonCommand extends SHSAbstractCommand<HouseLayoutModel, Perso
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     
-        this.logPersonInLocation(personInput.getName(), targetRoom.getName());
+        this.logPersonInLocation(personInput.getName(), targetRoom);
     
         return new ResponseEntity<>(houseLayoutModel.addPerson(targetRoom, personInput), HttpStatus.OK);
     }
@@ -65,7 +67,7 @@ public class AddPersonCommand extends SHSAbstractCommand<HouseLayoutModel, Perso
      */
     private ResponseEntity<Integer> addPersonOutside(HouseLayoutModel houseLayoutModel, OutsidePersonInput personInput) {
         OutsideLocation outsideLocation = houseLayoutModel.getOutsideLocation(personInput.getLocation());
-        this.logPersonInLocation(personInput.getName(), outsideLocation.getName());
+        this.logPersonInLocation(personInput.getName(), outsideLocation);
     
         return new ResponseEntity<>(houseLayoutModel.addPerson(outsideLocation, personInput), HttpStatus.OK);
     }
@@ -73,10 +75,10 @@ public class AddPersonCommand extends SHSAbstractCommand<HouseLayoutModel, Perso
     /**
      * Logging the addition of a person in a location.
      * @param personName person's name
-     * @param locationName location's name
+     * @param location location
      */
-    private void logPersonInLocation(String personName, String locationName) {
-        this.logAction(personName + " added in the " + locationName);
+    private void logPersonInLocation(String personName, Location location) {
+        this.logAction(ConsoleSeverity.INFO, location, "{} added in the {}", personName, location.getName());
     }
     
 }
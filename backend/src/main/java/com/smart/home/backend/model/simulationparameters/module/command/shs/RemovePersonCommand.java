@@ -1,5 +1,7 @@
 package com.smart.home.backend.model.simulationparameters.module.command.shs;
 
+import com.smart.home.backend.constant.ConsoleSeverity;
+import com.smart.home.backend.model.houselayout.Location;
 import com.smart.home.backend.model.houselayout.OutsideLocation;
 import com.smart.home.backend.model.houselayout.Room;
 import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
@@ -44,7 +46,7 @@ public class RemovePersonCommand extends SHSAbstractCommand<SimulationContextMod
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     
-        this.logPersonInLocation(personName, targetRoom.getName());
+        this.logPersonInLocation(personName, targetRoom);
     
         return new ResponseEntity<>(simulationContextModel, HttpStatus.OK);
     }
@@ -63,7 +65,7 @@ public class RemovePersonCommand extends SHSAbstractCommand<SimulationContextMod
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     
-        this.logPersonInLocation(personName, locationPosition.getName());
+        this.logPersonInLocation(personName, outsideLocation);
         
         return new ResponseEntity<>(simulationContextModel, HttpStatus.OK);
     }
@@ -71,10 +73,10 @@ public class RemovePersonCommand extends SHSAbstractCommand<SimulationContextMod
     /**
      * Logging the addition of a person in a location.
      * @param personName person's name
-     * @param locationName location's name
+     * @param location location
      */
-    private void logPersonInLocation(String personName, String locationName) {
-        this.logAction(personName + " removed from the " + locationName);
+    private void logPersonInLocation(String personName, Location location) {
+        this.logAction(ConsoleSeverity.INFO, location, "{} removed from the {}", personName, location.getName());
     }
     
 }
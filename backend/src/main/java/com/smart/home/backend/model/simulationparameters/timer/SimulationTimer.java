@@ -0,0 +1,58 @@
+package com.smart.home.backend.model.simulationparameters.timer;
+
+import lombok.Getter;
+
+/**
+ * Handle of an action scheduled on the simulation timer wheel.
+ */
+public class SimulationTimer {
+	
+	@Getter
+	private final long deadline;
+	private final Runnable task;
+	private final SimulationTimerWheel wheel;
+	
+	SimulationTimer previous;
+	SimulationTimer next;
+	boolean pending;
+	int level;
+	int slot;
+	
+	/**
+	 * 3-parameter constructor.
+	 * @param deadline simulated second at which the task runs
+	 * @param task task to run
+	 * @param wheel wheel the timer belongs to
+	 */
+	SimulationTimer(long deadline, Runnable task, SimulationTimerWheel wheel) {
+		this.deadline = deadline;
+		this.task = task;
+		this.wheel = wheel;
+	}
+	
+	/**
+	 * Cancels the timer. Does nothing if it already ran or was already cancelled.
+	 * @return Whether the timer was cancelled
+	 */
+	public boolean cancel() {
+		return this.wheel.cancel(this);
+	}
+	
+	/**
+	 * Whether the timer is still waiting to run.
+	 * @return True if pending
+	 */
+	public boolean isPending() {
+		synchronized (this.wheel) {
+			return this.pending;
+		}
+	}
+	
+	/**
+	 * Runs the scheduled task.
+	 */
+	void run() {
+		this.task.run();
+	}
+	
+}
@@ -0,0 +1,228 @@
+package com.smart.home.backend.model.simulationparameters.timer;
+
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
+import com.smart.home.backend.model.event.ModelListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hierarchical timer wheel driven by the simulated clock. Each level has 64 slots, a slot of level n
+ * covering 64^n simulated seconds. Timers are kept in doubly linked slot lists, so scheduling and
+ * cancelling are O(1), and no thread is ever created: expired tasks run on the thread advancing the clock.
+ * Since the wheel only moves with simulated time, pausing the simulation or changing its speed
+ * never shifts a deadline.
+ */
+@Component
+public class SimulationTimerWheel implements ModelListener {
+	
+	private static final int SLOT_BITS = 6;
+	private static final int NB_SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = NB_SLOTS - 1;
+	private static final int NB_LEVELS = 4;
+	
+	private final SimulationTimer[][] slots = new SimulationTimer[NB_LEVELS][NB_SLOTS];
+	private long currentTick;
+	private int size;
+	
+	/**
+	 * Schedules a task after a number of simulated seconds.
+	 * @param delaySeconds simulated delay, at least one second
+	 * @param task task to run
+	 * @return Timer handle, used to cancel the task
+	 */
+	public synchronized SimulationTimer schedule(long delaySeconds, Runnable task) {
+		SimulationTimer timer = new SimulationTimer(this.currentTick + Math.max(1, delaySeconds), task, this);
+		this.insert(timer);
+		this.size++;
+		
+		return timer;
+	}
+	
+	/**
+	 * Cancels a timer.
+	 * @param timer timer to cancel
+	 * @return Whether the timer was still pending
+	 */
+	synchronized boolean cancel(SimulationTimer timer) {
+		if (!timer.pending) {
+			return false;
+		}
+		
+		this.unlink(timer);
+		this.size--;
+		
+		return true;
+	}
+	
+	/**
+	 * Advances the wheel and runs the expired tasks.
+	 * @param seconds number of simulated seconds elapsed
+	 */
+	public void advance(long seconds) {
+		List<SimulationTimer> expired = null;
+		
+		synchronized (this) {
+			long target = this.currentTick + seconds;
+			
+			while (this.currentTick < target) {
+				if (this.size == 0) {
+					this.currentTick = target;
+					break;
+				}
+				
+				this.currentTick++;
+				this.cascade();
+				expired = this.expire(expired);
+			}
+		}
+		
+		if (expired != null) {
+			for (SimulationTimer timer : expired) {
+				timer.run();
+			}
+		}
+	}
+	
+	/**
+	 * Number of pending timers.
+	 * @return Pending timers
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Simulated seconds elapsed since the wheel was created.
+	 * @return Current tick
+	 */
+	public synchronized long getCurrentTick() {
+		return this.currentTick;
+	}
+	
+	@Override
+	public Set<ModelEventType> subscriptions() {
+		return EnumSet.of(ModelEventType.TIME_INCREMENT);
+	}
+	
+	@Override
+	public void onEvent(ModelEvent event) {
+		LocalDateTime previousDate = (LocalDateTime) event.getOldValue();
+		LocalDateTime currentDate = (LocalDateTime) event.getNewValue();
+		
+		if (previousDate != null && currentDate != null) {
+			this.advance(Math.max(0, ChronoUnit.SECONDS.between(previousDate, currentDate)));
+		}
+	}
+	
+	/**
+	 * Moves the timers of the higher level slots reached by the current tick down the wheel.
+	 */
+	private void cascade() {
+		int level = 0;
+		
+		while (level + 1 < NB_LEVELS && (this.currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+			level++;
+		}
+		
+		for (; level > 0; level--) {
+			int index = (int) ((this.currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+			SimulationTimer timer = this.slots[level][index];
+			this.slots[level][index] = null;
+			
+			while (timer != null) {
+				SimulationTimer next = timer.next;
+				this.insert(timer);
+				timer = next;
+			}
+		}
+	}
+	
+	/**
+	 * Collects the timers of the current level 0 slot.
+	 * @param expired list receiving the expired timers, null until a timer expires
+	 * @return List of the expired timers, null if none expired yet
+	 */
+	private List<SimulationTimer> expire(List<SimulationTimer> expired) {
+		int index = (int) (this.currentTick & SLOT_MASK);
+		SimulationTimer timer = this.slots[0][index];
+		this.slots[0][index] = null;
+		
+		while (timer != null) {
+			SimulationTimer next = timer.next;
+			timer.pending = false;
+			timer.previous = null;
+			timer.next = null;
+			
+			if (expired == null) {
+				expired = new ArrayList<>();
+			}
+			
+			expired.add(timer);
+			this.size--;
+			timer = next;
+		}
+		
+		return expired;
+	}
+	
+	/**
+	 * Links a timer in the slot matching its remaining delay. Timers beyond the last level stay in its
+	 * furthest slot and are re-evaluated whenever that slot cascades.
+	 * @param timer timer to insert
+	 */
+	private void insert(SimulationTimer timer) {
+		long delta = timer.getDeadline() - this.currentTick;
+		int level = 0;
+		
+		while (level + 1 < NB_LEVELS && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+			level++;
+		}
+		
+		int index = (int) ((timer.getDeadline() >>> (SLOT_BITS * level)) & SLOT_MASK);
+		
+		if (delta >= (1L << (SLOT_BITS * NB_LEVELS))) {
+			index = (int) (((this.currentTick >>> (SLOT_BITS * level)) - 1) & SLOT_MASK);
+		}
+		
+		SimulationTimer head = this.slots[level][index];
+		timer.level = level;
+		timer.slot = index;
+		timer.previous = null;
+		timer.next = head;
+		timer.pending = true;
+		
+		if (head != null) {
+			head.previous = timer;
+		}
+		
+		this.slots[level][index] = timer;
+	}
+	
+	/**
+	 * Unlinks a pending timer from its slot.
+	 * @param timer timer to unlink
+	 */
+	private void unlink(SimulationTimer timer) {
+		if (timer.previous != null) {
+			timer.previous.next = timer.next;
+		} else {
+			this.slots[timer.level][timer.slot] = timer.next;
+		}
+		
+		if (timer.next != null) {
+			timer.next.previous = timer.previous;
+		}
+		
+		timer.previous = null;
+		timer.next = null;
+		timer.pending = false;
+	}
+	
+}
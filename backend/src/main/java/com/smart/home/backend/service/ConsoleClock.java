@@ -0,0 +1,27 @@
+package com.smart.home.backend.service;
+
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
+import com.smart.home.backend.model.event.ModelListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Clock of the output console. Follows the simulated date of the home it listens to, so the console
+ * events are stamped with it.
+ */
+public class ConsoleClock implements ModelListener {
+	
+	@Override
+	public Set<ModelEventType> subscriptions() {
+		return EnumSet.of(ModelEventType.TIME_INCREMENT, ModelEventType.DATE);
+	}
+	
+	@Override
+	public void onEvent(ModelEvent event) {
+		OutputConsole.setSimulatedTime((LocalDateTime) event.getNewValue());
+	}
+	
+}
@@ -0,0 +1,167 @@
+package com.smart.home.backend.service;
+
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Event of the output console. Its message is a template whose {} placeholders are replaced by its
+ * arguments, and its line is the message prefixed by the module name, as shown in the console. An event
+ * about a room or heating zone holds their ids, the room name being only shown to the user.
+ */
+@Getter
+public class ConsoleEvent {
+	
+	private static final String PLACEHOLDER = "{}";
+	private static final Pattern MODULE_PREFIX = Pattern.compile("^([A-Z]{3}) \\| (.*)$", Pattern.DOTALL);
+	
+	private long sequence;
+	private final long timestamp;
+	@Nullable
+	private final LocalDateTime simulatedTime;
+	@Nullable
+	private final ConsoleModule module;
+	private final ConsoleSeverity severity;
+	@Nullable
+	private final String room;
+	@Nullable
+	private final Integer rowId;
+	@Nullable
+	private final Integer roomId;
+	@Nullable
+	private final Integer zoneId;
+	private final String template;
+	private final List<String> arguments;
+	@Getter(AccessLevel.NONE)
+	private String line;
+	
+	/**
+	 * 10-parameter constructor.
+	 * @param timestamp epoch milliseconds at which the event was logged. Now if null
+	 * @param simulatedTime simulated time of the event. Null if not known
+	 * @param module module logging the event. Null for a line without module
+	 * @param severity severity of the event. Info if null
+	 * @param room name of the location the event is about. Null if about no location
+	 * @param rowId id of the row of the room the event is about. Null if about no room
+	 * @param roomId id of the room the event is about within its row. Null if about no room
+	 * @param zoneId id of the heating zone the event is about. Null if about no zone
+	 * @param template message template
+	 * @param arguments arguments replacing the placeholders of the template
+	 */
+	@Builder
+	ConsoleEvent(
+			@Nullable Long timestamp,
+			@Nullable LocalDateTime simulatedTime,
+			@Nullable ConsoleModule module,
+			@Nullable ConsoleSeverity severity,
+			@Nullable String room,
+			@Nullable Integer rowId,
+			@Nullable Integer roomId,
+			@Nullable Integer zoneId,
+			String template,
+			@Nullable List<String> arguments
+	) {
+		this.timestamp = timestamp == null ? System.currentTimeMillis() : timestamp;
+		this.simulatedTime = simulatedTime;
+		this.module = module;
+		this.severity = severity == null ? ConsoleSeverity.INFO : severity;
+		this.room = room;
+		this.rowId = rowId;
+		this.roomId = roomId;
+		this.zoneId = zoneId;
+		this.template = template;
+		this.arguments = arguments == null ? Collections.emptyList() : Collections.unmodifiableList(arguments);
+	}
+	
+	/**
+	 * Creates an event from a free-form line. A line starting with a module name followed by " | " is
+	 * attributed to that module.
+	 * @param line console line
+	 * @return Informative event of the line
+	 */
+	public static ConsoleEvent parse(String line) {
+		Matcher matcher = MODULE_PREFIX.matcher(line);
+		ConsoleModule module = matcher.matches() ? ConsoleModule.get(matcher.group(1)) : null;
+		
+		return ConsoleEvent.builder()
+				.module(module)
+				.template(module == null ? line : matcher.group(2))
+				.build();
+	}
+	
+	/**
+	 * Converts the arguments of a message to strings.
+	 * @param arguments message arguments
+	 * @return Argument strings
+	 */
+	public static List<String> toStrings(Object... arguments) {
+		List<String> strings = new ArrayList<>(arguments.length);
+		
+		for (Object argument : arguments) {
+			strings.add(String.valueOf(argument));
+		}
+		
+		return strings;
+	}
+	
+	/**
+	 * Mutator for the sequence number, given once the event is sequenced or read from the log segment.
+	 * @param sequence sequence number
+	 */
+	void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+	
+	/**
+	 * Accessor for the line shown in the console, rendered on first access.
+	 * @return Module name and message
+	 */
+	public String getLine() {
+		String rendered = this.line;
+		
+		if (rendered == null) {
+			rendered = this.render();
+			this.line = rendered;
+		}
+		
+		return rendered;
+	}
+	
+	/**
+	 * Renders the line, replacing the placeholders of the template in order. Placeholders without
+	 * argument are kept.
+	 * @return Rendered line
+	 */
+	private String render() {
+		StringBuilder builder = new StringBuilder();
+		int from = 0;
+		
+		if (this.module != null) {
+			builder.append(this.module).append(" | ");
+		}
+		
+		for (String argument : this.arguments) {
+			int placeholder = this.template.indexOf(PLACEHOLDER, from);
+			
+			if (placeholder < 0) {
+				break;
+			}
+			
+			builder.append(this.template, from, placeholder).append(argument);
+			from = placeholder + PLACEHOLDER.length();
+		}
+		
+		return builder.append(this.template, from, this.template.length()).toString();
+	}
+
+}
@@ -0,0 +1,216 @@
+package com.smart.home.backend.service;
+
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of the console events in the log segment. An event is a flags byte telling which
+ * optional fields follow, the module and severity ordinals, the timestamp, then the optional simulated
+ * time, room name, row, room and zone ids, the template and the arguments. Lengths and counts are variable-length integers, and
+ * strings are UTF-8, so a short event takes a few dozen bytes. The sequence number is not encoded: it is
+ * given by the position of the event in the segment.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class ConsoleEventCodec {
+	
+	private static final int SIMULATED_TIME = 1;
+	private static final int ROOM = 1 << 1;
+	private static final int MODULE = 1 << 2;
+	private static final int ROW_ID = 1 << 3;
+	private static final int ROOM_ID = 1 << 4;
+	private static final int ZONE_ID = 1 << 5;
+	
+	/**
+	 * Encodes an event.
+	 * @param event console event
+	 * @param output output receiving the encoded event
+	 * @throws IOException Thrown when the output cannot be written
+	 */
+	static void encode(ConsoleEvent event, DataOutput output) throws IOException {
+		int flags = (event.getSimulatedTime() != null ? SIMULATED_TIME : 0)
+				| (event.getRoom() != null ? ROOM : 0)
+				| (event.getModule() != null ? MODULE : 0)
+				| (event.getRowId() != null ? ROW_ID : 0)
+				| (event.getRoomId() != null ? ROOM_ID : 0)
+				| (event.getZoneId() != null ? ZONE_ID : 0);
+		
+		output.writeByte(flags);
+		output.writeByte(event.getModule() != null ? event.getModule().ordinal() : 0);
+		output.writeByte(event.getSeverity().ordinal());
+		output.writeLong(event.getTimestamp());
+		
+		if (event.getSimulatedTime() != null) {
+			output.writeLong(event.getSimulatedTime().toEpochSecond(ZoneOffset.UTC));
+			writeVarInt(output, event.getSimulatedTime().getNano());
+		}
+		
+		if (event.getRoom() != null) {
+			writeString(output, event.getRoom());
+		}
+		
+		if (event.getRowId() != null) {
+			output.writeInt(event.getRowId());
+		}
+		
+		if (event.getRoomId() != null) {
+			output.writeInt(event.getRoomId());
+		}
+		
+		if (event.getZoneId() != null) {
+			output.writeInt(event.getZoneId());
+		}
+		
+		writeString(output, event.getTemplate());
+		writeVarInt(output, event.getArguments().size());
+		
+		for (String argument : event.getArguments()) {
+			writeString(output, argument);
+		}
+	}
+	
+	/**
+	 * Decodes an event.
+	 * @param sequence sequence number of the event
+	 * @param input input holding the encoded event
+	 * @return Decoded event
+	 * @throws IOException Thrown when the input cannot be read or holds an invalid event
+	 */
+	static ConsoleEvent decode(long sequence, DataInput input) throws IOException {
+		int flags = input.readUnsignedByte();
+		int module = input.readUnsignedByte();
+		int severity = input.readUnsignedByte();
+		long timestamp = input.readLong();
+		LocalDateTime simulatedTime = null;
+		String room = null;
+		Integer rowId = null;
+		Integer roomId = null;
+		Integer zoneId = null;
+		
+		if ((flags & SIMULATED_TIME) != 0) {
+			long epochSecond = input.readLong();
+			simulatedTime = LocalDateTime.ofEpochSecond(epochSecond, readVarInt(input), ZoneOffset.UTC);
+		}
+		
+		if ((flags & ROOM) != 0) {
+			room = readString(input);
+		}
+		
+		if ((flags & ROW_ID) != 0) {
+			rowId = input.readInt();
+		}
+		
+		if ((flags & ROOM_ID) != 0) {
+			roomId = input.readInt();
+		}
+		
+		if ((flags & ZONE_ID) != 0) {
+			zoneId = input.readInt();
+		}
+		
+		String template = readString(input);
+		int nbArguments = readVarInt(input);
+		List<String> arguments = new ArrayList<>(nbArguments);
+		
+		for (int i = 0; i < nbArguments; i++) {
+			arguments.add(readString(input));
+		}
+		
+		if (module >= ConsoleModule.values().length || severity >= ConsoleSeverity.values().length) {
+			throw new IOException("Invalid console event " + sequence);
+		}
+		
+		ConsoleEvent event = ConsoleEvent.builder()
+				.timestamp(timestamp)
+				.simulatedTime(simulatedTime)
+				.module((flags & MODULE) != 0 ? ConsoleModule.values()[module] : null)
+				.severity(ConsoleSeverity.values()[severity])
+				.room(room)
+				.rowId(rowId)
+				.roomId(roomId)
+				.zoneId(zoneId)
+				.template(template)
+				.arguments(arguments)
+				.build();
+		event.setSequence(sequence);
+		
+		return event;
+	}
+	
+	/**
+	 * Writes a string as its UTF-8 length then bytes.
+	 * @param output output
+	 * @param value string to write
+	 * @throws IOException Thrown when the output cannot be written
+	 */
+	private static void writeString(DataOutput output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(output, bytes.length);
+		output.write(bytes);
+	}
+	
+	/**
+	 * Reads a string written by writeString.
+	 * @param input input
+	 * @return Read string
+	 * @throws IOException Thrown when the input cannot be read
+	 */
+	private static String readString(DataInput input) throws IOException {
+		byte[] bytes = new byte[readVarInt(input)];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Writes a non-negative integer seven bits at a time, the high bit telling whether more bytes follow.
+	 * @param output output
+	 * @param value integer to write
+	 * @throws IOException Thrown when the output cannot be written
+	 */
+	private static void writeVarInt(DataOutput output, int value) throws IOException {
+		int remaining = value;
+		
+		while ((remaining & ~0x7F) != 0) {
+			output.writeByte((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		
+		output.writeByte(remaining);
+	}
+	
+	/**
+	 * Reads an integer written by writeVarInt.
+	 * @param input input
+	 * @return Read integer
+	 * @throws IOException Thrown when the input cannot be read or holds an invalid integer
+	 */
+	private static int readVarInt(DataInput input) throws IOException {
+		int value = 0;
+		
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			int current = input.readUnsignedByte();
+			value |= (current & 0x7F) << shift;
+			
+			if ((current & 0x80) == 0) {
+				if (value < 0) {
+					break;
+				}
+				
+				return value;
+			}
+		}
+		
+		throw new IOException("Invalid variable-length integer");
+	}
+
+}
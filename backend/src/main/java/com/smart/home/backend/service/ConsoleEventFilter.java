@@ -0,0 +1,45 @@
+package com.smart.home.backend.service;
+
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Filter of the console events on their module, severity, room and heating zone. Rooms are identified by
+ * their row and room ids, as room names are not unique. A missing field matches every event.
+ */
+@Getter
+@AllArgsConstructor
+public class ConsoleEventFilter {
+	
+	public static final ConsoleEventFilter ALL = new ConsoleEventFilter(null, null, null, null, null);
+	
+	@Nullable
+	private final ConsoleModule module;
+	@Nullable
+	private final ConsoleSeverity severity;
+	@Nullable
+	private final Integer rowId;
+	@Nullable
+	private final Integer roomId;
+	@Nullable
+	private final Integer zoneId;
+	
+	/**
+	 * Whether an event matches the filter.
+	 * @param event console event
+	 * @return Whether the event matches every field of the filter
+	 */
+	public boolean matches(ConsoleEvent event) {
+		return (this.module == null || this.module == event.getModule())
+				&& (this.severity == null || this.severity == event.getSeverity())
+				&& (this.rowId == null || Objects.equals(this.rowId, event.getRowId()))
+				&& (this.roomId == null || Objects.equals(this.roomId, event.getRoomId()))
+				&& (this.zoneId == null || Objects.equals(this.zoneId, event.getZoneId()));
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.smart.home.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Page of console events matching a filter, following a sequence number.
+ */
+@Getter
+@AllArgsConstructor
+public class ConsoleEventPage {
+	
+	private final List<ConsoleEvent> events;
+	private final long cursor;
+	private final long lastSequence;
+
+}
@@ -0,0 +1,16 @@
+package com.smart.home.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Line of the output console, with its sequence number.
+ */
+@Getter
+@AllArgsConstructor
+public class ConsoleLine {
+	
+	private final long sequence;
+	private final String line;
+
+}
@@ -0,0 +1,18 @@
+package com.smart.home.backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Page of console lines following a sequence number.
+ */
+@Getter
+@AllArgsConstructor
+public class ConsolePage {
+	
+	private final List<ConsoleLine> lines;
+	private final long lastSequence;
+
+}
@@ -0,0 +1,244 @@
+package com.smart.home.backend.service;
+
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.houselayout.Room;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suppression of console warnings repeated on every tick. A warning is identified by a key and a room,
+ * the room by its row and room ids, since room names need not be unique.
+ * Its first occurrence is logged and opens a window of simulated time, during which its occurrences are
+ * only counted. When the window elapses, a summary tells how many times it was repeated and a new window
+ * opens, until a window passes without any occurrence. The logged events carry the current simulated time,
+ * and warnings of distinct rooms can be logged from several threads at once.
+ */
+public class ConsoleSuppression {
+	
+	public static final long DEFAULT_WINDOW_SECONDS = 600;
+	
+	private final Map<String, Map<Long, Window>> windows = new ConcurrentHashMap<>();
+	private volatile long windowSeconds;
+	private volatile LocalDateTime time;
+	
+	/**
+	 * 1-parameter constructor.
+	 * @param windowSeconds simulated seconds during which a warning is only counted. Zero to log every occurrence
+	 */
+	public ConsoleSuppression(long windowSeconds) {
+		this.windowSeconds = Math.max(0, windowSeconds);
+	}
+	
+	/**
+	 * Mutator for the window. Open windows keep the length they were opened with until their next summary.
+	 * @param windowSeconds simulated seconds during which a warning is only counted. Zero to log every occurrence
+	 */
+	public void setWindowSeconds(long windowSeconds) {
+		this.windowSeconds = Math.max(0, windowSeconds);
+	}
+	
+	/**
+	 * Moves to a new simulated time, logging the summaries of the elapsed windows. Going back in time
+	 * elapses every window. Must not be called while warnings are logged.
+	 * @param time current simulated time
+	 */
+	public void advance(LocalDateTime time) {
+		this.time = time;
+		
+		if (this.windows.isEmpty()) {
+			return;
+		}
+		
+		for (Map<Long, Window> roomWindows : this.windows.values()) {
+			Iterator<Window> iterator = roomWindows.values().iterator();
+			
+			while (iterator.hasNext()) {
+				Window window = iterator.next();
+				
+				if (!window.isElapsed(time)) {
+					continue;
+				}
+				
+				if (window.repeats == 0) {
+					iterator.remove();
+				} else {
+					OutputConsole.log(this.event(
+							window.module,
+							window.severity,
+							window.zoneId,
+							window.room,
+							"{} repeated {} times in room {}",
+							window.key,
+							window.repeats,
+							window.room.getName()
+					));
+					window.open(time, this.windowSeconds);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Logs a warning, unless it was already logged for the same room during the current window.
+	 * @param key key of the warning, used in its summary
+	 * @param module module logging the warning
+	 * @param severity severity of the warning
+	 * @param zone heating zone of the room. Null if not known
+	 * @param room room the warning is about
+	 * @param template message template of the warning
+	 * @param arguments message arguments
+	 */
+	public void log(
+			String key,
+			ConsoleModule module,
+			ConsoleSeverity severity,
+			@Nullable HeatingZone zone,
+			Room room,
+			String template,
+			Object... arguments
+	) {
+		Integer zoneId = zone != null ? zone.getId() : null;
+		LocalDateTime now = this.time;
+		long window = this.windowSeconds;
+		
+		if (now == null || window == 0) {
+			OutputConsole.log(this.event(module, severity, zoneId, room, template, arguments));
+			return;
+		}
+		
+		Map<Long, Window> roomWindows = this.windows.get(key);
+		
+		if (roomWindows == null) {
+			roomWindows = this.windows.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+		}
+		
+		Long roomKey = roomKey(room);
+		Window existing = roomWindows.get(roomKey);
+		
+		if (existing == null) {
+			existing = roomWindows.computeIfAbsent(roomKey, r -> new Window(key, module, severity, zoneId, room));
+		}
+		
+		if (existing.occur(now, window)) {
+			OutputConsole.log(this.event(module, severity, zoneId, room, template, arguments));
+		}
+	}
+	
+	/**
+	 * Key of a room, made of its row and room ids. A missing id counts as -1.
+	 * @param room room
+	 * @return Room key
+	 */
+	private static long roomKey(Room room) {
+		int rowId = room.getRowId() != null ? room.getRowId() : -1;
+		int roomId = room.getId() != null ? room.getId() : -1;
+		
+		return OutputConsole.roomKey(rowId, roomId);
+	}
+	
+	/**
+	 * Creates an event at the current simulated time.
+	 * @param module module logging the event
+	 * @param severity severity of the event
+	 * @param zoneId id of the heating zone of the room. Null if not known
+	 * @param room room the event is about
+	 * @param template message template
+	 * @param arguments message arguments
+	 * @return Console event
+	 */
+	private ConsoleEvent event(
+			ConsoleModule module,
+			ConsoleSeverity severity,
+			@Nullable Integer zoneId,
+			Room room,
+			String template,
+			Object... arguments
+	) {
+		return ConsoleEvent.builder()
+				.simulatedTime(this.time)
+				.module(module)
+				.severity(severity)
+				.room(room.getName())
+				.rowId(room.getRowId())
+				.roomId(room.getId())
+				.zoneId(zoneId)
+				.template(template)
+				.arguments(ConsoleEvent.toStrings(arguments))
+				.build();
+	}
+	
+	/**
+	 * Window of a warning in a room.
+	 */
+	private static class Window {
+		
+		private final String key;
+		private final ConsoleModule module;
+		private final ConsoleSeverity severity;
+		private final Integer zoneId;
+		private final Room room;
+		private LocalDateTime start;
+		private LocalDateTime end;
+		private int repeats;
+		
+		/**
+		 * 5-parameter constructor, for a window not opened yet.
+		 * @param key key of the warning
+		 * @param module module logging the warning
+		 * @param severity severity of the warning
+		 * @param zoneId id of the heating zone of the room. Null if not known
+		 * @param room room of the warning
+		 */
+		private Window(String key, ConsoleModule module, ConsoleSeverity severity, @Nullable Integer zoneId, Room room) {
+			this.key = key;
+			this.module = module;
+			this.severity = severity;
+			this.zoneId = zoneId;
+			this.room = room;
+		}
+		
+		/**
+		 * Opens the window at a simulated time.
+		 * @param time simulated time
+		 * @param windowSeconds simulated seconds during which the warning is only counted
+		 */
+		private synchronized void open(LocalDateTime time, long windowSeconds) {
+			this.start = time;
+			this.end = time.plusSeconds(windowSeconds);
+			this.repeats = 0;
+		}
+		
+		/**
+		 * Whether the window was opened and has elapsed at a simulated time.
+		 * @param time simulated time
+		 * @return Whether the window elapsed
+		 */
+		private synchronized boolean isElapsed(LocalDateTime time) {
+			return this.start != null && (!time.isBefore(this.end) || time.isBefore(this.start));
+		}
+		
+		/**
+		 * Records an occurrence of the warning, opening the window on the first one.
+		 * @param time simulated time
+		 * @param windowSeconds simulated seconds during which the warning is only counted
+		 * @return Whether the occurrence must be logged
+		 */
+		private synchronized boolean occur(LocalDateTime time, long windowSeconds) {
+			if (this.start == null) {
+				this.open(time, windowSeconds);
+				return true;
+			}
+			
+			this.repeats++;
+			return false;
+		}
+	
+	}
+
+}
@@ -1,29 +1,55 @@
 package com.smart.home.backend.service;
 
-import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.Getter;
-import org.springframework.util.ResourceUtils;
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.houselayout.Location;
+import com.smart.home.backend.model.houselayout.Room;
+import org.springframework.lang.Nullable;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+/**
+ * Output console of the simulation, made of structured events. Logging threads only queue their events in
+ * a lock-free queue, so they never wait for each other nor for the disk. A single writer thread gives each
+ * event a sequence number, keeps the latest events in a fixed-capacity ring indexed by module, severity,
+ * room and heating zone, and appends every event to a binary log segment, so events evicted from the ring can still be paged
+ * from the segment. Reading the console first waits for the events queued so far to be sequenced, so a
+ * thread always reads the events it logged. The console is shared by every simulated home: events do not
+ * tell which home logged them, so the lines of several homes are interleaved, and the events logged
+ * through the console are stamped with the simulated time of the default home.
+ */
 public class OutputConsole {
 	
-	private static File outputConsoleFile;
-	@Getter
-	private static final List<String> lines = new ArrayList<>();
-	private static final ObjectMapper objectMapper = new ObjectMapper();
+	public static final String DEFAULT_FILE = "console/output_console.bin";
+	public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+	public static final int DEFAULT_CAPACITY = 1000;
 	
-	static {
-		try {
-			outputConsoleFile = ResourceUtils.getFile("classpath:console/output_console.json");
-		} catch(FileNotFoundException e) {
-			e.printStackTrace();
-		}
-	}
+	private static final long READ_TIMEOUT_MILLIS = 5000;
+	
+	private static final ThreadLocal<List<ConsoleEvent>> captures = new ThreadLocal<>();
+	private static final List<Consumer<String>> lineListeners = new CopyOnWriteArrayList<>();
+	private static final Object ringLock = new Object();
+	private static final Map<ConsoleModule, ArrayDeque<ConsoleEvent>> moduleIndex = new EnumMap<>(ConsoleModule.class);
+	private static final Map<ConsoleSeverity, ArrayDeque<ConsoleEvent>> severityIndex = new EnumMap<>(ConsoleSeverity.class);
+	private static final Map<Long, ArrayDeque<ConsoleEvent>> roomIndex = new HashMap<>();
+	private static final Map<Integer, ArrayDeque<ConsoleEvent>> zoneIndex = new HashMap<>();
+	private static ConsoleEvent[] ring = new ConsoleEvent[DEFAULT_CAPACITY];
+	private static long lastSequence;
+	private static long firstRingSequence = 1;
+	private static volatile OutputConsoleWriter writer;
+	private static volatile LocalDateTime simulatedTime;
 	
 	/**
 	 * Private default constructor to hide the instance.
@@ -32,16 +58,543 @@ public class OutputConsole {
 	}
 	
 	/**
-	 * Logging a line to the console
+	 * Logging a free-form line to the console, attributed to the module it starts with.
 	 * @param line line to add
+	 * @return Queued event
 	 */
-	public static void log(String line) {
-		try {
-			if (getLines().isEmpty() || !line.equals(OutputConsole.getLines().get(OutputConsole.getLines().size() - 1))) {
-				lines.add(line);
-				objectMapper.writer(new DefaultPrettyPrinter()).writeValue(outputConsoleFile, lines);
+	public static ConsoleEvent log(String line) {
+		return log(ConsoleEvent.parse(line));
+	}
+	
+	/**
+	 * Logging an event to the console at the current simulated time.
+	 * @param module module logging the event
+	 * @param severity severity of the event
+	 * @param location location the event is about, identified by its ids when it is a room. Null if about no location
+	 * @param template message template, whose {} placeholders are replaced by the arguments
+	 * @param arguments message arguments
+	 * @return Queued event
+	 */
+	public static ConsoleEvent log(
+			ConsoleModule module,
+			ConsoleSeverity severity,
+			@Nullable Location location,
+			String template,
+			Object... arguments
+	) {
+		return log(event(module, severity, null, location, template, arguments));
+	}
+	
+	/**
+	 * Logging an event about a heating zone to the console at the current simulated time.
+	 * @param module module logging the event
+	 * @param severity severity of the event
+	 * @param zone heating zone the event is about
+	 * @param room room of the zone the event is about. Null if about the whole zone
+	 * @param template message template, whose {} placeholders are replaced by the arguments
+	 * @param arguments message arguments
+	 * @return Queued event
+	 */
+	public static ConsoleEvent log(
+			ConsoleModule module,
+			ConsoleSeverity severity,
+			HeatingZone zone,
+			@Nullable Room room,
+			String template,
+			Object... arguments
+	) {
+		return log(event(module, severity, zone.getId(), room, template, arguments));
+	}
+	
+	/**
+	 * Creates an event at the current simulated time.
+	 * @param module module logging the event
+	 * @param severity severity of the event
+	 * @param zoneId id of the heating zone the event is about. Null if about no zone
+	 * @param location location the event is about. Null if about no location
+	 * @param template message template
+	 * @param arguments message arguments
+	 * @return Console event
+	 */
+	private static ConsoleEvent event(
+			ConsoleModule module,
+			ConsoleSeverity severity,
+			@Nullable Integer zoneId,
+			@Nullable Location location,
+			String template,
+			Object... arguments
+	) {
+		Room room = location instanceof Room ? (Room) location : null;
+		
+		return ConsoleEvent.builder()
+				.simulatedTime(simulatedTime)
+				.module(module)
+				.severity(severity)
+				.room(location != null ? location.getName() : null)
+				.rowId(room != null ? room.getRowId() : null)
+				.roomId(room != null ? room.getId() : null)
+				.zoneId(zoneId)
+				.template(template)
+				.arguments(ConsoleEvent.toStrings(arguments))
+				.build();
+	}
+	
+	/**
+	 * Mutator for the simulated time stamped on the events logged from now on.
+	 * @param time current simulated time. Null if not known
+	 */
+	public static void setSimulatedTime(@Nullable LocalDateTime time) {
+		simulatedTime = time;
+	}
+	
+	/**
+	 * Key of a room in the room index, made of its row and room ids.
+	 * @param rowId row id
+	 * @param roomId room id within the row
+	 * @return Room key
+	 */
+	static long roomKey(int rowId, int roomId) {
+		return ((long) rowId << 32) | (roomId & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * Logging an event to the console, without waiting for it to be sequenced. An event whose line is
+	 * equal to the previous one is skipped.
+	 * @param event event to add
+	 * @return Queued event
+	 */
+	public static ConsoleEvent log(ConsoleEvent event) {
+		List<ConsoleEvent> capture = captures.get();
+		
+		if (capture != null) {
+			capture.add(event);
+			return event;
+		}
+		
+		writer().append(event);
+		return event;
+	}
+	
+	/**
+	 * Gives a queued event the next sequence number, unless its line is equal to the previous one. Only
+	 * called from the writer thread.
+	 * @param event queued event
+	 * @return Whether the event was kept
+	 */
+	private static boolean sequence(ConsoleEvent event) {
+		synchronized (ringLock) {
+			if (lastSequence != 0 && event.getLine().equals(ring[index(lastSequence)].getLine())) {
+				return false;
+			}
+			
+			lastSequence++;
+			event.setSequence(lastSequence);
+			
+			ConsoleEvent evicted = ring[index(lastSequence)];
+			
+			if (evicted != null) {
+				unindex(evicted);
+			}
+			
+			ring[index(lastSequence)] = event;
+			index(event);
+		}
+		
+		notifyLineListeners(event.getLine());
+		
+		return true;
+	}
+	
+	/**
+	 * Retrieves the lines of the events still held in the ring, oldest first.
+	 * @return Latest console lines, at most the ring's capacity
+	 */
+	public static List<String> getLines() {
+		awaitSequenced();
+		List<String> lines = new ArrayList<>();
+		
+		synchronized (ringLock) {
+			for (long sequence = getOldestSequence(); sequence <= lastSequence; sequence++) {
+				lines.add(ring[index(sequence)].getLine());
+			}
+		}
+		
+		return lines;
+	}
+	
+	/**
+	 * Accessor for the sequence number of the latest event.
+	 * @return Latest sequence number. Zero if nothing was logged
+	 */
+	public static long getLastSequence() {
+		awaitSequenced();
+		
+		synchronized (ringLock) {
+			return lastSequence;
+		}
+	}
+	
+	/**
+	 * Retrieves the line of an event logged by the current thread, once it is sequenced.
+	 * @param event logged event
+	 * @return Page holding the line of the event. Empty if its line repeated the previous one and was skipped
+	 */
+	public static ConsolePage findLine(ConsoleEvent event) {
+		awaitSequenced();
+		
+		synchronized (ringLock) {
+			List<ConsoleLine> lines = event.getSequence() == 0
+					? Collections.emptyList()
+					: Collections.singletonList(new ConsoleLine(event.getSequence(), event.getLine()));
+			
+			return new ConsolePage(lines, lastSequence);
+		}
+	}
+	
+	/**
+	 * Retrieves the lines logged after a sequence number. Lines evicted from the ring are read back from
+	 * the log segment, and lines logged before the segment was configured are skipped.
+	 * @param after sequence number of the last line held by the reader
+	 * @param limit maximum number of lines
+	 * @return Page of lines, oldest first. Only holds the lines of the ring if interrupted while reading the segment
+	 */
+	public static ConsolePage findLinesAfter(long after, int limit) {
+		ConsoleEventPage page = findEventsAfter(after, limit, ConsoleEventFilter.ALL);
+		List<ConsoleLine> lines = new ArrayList<>(page.getEvents().size());
+		
+		for (ConsoleEvent event : page.getEvents()) {
+			lines.add(new ConsoleLine(event.getSequence(), event.getLine()));
+		}
+		
+		return new ConsolePage(lines, page.getLastSequence());
+	}
+	
+	/**
+	 * Retrieves the events matching a filter logged after a sequence number. The events of the ring are
+	 * found through the index of the most selective field of the filter. Events evicted from the ring are
+	 * read back from the log segment, and events logged before the segment was configured are skipped.
+	 * @param after sequence number of the last event held by the reader
+	 * @param limit maximum number of events
+	 * @param filter filter of the events
+	 * @return Page of events, oldest first. Only holds the events of the ring if interrupted while reading the segment
+	 */
+	public static ConsoleEventPage findEventsAfter(long after, int limit, ConsoleEventFilter filter) {
+		OutputConsoleWriter segmentWriter = awaitSequenced();
+		List<ConsoleEvent> ringEvents;
+		long oldestSequence;
+		long last;
+		
+		synchronized (ringLock) {
+			oldestSequence = getOldestSequence();
+			last = lastSequence;
+			ringEvents = findRingEvents(after, limit, filter);
+		}
+		
+		List<ConsoleEvent> events = new ArrayList<>();
+		
+		if (after + 1 < oldestSequence) {
+			try {
+				events.addAll(segmentWriter.read(after + 1, oldestSequence - 1, filter, limit, READ_TIMEOUT_MILLIS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		for (int i = 0; i < ringEvents.size() && events.size() < limit; i++) {
+			events.add(ringEvents.get(i));
+		}
+		
+		long cursor = events.size() < limit ? last : events.get(events.size() - 1).getSequence();
+		
+		return new ConsoleEventPage(events, cursor, last);
+	}
+	
+	/**
+	 * Finds the events of the ring matching a filter after a sequence number. Called with the ring lock held.
+	 * @param after sequence number of the last event held by the reader
+	 * @param limit maximum number of events
+	 * @param filter filter of the events
+	 * @return Matching events, oldest first
+	 */
+	private static List<ConsoleEvent> findRingEvents(long after, int limit, ConsoleEventFilter filter) {
+		ArrayDeque<ConsoleEvent> candidates = findCandidates(filter);
+		List<ConsoleEvent> events = new ArrayList<>();
+		
+		if (candidates == null) {
+			for (long sequence = Math.max(after + 1, getOldestSequence()); sequence <= lastSequence && events.size() < limit; sequence++) {
+				ConsoleEvent event = ring[index(sequence)];
+				
+				if (filter.matches(event)) {
+					events.add(event);
+				}
+			}
+			
+			return events;
+		}
+		
+		for (ConsoleEvent event : candidates) {
+			if (events.size() >= limit) {
+				break;
+			}
+			
+			if (event.getSequence() > after && filter.matches(event)) {
+				events.add(event);
+			}
+		}
+		
+		return events;
+	}
+	
+	/**
+	 * Finds the smallest index among the fields of a filter. Called with the ring lock held.
+	 * @param filter filter of the events
+	 * @return Events of the ring holding the most selective field, oldest first. Null if the filter has no
+	 * indexed field
+	 */
+	@Nullable
+	private static ArrayDeque<ConsoleEvent> findCandidates(ConsoleEventFilter filter) {
+		ArrayDeque<ConsoleEvent> candidates = null;
+		
+		if (filter.getModule() != null) {
+			candidates = smallest(candidates, moduleIndex.get(filter.getModule()));
+		}
+		
+		if (filter.getSeverity() != null) {
+			candidates = smallest(candidates, severityIndex.get(filter.getSeverity()));
+		}
+		
+		if (filter.getRowId() != null && filter.getRoomId() != null) {
+			candidates = smallest(candidates, roomIndex.get(roomKey(filter.getRowId(), filter.getRoomId())));
+		}
+		
+		if (filter.getZoneId() != null) {
+			candidates = smallest(candidates, zoneIndex.get(filter.getZoneId()));
+		}
+		
+		return candidates;
+	}
+	
+	/**
+	 * Smallest of two indexes.
+	 * @param candidates smallest index so far. Null if none
+	 * @param index index of a field of the filter. Null if no event of the ring has this value
+	 * @return Smallest index
+	 */
+	private static ArrayDeque<ConsoleEvent> smallest(@Nullable ArrayDeque<ConsoleEvent> candidates, @Nullable ArrayDeque<ConsoleEvent> index) {
+		if (index == null) {
+			return new ArrayDeque<>(0);
+		}
+		
+		return candidates == null || index.size() < candidates.size() ? index : candidates;
+	}
+	
+	/**
+	 * Adds an event to the indexes. Called with the ring lock held.
+	 * @param event sequenced event
+	 */
+	private static void index(ConsoleEvent event) {
+		if (event.getModule() != null) {
+			moduleIndex.computeIfAbsent(event.getModule(), module -> new ArrayDeque<>()).addLast(event);
+		}
+		
+		severityIndex.computeIfAbsent(event.getSeverity(), severity -> new ArrayDeque<>()).addLast(event);
+		
+		if (event.getRowId() != null && event.getRoomId() != null) {
+			roomIndex.computeIfAbsent(roomKey(event.getRowId(), event.getRoomId()), room -> new ArrayDeque<>()).addLast(event);
+		}
+		
+		if (event.getZoneId() != null) {
+			zoneIndex.computeIfAbsent(event.getZoneId(), zone -> new ArrayDeque<>()).addLast(event);
+		}
+	}
+	
+	/**
+	 * Removes an event evicted from the ring from the indexes, where it is the oldest event. Called with
+	 * the ring lock held.
+	 * @param event evicted event
+	 */
+	private static void unindex(ConsoleEvent event) {
+		if (event.getModule() != null) {
+			moduleIndex.get(event.getModule()).pollFirst();
+		}
+		
+		severityIndex.get(event.getSeverity()).pollFirst();
+		
+		if (event.getRowId() != null && event.getRoomId() != null) {
+			pollOldest(roomIndex, roomKey(event.getRowId(), event.getRoomId()));
+		}
+			
+		if (event.getZoneId() != null) {
+			pollOldest(zoneIndex, event.getZoneId());
+		}
+	}
+	
+	/**
+	 * Removes the oldest event of a value of an index, dropping the value once it has no event left.
+	 * Called with the ring lock held.
+	 * @param index index of a field
+	 * @param key indexed value
+	 * @param <K> type of the indexed values
+	 */
+	private static <K> void pollOldest(Map<K, ArrayDeque<ConsoleEvent>> index, K key) {
+		ArrayDeque<ConsoleEvent> events = index.get(key);
+		events.pollFirst();
+		
+		if (events.isEmpty()) {
+			index.remove(key);
+		}
+	}
+	
+	/**
+	 * Configures the log segment the events are appended to and the capacity of the ring. The events are
+	 * queued to the new segment from now on, but only sequenced once the previous segment is closed with
+	 * its pending events written. The new segment only holds the events logged from now on, and the ring
+	 * keeps its latest events.
+	 * @param file log segment, created if missing and truncated otherwise
+	 * @param flushIntervalMillis maximum interval between two forces of the segment to the disk
+	 * @param capacity number of events held in memory
+	 * @throws InterruptedException Thrown when interrupted while closing the previous segment
+	 */
+	public static synchronized void configure(Path file, long flushIntervalMillis, int capacity) throws InterruptedException {
+		OutputConsoleWriter previous = writer;
+		OutputConsoleWriter next = new OutputConsoleWriter(file, flushIntervalMillis, OutputConsole::sequence);
+		writer = next;
+		
+		if (previous != null) {
+			previous.close(flushIntervalMillis + 1000, next);
+		}
+		
+		synchronized (ringLock) {
+			ConsoleEvent[] resized = new ConsoleEvent[Math.max(1, capacity)];
+			long oldestSequence = Math.max(getOldestSequence(), lastSequence - resized.length + 1);
+			
+			moduleIndex.clear();
+			severityIndex.clear();
+			roomIndex.clear();
+			zoneIndex.clear();
+			
+			for (long sequence = oldestSequence; sequence <= lastSequence; sequence++) {
+				ConsoleEvent event = ring[index(sequence)];
+				resized[(int) (sequence % resized.length)] = event;
+				index(event);
 			}
-		} catch(Exception ignored){}
+			
+			ring = resized;
+			firstRingSequence = oldestSequence;
+			next.start(lastSequence);
+		}
+	}
+	
+	/**
+	 * Waits until the events logged so far are written to the log segment.
+	 * @param timeoutMillis maximum waiting time
+	 * @return Whether the events were written in time
+	 * @throws InterruptedException Thrown when interrupted while waiting
+	 */
+	public static boolean flush(long timeoutMillis) throws InterruptedException {
+		return writer().awaitWritten(timeoutMillis);
 	}
 	
+	/**
+	 * Writer of the log segment, writing to the default segment until another one is configured.
+	 * @return Writer of the log segment
+	 */
+	private static OutputConsoleWriter writer() {
+		OutputConsoleWriter current = writer;
+		
+		if (current != null) {
+			return current;
+		}
+		
+		synchronized (OutputConsole.class) {
+			if (writer == null) {
+				OutputConsoleWriter created = new OutputConsoleWriter(Paths.get(DEFAULT_FILE), DEFAULT_FLUSH_INTERVAL_MILLIS, OutputConsole::sequence);
+				created.start(0);
+				writer = created;
+			}
+			
+			return writer;
+		}
+	}
+	
+	/**
+	 * Waits for the events queued so far to be sequenced.
+	 * @return Writer of the log segment
+	 */
+	private static OutputConsoleWriter awaitSequenced() {
+		OutputConsoleWriter current = writer();
+		
+		try {
+			current.awaitSequenced(READ_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		
+		return current;
+	}
+	
+	/**
+	 * Sequence number of the oldest event held in the ring, which is not full yet after growing.
+	 * @return Oldest sequence number in memory
+	 */
+	private static long getOldestSequence() {
+		return Math.max(firstRingSequence, lastSequence - ring.length + 1);
+	}
+	
+	/**
+	 * Index in the ring of a sequence number.
+	 * @param sequence sequence number
+	 * @return Ring index
+	 */
+	private static int index(long sequence) {
+		return (int) (sequence % ring.length);
+	}
+	
+	/**
+	 * Adds a listener receiving the line of every event added to the console, on the writer thread.
+	 * @param listener listener to add
+	 */
+	public static void addLineListener(Consumer<String> listener) {
+		lineListeners.add(listener);
+	}
+	
+	/**
+	 * Removes a console line listener.
+	 * @param listener listener to remove
+	 */
+	public static void removeLineListener(Consumer<String> listener) {
+		lineListeners.remove(listener);
+	}
+	
+	/**
+	 * Notifies the line listeners of a line added to the console.
+	 * @param line added line
+	 */
+	private static void notifyLineListeners(String line) {
+		for (Consumer<String> listener : lineListeners) {
+			listener.accept(line);
+		}
+	}
+	
+	/**
+	 * Runs an action while redirecting the events it logs from the current thread into a buffer,
+	 * so that work split across threads can be logged afterwards in a deterministic order.
+	 * @param buffer buffer receiving the events
+	 * @param action action to run
+	 */
+	public static void capture(List<ConsoleEvent> buffer, Runnable action) {
+		List<ConsoleEvent> previous = captures.get();
+		captures.set(buffer);
+		
+		try {
+			action.run();
+		} finally {
+			if (previous == null) {
+				captures.remove();
+			} else {
+				captures.set(previous);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,434 @@
+package com.smart.home.backend.service;
+
+import com.smart.home.backend.service.util.MpscQueue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Writer appending the console events to a log segment on a dedicated thread. Logging threads queue their
+ * events in a lock-free queue, and the writer thread is its only consumer: it hands each event to the
+ * sequencer, then appends the kept events to the segment. Each event is a binary record prefixed by its
+ * length, so the event of a sequence number is found by its position and the records before it are
+ * skipped without being decoded. The events queued while a write is in progress are written together by
+ * the next one, and the segment is forced to the disk at most once per flush interval. A closed writer
+ * hands the events still queued to it over to the writer replacing it.
+ */
+class OutputConsoleWriter implements Runnable {
+	
+	private static final int INITIAL_BUFFER_SIZE = 8192;
+	private static final int MAX_BATCH_SIZE = 1024;
+	
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+	private final DataOutputStream recordOutput = new DataOutputStream(this.record);
+	private final MpscQueue<ConsoleEvent> queue = new MpscQueue<>();
+	private final AtomicLong queued = new AtomicLong();
+	private final Path file;
+	private final long flushIntervalMillis;
+	private final Predicate<ConsoleEvent> sequencer;
+	private final Thread thread;
+	private volatile long baseSequence;
+	private volatile OutputConsoleWriter successor;
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private long sequenced;
+	private long written;
+	private volatile boolean parked;
+	private volatile boolean closed;
+	private volatile boolean stopped;
+	
+	/**
+	 * 3-parameter constructor. Events are queued until the writer thread is started.
+	 * @param file log segment, created if missing and truncated otherwise
+	 * @param flushIntervalMillis maximum interval between two forces of the segment to the disk
+	 * @param sequencer called on the writer thread with each queued event, in queue order. Returns whether
+	 * the event got a sequence number and must be appended to the segment
+	 */
+	OutputConsoleWriter(Path file, long flushIntervalMillis, Predicate<ConsoleEvent> sequencer) {
+		this.file = file;
+		this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+		this.sequencer = sequencer;
+		this.thread = new Thread(this, "output-console-writer");
+		this.thread.setDaemon(true);
+	}
+	
+	/**
+	 * Starts the writer thread, sequencing the events queued so far.
+	 * @param baseSequence sequence number of the event logged before the first event of the segment
+	 */
+	void start(long baseSequence) {
+		this.baseSequence = baseSequence;
+		this.thread.start();
+	}
+	
+	/**
+	 * Queues an event without taking any lock nor waiting for it to be sequenced or written. Once the
+	 * writer is closed, the event goes to the writer replacing it.
+	 * @param event console event
+	 */
+	void append(ConsoleEvent event) {
+		if (this.closed) {
+			this.successor.append(event);
+			return;
+		}
+		
+		this.queued.incrementAndGet();
+		this.queue.offer(event);
+		
+		if (this.closed) {
+			this.handOver();
+		} else if (this.parked) {
+			LockSupport.unpark(this.thread);
+		}
+	}
+	
+	/**
+	 * Waits until every event queued so far has been handed to the sequencer.
+	 * @param timeoutMillis maximum waiting time
+	 * @return Whether the events were sequenced in time
+	 * @throws InterruptedException Thrown when interrupted while waiting
+	 */
+	boolean awaitSequenced(long timeoutMillis) throws InterruptedException {
+		long target = this.queued.get();
+		
+		synchronized (this) {
+			return this.await(() -> this.sequenced >= target, timeoutMillis);
+		}
+	}
+	
+	/**
+	 * Waits until every event queued so far has been written to the segment.
+	 * @param timeoutMillis maximum waiting time
+	 * @return Whether the events were written in time
+	 * @throws InterruptedException Thrown when interrupted while waiting
+	 */
+	boolean awaitWritten(long timeoutMillis) throws InterruptedException {
+		long target = this.queued.get();
+		
+		synchronized (this) {
+			return this.await(() -> this.written >= target, timeoutMillis);
+		}
+	}
+	
+	/**
+	 * Waits on the writer's monitor until a condition holds or the writer thread stops.
+	 * @param condition awaited condition
+	 * @param timeoutMillis maximum waiting time
+	 * @return Whether the condition holds
+	 * @throws InterruptedException Thrown when interrupted while waiting
+	 */
+	private boolean await(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		
+		while (!condition.getAsBoolean() && !this.stopped) {
+			long remaining = deadline - System.currentTimeMillis();
+			
+			if (remaining <= 0) {
+				return false;
+			}
+			
+			this.wait(remaining);
+		}
+		
+		return condition.getAsBoolean();
+	}
+	
+	/**
+	 * Reads events back from the segment, once the events queued so far are written.
+	 * @param fromSequence sequence number of the first event to read
+	 * @param toSequence sequence number of the last event to read
+	 * @param filter filter of the events to read
+	 * @param limit maximum number of events
+	 * @param timeoutMillis maximum waiting time for the pending events
+	 * @return Read events matching the filter. Events logged before the segment was opened are skipped
+	 * @throws InterruptedException Thrown when interrupted while waiting
+	 */
+	List<ConsoleEvent> read(
+			long fromSequence, long toSequence, ConsoleEventFilter filter, int limit, long timeoutMillis
+	) throws InterruptedException {
+		List<ConsoleEvent> events = new ArrayList<>();
+		long sequence = this.baseSequence;
+		
+		if (toSequence <= this.baseSequence || limit < 1 || !this.awaitWritten(timeoutMillis)) {
+			return events;
+		}
+		
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.file)))) {
+			while (sequence < toSequence && events.size() < limit) {
+				int length = input.readInt();
+				sequence++;
+				
+				if (sequence < fromSequence) {
+					skipFully(input, length);
+					continue;
+				}
+				
+				byte[] bytes = new byte[length];
+				input.readFully(bytes);
+				ConsoleEvent event = ConsoleEventCodec.decode(sequence, new DataInputStream(new ByteArrayInputStream(bytes)));
+				
+				if (filter.matches(event)) {
+					events.add(event);
+				}
+			}
+		} catch (IOException ignored) {
+			// Events that cannot be read back are only available while they are in the ring
+		}
+		
+		return events;
+	}
+	
+	/**
+	 * Skips bytes of an input.
+	 * @param input input
+	 * @param length number of bytes to skip
+	 * @throws IOException Thrown when the input ends before
+	 */
+	private static void skipFully(DataInputStream input, int length) throws IOException {
+		int remaining = length;
+		
+		while (remaining > 0) {
+			int skipped = input.skipBytes(remaining);
+			
+			if (skipped <= 0) {
+				throw new EOFException();
+			}
+			
+			remaining -= skipped;
+		}
+	}
+	
+	/**
+	 * Sequences and writes the pending events, then stops the writer thread. The events queued while the
+	 * writer thread stops go to the writer replacing it, which must only be started once this one is closed.
+	 * @param timeoutMillis maximum waiting time for the pending events
+	 * @param successor writer replacing this one
+	 * @throws InterruptedException Thrown when interrupted while waiting
+	 */
+	void close(long timeoutMillis, OutputConsoleWriter successor) throws InterruptedException {
+		this.successor = successor;
+		this.closed = true;
+		LockSupport.unpark(this.thread);
+		this.thread.join(timeoutMillis);
+		this.handOver();
+	}
+	
+	/**
+	 * Hands the events left in the queue over to the successor, once the writer thread stopped taking them.
+	 */
+	private synchronized void handOver() {
+		if (!this.stopped) {
+			return;
+		}
+		
+		ConsoleEvent event;
+		
+		while ((event = this.queue.poll()) != null) {
+			this.successor.append(event);
+		}
+	}
+	
+	@Override
+	public void run() {
+		List<ConsoleEvent> batch = new ArrayList<>();
+		FileChannel channel = this.open();
+		long lastForce = System.currentTimeMillis();
+		boolean dirty = false;
+		
+		try {
+			while (true) {
+				int polled = this.sequence(batch);
+				
+				if (polled > 0) {
+					synchronized (this) {
+						this.sequenced += polled;
+						this.notifyAll();
+					}
+					
+					channel = this.write(channel, batch);
+					dirty = channel != null;
+					
+					synchronized (this) {
+						this.written += polled;
+						this.notifyAll();
+					}
+				} else if (this.closed) {
+					break;
+				} else {
+					long waitMillis = dirty ? this.flushIntervalMillis - (System.currentTimeMillis() - lastForce) : this.flushIntervalMillis;
+					this.park(waitMillis);
+				}
+				
+				if (dirty && System.currentTimeMillis() - lastForce >= this.flushIntervalMillis) {
+					channel = this.force(channel);
+					lastForce = System.currentTimeMillis();
+					dirty = false;
+				}
+			}
+		} finally {
+			this.closeQuietly(channel);
+			
+			synchronized (this) {
+				this.stopped = true;
+				this.notifyAll();
+			}
+		}
+	}
+	
+	/**
+	 * Hands the events queued so far to the sequencer, at most a batch of them so that the readers waiting
+	 * for their events are released while other threads keep logging.
+	 * @param batch receives the events to append to the segment
+	 * @return Number of events taken from the queue
+	 */
+	private int sequence(List<ConsoleEvent> batch) {
+		int polled = 0;
+		ConsoleEvent event;
+		
+		while (polled < MAX_BATCH_SIZE && (event = this.queue.poll()) != null) {
+			polled++;
+			
+			if (this.sequencer.test(event)) {
+				batch.add(event);
+			}
+		}
+		
+		return polled;
+	}
+	
+	/**
+	 * Parks the writer thread until an event is queued, the writer is closed or the waiting time elapses.
+	 * A logging thread finding the writer parked after queuing its event unparks it.
+	 * @param waitMillis maximum waiting time
+	 */
+	private void park(long waitMillis) {
+		this.parked = true;
+		
+		if (this.queue.isEmpty() && !this.closed && waitMillis > 0) {
+			LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(waitMillis));
+		}
+		
+		this.parked = false;
+	}
+	
+	/**
+	 * Opens the segment, creating its directory if needed.
+	 * @return Segment channel. Null if the segment cannot be opened
+	 */
+	private FileChannel open() {
+		try {
+			Path directory = this.file.toAbsolutePath().getParent();
+			
+			if (directory != null) {
+				Files.createDirectories(directory);
+			}
+			
+			return FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		} catch (IOException e) {
+			// The console stays available in memory when its segment cannot be written
+			return null;
+		}
+	}
+	
+	/**
+	 * Appends a batch of events to the segment in a single write.
+	 * @param channel segment channel. Null if the segment cannot be written
+	 * @param batch events to write, cleared once written
+	 * @return Segment channel. Null if the segment cannot be written anymore
+	 */
+	private FileChannel write(FileChannel channel, List<ConsoleEvent> batch) {
+		if (channel == null) {
+			batch.clear();
+			return null;
+		}
+		
+		try {
+			this.buffer.clear();
+			
+			for (ConsoleEvent event : batch) {
+				this.record.reset();
+				ConsoleEventCodec.encode(event, this.recordOutput);
+				this.put(this.record);
+			}
+			
+			this.buffer.flip();
+			
+			while (this.buffer.hasRemaining()) {
+				channel.write(this.buffer);
+			}
+			
+			return channel;
+		} catch (IOException e) {
+			this.closeQuietly(channel);
+			return null;
+		} finally {
+			batch.clear();
+		}
+	}
+	
+	/**
+	 * Forces the segment to the disk.
+	 * @param channel segment channel
+	 * @return Segment channel. Null if the segment cannot be written anymore
+	 */
+	private FileChannel force(FileChannel channel) {
+		try {
+			channel.force(false);
+			return channel;
+		} catch (IOException e) {
+			this.closeQuietly(channel);
+			return null;
+		}
+	}
+	
+	/**
+	 * Closes the segment, ignoring failures.
+	 * @param channel segment channel. Null if already closed
+	 */
+	private void closeQuietly(FileChannel channel) {
+		if (channel == null) {
+			return;
+		}
+		
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+			// Nothing more can be written to the segment
+		}
+	}
+	
+	/**
+	 * Puts a record prefixed by its length in the write buffer, growing it when needed.
+	 * @param record encoded event
+	 */
+	private void put(ByteArrayOutputStream record) {
+		int length = Integer.BYTES + record.size();
+		
+		if (this.buffer.remaining() < length) {
+			ByteBuffer grown = ByteBuffer.allocate(Math.max(this.buffer.capacity() * 2, this.buffer.position() + length));
+			this.buffer.flip();
+			grown.put(this.buffer);
+			this.buffer = grown;
+		}
+		
+		this.buffer.putInt(record.size());
+		this.buffer.put(record.toByteArray());
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.smart.home.backend.service.checkpoint;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Summary of a checkpoint or a restore.
+ */
+@Getter
+@AllArgsConstructor
+public class CheckpointSummary {
+	
+	private final String name;
+	private final long bytes;
+	private final int rooms;
+	private final long elapsedMillis;
+	
+}
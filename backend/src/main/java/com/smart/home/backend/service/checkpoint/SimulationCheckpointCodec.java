@@ -0,0 +1,604 @@
+package com.smart.home.backend.service.checkpoint;
+
+import com.smart.home.backend.constant.Direction;
+import com.smart.home.backend.constant.DoorState;
+import com.smart.home.backend.constant.HeatingZonePeriod;
+import com.smart.home.backend.constant.LightState;
+import com.smart.home.backend.constant.RoomHeatingMode;
+import com.smart.home.backend.constant.SimulationState;
+import com.smart.home.backend.constant.WindowState;
+import com.smart.home.backend.input.ParametersInput;
+import com.smart.home.backend.model.heating.DefaultTemperatures;
+import com.smart.home.backend.model.heating.HeatingModel;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.heating.SeasonDates;
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.houselayout.Light;
+import com.smart.home.backend.model.houselayout.Location;
+import com.smart.home.backend.model.houselayout.OutsideLocation;
+import com.smart.home.backend.model.houselayout.Person;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.model.houselayout.directional.Door;
+import com.smart.home.backend.model.houselayout.directional.Window;
+import com.smart.home.backend.model.security.AwayModeHours;
+import com.smart.home.backend.model.security.SecurityModel;
+import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
+import com.smart.home.backend.model.simulationparameters.SimulationParametersModel;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import com.smart.home.backend.model.simulationparameters.User;
+import com.smart.home.backend.model.simulationparameters.location.PersonLocationPosition;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of the whole simulation state: system parameters, user, house layout, heating and security.
+ * Enums are stored by ordinal and rooms are referenced by their row and room ids.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SimulationCheckpointCodec {
+	
+	private static final int MAGIC = 0x53484350;
+	private static final int VERSION = 1;
+	
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private static final DoorState[] DOOR_STATES = DoorState.values();
+	private static final WindowState[] WINDOW_STATES = WindowState.values();
+	private static final LightState[] LIGHT_STATES = LightState.values();
+	private static final RoomHeatingMode[] HEATING_MODES = RoomHeatingMode.values();
+	private static final SimulationState[] SIMULATION_STATES = SimulationState.values();
+	private static final HeatingZonePeriod[] ZONE_PERIODS = HeatingZonePeriod.values();
+	
+	/**
+	 * Encodes the simulation state.
+	 * @param contextModel simulation context model
+	 * @param heatingModel heating model
+	 * @param securityModel security model
+	 * @return Encoded state
+	 * @throws IOException if the state cannot be written
+	 */
+	public static byte[] encode(SimulationContextModel contextModel, HeatingModel heatingModel, SecurityModel securityModel) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+		DataOutputStream out = new DataOutputStream(bytes);
+		
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		
+		writeParameters(out, contextModel);
+		writeLayout(out, contextModel.getHouseLayoutModel());
+		writeHeating(out, heatingModel);
+		writeSecurity(out, securityModel);
+		
+		out.flush();
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * Decodes a simulation state into the existing models, so their listeners stay wired. The whole state
+	 * is read and validated before any model is touched, so an invalid checkpoint leaves the simulation as it was.
+	 * @param data encoded state
+	 * @param contextModel simulation context model
+	 * @param heatingModel heating model
+	 * @param securityModel security model
+	 * @return Number of restored rooms
+	 * @throws IOException if the data is not a valid checkpoint
+	 */
+	public static int decode(byte[] data, SimulationContextModel contextModel, HeatingModel heatingModel, SecurityModel securityModel) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		DecodedCheckpoint checkpoint = new DecodedCheckpoint();
+		
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Unsupported checkpoint format");
+			}
+			
+			readParameters(in, checkpoint, contextModel.getSimulationParametersModel());
+			readLayout(in, checkpoint, contextModel.getHouseLayoutModel());
+			readHeating(in, checkpoint);
+			readSecurity(in, checkpoint);
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid checkpoint", e);
+		}
+		
+		if (in.available() != 0) {
+			throw new IOException("Unexpected data after the checkpoint");
+		}
+		
+		applyParameters(checkpoint, contextModel);
+		applyLayout(checkpoint, contextModel.getHouseLayoutModel());
+		applyHeating(checkpoint, heatingModel);
+		applySecurity(checkpoint, securityModel, contextModel.getHouseLayoutModel());
+		
+		return checkpoint.rooms.size();
+	}
+	
+	private static void writeParameters(DataOutputStream out, SimulationContextModel contextModel) throws IOException {
+		SimulationParametersModel parametersModel = contextModel.getSimulationParametersModel();
+		SystemParameters sysParams = parametersModel.getSysParams();
+		
+		out.writeByte(contextModel.getState().ordinal());
+		writeDouble(out, sysParams.getOutsideTemp());
+		writeDouble(out, sysParams.getInsideTemp());
+		writeDate(out, sysParams.getDate());
+		out.writeInt(sysParams.getTimeSpeed());
+		writeSeasonDates(out, sysParams.getSeasonDates());
+		out.writeInt(sysParams.getTimeStep());
+		
+		User user = parametersModel.getUser();
+		out.writeBoolean(user != null);
+		
+		if (user != null) {
+			writeString(out, user.getProfile() != null ? user.getProfile().getName() : null);
+			writeString(out, user.getName());
+			PersonLocationPosition location = user.getLocation();
+			out.writeBoolean(location != null);
+			
+			if (location != null) {
+				writeInteger(out, location.getRowId());
+				writeInteger(out, location.getRoomId());
+				writeString(out, location.getName());
+				writeInteger(out, location.getPersonId());
+			}
+		}
+	}
+	
+	private static void readParameters(DataInputStream in, DecodedCheckpoint checkpoint, SimulationParametersModel parametersModel) throws IOException {
+		checkpoint.state = readOrdinal(in, SIMULATION_STATES);
+		Double outsideTemp = readDouble(in);
+		Double insideTemp = readDouble(in);
+		LocalDateTime date = readDate(in);
+		int timeSpeed = in.readInt();
+		SeasonDates seasonDates = readSeasonDates(in);
+		int timeStep = in.readInt();
+		
+		if (timeSpeed <= 0 || !SystemParameters.isTimeStepValid(timeStep)) {
+			throw new IOException("Invalid time speed " + timeSpeed + " or time step " + timeStep);
+		}
+		
+		checkpoint.parameters = new ParametersInput(outsideTemp, insideTemp, date, timeSpeed, seasonDates, timeStep);
+		
+		if (in.readBoolean()) {
+			String profileName = readString(in);
+			String name = readString(in);
+			PersonLocationPosition location = null;
+			
+			if (in.readBoolean()) {
+				location = new PersonLocationPosition();
+				location.setRowId(readInteger(in));
+				location.setRoomId(readInteger(in));
+				location.setName(readString(in));
+				location.setPersonId(readInteger(in));
+			}
+			
+			checkpoint.user = new User(
+					profileName != null ? parametersModel.getUserProfiles().get(profileName) : null,
+					name,
+					location
+			);
+		}
+	}
+	
+	private static void applyParameters(DecodedCheckpoint checkpoint, SimulationContextModel contextModel) {
+		SimulationParametersModel parametersModel = contextModel.getSimulationParametersModel();
+		parametersModel.setSysParams(checkpoint.parameters);
+		contextModel.restoreState(checkpoint.state);
+		
+		if (checkpoint.user != null) {
+			parametersModel.setUser(checkpoint.user);
+		}
+	}
+	
+	private static void writeLayout(DataOutputStream out, HouseLayoutModel layoutModel) throws IOException {
+		writeInteger(out, layoutModel.getNbPersonsInside());
+		writeLocation(out, layoutModel.getBackyard());
+		writeLocation(out, layoutModel.getEntrance());
+		
+		out.writeInt(layoutModel.getRows().size());
+		
+		for (RoomRow row : layoutModel.getRows()) {
+			out.writeInt(row.getId());
+			out.writeInt(row.getRoomId().getLastId());
+			out.writeInt(row.getRooms().size());
+			
+			for (Room room : row.getRooms()) {
+				out.writeInt(room.getId());
+				writeString(out, room.getName());
+				writeDouble(out, room.getTemperature());
+				out.writeByte(room.getHeatingMode().ordinal());
+				out.writeBoolean(Boolean.TRUE.equals(room.getHavc()));
+				writeLocation(out, room);
+				
+				out.writeInt(room.getDoorId().getLastId());
+				out.writeInt(room.getDoors().size());
+				
+				for (Door door : room.getDoors()) {
+					out.writeInt(door.getId());
+					out.writeByte(door.getDirection().ordinal());
+					out.writeByte(door.getState().ordinal());
+				}
+				
+				out.writeInt(room.getWindowId().getLastId());
+				out.writeInt(room.getWindows().size());
+				
+				for (Window window : room.getWindows()) {
+					out.writeInt(window.getId());
+					out.writeByte(window.getDirection().ordinal());
+					out.writeByte(window.getState().ordinal());
+				}
+			}
+		}
+	}
+	
+	private static void readLayout(DataInputStream in, DecodedCheckpoint checkpoint, HouseLayoutModel layoutModel) throws IOException {
+		checkpoint.nbPersonsInside = readInteger(in);
+		checkpoint.backyard = new OutsideLocation(layoutModel.getBackyard().getName());
+		readLocation(in, checkpoint.backyard);
+		checkpoint.entrance = new OutsideLocation(layoutModel.getEntrance().getName());
+		readLocation(in, checkpoint.entrance);
+		
+		int nbRows = readCount(in);
+		List<RoomRow> rows = new ArrayList<>(nbRows);
+		Map<Long, Room> roomsByLocation = new HashMap<>();
+		
+		for (int i = 0; i < nbRows; i++) {
+			int rowId = in.readInt();
+			int lastRoomId = in.readInt();
+			int nbRooms = readCount(in);
+			List<Room> rooms = new ArrayList<>(nbRooms);
+			
+			for (int j = 0; j < nbRooms; j++) {
+				Room room = Room.builder()
+						.id(in.readInt())
+						.name(readString(in))
+						.temperature(readDouble(in))
+						.heatingMode(readOrdinal(in, HEATING_MODES))
+						.havc(in.readBoolean())
+						.build();
+				room.setRowId(rowId);
+				readLocation(in, room);
+				
+				room.getDoorId().setLastId(in.readInt());
+				int nbDoors = readCount(in);
+				List<Door> doors = new ArrayList<>(nbDoors);
+				
+				for (int k = 0; k < nbDoors; k++) {
+					doors.add(Door.builder()
+							.id(in.readInt())
+							.direction(readOrdinal(in, DIRECTIONS))
+							.state(readOrdinal(in, DOOR_STATES))
+							.build());
+				}
+				
+				room.setDoors(doors);
+				room.getWindowId().setLastId(in.readInt());
+				int nbWindows = readCount(in);
+				List<Window> windows = new ArrayList<>(nbWindows);
+				
+				for (int k = 0; k < nbWindows; k++) {
+					windows.add(Window.builder()
+							.id(in.readInt())
+							.direction(readOrdinal(in, DIRECTIONS))
+							.state(readOrdinal(in, WINDOW_STATES))
+							.build());
+				}
+				
+				room.setWindows(windows);
+				rooms.add(room);
+				roomsByLocation.put(roomKey(rowId, room.getId()), room);
+			}
+			
+			RoomRow row = RoomRow.builder().id(rowId).rooms(rooms).build();
+			row.getRoomId().setLastId(lastRoomId);
+			rows.add(row);
+		}
+		
+		checkpoint.rows = rows;
+		checkpoint.rooms = roomsByLocation;
+	}
+	
+	private static void applyLayout(DecodedCheckpoint checkpoint, HouseLayoutModel layoutModel) {
+		layoutModel.setBackyard(checkpoint.backyard);
+		layoutModel.setEntrance(checkpoint.entrance);
+		layoutModel.setNbPersonsInside(checkpoint.nbPersonsInside);
+		layoutModel.setRows(checkpoint.rows);
+	}
+	
+	private static void writeLocation(DataOutputStream out, Location location) throws IOException {
+		Light light = location.getLight();
+		out.writeByte(light.getState().ordinal());
+		out.writeBoolean(Boolean.TRUE.equals(light.getAutoMode()));
+		out.writeBoolean(Boolean.TRUE.equals(light.getAwayMode()));
+		
+		out.writeInt(location.getPersonId().getLastId());
+		out.writeInt(location.getPersons().size());
+		
+		for (Person person : location.getPersons()) {
+			out.writeInt(person.getId());
+			writeString(out, person.getName());
+		}
+	}
+	
+	private static void readLocation(DataInputStream in, Location location) throws IOException {
+		location.setLight(new Light(readOrdinal(in, LIGHT_STATES), in.readBoolean(), in.readBoolean()));
+		location.getPersonId().setLastId(in.readInt());
+		
+		int nbPersons = readCount(in);
+		List<Person> persons = new ArrayList<>(nbPersons);
+		
+		for (int i = 0; i < nbPersons; i++) {
+			persons.add(Person.builder().id(in.readInt()).name(readString(in)).build());
+		}
+		
+		location.setPersons(persons);
+	}
+	
+	private static void writeHeating(DataOutputStream out, HeatingModel heatingModel) throws IOException {
+		out.writeByte(heatingModel.getHeatingMode().ordinal());
+		writeDouble(out, heatingModel.getDefaultTemperatures().getSummerTemp());
+		writeDouble(out, heatingModel.getDefaultTemperatures().getWinterTemp());
+		writeSeasonDates(out, heatingModel.getSeasonDates());
+		writeDouble(out, heatingModel.getOutsideTemp());
+		out.writeBoolean(Boolean.TRUE.equals(heatingModel.getOn()));
+		out.writeBoolean(Boolean.TRUE.equals(heatingModel.getSummer()));
+		
+		out.writeInt(heatingModel.getZoneId().getLastId());
+		out.writeInt(heatingModel.getZones().size());
+		
+		for (HeatingZone zone : heatingModel.getZones()) {
+			out.writeInt(zone.getId());
+			writeString(out, zone.getName());
+			
+			for (HeatingZonePeriod period : ZONE_PERIODS) {
+				writeDouble(out, zone.getPeriods().getTargetTemperature(period));
+			}
+			
+			out.writeInt(zone.getRooms().size());
+			
+			for (Room room : zone.getRooms()) {
+				out.writeInt(room.getRowId() != null ? room.getRowId() : -1);
+				out.writeInt(room.getId());
+			}
+		}
+	}
+	
+	private static void readHeating(DataInputStream in, DecodedCheckpoint checkpoint) throws IOException {
+		checkpoint.heatingMode = readOrdinal(in, HEATING_MODES);
+		checkpoint.defaultTemperatures = new DefaultTemperatures();
+		checkpoint.defaultTemperatures.setSummerTemp(readDouble(in));
+		checkpoint.defaultTemperatures.setWinterTemp(readDouble(in));
+		checkpoint.heatingSeasonDates = readSeasonDates(in);
+		checkpoint.heatingOutsideTemp = readDouble(in);
+		checkpoint.heatingOn = in.readBoolean();
+		checkpoint.summer = in.readBoolean();
+		
+		checkpoint.lastZoneId = in.readInt();
+		int nbZones = readCount(in);
+		List<HeatingZone> zones = new ArrayList<>(nbZones);
+		
+		for (int i = 0; i < nbZones; i++) {
+			HeatingZone zone = HeatingZone.builder().id(in.readInt()).name(readString(in)).build();
+			
+			for (HeatingZonePeriod period : ZONE_PERIODS) {
+				zone.getPeriods().setTargetTemperature(period, readDouble(in));
+			}
+			
+			int nbRooms = readCount(in);
+			List<Room> zoneRooms = new ArrayList<>(nbRooms);
+			
+			for (int j = 0; j < nbRooms; j++) {
+				Room room = checkpoint.rooms.get(roomKey(in.readInt(), in.readInt()));
+				
+				if (room != null) {
+					zoneRooms.add(room);
+				}
+			}
+			
+			zone.setRooms(zoneRooms);
+			zones.add(zone);
+		}
+		
+		checkpoint.zones = zones;
+	}
+	
+	private static void applyHeating(DecodedCheckpoint checkpoint, HeatingModel heatingModel) {
+		heatingModel.setHeatingMode(checkpoint.heatingMode);
+		heatingModel.setDefaultTemperatures(checkpoint.defaultTemperatures);
+		heatingModel.setSeasonDates(checkpoint.heatingSeasonDates);
+		heatingModel.setOutsideTemp(checkpoint.heatingOutsideTemp);
+		heatingModel.setOn(checkpoint.heatingOn);
+		heatingModel.setSummer(checkpoint.summer);
+		heatingModel.getZoneId().setLastId(checkpoint.lastZoneId);
+		heatingModel.setZones(checkpoint.zones);
+	}
+	
+	private static void writeSecurity(DataOutputStream out, SecurityModel securityModel) throws IOException {
+		out.writeBoolean(securityModel.getAwayMode());
+		out.writeLong(securityModel.getAlertAuthoritiesTime().getSeconds());
+		writeInteger(out, securityModel.getNbPersonsInside());
+		out.writeInt(securityModel.getAwayModeHours().getFrom().toSecondOfDay());
+		out.writeInt(securityModel.getAwayModeHours().getTo().toSecondOfDay());
+		out.writeInt(securityModel.getAlertCount());
+	}
+	
+	private static void readSecurity(DataInputStream in, DecodedCheckpoint checkpoint) throws IOException {
+		checkpoint.awayMode = in.readBoolean();
+		checkpoint.alertAuthoritiesTime = Duration.ofSeconds(in.readLong());
+		checkpoint.securityNbPersonsInside = readInteger(in);
+		checkpoint.awayModeHours = new AwayModeHours(
+				LocalTime.ofSecondOfDay(in.readInt()),
+				LocalTime.ofSecondOfDay(in.readInt())
+		);
+		checkpoint.alertCount = in.readInt();
+	}
+	
+	private static void applySecurity(DecodedCheckpoint checkpoint, SecurityModel securityModel, HouseLayoutModel layoutModel) {
+		securityModel.setAlertAuthoritiesTime(checkpoint.alertAuthoritiesTime);
+		securityModel.setNbPersonsInside(checkpoint.securityNbPersonsInside);
+		securityModel.setAwayModeHours(checkpoint.awayModeHours);
+		securityModel.setAlertCount(checkpoint.alertCount);
+		securityModel.setAlertDetected(false);
+		
+		List<Light> awayModeLights = new ArrayList<>();
+		addAwayModeLight(awayModeLights, layoutModel.getBackyard());
+		addAwayModeLight(awayModeLights, layoutModel.getEntrance());
+		
+		for (RoomRow row : layoutModel.getRows()) {
+			for (Room room : row.getRooms()) {
+				addAwayModeLight(awayModeLights, room);
+			}
+		}
+		
+		securityModel.setAwayModeLights(awayModeLights);
+		securityModel.restoreAwayMode(checkpoint.awayMode);
+	}
+	
+	private static void addAwayModeLight(List<Light> awayModeLights, Location location) {
+		if (Boolean.TRUE.equals(location.getLight().getAwayMode())) {
+			awayModeLights.add(location.getLight());
+		}
+	}
+	
+	/**
+	 * Reads an enum constant stored by ordinal.
+	 * @param in input
+	 * @param values constants of the enum
+	 * @param <E> type of the enum
+	 * @return Read constant
+	 * @throws IOException if the ordinal is not one of the constants
+	 */
+	private static <E extends Enum<E>> E readOrdinal(DataInputStream in, E[] values) throws IOException {
+		int ordinal = in.readUnsignedByte();
+		
+		if (ordinal >= values.length) {
+			throw new IOException("Invalid " + values[0].getDeclaringClass().getSimpleName() + " ordinal " + ordinal);
+		}
+		
+		return values[ordinal];
+	}
+	
+	/**
+	 * Reads a number of elements. Each element takes at least a byte, so a count larger than
+	 * the remaining data is invalid.
+	 * @param in input
+	 * @return Read count
+	 * @throws IOException if the count is negative or larger than the remaining data
+	 */
+	private static int readCount(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		
+		if (count < 0 || count > in.available()) {
+			throw new IOException("Invalid element count " + count);
+		}
+		
+		return count;
+	}
+	
+	private static long roomKey(int rowId, int roomId) {
+		return ((long) rowId << 32) | (roomId & 0xFFFFFFFFL);
+	}
+	
+	private static void writeSeasonDates(DataOutputStream out, SeasonDates seasonDates) throws IOException {
+		writeDate(out, seasonDates.getSummerStart());
+		writeDate(out, seasonDates.getWinterStart());
+	}
+	
+	private static SeasonDates readSeasonDates(DataInputStream in) throws IOException {
+		return new SeasonDates(readDate(in), readDate(in));
+	}
+	
+	private static void writeDate(DataOutputStream out, LocalDateTime date) throws IOException {
+		out.writeBoolean(date != null);
+		
+		if (date != null) {
+			out.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+			out.writeInt(date.getNano());
+		}
+	}
+	
+	private static LocalDateTime readDate(DataInputStream in) throws IOException {
+		return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+	}
+	
+	private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+		out.writeBoolean(value != null);
+		
+		if (value != null) {
+			out.writeDouble(value);
+		}
+	}
+	
+	private static Double readDouble(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readDouble() : null;
+	}
+	
+	private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+		out.writeBoolean(value != null);
+		
+		if (value != null) {
+			out.writeInt(value);
+		}
+	}
+	
+	private static Integer readInteger(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readInt() : null;
+	}
+	
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+	
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+	
+	/**
+	 * State read from a checkpoint, held until it is all validated and applied to the models.
+	 */
+	private static class DecodedCheckpoint {
+		
+		private SimulationState state;
+		private ParametersInput parameters;
+		private User user;
+		
+		private Integer nbPersonsInside;
+		private OutsideLocation backyard;
+		private OutsideLocation entrance;
+		private List<RoomRow> rows;
+		private Map<Long, Room> rooms;
+		
+		private RoomHeatingMode heatingMode;
+		private DefaultTemperatures defaultTemperatures;
+		private SeasonDates heatingSeasonDates;
+		private Double heatingOutsideTemp;
+		private boolean heatingOn;
+		private boolean summer;
+		private int lastZoneId;
+		private List<HeatingZone> zones;
+		
+		private boolean awayMode;
+		private Duration alertAuthoritiesTime;
+		private Integer securityNbPersonsInside;
+		private AwayModeHours awayModeHours;
+		private int alertCount;
+		
+	}
+	
+}
@@ -0,0 +1,148 @@
+package com.smart.home.backend.service.checkpoint;
+
+import com.smart.home.backend.model.heating.HeatingModel;
+import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.model.security.SecurityModel;
+import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
+import com.smart.home.backend.model.simulationparameters.DateIncrementTask;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Service saving and restoring binary checkpoints of the simulation. The state is encoded in memory while
+ * holding the tick lock, so a checkpoint never sees half a tick, and the file is written by a background
+ * thread so the ticks are only paused for the encoding.
+ */
+@Getter
+@Component
+public class SimulationCheckpointService {
+	
+	private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+	private static final String EXTENSION = ".bin";
+	
+	private final SimulationContextModel simulationContextModel;
+	private final HeatingModel heatingModel;
+	private final SecurityModel securityModel;
+	private final DateIncrementTask dateIncrementTask;
+	private final Path directory;
+	private final ExecutorService writer;
+	
+	/**
+	 * 5-parameter constructor.
+	 * @param simulationContextModel simulation context model
+	 * @param heatingModel heating model
+	 * @param securityModel security model
+	 * @param dateIncrementTask date increment task, whose lock guards the ticks
+	 * @param directory directory holding the checkpoints
+	 */
+	@Autowired
+	public SimulationCheckpointService(
+			SimulationContextModel simulationContextModel,
+			HeatingModel heatingModel,
+			SecurityModel securityModel,
+			DateIncrementTask dateIncrementTask,
+			@Value("${smarthome.checkpoint.directory:checkpoints}") String directory
+	) {
+		this.simulationContextModel = simulationContextModel;
+		this.heatingModel = heatingModel;
+		this.securityModel = securityModel;
+		this.dateIncrementTask = dateIncrementTask;
+		this.directory = Paths.get(directory);
+		this.writer = Executors.newSingleThreadExecutor();
+	}
+	
+	/**
+	 * Checks that a checkpoint name can safely be used as a file name.
+	 * @param name checkpoint name
+	 * @return Whether the name is valid or not
+	 */
+	public static boolean isNameValid(String name) {
+		return name != null && NAME_PATTERN.matcher(name).matches();
+	}
+	
+	/**
+	 * Saves a checkpoint of the simulation.
+	 * @param name checkpoint name
+	 * @return Summary of the checkpoint, completed once the file is written
+	 */
+	public CompletableFuture<CheckpointSummary> checkpoint(String name) {
+		long startNanos = System.nanoTime();
+		byte[] data;
+		int rooms;
+		
+		try {
+			synchronized (this.getDateIncrementTask()) {
+				data = SimulationCheckpointCodec.encode(this.getSimulationContextModel(), this.getHeatingModel(), this.getSecurityModel());
+				rooms = this.countRooms();
+			}
+		} catch (IOException e) {
+			CompletableFuture<CheckpointSummary> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+		
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Files.createDirectories(this.getDirectory());
+				Path temporaryFile = this.getDirectory().resolve(name + EXTENSION + ".tmp");
+				Files.write(temporaryFile, data);
+				Files.move(temporaryFile, this.getDirectory().resolve(name + EXTENSION), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			
+			return new CheckpointSummary(name, data.length, rooms, (System.nanoTime() - startNanos) / 1_000_000);
+		}, this.getWriter());
+	}
+	
+	/**
+	 * Restores a checkpoint of the simulation into the existing models.
+	 * @param name checkpoint name
+	 * @return Summary of the restore
+	 * @throws IOException if the checkpoint cannot be read
+	 */
+	public CheckpointSummary restore(String name) throws IOException {
+		long startNanos = System.nanoTime();
+		byte[] data = Files.readAllBytes(this.getDirectory().resolve(name + EXTENSION));
+		int rooms;
+		
+		synchronized (this.getDateIncrementTask()) {
+			rooms = SimulationCheckpointCodec.decode(data, this.getSimulationContextModel(), this.getHeatingModel(), this.getSecurityModel());
+		}
+		
+		return new CheckpointSummary(name, data.length, rooms, (System.nanoTime() - startNanos) / 1_000_000);
+	}
+	
+	/**
+	 * Stops the background writer once the pending checkpoints are written.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		this.getWriter().shutdown();
+	}
+	
+	private int countRooms() {
+		int rooms = 0;
+		
+		for (RoomRow row : this.getSimulationContextModel().getHouseLayoutModel().getRows()) {
+			rooms += row.getRooms().size();
+		}
+		
+		return rooms;
+	}
+	
+}
@@ -0,0 +1,18 @@
+package com.smart.home.backend.service.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Temperature of a room at the end of a simulation run.
+ */
+@Getter
+@AllArgsConstructor
+public class RoomTemperatureReading {
+	
+	private final Integer rowId;
+	private final Integer roomId;
+	private final String name;
+	private final double temperature;
+	
+}
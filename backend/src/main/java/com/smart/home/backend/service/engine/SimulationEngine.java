@@ -0,0 +1,119 @@
+package com.smart.home.backend.service.engine;
+
+import com.smart.home.backend.model.heating.HeatingModel;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.security.SecurityModel;
+import com.smart.home.backend.model.simulationparameters.DateIncrementTask;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Headless engine that drives the simulation as fast as possible, without waiting on the wall clock.
+ */
+@Getter
+@Component
+public class SimulationEngine {
+	
+	private final SystemParameters systemParameters;
+	private final DateIncrementTask dateIncrementTask;
+	private final HeatingModel heatingModel;
+	private final SecurityModel securityModel;
+	
+	/**
+	 * 4-parameter constructor.
+	 * @param systemParameters system parameters
+	 * @param dateIncrementTask date increment task
+	 * @param heatingModel heating model
+	 * @param securityModel security model
+	 */
+	@Autowired
+	public SimulationEngine(
+			SystemParameters systemParameters,
+			DateIncrementTask dateIncrementTask,
+			HeatingModel heatingModel,
+			SecurityModel securityModel
+	) {
+		this.systemParameters = systemParameters;
+		this.dateIncrementTask = dateIncrementTask;
+		this.heatingModel = heatingModel;
+		this.securityModel = securityModel;
+	}
+	
+	/**
+	 * Runs the simulation in a tight loop until the given date is reached. The real-time timer is
+	 * paused for the duration of the run and resumed afterwards.
+	 * @param until date at which to stop
+	 * @param stepSeconds simulated seconds per tick. Uses the configured time step when null
+	 * @return Summary of the run. Null if the date is not after the current simulated date
+	 */
+	public synchronized SimulationRunSummary runUntil(LocalDateTime until, Integer stepSeconds) {
+		LocalDateTime startDate = this.getSystemParameters().getDate();
+		
+		if (until == null || startDate == null || !until.isAfter(startDate)) {
+			return null;
+		}
+		
+		int step = stepSeconds != null ? stepSeconds : this.getSystemParameters().getTimeStep();
+		int initialAlertCount = this.getSecurityModel().getAlertCount();
+		boolean timerScheduled = this.getSystemParameters().getScheduledFuture() != null
+				&& !this.getSystemParameters().getScheduledFuture().isCancelled();
+		
+		this.getSystemParameters().stopTimer();
+		
+		long ticks = 0;
+		long startNanos = System.nanoTime();
+		
+		try {
+			long remainingSeconds = ChronoUnit.SECONDS.between(startDate, until);
+			
+			while (remainingSeconds > 0) {
+				long currentStep = Math.min(step, remainingSeconds);
+				this.getDateIncrementTask().tick(currentStep);
+				remainingSeconds -= currentStep;
+				ticks++;
+			}
+		} finally {
+			if (timerScheduled) {
+				this.getSystemParameters().resetTimer();
+			}
+		}
+		
+		long elapsedNanos = System.nanoTime() - startNanos;
+		
+		return this.summarize(startDate, ticks, elapsedNanos, this.getSecurityModel().getAlertCount() - initialAlertCount);
+	}
+	
+	/**
+	 * Builds the summary of a finished run.
+	 * @param startDate date at which the run started
+	 * @param ticks number of ticks executed
+	 * @param elapsedNanos wall-clock duration of the run
+	 * @param alertsRaised number of alerts raised during the run
+	 * @return Run summary
+	 */
+	private SimulationRunSummary summarize(LocalDateTime startDate, long ticks, long elapsedNanos, int alertsRaised) {
+		SimulationRunSummary summary = new SimulationRunSummary();
+		
+		summary.setStartDate(startDate);
+		summary.setEndDate(this.getSystemParameters().getDate());
+		summary.setTicks(ticks);
+		summary.setSimulatedSeconds(ChronoUnit.SECONDS.between(startDate, summary.getEndDate()));
+		summary.setElapsedMillis(elapsedNanos / 1_000_000L);
+		summary.setTicksPerSecond(elapsedNanos > 0 ? ticks * 1e9 / elapsedNanos : ticks);
+		summary.setAlertsRaised(alertsRaised);
+		
+		for (Room room : this.getHeatingModel().getHouseLayoutModel().getAllRooms()) {
+			summary.getRoomTemperatures().add(
+					new RoomTemperatureReading(room.getRowId(), room.getId(), room.getName(), room.getTemperature())
+			);
+		}
+		
+		return summary;
+	}
+	
+}
@@ -0,0 +1,26 @@
+package com.smart.home.backend.service.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a headless simulation run.
+ */
+@Getter
+@Setter
+public class SimulationRunSummary {
+	
+	private LocalDateTime startDate;
+	private LocalDateTime endDate;
+	private long ticks;
+	private long simulatedSeconds;
+	private long elapsedMillis;
+	private double ticksPerSecond;
+	private int alertsRaised;
+	private List<RoomTemperatureReading> roomTemperatures = new ArrayList<>();
+	
+}
@@ -0,0 +1,16 @@
+package com.smart.home.backend.service.importer;
+
+/**
+ * Exception class for an invalid streamed house layout.
+ */
+public class LayoutImportException extends Exception {
+	
+	/**
+	 * 1-parameter constructor
+	 * @param message what is invalid and where
+	 */
+	public LayoutImportException(String message) {
+		super(message);
+	}
+	
+}
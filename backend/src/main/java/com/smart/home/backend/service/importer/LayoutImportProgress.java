@@ -0,0 +1,56 @@
+package com.smart.home.backend.service.importer;
+
+import lombok.Getter;
+
+/**
+ * Progress of a streamed house layout import, updated by the importing thread and read by the others.
+ */
+@Getter
+public class LayoutImportProgress {
+	
+	/**
+	 * Size of the imported layout in bytes, -1 when unknown.
+	 */
+	private final long totalBytes;
+	private volatile long bytesRead;
+	private volatile int rows;
+	private volatile int rooms;
+	private volatile boolean done;
+	private volatile String error;
+	private volatile long elapsedMillis;
+	
+	private final long startNanos;
+	
+	/**
+	 * 1-parameter constructor.
+	 * @param totalBytes size of the imported layout in bytes, -1 when unknown
+	 */
+	public LayoutImportProgress(long totalBytes) {
+		this.totalBytes = totalBytes;
+		this.startNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Records the rows and rooms read so far.
+	 * @param bytesRead bytes read so far
+	 * @param rows rows read so far
+	 * @param rooms rooms read so far
+	 */
+	void update(long bytesRead, int rows, int rooms) {
+		this.bytesRead = bytesRead;
+		this.rows = rows;
+		this.rooms = rooms;
+		this.elapsedMillis = (System.nanoTime() - this.startNanos) / 1_000_000L;
+	}
+	
+	/**
+	 * Marks the import as finished.
+	 * @param error why the import failed, null if it succeeded
+	 */
+	public void finish(String error) {
+		this.error = error;
+		this.elapsedMillis = (System.nanoTime() - this.startNanos) / 1_000_000L;
+		this.done = true;
+	}
+	
+}
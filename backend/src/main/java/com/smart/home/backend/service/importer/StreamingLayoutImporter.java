@@ -0,0 +1,197 @@
+package com.smart.home.backend.service.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.smart.home.backend.constant.Direction;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.service.mapper.DoorsMapper;
+import com.smart.home.backend.service.mapper.WindowsMapper;
+import com.smart.home.backend.service.util.IdIndexedList;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a house layout with the same format as HouseLayoutInput token by token, building the rows
+ * as they are read instead of binding the whole input first. The input is validated on the way,
+ * and the progress is published after every room.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class StreamingLayoutImporter {
+	
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	
+	/**
+	 * Reads the rows of a house layout.
+	 * @param input layout to read, left open
+	 * @param progress progress to publish to
+	 * @return Read rows
+	 * @throws IOException Thrown when reading the input fails or the input is not JSON
+	 * @throws LayoutImportException Thrown when the layout is invalid
+	 */
+	public static List<RoomRow> read(InputStream input, LayoutImportProgress progress) throws IOException, LayoutImportException {
+		List<RoomRow> rows = null;
+		
+		try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			expect(parser, parser.nextToken(), JsonToken.START_OBJECT, "the layout");
+			
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				
+				if ("rows".equals(field)) {
+					expect(parser, value, JsonToken.START_ARRAY, "the rows");
+					rows = readRows(parser, progress);
+				} else {
+					parser.skipChildren();
+				}
+			}
+			
+			if (rows == null) {
+				throw new LayoutImportException("The layout has no rows");
+			}
+			
+			progress.update(parser.getCurrentLocation().getByteOffset(), rows.size(), progress.getRooms());
+		}
+		
+		return rows;
+	}
+	
+	/**
+	 * Reads the rows array, the parser being on its start.
+	 * @param parser JSON parser
+	 * @param progress progress to publish to
+	 * @return Read rows
+	 */
+	private static List<RoomRow> readRows(JsonParser parser, LayoutImportProgress progress) throws IOException, LayoutImportException {
+		List<RoomRow> rows = new ArrayList<>();
+		int nbRooms = 0;
+		
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			int rowId = rows.size();
+			expect(parser, parser.currentToken(), JsonToken.START_OBJECT, "row " + rowId);
+			IdIndexedList<Room> rooms = new IdIndexedList<>();
+			
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				
+				if ("rooms".equals(field) && value != JsonToken.VALUE_NULL) {
+					expect(parser, value, JsonToken.START_ARRAY, "the rooms of row " + rowId);
+					
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						rooms.add(readRoom(parser, rowId, rooms.size()));
+						nbRooms++;
+						progress.update(parser.getCurrentLocation().getByteOffset(), rows.size(), nbRooms);
+					}
+				} else {
+					parser.skipChildren();
+				}
+			}
+			
+			RoomRow row = RoomRow.builder().id(rowId).rooms(rooms).build();
+			row.getRoomId().setLastId(rooms.size());
+			rows.add(row);
+			progress.update(parser.getCurrentLocation().getByteOffset(), rows.size(), nbRooms);
+		}
+		
+		return rows;
+	}
+	
+	/**
+	 * Reads a room object, the parser being on its start.
+	 * @param parser JSON parser
+	 * @param rowId id of the room's row
+	 * @param roomId id of the room
+	 * @return Read room
+	 */
+	private static Room readRoom(JsonParser parser, int rowId, int roomId) throws IOException, LayoutImportException {
+		String where = "room " + roomId + " of row " + rowId;
+		expect(parser, parser.currentToken(), JsonToken.START_OBJECT, where);
+		String name = null;
+		List<Direction> windowsOn = new ArrayList<>();
+		List<Direction> doorsOn = new ArrayList<>();
+		
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			
+			if ("name".equals(field)) {
+				expect(parser, value, JsonToken.VALUE_STRING, "the name of " + where);
+				name = parser.getText();
+			} else if ("windowsOn".equals(field)) {
+				readDirections(parser, windowsOn, "the windows of " + where);
+			} else if ("doorsOn".equals(field)) {
+				readDirections(parser, doorsOn, "the doors of " + where);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		
+		if (name == null) {
+			throw new LayoutImportException("The " + where + " has no name");
+		}
+		
+		Room room = Room.builder()
+				.id(roomId)
+				.name(name)
+				.doors(DoorsMapper.map(doorsOn))
+				.windows(WindowsMapper.map(windowsOn))
+				.build();
+		
+		room.getDoorId().setLastId(room.getDoors().size());
+		room.getWindowId().setLastId(room.getWindows().size());
+		
+		return room;
+	}
+	
+	/**
+	 * Reads an array of directions, the parser being on its start. A null array is read as empty.
+	 * @param parser JSON parser
+	 * @param directions list receiving the directions
+	 * @param what what the directions are, for the error messages
+	 */
+	private static void readDirections(JsonParser parser, List<Direction> directions, String what) throws IOException, LayoutImportException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return;
+		}
+		
+		expect(parser, parser.currentToken(), JsonToken.START_ARRAY, what);
+		
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			expect(parser, parser.currentToken(), JsonToken.VALUE_STRING, what);
+			Direction direction = Direction.get(parser.getText());
+			
+			if (direction == null) {
+				throw new LayoutImportException("Unknown direction " + parser.getText() + " in " + what);
+			}
+			
+			directions.add(direction);
+		}
+	}
+	
+	/**
+	 * Checks the type of the current token.
+	 * @param parser JSON parser
+	 * @param actual current token
+	 * @param expected expected token
+	 * @param what what is being read, for the error message
+	 * @throws LayoutImportException Thrown when the token is not the expected one
+	 */
+	private static void expect(JsonParser parser, JsonToken actual, JsonToken expected, String what) throws LayoutImportException {
+		if (actual != expected) {
+			throw new LayoutImportException(
+					"Expected " + expected + " for " + what + " but found " + actual
+							+ " at line " + parser.getCurrentLocation().getLineNr()
+			);
+		}
+	}
+	
+}
@@ -0,0 +1,129 @@
+package com.smart.home.backend.service.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of event delivery times for one (source, event, listener) edge. Bucket i holds
+ * the deliveries that took between 2^(i-1) and 2^i nanoseconds.
+ */
+@Getter
+public class DeliveryHistogram {
+	
+	public static final int NB_BUCKETS = 40;
+	
+	private final String source;
+	private final String event;
+	private final String listener;
+	private final AtomicLongArray buckets;
+	private final LongAdder count;
+	private final LongAdder totalNanos;
+	private final AtomicLong maxNanos;
+	
+	/**
+	 * Constructor.
+	 * @param source name of the notifier firing the event
+	 * @param event name of the event
+	 * @param listener name of the listener receiving the event
+	 */
+	public DeliveryHistogram(String source, String event, String listener) {
+		this.source = source;
+		this.event = event;
+		this.listener = listener;
+		this.buckets = new AtomicLongArray(NB_BUCKETS);
+		this.count = new LongAdder();
+		this.totalNanos = new LongAdder();
+		this.maxNanos = new AtomicLong();
+	}
+	
+	/**
+	 * Records one delivery.
+	 * @param nanos delivery duration in nanoseconds
+	 */
+	public void record(long nanos) {
+		long duration = Math.max(0, nanos);
+		int bucket = Math.min(NB_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(duration));
+		
+		this.buckets.incrementAndGet(bucket);
+		this.count.increment();
+		this.totalNanos.add(duration);
+		
+		long max = this.maxNanos.get();
+		
+		while (duration > max && !this.maxNanos.compareAndSet(max, duration)) {
+			max = this.maxNanos.get();
+		}
+	}
+	
+	/**
+	 * Clears the recorded deliveries. The histogram stays registered so cached references remain valid.
+	 */
+	public void reset() {
+		for (int i = 0; i < NB_BUCKETS; i++) {
+			this.buckets.set(i, 0);
+		}
+		
+		this.count.reset();
+		this.totalNanos.reset();
+		this.maxNanos.set(0);
+	}
+	
+	/**
+	 * Takes a snapshot of the recorded deliveries.
+	 * @return Delivery statistics
+	 */
+	public DeliveryStats snapshot() {
+		long[] counts = new long[NB_BUCKETS];
+		long nbDeliveries = 0;
+		
+		for (int i = 0; i < NB_BUCKETS; i++) {
+			counts[i] = this.buckets.get(i);
+			nbDeliveries += counts[i];
+		}
+		
+		long total = this.totalNanos.sum();
+		
+		return DeliveryStats.builder()
+				.source(this.getSource())
+				.event(this.getEvent())
+				.listener(this.getListener())
+				.count(nbDeliveries)
+				.totalNanos(total)
+				.meanNanos(nbDeliveries == 0 ? 0 : total / nbDeliveries)
+				.maxNanos(this.maxNanos.get())
+				.p50Nanos(percentile(counts, nbDeliveries, 0.50))
+				.p99Nanos(percentile(counts, nbDeliveries, 0.99))
+				.buckets(counts)
+				.build();
+	}
+	
+	/**
+	 * Approximates a percentile with the upper bound of the bucket it falls in.
+	 * @param counts bucket counts
+	 * @param nbDeliveries total number of deliveries
+	 * @param ratio percentile between 0 and 1
+	 * @return Percentile upper bound in nanoseconds
+	 */
+	private static long percentile(long[] counts, long nbDeliveries, double ratio) {
+		if (nbDeliveries == 0) {
+			return 0;
+		}
+		
+		long threshold = (long) Math.ceil(nbDeliveries * ratio);
+		long seen = 0;
+		
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			
+			if (seen >= threshold) {
+				return i == 0 ? 0 : 1L << i;
+			}
+		}
+		
+		return 1L << (counts.length - 1);
+	}
+	
+}
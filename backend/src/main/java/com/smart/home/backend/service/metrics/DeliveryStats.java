@@ -0,0 +1,24 @@
+package com.smart.home.backend.service.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Snapshot of the deliveries of one event from a source to a listener.
+ */
+@Getter
+@Builder
+public class DeliveryStats {
+	
+	private final String source;
+	private final String event;
+	private final String listener;
+	private final long count;
+	private final long totalNanos;
+	private final long meanNanos;
+	private final long maxNanos;
+	private final long p50Nanos;
+	private final long p99Nanos;
+	private final long[] buckets;
+	
+}
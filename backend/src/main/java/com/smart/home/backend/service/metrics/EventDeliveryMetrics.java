@@ -0,0 +1,76 @@
+package com.smart.home.backend.service.metrics;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the model event delivery timings. Histograms are registered when a listener subscribes,
+ * so the dispatch path never looks anything up. Timings are inclusive: a delivery also counts the
+ * time spent in the cascade of events it triggers.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class EventDeliveryMetrics {
+	
+	private static final Map<String, DeliveryHistogram> histograms = new ConcurrentHashMap<>();
+	
+	private static volatile boolean enabled = true;
+	
+	/**
+	 * Retrieves the histogram of an edge of the event graph, creating it if needed.
+	 * @param source notifier firing the event
+	 * @param event name of the event
+	 * @param listener listener receiving the event
+	 * @return Edge histogram
+	 */
+	public static DeliveryHistogram histogram(Object source, String event, Object listener) {
+		String sourceName = source.getClass().getSimpleName();
+		String listenerName = listener.getClass().getSimpleName();
+		
+		return histograms.computeIfAbsent(
+				sourceName + "|" + event + "|" + listenerName,
+				key -> new DeliveryHistogram(sourceName, event, listenerName)
+		);
+	}
+	
+	/**
+	 * Whether delivery timings are recorded.
+	 * @return True if enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Enables or disables the recording of delivery timings.
+	 * @param isEnabled new value
+	 */
+	public static void setEnabled(boolean isEnabled) {
+		enabled = isEnabled;
+	}
+	
+	/**
+	 * Retrieves the statistics of every edge of the event graph, slowest edges first.
+	 * @return Delivery statistics
+	 */
+	public static List<DeliveryStats> getStats() {
+		return histograms.values()
+				.stream()
+				.map(DeliveryHistogram::snapshot)
+				.sorted(Comparator.comparingLong(DeliveryStats::getTotalNanos).reversed())
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Clears all recorded timings.
+	 */
+	public static void reset() {
+		histograms.values().forEach(DeliveryHistogram::reset);
+	}
+	
+}
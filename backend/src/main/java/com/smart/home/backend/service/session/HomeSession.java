@@ -0,0 +1,143 @@
+package com.smart.home.backend.service.session;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.smart.home.backend.config.ListenerConfig;
+import com.smart.home.backend.controller.HeatingController;
+import com.smart.home.backend.controller.HouseLayoutController;
+import com.smart.home.backend.controller.SimulationContextController;
+import com.smart.home.backend.controller.SimulationStreamController;
+import com.smart.home.backend.controller.SmartHomeSecurityController;
+import com.smart.home.backend.model.heating.HeatingModel;
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.security.SecurityModel;
+import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
+import com.smart.home.backend.model.simulationparameters.DateIncrementTask;
+import com.smart.home.backend.model.simulationparameters.SimulationParametersModel;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import com.smart.home.backend.model.simulationparameters.UserProfiles;
+import com.smart.home.backend.model.simulationparameters.module.Modules;
+import com.smart.home.backend.model.simulationparameters.timer.SimulationTimerWheel;
+import com.smart.home.backend.service.engine.SimulationEngine;
+import com.smart.home.backend.service.stream.SimulationStream;
+import lombok.Getter;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Simulation session of one home. Owns a complete model graph and clock, ticking on the shard
+ * executor it was assigned to. User profiles and modules are shared by all homes.
+ */
+@Getter
+public class HomeSession {
+	
+	private final String id;
+	private final int shard;
+	
+	@JsonIgnore
+	private final DateIncrementTask dateIncrementTask;
+	@JsonIgnore
+	private final SystemParameters systemParameters;
+	@JsonIgnore
+	private final HouseLayoutModel houseLayoutModel;
+	@JsonIgnore
+	private final HeatingModel heatingModel;
+	@JsonIgnore
+	private final SimulationTimerWheel timerWheel;
+	@JsonIgnore
+	private final SecurityModel securityModel;
+	@JsonIgnore
+	private final SimulationParametersModel simulationParametersModel;
+	@JsonIgnore
+	private final SimulationContextModel simulationContextModel;
+	@JsonIgnore
+	private final SimulationEngine simulationEngine;
+	@JsonIgnore
+	private final SimulationStream simulationStream;
+	
+	@JsonIgnore
+	private final HouseLayoutController houseLayoutController;
+	@JsonIgnore
+	private final HeatingController heatingController;
+	@JsonIgnore
+	private final SmartHomeSecurityController securityController;
+	@JsonIgnore
+	private final SimulationContextController simulationContextController;
+	@JsonIgnore
+	private final SimulationStreamController simulationStreamController;
+	
+	/**
+	 * 5-parameter constructor, streaming at the default maximum rate.
+	 * @param id home id
+	 * @param shard index of the shard executor
+	 * @param shardExecutor executor running the ticks of the shard
+	 * @param userProfiles shared user profiles
+	 * @param modules shared modules
+	 */
+	public HomeSession(String id, int shard, ScheduledExecutorService shardExecutor, UserProfiles userProfiles, Modules modules) {
+		this(id, shard, shardExecutor, userProfiles, modules, SimulationStream.DEFAULT_MAX_RATE);
+	}
+	
+	/**
+	 * 6-parameter constructor.
+	 * @param id home id
+	 * @param shard index of the shard executor
+	 * @param shardExecutor executor running the ticks of the shard
+	 * @param userProfiles shared user profiles
+	 * @param modules shared modules
+	 * @param streamMaxRate maximum number of pushes per second to a client of the home's stream
+	 */
+	public HomeSession(
+			String id,
+			int shard,
+			ScheduledExecutorService shardExecutor,
+			UserProfiles userProfiles,
+			Modules modules,
+			int streamMaxRate
+	) {
+		this.id = id;
+		this.shard = shard;
+		
+		this.dateIncrementTask = new DateIncrementTask();
+		this.systemParameters = new SystemParameters(this.dateIncrementTask, shardExecutor);
+		this.houseLayoutModel = new HouseLayoutModel();
+		this.heatingModel = new HeatingModel(this.houseLayoutModel);
+		this.timerWheel = new SimulationTimerWheel();
+		this.securityModel = new SecurityModel(this.timerWheel);
+		this.simulationParametersModel = new SimulationParametersModel(userProfiles, modules, this.systemParameters);
+		this.simulationContextModel = new SimulationContextModel(this.houseLayoutModel, this.simulationParametersModel);
+		this.simulationEngine = new SimulationEngine(
+				this.systemParameters,
+				this.dateIncrementTask,
+				this.heatingModel,
+				this.securityModel
+		);
+		this.simulationStream = new SimulationStream(this.houseLayoutModel, streamMaxRate, false);
+		
+		ListenerConfig.wire(
+				this.houseLayoutModel,
+				this.systemParameters,
+				this.simulationContextModel,
+				this.securityModel,
+				this.heatingModel,
+				this.dateIncrementTask,
+				this.timerWheel,
+				this.simulationStream
+		);
+		
+		this.houseLayoutController = new HouseLayoutController(this.houseLayoutModel);
+		this.heatingController = new HeatingController(this.heatingModel);
+		this.securityController = new SmartHomeSecurityController(this.securityModel);
+		this.simulationContextController = new SimulationContextController(this.simulationContextModel, this.simulationEngine);
+		this.simulationStreamController = new SimulationStreamController(this.simulationStream);
+	}
+	
+	/**
+	 * Stops the home's clock and completes its stream. The shard executor is left running for the other homes.
+	 */
+	public void close() {
+		this.getSystemParameters().setIncrementing(false);
+		this.getSystemParameters().stopTimer();
+		this.getSimulationStream().close();
+	}
+	
+}
@@ -0,0 +1,210 @@
+package com.smart.home.backend.service.session;
+
+import com.smart.home.backend.model.heating.HeatingModel;
+import com.smart.home.backend.model.simulationparameters.UserProfiles;
+import com.smart.home.backend.model.simulationparameters.module.Modules;
+import com.smart.home.backend.service.ConsoleSuppression;
+import com.smart.home.backend.service.stream.SimulationStream;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the simulated homes. Homes are spread over a fixed number of single-threaded shard
+ * executors, so the ticks of any number of homes are multiplexed onto a bounded pool of threads
+ * and the ticks of one home never run concurrently. A new home goes to the shard running the fewest
+ * homes, so the shards stay balanced as homes are created and removed.
+ * The output console is still shared: the console lines of every home are logged together, and only
+ * the default home's stream pushes them.
+ */
+@Component
+public class HomeSessionRegistry {
+	
+	private final Map<String, HomeSession> sessions = new ConcurrentHashMap<>();
+	private final AtomicInteger nextId = new AtomicInteger();
+	private final UserProfiles userProfiles;
+	private final Modules modules;
+	@Getter
+	private final ScheduledExecutorService[] shards;
+	private final int[] shardLoads;
+	private int streamMaxRate = SimulationStream.DEFAULT_MAX_RATE;
+	private int heatingParallelThreshold = HeatingModel.DEFAULT_PARALLEL_THRESHOLD;
+	private boolean thermalStoreEnabled = HeatingModel.DEFAULT_THERMAL_STORE;
+	private long consoleSuppressionSeconds = ConsoleSuppression.DEFAULT_WINDOW_SECONDS;
+	
+	/**
+	 * 3-parameter constructor.
+	 * @param userProfiles shared user profiles
+	 * @param modules shared modules
+	 * @param nbShards number of shard executors. Uses the number of processors when not positive
+	 */
+	@Autowired
+	public HomeSessionRegistry(
+			UserProfiles userProfiles,
+			Modules modules,
+			@Value("${smarthome.sessions.shards:0}") int nbShards
+	) {
+		this.userProfiles = userProfiles;
+		this.modules = modules;
+		this.shards = new ScheduledExecutorService[nbShards > 0 ? nbShards : Runtime.getRuntime().availableProcessors()];
+		this.shardLoads = new int[this.shards.length];
+		
+		for (int i = 0; i < this.shards.length; i++) {
+			this.shards[i] = Executors.newSingleThreadScheduledExecutor();
+		}
+	}
+	
+	/**
+	 * Sets the maximum number of pushes per second to a client of the streams of the homes created next.
+	 * @param streamMaxRate maximum push rate
+	 */
+	@Value("${smarthome.stream.max-rate:" + SimulationStream.DEFAULT_MAX_RATE + "}")
+	public void setStreamMaxRate(int streamMaxRate) {
+		this.streamMaxRate = streamMaxRate;
+	}
+	
+	/**
+	 * Sets the number of rooms from which the heating of the homes created next is adjusted in parallel.
+	 * @param heatingParallelThreshold number of rooms
+	 */
+	@Value("${smarthome.heating.parallel-threshold:" + HeatingModel.DEFAULT_PARALLEL_THRESHOLD + "}")
+	public void setHeatingParallelThreshold(int heatingParallelThreshold) {
+		this.heatingParallelThreshold = heatingParallelThreshold;
+	}
+	
+	/**
+	 * Sets whether the heating of the homes created next adjusts its temperatures from a thermal store.
+	 * @param thermalStoreEnabled whether the thermal store is enabled
+	 */
+	@Value("${smarthome.heating.thermal-store:" + HeatingModel.DEFAULT_THERMAL_STORE + "}")
+	public void setThermalStoreEnabled(boolean thermalStoreEnabled) {
+		this.thermalStoreEnabled = thermalStoreEnabled;
+	}
+	
+	/**
+	 * Sets the window during which the heating of the homes created next suppresses repeated warnings.
+	 * @param consoleSuppressionSeconds window in simulated seconds
+	 */
+	@Value("${smarthome.heating.console-suppression-seconds:" + ConsoleSuppression.DEFAULT_WINDOW_SECONDS + "}")
+	public void setConsoleSuppressionSeconds(long consoleSuppressionSeconds) {
+		this.consoleSuppressionSeconds = consoleSuppressionSeconds;
+	}
+	
+	/**
+	 * Creates a new home on the least loaded shard.
+	 * @return Created home session
+	 */
+	public HomeSession create() {
+		String id = String.valueOf(this.nextId.incrementAndGet());
+		int shard = this.acquireShard();
+		HomeSession session = new HomeSession(
+				id,
+				shard,
+				this.shards[shard],
+				this.userProfiles,
+				this.modules,
+				this.streamMaxRate
+		);
+		HeatingModel heatingModel = session.getHeatingModel();
+		heatingModel.setParallelThreshold(this.heatingParallelThreshold);
+		heatingModel.setThermalStoreEnabled(this.thermalStoreEnabled);
+		heatingModel.setConsoleSuppressionSeconds(this.consoleSuppressionSeconds);
+		this.sessions.put(id, session);
+		
+		return session;
+	}
+	
+	/**
+	 * Number of homes ticking on a shard.
+	 * @param shard shard index
+	 * @return Number of homes
+	 */
+	public synchronized int getShardLoad(int shard) {
+		return this.shardLoads[shard];
+	}
+	
+	/**
+	 * Finds a home by id.
+	 * @param homeId home id
+	 * @return Found home session. Null if not found
+	 */
+	@Nullable
+	public HomeSession find(String homeId) {
+		return this.sessions.get(homeId);
+	}
+	
+	/**
+	 * Retrieves all homes.
+	 * @return Home sessions
+	 */
+	public Collection<HomeSession> findAll() {
+		return new ArrayList<>(this.sessions.values());
+	}
+	
+	/**
+	 * Removes a home and stops its clock.
+	 * @param homeId home id
+	 * @return Removed home session. Null if not found
+	 */
+	@Nullable
+	public HomeSession remove(String homeId) {
+		HomeSession session = this.sessions.remove(homeId);
+		
+		if (session != null) {
+			session.close();
+			this.releaseShard(session.getShard());
+		}
+		
+		return session;
+	}
+	
+	/**
+	 * Picks the shard running the fewest homes, the first one on ties, and counts a home on it.
+	 * @return Shard index
+	 */
+	private synchronized int acquireShard() {
+		int shard = 0;
+		
+		for (int i = 1; i < this.shardLoads.length; i++) {
+			if (this.shardLoads[i] < this.shardLoads[shard]) {
+				shard = i;
+			}
+		}
+		
+		this.shardLoads[shard]++;
+		return shard;
+	}
+	
+	/**
+	 * Stops counting a removed home on its shard.
+	 * @param shard shard index
+	 */
+	private synchronized void releaseShard(int shard) {
+		this.shardLoads[shard]--;
+	}
+	
+	/**
+	 * Stops every home and the shard executors.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		this.sessions.values().forEach(HomeSession::close);
+		this.sessions.clear();
+		
+		for (ScheduledExecutorService shard : this.shards) {
+			shard.shutdownNow();
+		}
+	}
+	
+}
@@ -0,0 +1,260 @@
+package com.smart.home.backend.service.stream;
+
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
+import com.smart.home.backend.model.event.ModelListener;
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.service.OutputConsole;
+import com.smart.home.backend.service.engine.RoomTemperatureReading;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Server-sent stream of the changes of a home's simulation, replacing the polling of its reads. Model
+ * notifications and console lines are coalesced per client and pushed at most at the client's rate,
+ * itself bounded by the stream's maximum rate. The temperatures are only read when a push is sent.
+ * Clients get the changes made after they subscribed, and read the initial state through the REST reads.
+ * The console is shared by every home, so only the default home's stream pushes its lines.
+ */
+@Component
+public class SimulationStream implements ModelListener {
+
+	public static final int DEFAULT_MAX_RATE = 10;
+	static final String TEMPERATURES = "temperatures";
+	static final String CONSOLE = "console";
+	static final String CONSOLE_DROPPED = "consoleDropped";
+	private static final String[] EVENT_NAMES = eventNames();
+
+	private static final ScheduledExecutorService PUSH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "simulation-stream-push");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final ExecutorService SENDERS = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "simulation-stream-sender");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final HouseLayoutModel houseLayoutModel;
+	@Getter
+	private final int maxRate;
+	private final List<StreamClient> clients = new CopyOnWriteArrayList<>();
+	private final Consumer<String> consoleListener = this::offerConsoleLine;
+	@Getter
+	private final boolean consoleStreamed;
+
+	/**
+	 * 2-parameter constructor of the default home's stream, pushing the console lines.
+	 * @param houseLayoutModel house layout model holding the streamed temperatures
+	 * @param maxRate maximum number of pushes per second to a client
+	 */
+	@Autowired
+	public SimulationStream(
+			HouseLayoutModel houseLayoutModel,
+			@Value("${smarthome.stream.max-rate:" + DEFAULT_MAX_RATE + "}") int maxRate
+	) {
+		this(houseLayoutModel, maxRate, true);
+	}
+
+	/**
+	 * 3-parameter constructor.
+	 * @param houseLayoutModel house layout model holding the streamed temperatures
+	 * @param maxRate maximum number of pushes per second to a client
+	 * @param consoleStreamed whether the console lines are pushed to the clients
+	 */
+	public SimulationStream(HouseLayoutModel houseLayoutModel, int maxRate, boolean consoleStreamed) {
+		this.houseLayoutModel = houseLayoutModel;
+		this.maxRate = Math.max(1, maxRate);
+		this.consoleStreamed = consoleStreamed;
+
+		if (consoleStreamed) {
+			OutputConsole.addLineListener(this.consoleListener);
+		}
+	}
+
+	/**
+	 * Whether a client can ask for a push rate.
+	 * @param rate pushes per second asked by the client. Null for the maximum rate
+	 * @return Whether the rate is between one and the maximum rate
+	 */
+	public boolean isRateValid(@Nullable Integer rate) {
+		return rate == null || (rate >= 1 && rate <= this.getMaxRate());
+	}
+
+	/**
+	 * Subscribes a client to the stream.
+	 * @param rate pushes per second asked by the client. Null for the maximum rate
+	 * @return Emitter of the client's connection
+	 */
+	public SseEmitter subscribe(@Nullable Integer rate) {
+		SseEmitter emitter = new SseEmitter(0L);
+		long intervalMillis = 1000L / (rate == null ? this.getMaxRate() : rate);
+		StreamClient client = new StreamClient(emitter, intervalMillis);
+
+		emitter.onCompletion(() -> this.remove(client));
+		emitter.onTimeout(() -> this.remove(client));
+		emitter.onError(error -> this.remove(client));
+
+		this.clients.add(client);
+		client.setPush(PUSH_SCHEDULER.scheduleAtFixedRate(
+				() -> this.push(client), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS
+		));
+
+		return emitter;
+	}
+
+	/**
+	 * Number of subscribed clients.
+	 * @return Number of clients
+	 */
+	public int getNbClients() {
+		return this.clients.size();
+	}
+
+	/**
+	 * Reads the temperature of every room.
+	 * @return Room temperatures
+	 */
+	List<RoomTemperatureReading> readTemperatures() {
+		List<Room> rooms = this.houseLayoutModel.getAllRooms();
+		List<RoomTemperatureReading> readings = new ArrayList<>(rooms.size());
+
+		for (int i = 0; i < rooms.size(); i++) {
+			Room room = rooms.get(i);
+			readings.add(new RoomTemperatureReading(room.getRowId(), room.getId(), room.getName(), room.getTemperature()));
+		}
+
+		return readings;
+	}
+
+	/**
+	 * Completes every client's connection and stops listening to the console.
+	 */
+	@PreDestroy
+	public void close() {
+		if (this.consoleStreamed) {
+			OutputConsole.removeLineListener(this.consoleListener);
+		}
+
+		for (StreamClient client : this.clients) {
+			this.remove(client);
+			client.getEmitter().complete();
+		}
+	}
+
+	@Override
+	public Set<ModelEventType> subscriptions() {
+		return EnumSet.of(
+				ModelEventType.TIME_INCREMENT,
+				ModelEventType.NB_PERSONS_INSIDE,
+				ModelEventType.AWAY_MODE,
+				ModelEventType.ROOMS,
+				ModelEventType.LOCKDOWN
+		);
+	}
+
+	@Override
+	public void onEvent(ModelEvent event) {
+		String name = EVENT_NAMES[event.getType().ordinal()];
+		Object value = event.getNewValue();
+		boolean temperaturesChanged = event.getType() == ModelEventType.TIME_INCREMENT || event.getType() == ModelEventType.ROOMS;
+
+		for (StreamClient client : this.clients) {
+			client.offer(name, value);
+
+			if (temperaturesChanged) {
+				client.offerTemperatures();
+			}
+		}
+	}
+
+	/**
+	 * Buffers a console line for every client.
+	 * @param line console line
+	 */
+	private void offerConsoleLine(String line) {
+		for (StreamClient client : this.clients) {
+			client.offerConsoleLine(line);
+		}
+	}
+
+	/**
+	 * Pushes the pending changes of a client, unless its previous push is still being sent.
+	 * @param client client to push to
+	 */
+	private void push(StreamClient client) {
+		if (client.isClosed() || !client.getSending().compareAndSet(false, true)) {
+			return;
+		}
+
+		SENDERS.execute(() -> {
+			try {
+				List<SseEmitter.SseEventBuilder> events = client.drain(this);
+
+				if (!events.isEmpty()) {
+					client.send(events);
+				}
+			} catch (IOException | IllegalStateException e) {
+				this.remove(client);
+			} finally {
+				client.getSending().set(false);
+			}
+		});
+	}
+
+	/**
+	 * Unsubscribes a client.
+	 * @param client client to remove
+	 */
+	private void remove(StreamClient client) {
+		client.close();
+		this.clients.remove(client);
+	}
+
+	/**
+	 * Names of the streamed events, in camel case, indexed by the ordinal of their model event type.
+	 * @return Event names
+	 */
+	private static String[] eventNames() {
+		ModelEventType[] types = ModelEventType.values();
+		String[] names = new String[types.length];
+
+		for (ModelEventType type : types) {
+			StringBuilder name = new StringBuilder();
+			boolean upper = false;
+
+			for (char c : type.name().toCharArray()) {
+				if (c == '_') {
+					upper = true;
+				} else {
+					name.append(upper ? c : Character.toLowerCase(c));
+					upper = false;
+				}
+			}
+
+			names[type.ordinal()] = name.toString();
+		}
+
+		return names;
+	}
+
+}
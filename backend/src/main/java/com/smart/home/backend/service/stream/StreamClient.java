@@ -0,0 +1,139 @@
+package com.smart.home.backend.service.stream;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client of a simulation stream. Changes are coalesced until the next push: only the latest value of
+ * each event is kept, and console lines are buffered up to a bound, dropping the oldest. A push is
+ * skipped while the previous one is still being sent, so a slow client only receives fresher values
+ * later, without holding more than one pending value per event.
+ */
+@Getter(AccessLevel.PACKAGE)
+class StreamClient {
+
+	static final int CONSOLE_CAPACITY = 256;
+
+	private final SseEmitter emitter;
+	private final long intervalMillis;
+	private final AtomicBoolean sending = new AtomicBoolean();
+	private final Map<String, Object> pending = new LinkedHashMap<>();
+	private final Deque<String> consoleLines = new ArrayDeque<>();
+	private int droppedLines;
+	private boolean temperaturesChanged;
+	private volatile boolean closed;
+	private ScheduledFuture<?> push;
+
+	/**
+	 * 2-parameter constructor.
+	 * @param emitter emitter of the client's connection
+	 * @param intervalMillis minimum interval between two pushes
+	 */
+	StreamClient(SseEmitter emitter, long intervalMillis) {
+		this.emitter = emitter;
+		this.intervalMillis = intervalMillis;
+	}
+
+	/**
+	 * Mutator for the scheduled push of the client.
+	 * @param push scheduled push
+	 */
+	void setPush(ScheduledFuture<?> push) {
+		this.push = push;
+	}
+
+	/**
+	 * Replaces the pending value of an event.
+	 * @param name event name
+	 * @param value latest value
+	 */
+	synchronized void offer(String name, Object value) {
+		this.pending.put(name, value);
+	}
+
+	/**
+	 * Marks the temperatures as changed, so that they are read at the next push.
+	 */
+	synchronized void offerTemperatures() {
+		this.temperaturesChanged = true;
+	}
+
+	/**
+	 * Buffers a console line, dropping the oldest one when the buffer is full.
+	 * @param line console line
+	 */
+	synchronized void offerConsoleLine(String line) {
+		if (this.consoleLines.size() == CONSOLE_CAPACITY) {
+			this.consoleLines.removeFirst();
+			this.droppedLines++;
+		}
+
+		this.consoleLines.addLast(line);
+	}
+
+	/**
+	 * Takes the pending changes, leaving nothing pending.
+	 * @param stream stream reading the temperatures
+	 * @return Events to send, in order. Empty if nothing changed
+	 */
+	synchronized List<SseEmitter.SseEventBuilder> drain(SimulationStream stream) {
+		List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+
+		for (Map.Entry<String, Object> entry : this.pending.entrySet()) {
+			events.add(SseEmitter.event().name(entry.getKey()).data(entry.getValue()));
+		}
+
+		if (this.temperaturesChanged) {
+			events.add(SseEmitter.event().name(SimulationStream.TEMPERATURES).data(stream.readTemperatures()));
+		}
+
+		if (this.droppedLines > 0) {
+			events.add(SseEmitter.event().name(SimulationStream.CONSOLE_DROPPED).data(this.droppedLines));
+		}
+
+		if (!this.consoleLines.isEmpty()) {
+			events.add(SseEmitter.event().name(SimulationStream.CONSOLE).data(new ArrayList<>(this.consoleLines)));
+		}
+
+		this.pending.clear();
+		this.consoleLines.clear();
+		this.droppedLines = 0;
+		this.temperaturesChanged = false;
+
+		return events;
+	}
+
+	/**
+	 * Sends events to the client.
+	 * @param events events to send
+	 * @throws IOException Thrown when the client disconnected
+	 */
+	void send(List<SseEmitter.SseEventBuilder> events) throws IOException {
+		for (SseEmitter.SseEventBuilder event : events) {
+			this.emitter.send(event);
+		}
+	}
+
+	/**
+	 * Stops pushing to the client.
+	 */
+	void close() {
+		this.closed = true;
+
+		if (this.push != null) {
+			this.push.cancel(false);
+		}
+	}
+
+}
@@ -0,0 +1,249 @@
+package com.smart.home.backend.service.util;
+
+import com.smart.home.backend.model.ModelObject;
+import org.springframework.lang.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * List of model objects indexed by id, keeping the list order. Ids handed out by an IdUtil are dense,
+ * so they are indexed in an array; other ids fall back to a map. When several objects share an id,
+ * the first one in the list is found, as with a linear search.
+ * @param <T> type of the model objects
+ */
+public class IdIndexedList<T extends ModelObject> extends AbstractList<T> implements RandomAccess {
+
+	private static final int MIN_DENSE_CAPACITY = 16;
+
+	private final ArrayList<T> elements;
+	private Object[] denseIndex;
+	private final Map<Integer, T> sparseIndex;
+	private int version;
+
+	/**
+	 * Default constructor.
+	 */
+	public IdIndexedList() {
+		this.elements = new ArrayList<>();
+		this.denseIndex = new Object[MIN_DENSE_CAPACITY];
+		this.sparseIndex = new HashMap<>();
+	}
+
+	/**
+	 * 1-parameter constructor.
+	 * @param elements initial elements, copied
+	 */
+	public IdIndexedList(Collection<? extends T> elements) {
+		this();
+		this.addAll(elements);
+	}
+
+	/**
+	 * Indexes a list, unless it already is.
+	 * @param list list to index
+	 * @param <T> type of the model objects
+	 * @return Indexed list
+	 */
+	public static <T extends ModelObject> IdIndexedList<T> of(List<T> list) {
+		if (list instanceof IdIndexedList) {
+			return (IdIndexedList<T>) list;
+		}
+
+		return new IdIndexedList<>(list);
+	}
+
+	/**
+	 * Finds an element with the corresponding id.
+	 * @param id searched id
+	 * @return Found element
+	 */
+	@Nullable
+	public T find(int id) {
+		if (id >= 0 && id < this.denseIndex.length && this.denseIndex[id] != null) {
+			return (T) this.denseIndex[id];
+		}
+
+		return this.sparseIndex.isEmpty() ? null : this.sparseIndex.get(id);
+	}
+
+	/**
+	 * Removes the element with the corresponding id.
+	 * @param id id of the element to remove
+	 * @return Removed element. Null if not found
+	 */
+	@Nullable
+	public T removeById(int id) {
+		T element = this.find(id);
+
+		if (element != null) {
+			this.remove(element);
+		}
+
+		return element;
+	}
+
+	/**
+	 * Accessor for the version of the list, incremented by every addition, removal or replacement,
+	 * to detect changes without comparing elements.
+	 * @return List version
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+	@Override
+	public T get(int index) {
+		return this.elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return this.elements.size();
+	}
+
+	@Override
+	public T set(int index, T element) {
+		T previous = this.elements.set(index, element);
+		this.version++;
+		this.unindex(previous);
+		this.reindex(element);
+		return previous;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		this.elements.add(index, element);
+		this.modCount++;
+		this.version++;
+
+		if (index == this.elements.size() - 1) {
+			this.index(element);
+		} else {
+			this.reindex(element);
+		}
+	}
+
+	@Override
+	public T remove(int index) {
+		T removed = this.elements.remove(index);
+		this.modCount++;
+		this.version++;
+		this.unindex(removed);
+		return removed;
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		boolean removed = this.elements.removeIf(filter);
+
+		if (removed) {
+			this.modCount++;
+			this.version++;
+			this.rebuildIndex();
+		}
+
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		this.elements.clear();
+		this.modCount++;
+		this.version++;
+		this.rebuildIndex();
+	}
+
+	/**
+	 * Indexes an element appended to the list, unless an earlier element has the same id.
+	 * @param element appended element
+	 */
+	private void index(T element) {
+		Integer id = element == null ? null : element.getId();
+
+		if (id == null || this.find(id) != null) {
+			return;
+		}
+
+		if (id >= 0 && id < this.denseCapacity()) {
+			if (id >= this.denseIndex.length) {
+				this.denseIndex = Arrays.copyOf(this.denseIndex, Math.min(this.denseCapacity(), Math.max(id + 1, this.denseIndex.length * 2)));
+			}
+			this.denseIndex[id] = element;
+		} else {
+			this.sparseIndex.put(id, element);
+		}
+	}
+
+	/**
+	 * Points the index at the first element with the id of an element inserted before others.
+	 * @param element inserted element
+	 */
+	private void reindex(T element) {
+		if (element != null && element.getId() != null) {
+			this.putFirstWithId(element.getId());
+		}
+	}
+
+	/**
+	 * Removes an element from the index, falling back to another element with the same id.
+	 * @param element removed element
+	 */
+	private void unindex(T element) {
+		if (element != null && element.getId() != null && this.find(element.getId()) == element) {
+			this.putFirstWithId(element.getId());
+		}
+	}
+
+	/**
+	 * Points the index at the first element of the list with an id, if any.
+	 * @param id id to index
+	 */
+	private void putFirstWithId(int id) {
+		T first = null;
+
+		for (T element : this.elements) {
+			if (element != null && element.getId() != null && element.getId() == id) {
+				first = element;
+				break;
+			}
+		}
+
+		if (id >= 0 && id < this.denseIndex.length) {
+			this.denseIndex[id] = null;
+		}
+		this.sparseIndex.remove(id);
+
+		if (first != null) {
+			this.index(first);
+		}
+	}
+
+	/**
+	 * Rebuilds the whole index from the list.
+	 */
+	private void rebuildIndex() {
+		this.denseIndex = new Object[MIN_DENSE_CAPACITY];
+		this.sparseIndex.clear();
+
+		for (T element : this.elements) {
+			this.index(element);
+		}
+	}
+
+	/**
+	 * Highest exclusive id indexed in the array, so that ids left far behind by removals go to the map.
+	 * @return Dense capacity
+	 */
+	private int denseCapacity() {
+		return Math.max(MIN_DENSE_CAPACITY, Math.max(this.denseIndex.length, 2 * this.elements.size() + MIN_DENSE_CAPACITY));
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.smart.home.backend.service.util;
+
+import com.smart.home.backend.model.AbstractNotifier;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entity tags of the model reads. A tag combines the count of mutating requests with the state versions
+ * of the models a read exposes, so it changes whenever a request or a tick may have changed the response.
+ * Reads returning a tag are answered with 304 Not Modified when the client already holds it, without
+ * serializing the models.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ModelVersions {
+
+	private static final AtomicLong WRITES = new AtomicLong();
+
+	/**
+	 * Records a request that may have mutated any model, changing every tag.
+	 */
+	public static void recordWrite() {
+		WRITES.incrementAndGet();
+	}
+
+	/**
+	 * Entity tag of the current state of models.
+	 * @param models models exposed by the read
+	 * @return Entity tag
+	 */
+	public static String eTag(AbstractNotifier... models) {
+		StringBuilder eTag = new StringBuilder("\"").append(WRITES.get());
+
+		for (AbstractNotifier model : models) {
+			eTag.append('.').append(model.getStateVersion());
+		}
+
+		return eTag.append('"').toString();
+	}
+
+	/**
+	 * Successful response tagged with the state of models. The tag is computed before the body is
+	 * serialized, so a change made in between only makes the next read miss.
+	 * @param body response body
+	 * @param models models exposed by the body
+	 * @param <T> type of the body
+	 * @return Tagged response
+	 */
+	public static <T> ResponseEntity<T> tagged(T body, AbstractNotifier... models) {
+		return ResponseEntity.ok().eTag(eTag(models)).body(body);
+	}
+
+}
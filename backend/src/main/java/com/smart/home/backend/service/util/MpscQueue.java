@@ -0,0 +1,85 @@
+package com.smart.home.backend.service.util;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded lock-free queue with many producers and a single consumer. A producer swaps itself in as the
+ * tail then links the previous tail to its node, so offering never waits on other producers. Until that
+ * link is made, the consumer sees the queue as ending before the new node, so a consumer finding the
+ * queue empty must be woken by the producer once its element is linked.
+ * @param <E> type of the elements
+ */
+public class MpscQueue<E> {
+	
+	private final AtomicReference<Node<E>> tail;
+	private Node<E> head;
+	
+	/**
+	 * Default constructor.
+	 */
+	public MpscQueue() {
+		Node<E> stub = new Node<>(null);
+		this.head = stub;
+		this.tail = new AtomicReference<>(stub);
+	}
+	
+	/**
+	 * Adds an element at the end of the queue. Can be called from any thread.
+	 * @param element element to add
+	 */
+	public void offer(E element) {
+		Node<E> node = new Node<>(Objects.requireNonNull(element));
+		Node<E> previous = this.tail.getAndSet(node);
+		previous.next = node;
+	}
+	
+	/**
+	 * Removes the first element of the queue. Must only be called from the consumer thread.
+	 * @return First element. Null if no element is linked yet
+	 */
+	@Nullable
+	public E poll() {
+		Node<E> next = this.head.next;
+		
+		if (next == null) {
+			return null;
+		}
+		
+		E element = next.element;
+		next.element = null;
+		this.head = next;
+		
+		return element;
+	}
+	
+	/**
+	 * Whether no element is linked yet. Must only be called from the consumer thread.
+	 * @return Whether the queue is empty
+	 */
+	public boolean isEmpty() {
+		return this.head.next == null;
+	}
+	
+	/**
+	 * Node of the queue.
+	 * @param <E> type of the element
+	 */
+	private static class Node<E> {
+		
+		private E element;
+		private volatile Node<E> next;
+		
+		/**
+		 * 1-parameter constructor.
+		 * @param element element of the node
+		 */
+		private Node(@Nullable E element) {
+			this.element = element;
+		}
+	
+	}
+
+}
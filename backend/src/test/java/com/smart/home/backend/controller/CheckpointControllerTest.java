@@ -0,0 +1,265 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.constant.Direction;
+import com.smart.home.backend.constant.SimulationState;
+import com.smart.home.backend.input.HeatingZoneInput;
+import com.smart.home.backend.input.HouseLayoutInput;
+import com.smart.home.backend.input.PersonInput;
+import com.smart.home.backend.input.RoomInput;
+import com.smart.home.backend.input.RoomRowInput;
+import com.smart.home.backend.model.event.ModelEvent;
+import com.smart.home.backend.model.event.ModelEventType;
+import com.smart.home.backend.model.event.ModelListener;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import com.smart.home.backend.model.simulationparameters.UserProfiles;
+import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
+import com.smart.home.backend.model.simulationparameters.module.Modules;
+import com.smart.home.backend.service.checkpoint.CheckpointSummary;
+import com.smart.home.backend.service.checkpoint.SimulationCheckpointService;
+import com.smart.home.backend.service.session.HomeSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the checkpoint and restore of the simulation.
+ */
+@ExtendWith(MockitoExtension.class)
+class CheckpointControllerTest {
+	
+	@Mock
+	UserProfiles userProfiles;
+	
+	@TempDir
+	Path directory;
+	
+	ScheduledExecutorService executor;
+	
+	HomeSession source;
+	
+	HomeSession target;
+	
+	@BeforeEach
+	void beforeEach() {
+		executor = Executors.newSingleThreadScheduledExecutor();
+		source = new HomeSession("source", 0, executor, userProfiles, new Modules());
+		target = new HomeSession("target", 0, executor, userProfiles, new Modules());
+	}
+	
+	@AfterEach
+	void afterEach() {
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Test that a restored simulation matches the checkpointed one
+	 */
+	@Test
+	void checkpointAndRestore() {
+		source.getHouseLayoutController().loadLayout(createLayout());
+		source.getSystemParameters().setDate(LocalDateTime.of(2020, 3, 1, 14, 30));
+		source.getHeatingController().addHeatingZone(createZone());
+		source.getHeatingModel().overrideRoomTemperature(new LocationPosition(1, 2), 31.5);
+		Room room = source.getHouseLayoutModel().findRoom(new LocationPosition(0, 1));
+		room.addPerson(createPerson("Alice"));
+		source.getHouseLayoutModel().setAwayMode(room, true);
+		
+		ResponseEntity<CheckpointSummary> checkpoint = controller(source).checkpoint("house");
+		assertEquals(HttpStatus.OK, checkpoint.getStatusCode());
+		assertEquals(6, checkpoint.getBody().getRooms());
+		
+		ResponseEntity<CheckpointSummary> restore = controller(target).restore("house");
+		assertEquals(HttpStatus.OK, restore.getStatusCode());
+		assertEquals(6, restore.getBody().getRooms());
+		
+		assertEquals(LocalDateTime.of(2020, 3, 1, 14, 30), target.getSystemParameters().getDate());
+		assertEquals(31.5, target.getHouseLayoutModel().findRoom(new LocationPosition(1, 2)).getTemperature());
+		
+		Room restoredRoom = target.getHouseLayoutModel().findRoom(new LocationPosition(0, 1));
+		assertEquals("Alice", restoredRoom.getPersons().get(0).getName());
+		assertEquals(1, restoredRoom.getPersonId().getLastId());
+		assertEquals(2, restoredRoom.getDoors().size());
+		assertEquals(2, restoredRoom.getDoorId().getLastId());
+		assertEquals(Collections.singletonList(restoredRoom.getLight()), target.getSecurityModel().getAwayModeLights());
+		
+		HeatingZone restoredZone = target.getHeatingModel().findZone(1);
+		assertEquals("Upstairs", restoredZone.getName());
+		assertSame(target.getHouseLayoutModel().findRoom(new LocationPosition(1, 0)), restoredZone.getRooms().get(0));
+		assertEquals(5, target.getHeatingModel().findZone(0).getRooms().size());
+		assertEquals(2, target.getHeatingModel().getZoneId().getLastId());
+	}
+	
+	/**
+	 * Test that invalid or missing checkpoints are rejected
+	 */
+	@Test
+	void invalidCheckpoint() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller(source).checkpoint("../house").getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller(target).restore("missing").getStatusCode());
+	}
+	
+	/**
+	 * Test that a truncated or corrupt checkpoint is rejected without touching the simulation
+	 */
+	@Test
+	void corruptCheckpoint() throws Exception {
+		source.getHouseLayoutController().loadLayout(createLayout());
+		assertEquals(HttpStatus.OK, controller(source).checkpoint("house").getStatusCode());
+		
+		byte[] data = Files.readAllBytes(directory.resolve("house.bin"));
+		byte[] invalidState = data.clone();
+		invalidState[8] = 0x7F;
+		Files.write(directory.resolve("truncated.bin"), Arrays.copyOf(data, data.length / 2));
+		Files.write(directory.resolve("state.bin"), invalidState);
+		
+		List<RoomRow> rows = target.getHouseLayoutModel().getRows();
+		LocalDateTime date = target.getSystemParameters().getDate();
+		
+		assertEquals(HttpStatus.BAD_REQUEST, controller(target).restore("truncated").getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller(target).restore("state").getStatusCode());
+		assertSame(rows, target.getHouseLayoutModel().getRows());
+		assertEquals(date, target.getSystemParameters().getDate());
+	}
+	
+	/**
+	 * Test that a checkpoint with a time speed or a time step out of range is rejected
+	 */
+	@Test
+	void invalidTimeParameters() throws Exception {
+		source.getSystemParameters().setTimeSpeed(123457);
+		source.getSystemParameters().setTimeStep(SystemParameters.MAX_TIME_STEP - 1);
+		assertEquals(HttpStatus.OK, controller(source).checkpoint("house").getStatusCode());
+		
+		byte[] data = Files.readAllBytes(directory.resolve("house.bin"));
+		int timeSpeedOffset = indexOfInt(data, 123457, 0);
+		int timeStepOffset = indexOfInt(data, SystemParameters.MAX_TIME_STEP - 1, timeSpeedOffset + 4);
+		
+		Files.write(directory.resolve("speed.bin"), withInt(data, timeSpeedOffset, 0));
+		Files.write(directory.resolve("zero-step.bin"), withInt(data, timeStepOffset, 0));
+		Files.write(directory.resolve("long-step.bin"), withInt(data, timeStepOffset, SystemParameters.MAX_TIME_STEP + 1));
+		
+		assertEquals(HttpStatus.BAD_REQUEST, controller(target).restore("speed").getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller(target).restore("zero-step").getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller(target).restore("long-step").getStatusCode());
+		assertEquals(HttpStatus.OK, controller(target).restore("house").getStatusCode());
+	}
+	
+	/**
+	 * Test that restoring a running simulation notifies the listeners of the state change
+	 */
+	@Test
+	void restoreState() {
+		source.getSimulationContextModel().toggleState();
+		assertEquals(HttpStatus.OK, controller(source).checkpoint("house").getStatusCode());
+		
+		List<Object> states = new ArrayList<>();
+		target.getSimulationContextModel().addListener(new ModelListener() {
+			@Override
+			public Set<ModelEventType> subscriptions() {
+				return EnumSet.of(ModelEventType.SIMULATION_STATE);
+			}
+			
+			@Override
+			public void onEvent(ModelEvent event) {
+				states.add(event.getNewValue());
+			}
+		});
+		
+		assertEquals(HttpStatus.OK, controller(target).restore("house").getStatusCode());
+		assertEquals(SimulationState.ON, target.getSimulationContextModel().getState());
+		assertEquals(Collections.singletonList(true), states);
+	}
+	
+	private static int indexOfInt(byte[] data, int value, int from) {
+		byte[] bytes = ByteBuffer.allocate(4).putInt(value).array();
+		
+		for (int i = from; i + 4 <= data.length; i++) {
+			if (data[i] == bytes[0] && data[i + 1] == bytes[1] && data[i + 2] == bytes[2] && data[i + 3] == bytes[3]) {
+				return i;
+			}
+		}
+		
+		throw new AssertionError(value + " not found");
+	}
+	
+	private static byte[] withInt(byte[] data, int offset, int value) {
+		byte[] copy = data.clone();
+		ByteBuffer.wrap(copy).putInt(offset, value);
+		
+		return copy;
+	}
+	
+	private CheckpointController controller(HomeSession session) {
+		return new CheckpointController(new SimulationCheckpointService(
+				session.getSimulationContextModel(),
+				session.getHeatingModel(),
+				session.getSecurityModel(),
+				session.getDateIncrementTask(),
+				directory.toString()
+		));
+	}
+	
+	private HouseLayoutInput createLayout() {
+		List<RoomRowInput> rows = new ArrayList<>();
+		
+		for (int i = 0; i < 2; i++) {
+			RoomRowInput row = new RoomRowInput();
+			row.setRooms(new ArrayList<>());
+			
+			for (int j = 0; j < 3; j++) {
+				RoomInput roomInput = new RoomInput();
+				roomInput.setName("Room " + i + j);
+				roomInput.setDoorsOn(new ArrayList<>(Collections.nCopies(2, Direction.NORTH)));
+				roomInput.setWindowsOn(new ArrayList<>(Collections.singletonList(Direction.SOUTH)));
+				row.getRooms().add(roomInput);
+			}
+			
+			rows.add(row);
+		}
+		
+		HouseLayoutInput houseLayoutInput = new HouseLayoutInput();
+		houseLayoutInput.setRows(rows);
+		
+		return houseLayoutInput;
+	}
+	
+	private HeatingZoneInput createZone() {
+		HeatingZoneInput heatingZoneInput = new HeatingZoneInput();
+		heatingZoneInput.setName("Upstairs");
+		heatingZoneInput.setRoomLocations(new ArrayList<>(Collections.singletonList(new LocationPosition(1, 0))));
+		
+		return heatingZoneInput;
+	}
+	
+	private PersonInput createPerson(String name) {
+		PersonInput personInput = new PersonInput();
+		personInput.setName(name);
+		
+		return personInput;
+	}
+	
+}
@@ -0,0 +1,70 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.security.SecurityModel;
+import com.smart.home.backend.service.metrics.DeliveryStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the model event delivery metrics.
+ */
+class EventMetricsControllerTest {
+	
+	SecurityModel securityModel;
+	
+	EventMetricsController controller;
+	
+	@BeforeEach
+	void beforeEach() {
+		securityModel = new SecurityModel();
+		securityModel.addListener(new HouseLayoutModel());
+		controller = new EventMetricsController();
+		controller.resetEventMetrics();
+	}
+	
+	/**
+	 * Test that deliveries are recorded per source, event and listener
+	 */
+	@Test
+	void recordDeliveries() {
+		securityModel.setAwayMode(true);
+		securityModel.setAwayMode(false);
+		
+		DeliveryStats stats = findAwayModeStats(controller.getEventMetrics());
+		
+		assertNotNull(stats);
+		assertEquals(2, stats.getCount());
+		assertTrue(stats.getMaxNanos() <= stats.getTotalNanos());
+	}
+	
+	/**
+	 * Test that resetting the metrics clears the recorded deliveries
+	 */
+	@Test
+	void resetDeliveries() {
+		securityModel.setAwayMode(true);
+		
+		ResponseEntity<List<DeliveryStats>> response = controller.resetEventMetrics();
+		DeliveryStats stats = findAwayModeStats(response);
+		
+		assertNotNull(stats);
+		assertEquals(0, stats.getCount());
+	}
+	
+	private DeliveryStats findAwayModeStats(ResponseEntity<List<DeliveryStats>> response) {
+		return response.getBody()
+				.stream()
+				.filter(stats -> stats.getSource().equals("SecurityModel")
+						&& stats.getEvent().equals("AWAY_MODE")
+						&& stats.getListener().equals("HouseLayoutModel"))
+				.findFirst()
+				.orElse(null);
+	}
+	
+}
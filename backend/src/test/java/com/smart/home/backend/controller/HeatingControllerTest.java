@@ -2,23 +2,43 @@ package com.smart.home.backend.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import com.smart.home.backend.constant.HeatingZonePeriod;
 import com.smart.home.backend.constant.RoomHeatingMode;
+import com.smart.home.backend.config.ModelVersionConfig;
+import com.smart.home.backend.constant.WindowState;
 import com.smart.home.backend.input.*;
 import com.smart.home.backend.model.heating.HeatingModel;
 import com.smart.home.backend.model.heating.HeatingZone;
 import com.smart.home.backend.model.houselayout.HouseLayoutModel;
 import com.smart.home.backend.model.houselayout.Room;
 import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.model.simulationparameters.DateIncrementTask;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
 import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
+import com.smart.home.backend.service.ConsoleEvent;
+import com.smart.home.backend.service.ConsoleLine;
+import com.smart.home.backend.service.OutputConsole;
 import com.smart.home.backend.service.mapper.RoomsMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smart.home.backend.constant.Direction;
 
 /**
@@ -201,6 +221,376 @@ class HeatingControllerTest {
     }
 
 
+    /**
+     * Tests that a tick split across the fork/join pool gives the same temperatures and console output
+     * as a sequential tick
+     */
+    @Test
+    void parallelTickMatchesSequentialTick() {
+        HeatingModel sequentialModel = createLargeHeatingModel(Integer.MAX_VALUE);
+        HeatingModel parallelModel = createLargeHeatingModel(1);
+        
+        List<String> sequentialLines = tick(sequentialModel);
+        List<String> parallelLines = tick(parallelModel);
+        
+        List<Room> sequentialRooms = sequentialModel.getHouseLayoutModel().getAllRooms();
+        List<Room> parallelRooms = parallelModel.getHouseLayoutModel().getAllRooms();
+        
+        for (int i = 0; i < sequentialRooms.size(); i++) {
+            assertEquals(sequentialRooms.get(i).getTemperature(), parallelRooms.get(i).getTemperature());
+        }
+        
+        assertTrue(sequentialLines.size() > 0);
+        assertEquals(sequentialLines, parallelLines);
+    }
+    
+    /**
+     * Tests that a tick over rooms in several zones stays sequential above the parallel threshold, so that
+     * no room is adjusted by two threads at once
+     */
+    @Test
+    void sharedRoomsTickMatchesSequentialTick() {
+        HeatingModel sequentialModel = createLargeHeatingModel(Integer.MAX_VALUE);
+        HeatingModel parallelModel = createLargeHeatingModel(1);
+        
+        for (HeatingModel heatingModel : Arrays.asList(sequentialModel, parallelModel)) {
+            List<Room> rooms = heatingModel.getHouseLayoutModel().getAllRooms();
+            heatingModel.getZones().get(1).getRooms().addAll(rooms.subList(0, 1500));
+        }
+        
+        List<String> sequentialLines = tick(sequentialModel);
+        List<String> parallelLines = tick(parallelModel);
+        
+        List<Room> sequentialRooms = sequentialModel.getHouseLayoutModel().getAllRooms();
+        List<Room> parallelRooms = parallelModel.getHouseLayoutModel().getAllRooms();
+        
+        for (int i = 0; i < sequentialRooms.size(); i++) {
+            assertEquals(sequentialRooms.get(i).getTemperature(), parallelRooms.get(i).getTemperature());
+        }
+        
+        assertEquals(sequentialLines, parallelLines);
+    }
+    
+    /**
+     * Tests that a tick adjusting the rooms in the thermal store gives the same temperatures, HAVC states,
+     * windows and console output as a tick on the rooms, sequential or split across the fork/join pool
+     */
+    @Test
+    void thermalStoreTickMatchesRoomTick() {
+        HeatingModel roomModel = createStoreTestModel(Integer.MAX_VALUE, false);
+        HeatingModel storeModel = createStoreTestModel(Integer.MAX_VALUE, true);
+        HeatingModel parallelStoreModel = createStoreTestModel(1, true);
+        
+        List<String> roomLines = tick(roomModel);
+        List<String> storeLines = tick(storeModel);
+        List<String> parallelStoreLines = tick(parallelStoreModel);
+        
+        List<Room> roomRooms = roomModel.getHouseLayoutModel().getAllRooms();
+        List<Room> storeRooms = storeModel.getHouseLayoutModel().getAllRooms();
+        List<Room> parallelStoreRooms = parallelStoreModel.getHouseLayoutModel().getAllRooms();
+        
+        for (int i = 0; i < roomRooms.size(); i++) {
+            assertEquals(roomRooms.get(i).getTemperature(), storeRooms.get(i).getTemperature());
+            assertEquals(roomRooms.get(i).getHavc(), storeRooms.get(i).getHavc());
+            assertEquals(roomRooms.get(i).getHeatingMode(), storeRooms.get(i).getHeatingMode());
+            assertEquals(roomRooms.get(i).getTemperature(), parallelStoreRooms.get(i).getTemperature());
+        }
+        
+        assertEquals(WindowState.CLOSED, storeRooms.get(7).getWindows().get(0).getState());
+        assertEquals(WindowState.BLOCKED, storeRooms.get(7).getWindows().get(1).getState());
+        assertEquals(roomLines, storeLines);
+        assertEquals(roomLines, parallelStoreLines);
+        
+        Double storedTemperature = storeRooms.get(1).getTemperature();
+        storeModel.setThermalStoreEnabled(false);
+        assertEquals(storedTemperature, storeRooms.get(1).getTemperature());
+        storeRooms.get(1).setTemperature(100.0);
+        assertEquals(100.0, storeRooms.get(1).getTemperature());
+    }
+    
+    /**
+     * Tests that the freezing pipes warnings of two rooms are logged once, then summarized once per window
+     * of simulated time instead of on every tick
+     */
+    @Test
+    void repeatedWarningsAreSuppressedOverWindow() {
+        HouseLayoutModel houseLayoutModel = new HouseLayoutModel();
+        HeatingModel heatingModel = new HeatingModel(houseLayoutModel);
+        houseLayoutModel.addListener(heatingModel);
+        heatingModel.setOutsideTemp(-5.0);
+        heatingModel.setConsoleSuppressionSeconds(600);
+        
+        List<Room> rooms = new ArrayList<>();
+        rooms.add(Room.builder().id(0).name("Kitchen").temperature(-5.0).build());
+        rooms.add(Room.builder().id(1).name("Garage").temperature(-5.0).build());
+        
+        List<RoomRow> roomRows = new ArrayList<>();
+        roomRows.add(RoomRow.builder().id(0).rooms(rooms).build());
+        houseLayoutModel.setRows(roomRows);
+        
+        DateIncrementTask dateIncrementTask = new DateIncrementTask();
+        SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+        systemParameters.setDate(LocalDateTime.of(2020, 1, 15, 8, 0));
+        dateIncrementTask.addListener(heatingModel);
+        OutputConsole.log("Heating test start");
+        long sequenceBefore = OutputConsole.getLastSequence();
+        
+        for (int i = 0; i < 1800; i++) {
+            dateIncrementTask.tick(1);
+        }
+        
+        List<String> lines = consoleLinesAfter(sequenceBefore);
+        
+        assertEquals(6, lines.size());
+        assertEquals("SHH | WARNING !!! Freezing temperatures in the Kitchen pipes might burst", lines.get(0));
+        assertEquals("SHH | WARNING !!! Freezing temperatures in the Garage pipes might burst", lines.get(1));
+        assertTrue(lines.contains("SHH | Pipe burst warning repeated 599 times in room Kitchen"));
+        assertTrue(lines.contains("SHH | Pipe burst warning repeated 599 times in room Garage"));
+        assertTrue(lines.contains("SHH | Pipe burst warning repeated 600 times in room Kitchen"));
+        assertTrue(lines.contains("SHH | Pipe burst warning repeated 600 times in room Garage"));
+        
+        heatingModel.setConsoleSuppressionSeconds(0);
+        sequenceBefore = OutputConsole.getLastSequence();
+        
+        for (int i = 0; i < 10; i++) {
+            dateIncrementTask.tick(1);
+        }
+        
+        lines = consoleLinesAfter(sequenceBefore);
+        
+        assertEquals(22, lines.size());
+        assertTrue(lines.subList(0, 2).contains("SHH | Pipe burst warning repeated 600 times in room Kitchen"));
+        assertTrue(lines.subList(0, 2).contains("SHH | Pipe burst warning repeated 600 times in room Garage"));
+    }
+    
+    /**
+     * Tests that once warmed up, a tick of the heating with the thermal store allocates nothing but the new simulated date,
+     * however many rooms there are
+     */
+    @Test
+    void steadyStateTickDoesNotAllocatePerRoom() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        
+        HouseLayoutModel houseLayoutModel = new HouseLayoutModel();
+        HeatingModel heatingModel = new HeatingModel(houseLayoutModel);
+        houseLayoutModel.addListener(heatingModel);
+        heatingModel.setOn(true);
+        heatingModel.setThermalStoreEnabled(true);
+        
+        List<Room> rooms = new ArrayList<>();
+        
+        for (int i = 0; i < 3000; i++) {
+            rooms.add(Room.builder().id(i).name("Room " + i).temperature(15.0 + i % 10).build());
+        }
+        
+        List<RoomRow> roomRows = new ArrayList<>();
+        roomRows.add(RoomRow.builder().id(0).rooms(rooms).build());
+        houseLayoutModel.setRows(roomRows);
+        
+        DateIncrementTask dateIncrementTask = new DateIncrementTask();
+        SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+        systemParameters.setDate(LocalDateTime.of(2020, 1, 15, 8, 0));
+        dateIncrementTask.addListener(heatingModel);
+        
+        for (int i = 0; i < 2000; i++) {
+            dateIncrementTask.tick(1);
+        }
+        
+        int nbTicks = 1000;
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        
+        for (int i = 0; i < nbTicks; i++) {
+            dateIncrementTask.tick(1);
+        }
+        
+        long allocatedPerTick = (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / nbTicks;
+        
+        assertTrue(allocatedPerTick < 256, "Allocated " + allocatedPerTick + " bytes per tick");
+    }
+    
+    /**
+     * Tests that heating reads are not modified until a tick or a mutating request changes the models
+     */
+    @Test
+    void conditionalReadsFollowStateVersions() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(heatingController)
+                .addInterceptors(ModelVersionConfig.writeInterceptor())
+                .build();
+        
+        String eTag = mockMvc.perform(get("/heating")).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/heating").header("If-None-Match", eTag)).andExpect(status().isNotModified());
+        mockMvc.perform(get("/heating/zones").header("If-None-Match", eTag)).andExpect(status().isNotModified());
+        
+        TemperatureInput temperatureInput = new TemperatureInput();
+        temperatureInput.setTemperature(25.0);
+        mockMvc.perform(put("/heating/awaymode/summer/temperature")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(temperatureInput))
+        ).andExpect(status().isOk());
+        
+        String writtenETag = mockMvc.perform(get("/heating").header("If-None-Match", eTag))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+        
+        DateIncrementTask dateIncrementTask = new DateIncrementTask();
+        SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+        systemParameters.setDate(LocalDateTime.of(2020, 1, 15, 8, 0));
+        dateIncrementTask.addListener(heatingController.getHeatingModel());
+        long layoutVersion = heatingController.getHeatingModel().getHouseLayoutModel().getStateVersion();
+        dateIncrementTask.tick(1);
+        
+        assertTrue(heatingController.getHeatingModel().getHouseLayoutModel().getStateVersion() > layoutVersion);
+        mockMvc.perform(get("/heating").header("If-None-Match", writtenETag)).andExpect(status().isOk());
+    }
+    
+    /**
+     * Tests that the warnings of two rooms sharing a name in different rows are suppressed separately
+     */
+    @Test
+    void warningsOfSameNamedRoomsAreSuppressedSeparately() {
+        HouseLayoutModel houseLayoutModel = new HouseLayoutModel();
+        HeatingModel heatingModel = new HeatingModel(houseLayoutModel);
+        houseLayoutModel.addListener(heatingModel);
+        heatingModel.setOutsideTemp(-5.0);
+        heatingModel.setConsoleSuppressionSeconds(600);
+        
+        List<RoomRow> roomRows = new ArrayList<>();
+        
+        for (int i = 0; i < 2; i++) {
+            List<Room> rooms = new ArrayList<>();
+            rooms.add(Room.builder().id(0).name("Kitchen").temperature(-5.0).build());
+            roomRows.add(RoomRow.builder().id(i).rooms(rooms).build());
+        }
+        
+        houseLayoutModel.setRows(roomRows);
+        
+        DateIncrementTask dateIncrementTask = new DateIncrementTask();
+        SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+        systemParameters.setDate(LocalDateTime.of(2020, 1, 15, 8, 0));
+        dateIncrementTask.addListener(heatingModel);
+        
+        List<ConsoleEvent> firstTickEvents = new ArrayList<>();
+        List<ConsoleEvent> nextTickEvents = new ArrayList<>();
+        OutputConsole.capture(firstTickEvents, () -> dateIncrementTask.tick(1));
+        OutputConsole.capture(nextTickEvents, () -> {
+            for (int i = 0; i < 10; i++) {
+                dateIncrementTask.tick(1);
+            }
+        });
+        
+        assertEquals(2, firstTickEvents.size());
+        
+        Set<Integer> rowIds = new HashSet<>();
+        
+        for (ConsoleEvent event : firstTickEvents) {
+            assertEquals("Kitchen", event.getRoom());
+            assertEquals(Integer.valueOf(0), event.getRoomId());
+            assertEquals("SHH | WARNING !!! Freezing temperatures in the Kitchen pipes might burst", event.getLine());
+            rowIds.add(event.getRowId());
+        }
+        
+        assertEquals(new HashSet<>(Arrays.asList(0, 1)), rowIds);
+        
+        assertTrue(nextTickEvents.isEmpty());
+    }
+    
+    /**
+     * Helper method to create a large heating model with an overridden room and rooms with windows
+     * @param parallelThreshold minimum number of rooms for a parallel tick
+     * @param thermalStoreEnabled whether the tick uses the thermal store
+     * @return The heating model
+     */
+    private HeatingModel createStoreTestModel(int parallelThreshold, boolean thermalStoreEnabled) {
+        HeatingModel heatingModel = createLargeHeatingModel(parallelThreshold);
+        heatingModel.setThermalStoreEnabled(thermalStoreEnabled);
+        List<Room> rooms = heatingModel.getHouseLayoutModel().getAllRooms();
+        
+        rooms.get(3).setHeatingMode(RoomHeatingMode.OVERRIDDEN);
+        rooms.get(5).setHavc(false);
+        WindowInput openWindow = new WindowInput();
+        openWindow.setDirection(Direction.NORTH);
+        openWindow.setState(WindowState.OPEN);
+        WindowInput blockedWindow = new WindowInput();
+        blockedWindow.setDirection(Direction.SOUTH);
+        blockedWindow.setState(WindowState.BLOCKED);
+        rooms.get(7).addWindow(openWindow);
+        rooms.get(7).addWindow(blockedWindow);
+        
+        return heatingModel;
+    }
+    
+    /**
+     * Helper method to create a heating model over a large layout, split in two zones
+     * @param parallelThreshold minimum number of rooms for a parallel tick
+     * @return The heating model
+     */
+    private HeatingModel createLargeHeatingModel(int parallelThreshold) {
+        HouseLayoutModel houseLayoutModel = new HouseLayoutModel();
+        HeatingModel heatingModel = new HeatingModel(houseLayoutModel);
+        houseLayoutModel.addListener(heatingModel);
+        heatingModel.setParallelThreshold(parallelThreshold);
+        heatingModel.setOn(true);
+        
+        List<Room> rooms = new ArrayList<>();
+        
+        for (int i = 0; i < 3000; i++) {
+            rooms.add(Room.builder().id(i).name("Room " + i).temperature(i % 500 == 0 ? -50.0 : i % 40).build());
+        }
+        
+        List<RoomRow> roomRows = new ArrayList<>();
+        roomRows.add(RoomRow.builder().id(0).rooms(rooms).build());
+        houseLayoutModel.setRows(roomRows);
+        
+        HeatingZone zone = heatingModel.findZone(0);
+        HeatingZone secondZone = HeatingZone.builder().id(1).name("Second").build();
+        secondZone.getRooms().addAll(zone.getRooms().subList(1500, 3000));
+        zone.getRooms().removeAll(secondZone.getRooms());
+        secondZone.getPeriods().setTargetTemperature(HeatingZonePeriod.MORNING, 30.0);
+        secondZone.getPeriods().setTargetTemperature(HeatingZonePeriod.AFTERNOON, 30.0);
+        secondZone.getPeriods().setTargetTemperature(HeatingZonePeriod.NIGHT, 30.0);
+        heatingModel.getZones().add(secondZone);
+        
+        return heatingModel;
+    }
+    
+    /**
+     * Helper method to read the console lines logged after a sequence number
+     * @param sequence sequence number of the last line to skip
+     * @return Console lines
+     */
+    private static List<String> consoleLinesAfter(long sequence) {
+        List<String> lines = new ArrayList<>();
+        
+        for (ConsoleLine consoleLine : OutputConsole.findLinesAfter(sequence, Integer.MAX_VALUE).getLines()) {
+            lines.add(consoleLine.getLine());
+        }
+        
+        return lines;
+    }
+    
+    /**
+     * Helper method to run a few ticks on a heating model
+     * @param heatingModel heating model
+     * @return Console lines logged during the ticks
+     */
+    private List<String> tick(HeatingModel heatingModel) {
+        DateIncrementTask dateIncrementTask = new DateIncrementTask();
+        SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+        systemParameters.setDate(LocalDateTime.of(2020, 1, 15, 8, 0));
+        dateIncrementTask.addListener(heatingModel);
+        OutputConsole.log("Heating test start");
+        long sequenceBefore = OutputConsole.getLastSequence();
+        
+        for (int i = 0; i < 5; i++) {
+            dateIncrementTask.tick(60);
+        }
+        
+        return consoleLinesAfter(sequenceBefore);
+    }
+
     /**
      * Helper method to create valid house layout
      * @return A valid House Layout
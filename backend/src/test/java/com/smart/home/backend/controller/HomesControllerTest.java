@@ -0,0 +1,206 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.constant.HeatingZonePeriod;
+import com.smart.home.backend.input.HeatingZoneInput;
+import com.smart.home.backend.input.HeatingZoneRoomInput;
+import com.smart.home.backend.input.HeatingZoneTemperatureInput;
+import com.smart.home.backend.input.RoomInput;
+import com.smart.home.backend.input.RoomPersonInput;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.model.simulationparameters.UserProfiles;
+import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
+import com.smart.home.backend.model.simulationparameters.module.Modules;
+import com.smart.home.backend.service.engine.SimulationRunSummary;
+import com.smart.home.backend.service.session.HomeSession;
+import com.smart.home.backend.service.session.HomeSessionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the multi-home simulation sessions.
+ */
+@ExtendWith(MockitoExtension.class)
+class HomesControllerTest {
+	
+	@Mock
+	UserProfiles userProfiles;
+	
+	HomeSessionRegistry registry;
+	
+	HomesController controller;
+	
+	@BeforeEach
+	void beforeEach() {
+		registry = new HomeSessionRegistry(userProfiles, new Modules(), 2);
+		controller = new HomesController(registry);
+	}
+	
+	@AfterEach
+	void afterEach() {
+		registry.shutdown();
+	}
+	
+	/**
+	 * Test that each home has its own model graph and clock
+	 */
+	@Test
+	void homesAreIsolated() {
+		HomeSession firstHome = controller.createHome().getBody();
+		HomeSession secondHome = controller.createHome().getBody();
+		
+		assertNotNull(firstHome);
+		assertNotNull(secondHome);
+		assertNotEquals(firstHome.getId(), secondHome.getId());
+		assertNotSame(firstHome.getHouseLayoutModel(), secondHome.getHouseLayoutModel());
+		assertEquals(2, controller.getHomes().getBody().size());
+		
+		LocalDateTime secondHomeDate = secondHome.getSystemParameters().getDate();
+		LocalDateTime until = firstHome.getSystemParameters().getDate().plusHours(1);
+		ResponseEntity<SimulationRunSummary> response = controller.runUntil(firstHome.getId(), until, 60);
+		
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(60, response.getBody().getTicks());
+		assertEquals(until, firstHome.getSystemParameters().getDate());
+		assertEquals(secondHomeDate, secondHome.getSystemParameters().getDate());
+	}
+	
+	/**
+	 * Test that homes tick on the shard executors of the registry
+	 */
+	@Test
+	void homesAreSharded() {
+		for (int i = 0; i < 10; i++) {
+			HomeSession home = controller.createHome().getBody();
+			
+			assertNotNull(home);
+			assertSame(registry.getShards()[home.getShard()], home.getSystemParameters().getExecutorService());
+		}
+	}
+	
+	/**
+	 * Test that new homes go to the shard running the fewest homes, including after deletions
+	 */
+	@Test
+	void homesAreBalanced() {
+		List<HomeSession> homes = new ArrayList<>();
+		
+		for (int i = 0; i < 10; i++) {
+			homes.add(controller.createHome().getBody());
+		}
+		
+		assertEquals(5, registry.getShardLoad(0));
+		assertEquals(5, registry.getShardLoad(1));
+		
+		for (HomeSession home : homes) {
+			if (home.getShard() == 1 && registry.getShardLoad(1) > 2) {
+				controller.deleteHome(home.getId());
+			}
+		}
+		
+		for (int i = 0; i < 3; i++) {
+			assertEquals(1, controller.createHome().getBody().getShard());
+		}
+		
+		assertEquals(5, registry.getShardLoad(0));
+		assertEquals(5, registry.getShardLoad(1));
+	}
+	
+	/**
+	 * Test that the homes stream at the configured rate, without the console lines logged by the other homes
+	 */
+	@Test
+	void homeStreams() {
+		registry.setStreamMaxRate(4);
+		HomeSession home = controller.createHome().getBody();
+		
+		assertNotNull(home);
+		assertEquals(4, home.getSimulationStream().getMaxRate());
+		assertFalse(home.getSimulationStream().isConsoleStreamed());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.subscribe(home.getId(), 5).getStatusCode());
+	}
+	
+	/**
+	 * Test that the homes' heating uses the configured settings
+	 */
+	@Test
+	void homeHeatingSettings() {
+		registry.setHeatingParallelThreshold(3);
+		registry.setThermalStoreEnabled(true);
+		HomeSession home = controller.createHome().getBody();
+		
+		assertNotNull(home);
+		assertEquals(3, home.getHeatingModel().getParallelThreshold());
+		assertTrue(home.getHeatingModel().isThermalStoreEnabled());
+	}
+	
+	/**
+	 * Test that the rooms, persons and heating zones of a home are managed through its routes
+	 */
+	@Test
+	void homeRoutes() {
+		HomeSession home = controller.createHome().getBody();
+		HomeSession otherHome = controller.createHome().getBody();
+		
+		assertNotNull(home);
+		assertNotNull(otherHome);
+		home.getHouseLayoutModel().setRows(new ArrayList<>(Collections.singletonList(
+				RoomRow.builder().id(0).rooms(new ArrayList<>()).build()
+		)));
+		
+		RoomInput roomInput = new RoomInput();
+		roomInput.setName("Kitchen");
+		assertEquals(HttpStatus.OK, controller.addRoom(home.getId(), 0, roomInput).getStatusCode());
+		int roomId = home.getHouseLayoutModel().getAllRooms().get(0).getId();
+		
+		RoomPersonInput personInput = new RoomPersonInput();
+		personInput.setName("Alice");
+		assertEquals(HttpStatus.OK, controller.addPersonToRoom(home.getId(), new LocationPosition(0, roomId), personInput).getStatusCode());
+		assertEquals(1, controller.getPersons(home.getId()).getBody().size());
+		assertEquals(0, controller.getPersons(otherHome.getId()).getBody().size());
+		
+		HeatingZoneInput zoneInput = new HeatingZoneInput();
+		zoneInput.setName("Upstairs");
+		HeatingZone zone = controller.addHeatingZone(home.getId(), zoneInput).getBody();
+		
+		assertNotNull(zone);
+		HeatingZoneRoomInput zoneRoomInput = new HeatingZoneRoomInput();
+		zoneRoomInput.setRowId(0);
+		zoneRoomInput.setRoomId(roomId);
+		assertEquals(HttpStatus.OK, controller.addRoomToZone(home.getId(), zone.getId(), zoneRoomInput).getStatusCode());
+		
+		HeatingZoneTemperatureInput temperatureInput = new HeatingZoneTemperatureInput();
+		temperatureInput.setTargetTemperature(21.0);
+		assertEquals(21.0, controller.setZoneTemperature(home.getId(), zone.getId(), HeatingZonePeriod.MORNING, temperatureInput).getBody());
+		assertEquals(2, controller.getHeatingZones(home.getId()).getBody().size());
+		assertEquals(1, controller.getHeatingZones(otherHome.getId()).getBody().size());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getHeatingZones("unknown").getStatusCode());
+	}
+	
+	/**
+	 * Test that deleted or unknown homes cannot be addressed
+	 */
+	@Test
+	void unknownHome() {
+		HomeSession home = controller.createHome().getBody();
+		
+		assertNotNull(home);
+		assertEquals(HttpStatus.OK, controller.deleteHome(home.getId()).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getContext(home.getId()).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.deleteHome(home.getId()).getStatusCode());
+	}
+	
+}
@@ -2,7 +2,15 @@ package com.smart.home.backend.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import com.smart.home.backend.constant.Direction;
@@ -11,15 +19,20 @@ import com.smart.home.backend.constant.LightState;
 import com.smart.home.backend.constant.WindowState;
 import com.smart.home.backend.input.*;
 import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.houselayout.LayoutChange;
+import com.smart.home.backend.model.houselayout.LayoutDelta;
 import com.smart.home.backend.model.houselayout.Light;
+import com.smart.home.backend.model.houselayout.Room;
 import com.smart.home.backend.model.houselayout.directional.Door;
 import com.smart.home.backend.model.houselayout.directional.Window;
 import com.smart.home.backend.model.simulationparameters.location.LocationPosition;
 import com.smart.home.backend.model.simulationparameters.location.RoomItemLocationPosition;
+import com.smart.home.backend.service.importer.LayoutImportProgress;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 class HouseLayoutControllerTest {
@@ -65,6 +78,67 @@ class HouseLayoutControllerTest {
         
     }
     
+    /**
+     * Tests for the streamed house layout import
+     */
+    @Nested
+    @DisplayName("Stream house layout")
+    class StreamHouseLayout {
+        
+        @BeforeEach
+        void beforeEach() {
+            houseLayoutController = new HouseLayoutController(new HouseLayoutModel());
+        }
+        
+        /**
+         * Test that a streamed layout is built like a loaded one.
+         */
+        @Test
+        void streamLayout() {
+            String layout = "{\"rows\": [" +
+                    "{\"rooms\": [{\"name\": \"Kitchen\", \"doorsOn\": [\"N\", \"E\"], \"windowsOn\": [\"W\"]}, {\"name\": \"Garage\"}]}," +
+                    "{\"rooms\": [{\"name\": \"Office\", \"windowsOn\": null, \"color\": {\"ignored\": [1]}}]}" +
+                    "], \"version\": 2}";
+            
+            ResponseEntity<LayoutImportProgress> response = houseLayoutController.importLayout(stream(layout), layout.length());
+            HouseLayoutModel houseLayoutModel = houseLayoutController.getHouseLayoutModel();
+            
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(response.getBody().isDone());
+            assertNull(response.getBody().getError());
+            assertEquals(2, response.getBody().getRows());
+            assertEquals(3, response.getBody().getRooms());
+            assertEquals(layout.length(), response.getBody().getBytesRead());
+            assertEquals(3, houseLayoutModel.getAllRooms().size());
+            assertEquals(Direction.EAST, houseLayoutModel.findDoor(new RoomItemLocationPosition(0, 0, 1)).getDirection());
+            assertEquals(WindowState.CLOSED, houseLayoutModel.findWindow(new RoomItemLocationPosition(0, 0, 0)).getState());
+            assertEquals("Office", houseLayoutModel.findRoom(new LocationPosition(1, 0)).getName());
+            assertSame(response.getBody(), houseLayoutController.getLayoutImportProgress().getBody());
+        }
+        
+        /**
+         * Test that an invalid streamed layout leaves the current layout untouched.
+         */
+        @Test
+        void invalidStreamedLayout() {
+            houseLayoutController.loadLayout(createValidLayout());
+            String layout = "{\"rows\": [{\"rooms\": [{\"name\": \"Kitchen\", \"doorsOn\": [\"UP\"]}]}]}";
+            
+            ResponseEntity<LayoutImportProgress> response = houseLayoutController.importLayout(stream(layout), -1);
+            
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            assertEquals("Unknown direction UP in the doors of room 0 of row 0", response.getBody().getError());
+            assertEquals(6, houseLayoutController.getHouseLayoutModel().getAllRooms().size());
+            assertEquals(HttpStatus.BAD_REQUEST, houseLayoutController.importLayout(stream("{\"rows\": [{"), -1).getStatusCode());
+            assertEquals(HttpStatus.BAD_REQUEST, houseLayoutController.importLayout(stream("{}"), -1).getStatusCode());
+        }
+        
+        private InputStream stream(String layout) {
+            return new ByteArrayInputStream(layout.getBytes(StandardCharsets.UTF_8));
+        }
+        
+    }
+    
     /**
      * Tests for Use Case 3.4.1: Using core functionality
      */
@@ -141,7 +215,106 @@ class HouseLayoutControllerTest {
             assertEquals(WindowState.OPEN, modifiedWindow.getState());
             assertEquals(WindowState.OPEN, houseLayoutController.getHouseLayoutModel().findWindow(locationPosition).getState());
         }
-        
+
+        /**
+         * Test that the lookups by id follow the addition and removal of rooms and doors.
+         */
+        @Test
+        void lookupsFollowAdditionsAndRemovals() {
+            HouseLayoutModel houseLayoutModel = houseLayoutController.getHouseLayoutModel();
+
+            assertEquals(HttpStatus.OK, houseLayoutController.removeRoom(0, 1).getStatusCode());
+            assertNull(houseLayoutModel.findRoom(new LocationPosition(0, 1)));
+            assertEquals("Garage", houseLayoutModel.findRoom(new LocationPosition(0, 2)).getName());
+            assertEquals(HttpStatus.BAD_REQUEST, houseLayoutController.removeRoom(0, 1).getStatusCode());
+
+            RoomInput roomInput = new RoomInput();
+            roomInput.setName("Office");
+            houseLayoutController.addRoom(0, roomInput);
+            assertEquals("Office", houseLayoutModel.findRoom(new LocationPosition(0, 3)).getName());
+
+            assertEquals(HttpStatus.OK, houseLayoutController.removeDoor(new RoomItemLocationPosition(0, 0, 0)).getStatusCode());
+            assertNull(houseLayoutModel.findDoor(new RoomItemLocationPosition(0, 0, 0)));
+            assertEquals(Direction.EAST, houseLayoutModel.findDoor(new RoomItemLocationPosition(0, 0, 1)).getDirection());
+
+            DoorInput doorInput = new DoorInput();
+            doorInput.setDirection(Direction.NORTH);
+            doorInput.setState(DoorState.CLOSED);
+            houseLayoutController.addDoor(new LocationPosition(0, 0), doorInput);
+            assertEquals(Direction.NORTH, houseLayoutModel.findDoor(new RoomItemLocationPosition(0, 0, 2)).getDirection());
+        }
+
+        /**
+         * Test that the room list is shared between calls and only rebuilt when rooms are added or removed.
+         */
+        @Test
+        void allRoomsRebuiltOnlyOnLayoutChange() {
+            List<Room> rooms = houseLayoutController.getAllRooms().getBody();
+            long version = houseLayoutController.getHouseLayoutModel().getRoomsVersion();
+            assertNotNull(rooms);
+            assertEquals(6, rooms.size());
+            assertSame(rooms, houseLayoutController.getAllRooms().getBody());
+
+            houseLayoutController.changeDoorState(new RoomItemLocationPosition(0, 0, 0), new DoorInput());
+            assertSame(rooms, houseLayoutController.getAllRooms().getBody());
+
+            RoomInput roomInput = new RoomInput();
+            roomInput.setName("Office");
+            houseLayoutController.addRoom(1, roomInput);
+            List<Room> rebuiltRooms = houseLayoutController.getAllRooms().getBody();
+            assertNotSame(rooms, rebuiltRooms);
+            assertEquals(7, rebuiltRooms.size());
+            assertEquals(1, rebuiltRooms.get(6).getRowId());
+            assertEquals(version + 1, houseLayoutController.getHouseLayoutModel().getRoomsVersion());
+            assertThrows(UnsupportedOperationException.class, () -> rebuiltRooms.remove(0));
+        }
+
+
+        /**
+         * Test that the delta responses describe each change and that the changes since a version
+         * can be replayed until the layout is reloaded.
+         */
+        @Test
+        void deltaResponsesFollowLayoutVersion() {
+            long initialVersion = houseLayoutController.getHouseLayoutModel().getLayoutVersion();
+            
+            LayoutDelta removal = houseLayoutController.removeWindowDelta(new RoomItemLocationPosition(0, 0, 0)).getBody();
+            assertNotNull(removal);
+            assertEquals(initialVersion, removal.getFromVersion());
+            assertEquals(initialVersion + 1, removal.getVersion());
+            assertEquals(LayoutChange.REMOVE, removal.getChanges().get(0).getOp());
+            assertEquals("/rows/0/rooms/0/windows/0", removal.getChanges().get(0).getPath());
+            
+            WindowInput windowInput = new WindowInput();
+            windowInput.setDirection(Direction.WEST);
+            windowInput.setState(WindowState.OPEN);
+            LayoutDelta addition = houseLayoutController.addWindowDelta(new LocationPosition(0, 0), windowInput).getBody();
+            assertNotNull(addition);
+            assertEquals(1, addition.getChanges().size());
+            assertEquals(LayoutChange.ADD, addition.getChanges().get(0).getOp());
+            assertEquals("/rows/0/rooms/0/windows/2", addition.getChanges().get(0).getPath());
+            assertEquals(WindowState.OPEN, ((Window) addition.getChanges().get(0).getValue()).getState());
+            
+            assertEquals(HttpStatus.BAD_REQUEST, houseLayoutController.removeDoorDelta(new RoomItemLocationPosition(0, 0, 9)).getStatusCode());
+            assertEquals(initialVersion + 2, houseLayoutController.getHouseLayoutModel().getLayoutVersion());
+            
+            RoomInput roomInput = new RoomInput();
+            roomInput.setName("Office");
+            assertEquals(HttpStatus.OK, houseLayoutController.addRoom(0, roomInput).getStatusCode());
+            
+            LayoutDelta changes = houseLayoutController.getLayoutChanges(initialVersion).getBody();
+            assertNotNull(changes);
+            assertEquals(initialVersion + 3, changes.getVersion());
+            assertEquals(3, changes.getChanges().size());
+            assertEquals("/rows/0/rooms/3", changes.getChanges().get(2).getPath());
+            
+            houseLayoutController.loadLayout(createValidLayout());
+            long reloadedVersion = houseLayoutController.getHouseLayoutModel().getLayoutVersion();
+            assertEquals(HttpStatus.GONE, houseLayoutController.getLayoutChanges(initialVersion).getStatusCode());
+            assertTrue(houseLayoutController.getLayoutChanges(reloadedVersion).getBody().getChanges().isEmpty());
+            assertEquals(HttpStatus.GONE, houseLayoutController.getLayoutChanges(reloadedVersion + 1).getStatusCode());
+        }
+
     }
 
     /**
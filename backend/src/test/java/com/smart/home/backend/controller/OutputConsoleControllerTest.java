@@ -0,0 +1,350 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.constant.ConsoleModule;
+import com.smart.home.backend.constant.ConsoleSeverity;
+import com.smart.home.backend.input.ConsoleLineInput;
+import com.smart.home.backend.model.heating.HeatingZone;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.service.ConsoleEvent;
+import com.smart.home.backend.service.ConsoleEventPage;
+import com.smart.home.backend.service.ConsoleLine;
+import com.smart.home.backend.service.ConsolePage;
+import com.smart.home.backend.service.OutputConsole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the output console.
+ */
+class OutputConsoleControllerTest {
+	
+	@TempDir
+	Path directory;
+	
+	Path file;
+	
+	OutputConsoleController controller;
+	
+	@BeforeEach
+	void beforeEach() throws InterruptedException {
+		file = directory.resolve("console").resolve("output_console.bin");
+		OutputConsole.configure(file, 10, 3);
+		controller = new OutputConsoleController();
+	}
+	
+	@AfterEach
+	void afterEach() throws InterruptedException {
+		OutputConsole.configure(Paths.get(OutputConsole.DEFAULT_FILE), OutputConsole.DEFAULT_FLUSH_INTERVAL_MILLIS, OutputConsole.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Test that logged lines are appended to the log segment as events read back once evicted from the ring,
+	 * repeated lines being skipped
+	 */
+	@Test
+	void appendLines() throws Exception {
+		long sequenceBefore = OutputConsole.getLastSequence();
+		
+		controller.logLine(lineInput("SHH | Room \"Kitchen\" is below 0°C"));
+		controller.logLine(lineInput("SHH | Room \"Kitchen\" is below 0°C"));
+		controller.logLine(lineInput("SHC | Door unlocked"));
+		
+		assertTrue(OutputConsole.flush(5000));
+		assertTrue(Files.size(file) > 0);
+		assertEquals("SHC | Door unlocked", controller.getAwayMode().getBody().get(controller.getAwayMode().getBody().size() - 1));
+		
+		for (int i = 1; i <= 3; i++) {
+			OutputConsole.log("Line " + i);
+		}
+		
+		ConsoleEventPage page = controller.getEvents(sequenceBefore, 2, null, null, null, null, null).getBody();
+		
+		assertEquals(Arrays.asList("SHH | Room \"Kitchen\" is below 0°C", "SHC | Door unlocked"), eventLines(page));
+		assertEquals(ConsoleModule.SHH, page.getEvents().get(0).getModule());
+		assertEquals("Room \"Kitchen\" is below 0°C", page.getEvents().get(0).getTemplate());
+		assertEquals(sequenceBefore + 2, page.getCursor());
+	}
+	
+	/**
+	 * Test that events are stamped with the simulated time and filtered on their module, severity, room and
+	 * heating zone, in the ring and in the log segment
+	 */
+	@Test
+	void filterEvents() {
+		long sequenceBefore = OutputConsole.getLastSequence();
+		LocalDateTime simulatedTime = LocalDateTime.of(2020, 1, 15, 8, 0);
+		Room kitchen = Room.builder().name("Kitchen").rowId(0).id(1).build();
+		Room garage = Room.builder().name("Garage").rowId(1).id(1).build();
+		HeatingZone zone = HeatingZone.builder().id(2).name("Ground floor").build();
+		
+		OutputConsole.setSimulatedTime(simulatedTime);
+		OutputConsole.log(ConsoleModule.SHH, ConsoleSeverity.WARN, zone, kitchen, "Freezing temperatures in the {} pipes", "Kitchen");
+		OutputConsole.log(ConsoleModule.SHC, ConsoleSeverity.INFO, kitchen, "Turned {}'s light {}", "Kitchen", "ON");
+		OutputConsole.log(ConsoleEvent.builder()
+				.simulatedTime(simulatedTime.plusHours(1))
+				.module(ConsoleModule.SHH)
+				.severity(ConsoleSeverity.WARN)
+				.room("Garage")
+				.rowId(1)
+				.roomId(1)
+				.template("Freezing temperatures in the {} pipes")
+				.arguments(Arrays.asList("Garage"))
+				.build());
+		OutputConsole.log(ConsoleModule.SHP, ConsoleSeverity.WARN, null, "Alerting authorities");
+		OutputConsole.log(ConsoleModule.SHH, ConsoleSeverity.INFO, zone, kitchen, "Changed window state to {}", "OPEN");
+		
+		ConsoleEventPage warnings = controller.getEvents(sequenceBefore, 10, ConsoleModule.SHH, ConsoleSeverity.WARN, null, null, null).getBody();
+		ConsoleEventPage kitchenEvents = controller.getEvents(sequenceBefore, 10, null, null, 0, 1, null).getBody();
+		ConsoleEventPage kitchenWarnings = controller.getEvents(sequenceBefore, 10, null, ConsoleSeverity.WARN, 0, 1, null).getBody();
+		ConsoleEventPage zoneEvents = controller.getEvents(sequenceBefore, 10, null, null, null, null, 2).getBody();
+		ConsoleEventPage zoneWarnings = controller.getEvents(sequenceBefore, 10, null, ConsoleSeverity.WARN, null, null, 2).getBody();
+		ConsoleEventPage firstWarning = controller.getEvents(sequenceBefore, 1, null, ConsoleSeverity.WARN, null, null, null).getBody();
+		
+		assertEquals(Arrays.asList("SHH | Freezing temperatures in the Kitchen pipes", "SHH | Freezing temperatures in the Garage pipes"), eventLines(warnings));
+		assertEquals(simulatedTime, warnings.getEvents().get(0).getSimulatedTime());
+		assertEquals(simulatedTime.plusHours(1), warnings.getEvents().get(1).getSimulatedTime());
+		assertEquals(Arrays.asList("Garage"), warnings.getEvents().get(1).getArguments());
+		assertEquals(3, kitchenEvents.getEvents().size());
+		assertEquals(Arrays.asList("SHH | Freezing temperatures in the Kitchen pipes"), eventLines(kitchenWarnings));
+		assertEquals(sequenceBefore + 5, kitchenWarnings.getCursor());
+		assertEquals(Arrays.asList("SHH | Freezing temperatures in the Kitchen pipes", "SHH | Changed window state to OPEN"), eventLines(zoneEvents));
+		assertEquals(Arrays.asList("SHH | Freezing temperatures in the Kitchen pipes"), eventLines(zoneWarnings));
+		assertEquals(sequenceBefore + 1, firstWarning.getCursor());
+		assertTrue(controller.getEvents(sequenceBefore, 10, ConsoleModule.SHS, null, null, null, null).getBody().getEvents().isEmpty());
+		assertTrue(controller.getEvents(sequenceBefore, 10, null, null, 2, 1, null).getBody().getEvents().isEmpty());
+		assertTrue(controller.getEvents(sequenceBefore, 10, null, null, null, null, 3).getBody().getEvents().isEmpty());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getEvents(-1, 10, null, null, null, null, null).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getEvents(0, 0, null, null, null, null, null).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getEvents(0, 10, null, null, 0, null, null).getStatusCode());
+		
+		for (int i = 1; i <= 3; i++) {
+			OutputConsole.log("Line " + i);
+		}
+		
+		ConsoleEventPage segmentWarnings = controller.getEvents(sequenceBefore, 10, ConsoleModule.SHH, ConsoleSeverity.WARN, null, null, null).getBody();
+		ConsoleEventPage segmentKitchen = controller.getEvents(sequenceBefore, 10, null, null, 0, 1, null).getBody();
+		ConsoleEventPage segmentZone = controller.getEvents(sequenceBefore, 10, null, null, null, null, 2).getBody();
+		ConsoleEvent segmentWarning = segmentWarnings.getEvents().get(0);
+		
+		assertEquals(eventLines(warnings), eventLines(segmentWarnings));
+		assertEquals(eventLines(kitchenEvents), eventLines(segmentKitchen));
+		assertEquals(eventLines(zoneEvents), eventLines(segmentZone));
+		assertEquals(sequenceBefore + 3, segmentWarnings.getEvents().get(1).getSequence());
+		assertEquals(simulatedTime, segmentWarning.getSimulatedTime());
+		assertEquals("Kitchen", segmentWarning.getRoom());
+		assertEquals(Integer.valueOf(0), segmentWarning.getRowId());
+		assertEquals(Integer.valueOf(1), segmentWarning.getRoomId());
+		assertEquals(Integer.valueOf(2), segmentWarning.getZoneId());
+		assertEquals("Garage", segmentWarnings.getEvents().get(1).getRoom());
+		assertNull(segmentWarnings.getEvents().get(1).getZoneId());
+	}
+	
+	/**
+	 * Test that lines are paged after a sequence number, lines evicted from the ring being read from the log segment
+	 */
+	@Test
+	void pageLines() {
+		long sequenceBefore = OutputConsole.getLastSequence();
+		
+		for (int i = 1; i <= 5; i++) {
+			ConsolePage logged = controller.logLine(lineInput("Line " + i)).getBody();
+			assertEquals(sequenceBefore + i, logged.getLines().get(0).getSequence());
+		}
+		
+		assertEquals(Arrays.asList("Line 3", "Line 4", "Line 5"), controller.getAwayMode().getBody());
+		
+		ConsolePage firstPage = controller.getLinesAfter(sequenceBefore, 2).getBody();
+		ConsolePage secondPage = controller.getLinesAfter(firstPage.getLines().get(1).getSequence(), 2).getBody();
+		ConsolePage lastPage = controller.getLinesAfter(sequenceBefore + 4, 100).getBody();
+		
+		assertEquals(Arrays.asList("Line 1", "Line 2"), lineTexts(firstPage));
+		assertEquals(Arrays.asList("Line 3", "Line 4"), lineTexts(secondPage));
+		assertEquals(Arrays.asList("Line 5"), lineTexts(lastPage));
+		assertEquals(sequenceBefore + 5, lastPage.getLastSequence());
+		assertTrue(controller.getLinesAfter(sequenceBefore + 5, 100).getBody().getLines().isEmpty());
+		assertTrue(controller.logLine(lineInput("Line 5")).getBody().getLines().isEmpty());
+		
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getLinesAfter(-1, 10).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getLinesAfter(0, OutputConsoleController.MAX_PAGE_SIZE + 1).getStatusCode());
+	}
+	
+	/**
+	 * Test that no line is lost when many threads log concurrently, each line getting its own sequence number
+	 */
+	@Test
+	void concurrentLogging() throws Exception {
+		int nbThreads = 8;
+		int nbLinesPerThread = 100;
+		long sequenceBefore = OutputConsole.getLastSequence();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		Set<String> expected = new HashSet<>();
+		
+		for (int i = 0; i < nbThreads; i++) {
+			String prefix = "Thread " + i + " | Line ";
+			
+			for (int j = 0; j < nbLinesPerThread; j++) {
+				expected.add(prefix + j);
+			}
+			
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				
+				for (int j = 0; j < nbLinesPerThread; j++) {
+					OutputConsole.log(prefix + j);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		
+		start.countDown();
+		
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		ConsolePage page = controller.getLinesAfter(sequenceBefore, OutputConsoleController.MAX_PAGE_SIZE).getBody();
+		
+		assertEquals(sequenceBefore + nbThreads * nbLinesPerThread, page.getLastSequence());
+		assertEquals(nbThreads * nbLinesPerThread, page.getLines().size());
+		assertEquals(expected, new HashSet<>(lineTexts(page)));
+		
+		for (int i = 0; i < page.getLines().size(); i++) {
+			assertEquals(sequenceBefore + i + 1, page.getLines().get(i).getSequence());
+		}
+	}
+	
+	/**
+	 * Test that posting a line answers with that line while another thread is logging
+	 */
+	@Test
+	void logLineWhileLogging() throws Exception {
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread noise = new Thread(() -> {
+			for (int i = 0; running.get(); i++) {
+				OutputConsole.log("Noise " + i);
+				LockSupport.parkNanos(10_000);
+			}
+		});
+		noise.start();
+		
+		try {
+			for (int i = 0; i < 50; i++) {
+				ConsolePage logged = controller.logLine(lineInput("Posted " + i)).getBody();
+				
+				assertEquals(Arrays.asList("Posted " + i), lineTexts(logged));
+			}
+		} finally {
+			running.set(false);
+			noise.join();
+		}
+	}
+	
+	/**
+	 * Test that no line is lost when the log segment is replaced while another thread is logging
+	 */
+	@Test
+	void configureWhileLogging() throws Exception {
+		int capacity = OutputConsoleController.MAX_PAGE_SIZE;
+		long sequenceBefore = OutputConsole.getLastSequence();
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger nbLogged = new AtomicInteger();
+		Thread logger = new Thread(() -> {
+			for (int i = 0; running.get() && i < capacity; i++) {
+				OutputConsole.log("Logged " + i);
+				nbLogged.incrementAndGet();
+				LockSupport.parkNanos(10_000);
+			}
+		});
+		
+		OutputConsole.configure(file, 10, capacity);
+		logger.start();
+		
+		try {
+			for (int i = 0; i < 5; i++) {
+				OutputConsole.configure(directory.resolve("console").resolve("output_console_" + i + ".bin"), 10, capacity);
+			}
+		} finally {
+			running.set(false);
+			logger.join();
+		}
+		
+		Set<String> expected = new HashSet<>();
+		
+		for (int i = 0; i < nbLogged.get(); i++) {
+			expected.add("Logged " + i);
+		}
+		
+		ConsolePage page = controller.getLinesAfter(sequenceBefore, capacity).getBody();
+		
+		assertEquals(sequenceBefore + nbLogged.get(), page.getLastSequence());
+		assertEquals(expected, new HashSet<>(lineTexts(page)));
+	}
+	
+	/**
+	 * Lines of the events of a page.
+	 * @param page console event page
+	 * @return Event lines
+	 */
+	private static List<String> eventLines(ConsoleEventPage page) {
+		List<String> lines = new ArrayList<>();
+		
+		for (ConsoleEvent event : page.getEvents()) {
+			lines.add(event.getLine());
+		}
+		
+		return lines;
+	}
+	
+	/**
+	 * Texts of the lines of a page.
+	 * @param page console page
+	 * @return Line texts
+	 */
+	private static List<String> lineTexts(ConsolePage page) {
+		List<String> texts = new ArrayList<>();
+		
+		for (ConsoleLine line : page.getLines()) {
+			texts.add(line.getLine());
+		}
+		
+		return texts;
+	}
+	
+	/**
+	 * Creates a console line input.
+	 * @param line console line
+	 * @return Console line input
+	 */
+	private static ConsoleLineInput lineInput(String line) {
+		ConsoleLineInput input = new ConsoleLineInput();
+		input.setLine(line);
+		return input;
+	}
+
+}
@@ -4,9 +4,12 @@ import com.smart.home.backend.constant.Direction;
 import com.smart.home.backend.constant.SimulationState;
 import com.smart.home.backend.constant.WindowState;
 import com.smart.home.backend.input.*;
+import com.smart.home.backend.model.heating.HeatingModel;
 import com.smart.home.backend.model.houselayout.HouseLayoutModel;
 import com.smart.home.backend.model.houselayout.OutsideLocation;
+import com.smart.home.backend.model.houselayout.PersonPlacement;
 import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.RoomRow;
 import com.smart.home.backend.model.houselayout.directional.Window;
 import com.smart.home.backend.model.simulationcontext.SimulationContextModel;
 import com.smart.home.backend.model.simulationparameters.*;
@@ -15,6 +18,8 @@ import com.smart.home.backend.model.simulationparameters.location.PersonLocation
 import com.smart.home.backend.model.simulationparameters.location.RoomItemLocationPosition;
 import com.smart.home.backend.model.simulationparameters.module.Modules;
 import com.smart.home.backend.model.security.SecurityModel;
+import com.smart.home.backend.service.engine.SimulationEngine;
+import com.smart.home.backend.service.engine.SimulationRunSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -27,9 +32,12 @@ import org.springframework.http.ResponseEntity;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -58,6 +66,9 @@ class SimulationContextControllerTest {
     @Mock
     HouseLayoutModel houseLayoutModel;
     
+    @Mock
+    SimulationEngine simulationEngine;
+    
     SimulationParametersModel simulationParametersModel;
     
     SimulationContextController simulationContextController;
@@ -73,7 +84,8 @@ class SimulationContextControllerTest {
         void beforeEach() {
             simulationParametersModel = new SimulationParametersModel(userProfiles, modules, new SystemParameters(dateIncrementTask));
             simulationContextController = new SimulationContextController(
-                    new SimulationContextModel(houseLayoutModel, simulationParametersModel)
+                    new SimulationContextModel(houseLayoutModel, simulationParametersModel),
+                    simulationEngine
             );
         }
     
@@ -154,8 +166,27 @@ class SimulationContextControllerTest {
             assertNotNull(responseEntity);
             assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
         }
+
+        /**
+         * Test for modifying the simulated time step per tick
+         */
+        @Test
+        void modifyTimeStep() {
+            ParametersInput modifyInput = new ParametersInput();
+            modifyInput.setTimeSpeed(5000);
+            modifyInput.setTimeStep(60);
+
+            SystemParameters modifiedParameters = simulationContextController.modifyParams(modifyInput).getBody();
+
+            assertNotNull(modifiedParameters);
+            assertEquals(60, modifiedParameters.getTimeStep());
+            assertEquals(12000L, modifiedParameters.getDelay());
+
+            modifyInput.setTimeStep(SystemParameters.MAX_TIME_STEP + 1);
+            assertEquals(HttpStatus.BAD_REQUEST, simulationContextController.modifyParams(modifyInput).getStatusCode());
+        }
     }
-    
+
     /**
      * Tests for use case 3.3.2: Modify house layout context
      */
@@ -169,7 +200,8 @@ class SimulationContextControllerTest {
                     new SimulationContextModel(
                             houseLayoutModel,
                             simulationParametersModel
-                    )
+                    ),
+                    simulationEngine
             );
         }
     
@@ -267,4 +299,127 @@ class SimulationContextControllerTest {
         
     }
 
+    /**
+     * Tests for the queries of who is where
+     */
+    @Nested
+    @DisplayName("Locate persons")
+    class LocatePersons {
+        
+        HouseLayoutModel realHouseLayoutModel;
+        
+        @BeforeEach
+        void beforeEach() {
+            realHouseLayoutModel = new HouseLayoutModel();
+            List<Room> rooms = new ArrayList<>();
+            rooms.add(Room.builder().id(0).name("Kitchen").build());
+            rooms.add(Room.builder().id(1).name("Garage").build());
+            List<RoomRow> rows = new ArrayList<>();
+            rows.add(RoomRow.builder().id(0).rooms(rooms).build());
+            realHouseLayoutModel.setRows(rows);
+            
+            simulationContextController = new SimulationContextController(
+                    new SimulationContextModel(realHouseLayoutModel, simulationParametersModel),
+                    simulationEngine
+            );
+        }
+        
+        /**
+         * Test that the person queries follow the additions, renames and removals of persons
+         */
+        @Test
+        void personsFollowAdditionsRenamesAndRemovals() {
+            RoomPersonInput alice = new RoomPersonInput();
+            alice.setName("Alice");
+            RoomPersonInput bob = new RoomPersonInput();
+            bob.setName("Bob");
+            OutsidePersonInput carol = new OutsidePersonInput();
+            carol.setName("Carol");
+            carol.setLocation("Backyard");
+            
+            assertEquals(0, simulationContextController.addPersonToRoom(new LocationPosition(0, 1), alice).getBody());
+            assertEquals(1, simulationContextController.addPersonToRoom(new LocationPosition(0, 1), bob).getBody());
+            assertEquals(0, simulationContextController.addPersonOutside(carol).getBody());
+            assertEquals(HttpStatus.CONFLICT, simulationContextController.addPersonToRoom(new LocationPosition(0, 0), alice).getStatusCode());
+            assertEquals(3, simulationContextController.getPersons().getBody().size());
+            
+            PersonPlacement placement = simulationContextController.getPersons("Alice").getBody().get(0);
+            assertEquals("Garage", placement.getLocationName());
+            assertEquals(0, placement.getRowId());
+            assertEquals(1, placement.getRoomId());
+            assertEquals("Backyard", simulationContextController.getPersons("Carol").getBody().get(0).getLocationName());
+            
+            PersonLocationPosition location = new PersonLocationPosition();
+            location.setRowId(0);
+            location.setRoomId(1);
+            location.setName("Bob");
+            PersonInput rename = new PersonInput();
+            rename.setName("Robert");
+            assertEquals("Robert", simulationContextController.modifyPerson(location, rename).getBody().getName());
+            assertEquals(HttpStatus.BAD_REQUEST, simulationContextController.getPersons("Bob").getStatusCode());
+            assertTrue(realHouseLayoutModel.isInHouse("Robert"));
+            
+            simulationContextController.removePersonFromRoom(new RoomItemLocationPosition(0, 1, 0));
+            assertFalse(realHouseLayoutModel.isInHouse("Alice"));
+            assertEquals(2, simulationContextController.getPersons().getBody().size());
+            assertEquals(1, realHouseLayoutModel.getNbPersonsInside());
+        }
+        
+    }
+
+    /**
+     * Tests for running the simulation headlessly
+     */
+    @Nested
+    @DisplayName("Run simulation headlessly")
+    class RunSimulation {
+        
+        SystemParameters systemParameters;
+        
+        @BeforeEach
+        void beforeEach() {
+            HouseLayoutModel realHouseLayoutModel = new HouseLayoutModel();
+            DateIncrementTask realDateIncrementTask = new DateIncrementTask();
+            SecurityModel realSecurityModel = new SecurityModel();
+            HeatingModel heatingModel = new HeatingModel(realHouseLayoutModel);
+            systemParameters = new SystemParameters(realDateIncrementTask);
+            systemParameters.setDate(LocalDateTime.parse("2020-01-01T00:00"));
+            realDateIncrementTask.addListener(heatingModel);
+            realDateIncrementTask.addListener(realSecurityModel);
+            
+            simulationContextController = new SimulationContextController(
+                    new SimulationContextModel(realHouseLayoutModel, simulationParametersModel),
+                    new SimulationEngine(systemParameters, realDateIncrementTask, heatingModel, realSecurityModel)
+            );
+        }
+        
+        /**
+         * Test for running the simulation until a later date
+         */
+        @Test
+        void validRunUntil() {
+            LocalDateTime until = LocalDateTime.parse("2020-01-01T01:00");
+            
+            SimulationRunSummary summary = simulationContextController.runUntil(until, 60).getBody();
+            
+            assertNotNull(summary);
+            assertEquals(60, summary.getTicks());
+            assertEquals(3600, summary.getSimulatedSeconds());
+            assertEquals(until, systemParameters.getDate());
+        }
+        
+        /**
+         * Test for running the simulation until a date that is already past
+         */
+        @Test
+        void invalidRunUntil() {
+            ResponseEntity<SimulationRunSummary> responseEntity = simulationContextController.runUntil(
+                    LocalDateTime.parse("2019-12-31T00:00"), null
+            );
+            
+            assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        }
+        
+    }
+
 }
@@ -0,0 +1,122 @@
+package com.smart.home.backend.controller;
+
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.simulationparameters.DateIncrementTask;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import com.smart.home.backend.service.OutputConsole;
+import com.smart.home.backend.service.stream.SimulationStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests for the stream of the simulation's changes.
+ */
+class SimulationStreamControllerTest {
+
+	DateIncrementTask dateIncrementTask;
+
+	SimulationStream simulationStream;
+
+	SimulationStreamController controller;
+
+	@BeforeEach
+	void beforeEach() {
+		HouseLayoutModel houseLayoutModel = new HouseLayoutModel();
+		dateIncrementTask = new DateIncrementTask();
+		SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+		systemParameters.setDate(LocalDateTime.parse("2020-01-01T00:00"));
+		simulationStream = new SimulationStream(houseLayoutModel, 20);
+		dateIncrementTask.addListener(simulationStream);
+		houseLayoutModel.addListener(simulationStream);
+		controller = new SimulationStreamController(simulationStream);
+	}
+
+	@AfterEach
+	void afterEach() {
+		simulationStream.close();
+	}
+
+	/**
+	 * Test that rates above the stream's maximum rate are refused
+	 */
+	@Test
+	void invalidRate() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller.subscribe(0).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.subscribe(21).getStatusCode());
+		assertEquals(0, simulationStream.getNbClients());
+	}
+
+	/**
+	 * Test that ticks are coalesced into the latest date and temperatures, and console lines are pushed
+	 */
+	@Test
+	void coalescedPushes() throws Exception {
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+		MockHttpServletResponse response = mockMvc.perform(get("/stream").param("rate", "20"))
+				.andExpect(request().asyncStarted())
+				.andReturn()
+				.getResponse();
+
+		assertEquals(1, simulationStream.getNbClients());
+
+		for (int i = 0; i < 200; i++) {
+			dateIncrementTask.tick(1);
+		}
+		OutputConsole.log("Streamed line");
+
+		String content = awaitContent(response, "Streamed line");
+
+		assertTrue(content.contains("event:timeIncrement"));
+		assertTrue(content.contains("event:temperatures"));
+		assertTrue(content.contains("event:console"));
+		assertTrue(countMatches(content, "event:timeIncrement") < 200);
+
+		simulationStream.close();
+		assertEquals(0, simulationStream.getNbClients());
+	}
+
+	/**
+	 * Waits for a push containing a text.
+	 * @param response streamed response
+	 * @param text awaited text
+	 * @return Content of the response
+	 */
+	private static String awaitContent(MockHttpServletResponse response, String text) throws Exception {
+		for (int i = 0; i < 100 && !response.getContentAsString().contains(text); i++) {
+			Thread.sleep(20);
+		}
+
+		return response.getContentAsString();
+	}
+
+	/**
+	 * Counts the occurrences of a text.
+	 * @param content searched content
+	 * @param text counted text
+	 * @return Number of occurrences
+	 */
+	private static int countMatches(String content, String text) {
+		Matcher matcher = Pattern.compile(Pattern.quote(text)).matcher(content);
+		int count = 0;
+
+		while (matcher.find()) {
+			count++;
+		}
+
+		return count;
+	}
+
+}
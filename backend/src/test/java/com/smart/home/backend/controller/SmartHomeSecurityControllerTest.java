@@ -2,8 +2,24 @@ package com.smart.home.backend.controller;
 
 import com.smart.home.backend.input.AuthoritiesTimerInput;
 import com.smart.home.backend.input.AwayModeInput;
+import com.smart.home.backend.constant.Direction;
+import com.smart.home.backend.constant.DoorState;
+import com.smart.home.backend.constant.LightState;
+import com.smart.home.backend.constant.WindowState;
+import com.smart.home.backend.model.houselayout.HouseLayoutModel;
+import com.smart.home.backend.model.houselayout.Light;
+import com.smart.home.backend.model.houselayout.LockdownSummary;
+import com.smart.home.backend.model.houselayout.Room;
+import com.smart.home.backend.model.houselayout.RoomRow;
+import com.smart.home.backend.model.houselayout.directional.Door;
+import com.smart.home.backend.model.houselayout.directional.Window;
+import com.smart.home.backend.model.security.AwayModeState;
 import com.smart.home.backend.model.security.AwayModeHours;
 import com.smart.home.backend.model.security.SecurityModel;
+import com.smart.home.backend.model.simulationparameters.DateIncrementTask;
+import com.smart.home.backend.model.simulationparameters.SystemParameters;
+import com.smart.home.backend.service.ConsoleLine;
+import com.smart.home.backend.service.OutputConsole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
@@ -11,7 +27,10 @@ import org.mockito.Mockito;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.verify;
@@ -47,8 +66,8 @@ class SmartHomeSecurityControllerTest {
      */
     @Test
     void ActivateAwayMode() {
-        ResponseEntity<Boolean> awayModeBool = controller.setAwayMode(instantiateAwayModeInput(true));
-        assertTrue(awayModeBool.getBody());
+        ResponseEntity<AwayModeState> awayModeState = controller.setAwayMode(instantiateAwayModeInput(true));
+        assertTrue(awayModeState.getBody().getAwayMode());
         verify(securityModel).setAwayMode(true);
     }
 
@@ -57,8 +76,8 @@ class SmartHomeSecurityControllerTest {
      */
     @Test
     void DeactivateAwayMode(){
-        ResponseEntity<Boolean> awayModeBool = controller.setAwayMode(instantiateAwayModeInput(false));
-        assertFalse(awayModeBool.getBody());
+        ResponseEntity<AwayModeState> awayModeState = controller.setAwayMode(instantiateAwayModeInput(false));
+        assertFalse(awayModeState.getBody().getAwayMode());
         verify(securityModel).setAwayMode(false);
     }
 
@@ -86,6 +105,138 @@ class SmartHomeSecurityControllerTest {
         assertEquals(LocalTime.NOON, controller.getAwayModeHours().getBody().getFrom());
         assertEquals(LocalTime.MIDNIGHT, controller.getAwayModeHours().getBody().getTo());
     }
+
+    /**
+     * Test that away mode lights only switch when the simulated clock crosses the away mode hours
+     */
+    @Test
+    void awayModeLightsFollowHours(){
+        DateIncrementTask dateIncrementTask = new DateIncrementTask();
+        SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+        systemParameters.setDate(LocalDateTime.of(2020, 11, 1, 5, 58, 0));
+        dateIncrementTask.addListener(securityModel);
+        dateIncrementTask.tick(1);
+
+        Light light = new Light();
+        light.setState(LightState.ON);
+        securityModel.getAwayModeLights().add(light);
+
+        controller.setAwayMode(instantiateAwayModeInput(true));
+        assertEquals(LightState.OFF, light.getState());
+
+        dateIncrementTask.tick(60);
+        assertEquals(LightState.OFF, light.getState());
+
+        dateIncrementTask.tick(60);
+        assertEquals(LightState.ON, light.getState());
+
+        controller.setAwayModeHours(new AwayModeHours(LocalTime.of(7, 0), LocalTime.of(18, 0)));
+        assertEquals(LightState.OFF, light.getState());
+    }
+
+    /**
+     * Test that authorities are alerted once the simulated alert delay has elapsed, whatever the time speed
+     */
+    @Test
+    void alertAuthoritiesAfterSimulatedDelay(){
+        DateIncrementTask dateIncrementTask = new DateIncrementTask();
+        SystemParameters systemParameters = new SystemParameters(dateIncrementTask);
+        systemParameters.setDate(LocalDateTime.of(2020, 11, 1, 12, 0, 0));
+        dateIncrementTask.addListener(securityModel);
+
+        controller.setAwayModeHours(instantiateAuthoritiesTimerInput(5000));
+        controller.setAwayMode(instantiateAwayModeInput(true));
+        systemParameters.setTimeSpeed(100);
+        securityModel.sendNotification();
+        assertTrue(securityModel.getAlertDetected());
+
+        dateIncrementTask.tick(4000);
+        dateIncrementTask.tick(999);
+        assertTrue(securityModel.getAlertDetected());
+
+        dateIncrementTask.tick(1);
+        assertFalse(securityModel.getAlertDetected());
+        assertEquals(0, securityModel.getTimerWheel().size());
+    }
+
+    /**
+     * Test that activating away mode locks the whole layout down in one pass, logging a single console line
+     * and returning the summary of the lockdown
+     */
+    @Test
+    void awayModeLocksDownLayout(){
+        HouseLayoutModel houseLayoutModel = new HouseLayoutModel();
+        houseLayoutModel.addListener(securityModel);
+        securityModel.addListener(houseLayoutModel);
+        
+        List<Room> rooms = new ArrayList<>();
+        
+        for (int i = 0; i < 3; i++) {
+            Room room = Room.builder().id(i).name("Room " + i).build();
+            room.getWindows().add(Window.builder().id(0).direction(Direction.NORTH).state(WindowState.OPEN).build());
+            room.getDoors().add(Door.builder().id(0).direction(Direction.SOUTH).state(DoorState.OPEN).build());
+            rooms.add(room);
+        }
+        
+        rooms.get(1).getWindows().get(0).setState(WindowState.BLOCKED);
+        rooms.get(2).getDoors().get(0).setState(DoorState.LOCKED);
+        List<RoomRow> rows = new ArrayList<>();
+        rows.add(RoomRow.builder().id(0).rooms(rooms).build());
+        houseLayoutModel.setRows(rows);
+        
+        OutputConsole.log("Lockdown test start");
+        long sequenceBefore = OutputConsole.getLastSequence();
+        LockdownSummary lockdown = controller.setAwayMode(instantiateAwayModeInput(true)).getBody().getLockdown();
+        List<String> lines = new ArrayList<>();
+        
+        for (ConsoleLine consoleLine : OutputConsole.findLinesAfter(sequenceBefore, Integer.MAX_VALUE).getLines()) {
+            lines.add(consoleLine.getLine());
+        }
+        
+        assertEquals(3, lockdown.getRooms());
+        assertEquals(2, lockdown.getWindowsClosed());
+        assertEquals(2, lockdown.getDoorsLocked());
+        assertEquals(1, lockdown.getObstructedWindows().size());
+        assertEquals(1, lockdown.getObstructedWindows().get(0).getRoomId());
+        assertEquals(WindowState.CLOSED, rooms.get(0).getWindows().get(0).getState());
+        assertEquals(WindowState.BLOCKED, rooms.get(1).getWindows().get(0).getState());
+        assertEquals(DoorState.LOCKED, rooms.get(1).getDoors().get(0).getState());
+        assertEquals(1, lines.stream().filter(line -> line.startsWith("SHC |")).count());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("Room 1's N)")));
+        
+        assertNull(controller.setAwayMode(instantiateAwayModeInput(false)).getBody().getLockdown());
+    }
+
+    /**
+     * Test that the lockdown console line names every obstructed window, however many there are
+     */
+    @Test
+    void lockdownLogsEveryObstructedWindow(){
+        HouseLayoutModel houseLayoutModel = new HouseLayoutModel();
+        List<Room> rooms = new ArrayList<>();
+        
+        for (int i = 0; i < 12; i++) {
+            Room room = Room.builder().id(i).name("Room " + i).build();
+            room.getWindows().add(Window.builder().id(0).direction(Direction.NORTH).state(WindowState.BLOCKED).build());
+            rooms.add(room);
+        }
+        
+        List<RoomRow> rows = new ArrayList<>();
+        rows.add(RoomRow.builder().id(0).rooms(rooms).build());
+        houseLayoutModel.setRows(rows);
+        
+        LockdownSummary lockdown = houseLayoutModel.lockDown();
+        String line = lockdown.toConsoleLine();
+        
+        assertEquals(12, lockdown.getObstructedWindows().size());
+        
+        for (int i = 0; i < 12; i++) {
+            assertTrue(line.contains("Room " + i + "'s N"));
+        }
+        
+        assertTrue(line.endsWith("Room 11's N)"));
+    }
+
     /**
      * Helper Method to instantiate AwayModeInput
      * @param awayState
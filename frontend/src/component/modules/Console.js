@@ -1,24 +1,32 @@
-import React, {useEffect, useState} from "react";
+import React, {useEffect, useRef, useState} from "react";
 import "../../style/Modules.css";
 import { Container } from "react-bootstrap";
 import OutputConsoleService from "../../service/OutputConsoleService";
 
+const PAGE_SIZE = 500;
+const MAX_LINES = 1000;
+
 export default function Console() {
 
     const consoleLinesRef = React.createRef();
+    const rawLines = useRef([]);
+    const lastSequence = useRef(0);
 
     const [lines, setLines] = useState([]);
 
     const getLines = async () => {
-        console.log("get lines")
-        const rawLines = (await OutputConsoleService.getLines()).data;
-        const componentLines = [];
+        let page;
 
-        for (let i = 0; i < rawLines.length; i++) {
-            componentLines.push(<p key={i}>{rawLines[i]}</p>);
-        }
+        do {
+            page = (await OutputConsoleService.getLinesAfter(lastSequence.current, PAGE_SIZE)).data;
+            rawLines.current = rawLines.current.concat(page.lines).slice(-MAX_LINES);
+
+            if (page.lines.length > 0) {
+                lastSequence.current = page.lines[page.lines.length - 1].sequence;
+            }
+        } while (page.lines.length === PAGE_SIZE);
 
-        setLines(componentLines);
+        setLines(rawLines.current.map(line => <p key={line.sequence}>{line.line}</p>));
     };
 
     useEffect( () => {
@@ -10,7 +10,22 @@ class OutputConsoleService {
     async getLines() {
         const path = "console/lines"
         return httpClient.get(path);
-    }     
+    }
+
+    async getLinesAfter(after, limit) {
+        const path = `console/lines?after=${after}&limit=${limit}`;
+        return httpClient.get(path);
+    }
+
+    async getEvents(after, limit, filter = {}) {
+        let path = `console/events?after=${after}&limit=${limit}`;
+        ["module", "severity", "rowId", "roomId", "zoneId"].forEach((key) => {
+            if (filter[key] != null && filter[key] !== "") {
+                path += `&${key}=${encodeURIComponent(filter[key])}`;
+            }
+        });
+        return httpClient.get(path);
+    }
 }
 
 export default new OutputConsoleService();
@@ -0,0 +1,31 @@
+class SimulationStreamService {
+
+    source;
+
+    open() {
+        if (this.source) {
+            return;
+        }
+
+        this.source = new EventSource("http://localhost:8080/stream");
+        this.source.addEventListener("temperatures", () => {
+            window.dispatchEvent(new CustomEvent("updateSelectedZone", { detail: true }));
+        });
+        this.source.addEventListener("console", () => {
+            window.dispatchEvent(new Event("updateConsole"));
+        });
+        this.source.addEventListener("lockdown", () => {
+            window.dispatchEvent(new Event("updateLayout"));
+        });
+    }
+
+    close() {
+        if (this.source) {
+            this.source.close();
+            this.source = null;
+        }
+    }
+
+}
+
+export default new SimulationStreamService();
@@ -2,6 +2,7 @@ import React, {useEffect, useRef, useState} from "react";
 import "../style/SimulationContextView.css";
 import {Container, Modal, Button, Col, Row} from "react-bootstrap";
 import SimulationContextService from "../service/SimulationContextService";
+import SimulationStreamService from "../service/SimulationStreamService";
 import HouseLayoutService from "../service/HouseLayoutService";
 import Select from "react-select";
 import ParametersService from "../service/ParametersService";
@@ -228,9 +229,6 @@ export default function SimulationContext() {
         setTime(dateTime.current.toISOString().substring(11, 19));
 
         await checkAwayModeHours();
-
-        await window.dispatchEvent(new CustomEvent("updateSelectedZone", { detail: true}));
-        await window.dispatchEvent(new Event("updateConsole"));
     };
 
     const checkAwayModeHours = async () => {
@@ -284,7 +282,10 @@ export default function SimulationContext() {
             setLoaded(true);
 
             simulatorTimeHandler.current = setInterval(async () => await simulatorTime(),1000 / timeSpeed);
+            SimulationStreamService.open();
         })();
+
+        return () => SimulationStreamService.close();
     }, []);
 
     return (